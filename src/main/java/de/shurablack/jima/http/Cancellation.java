@@ -0,0 +1,148 @@
+package de.shurablack.jima.http;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Cancellation state of a single request, linking the future returned to the caller with the stage currently
+ * doing the work: the token acquisition, the HTTP exchange or the timer of a retry.
+ *
+ * <p>The {@link RequestManager} cancels the request when the caller's future is cancelled (with
+ * {@link CompletableFuture#cancel(boolean)} or by completing it with a {@link CancellationException}) or when its
+ * deadline passes. This cancels the current stage, so a parked acquisition leaves the token queue and an exchange
+ * in flight is aborted. Stages started after the cancellation are cancelled right away.</p>
+ *
+ * <p><b>Promotion:</b></p>
+ * Callers coalesced onto a request may need it more urgently than the caller that started it. {@link #promote}
+ * raises the priority of the request: the current stage is promoted if it supports that, like a parked token
+ * acquisition, and later attempts use the raised priority via {@link #prioritize(RequestContext)}.
+ *
+ * <p><b>Thread Safety:</b></p>
+ * All methods are synchronized; stage hooks run outside of user code and only cancel or promote futures.
+ */
+final class Cancellation {
+
+    private boolean cancelled = false;
+
+    /** Cancels the current stage, or null if no stage is tracked. */
+    private Runnable stage;
+
+    /** Raises the priority of the current stage, or null if it has no priority. */
+    private Consumer<RequestPriority> stagePromotion;
+
+    /** Highest priority requested with {@link #promote(RequestPriority)}, or null if never promoted. */
+    private RequestPriority priority;
+
+    /**
+     * Tracks a future as the current stage, interrupting it on cancellation.
+     *
+     * @param future The stage
+     */
+    void track(Future<?> future) {
+        track(() -> future.cancel(true));
+    }
+
+    /**
+     * Tracks the current stage. If the request is already cancelled, the stage is cancelled right away.
+     *
+     * @param onCancel Cancels the stage
+     */
+    void track(Runnable onCancel) {
+        track(onCancel, null);
+    }
+
+    /**
+     * Tracks the current stage with a hook raising its priority. If the request was promoted already, the hook
+     * runs right away with the raised priority.
+     *
+     * @param onCancel Cancels the stage
+     * @param onPromote Raises the priority of the stage, or null if it has no priority
+     */
+    void track(Runnable onCancel, Consumer<RequestPriority> onPromote) {
+        boolean cancelNow;
+        RequestPriority promoted;
+        synchronized (this) {
+            cancelNow = cancelled;
+            promoted = priority;
+            if (!cancelled) {
+                stage = onCancel;
+                stagePromotion = onPromote;
+            }
+        }
+        if (cancelNow) {
+            onCancel.run();
+        } else if (onPromote != null && promoted != null) {
+            onPromote.accept(promoted);
+        }
+    }
+
+    /**
+     * Raises the priority of the request, unless it already has this priority or a higher one.
+     *
+     * @param priority The priority the request is needed with
+     */
+    void promote(RequestPriority priority) {
+        Consumer<RequestPriority> current;
+        synchronized (this) {
+            if (cancelled || (this.priority != null && this.priority.ordinal() <= priority.ordinal())) {
+                return;
+            }
+            this.priority = priority;
+            current = stagePromotion;
+        }
+        if (current != null) {
+            current.accept(priority);
+        }
+    }
+
+    /**
+     * Applies the priority raised with {@link #promote(RequestPriority)} to the context of a new attempt.
+     *
+     * @param context The context the request was sent with
+     * @return The context with the raised priority, or the given one if it has this priority or a higher one
+     */
+    synchronized RequestContext prioritize(RequestContext context) {
+        return priority != null && priority.ordinal() < context.getPriority().ordinal()
+                ? context.withPriority(priority)
+                : context;
+    }
+
+    /**
+     * Cancels the request and its current stage. Calls after the first have no effect.
+     */
+    void cancel() {
+        Runnable current;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            current = stage;
+            stage = null;
+            stagePromotion = null;
+        }
+        if (current != null) {
+            current.run();
+        }
+    }
+
+    /**
+     * Checks whether the request was cancelled.
+     *
+     * @return true if cancelled
+     */
+    synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Creates the exception completing the internal futures of a cancelled request.
+     *
+     * @return A new CancellationException
+     */
+    static CancellationException cancelled() {
+        return new CancellationException("Request cancelled");
+    }
+}
@@ -1,13 +1,13 @@
 package de.shurablack.jima.http;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
  * Represents the various API endpoints used in the system.
  * Each endpoint is defined with its corresponding path and scope.
+ * The path template is compiled once; requests are described with {@link #request()}.
  */
-@AllArgsConstructor
 @Getter
 public enum Endpoint {
 
@@ -141,4 +141,34 @@ public enum Endpoint {
      */
     private final String scope;
 
+    /**
+     * The compiled path template.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final PathTemplate template;
+
+    Endpoint(String path, String scope) {
+        this.path = path;
+        this.scope = scope;
+        this.template = PathTemplate.compile(path);
+    }
+
+    /**
+     * Starts describing a request to this endpoint.
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * RequestDescriptor request = Endpoint.ITEM_MARKET_HISTORY.request()
+     *     .path("hashed_item_id", itemId)
+     *     .query("tier", 0)
+     *     .query("type", "listings")
+     *     .build();
+     * </pre>
+     *
+     * @return A new descriptor builder for this endpoint
+     */
+    public RequestDescriptor.Builder request() {
+        return RequestDescriptor.builder(this);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,285 @@
+package de.shurablack.jima.http;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration of the executors used by the {@link RequestManager}.
+ *
+ * <p><b>Executors:</b></p>
+ * <ul>
+ *   <li><b>Client Executor:</b> Runs the internal tasks of the {@code HttpClient} (connection I/O hand-offs).
+ *       Default: 2 to 4 daemon threads named {@code JIMA-Http-n}</li>
+ *   <li><b>Decode Executor:</b> Reads and decodes response bodies and runs the response handling (token
+ *       updates, caching, retry decisions). Default: one daemon thread per core named {@code JIMA-Decode-n}</li>
+ *   <li><b>Callback Executor:</b> Completes the futures returned to callers, so code chained on them runs
+ *       neither on I/O nor on decode threads. Default: one daemon thread per core (at least 2) named
+ *       {@code JIMA-Callback-n}</li>
+ *   <li><b>Flow Executor:</b> Runs blocking caller flows submitted via {@link Requester#submit(java.util.function.Supplier)}.
+ *       Default: one virtual thread per flow on Java 21+, otherwise a growing pool of daemon threads. Both are
+ *       named {@code JIMA-Flow-n}</li>
+ * </ul>
+ *
+ * <p><b>Virtual Threads:</b></p>
+ * The library targets Java 11, so virtual threads are looked up reflectively at runtime. On Java 21+ the flow
+ * executor uses them, which also runs the request suppliers of a {@link RequestGroup}; blocking {@code join()}
+ * calls on their futures then park the virtual thread instead of holding a platform thread.
+ * See {@link #isVirtualThreadSupported()}.
+ *
+ * <p><b>Bounds:</b></p>
+ * The default decode and callback executors queue at most {@link #DEFAULT_QUEUE_CAPACITY} tasks, so no response
+ * is ever dropped:
+ * <ul>
+ *   <li><b>Decode:</b> once the queue is full, tasks run on overflow threads named {@code JIMA-Decode-Overflow-n}.
+ *       Decode tasks are submitted by the threads completing HTTP exchanges, which must never read a body
+ *       themselves: the read blocks, and a blocked client thread stalls the body delivery of every exchange</li>
+ *   <li><b>Callback:</b> once the queue is full, the submitting decode thread runs the task itself, which slows
+ *       down decoding instead of the I/O</li>
+ * </ul>
+ * Idle default threads time out, so executors replaced at runtime do not leak threads.
+ *
+ * <p><b>Example:</b></p>
+ * <pre>{@code
+ * RequestManager.setExecutorSettings(new ExecutorSettings()
+ *     .withDecodeExecutor(Executors.newFixedThreadPool(8))
+ *     .withCallbackExecutor(Runnable::run));   // complete callers directly on the decode thread
+ * }</pre>
+ *
+ * <p>Executors passed in are used as-is and never shut down by the {@link RequestManager}.</p>
+ *
+ * @see RequestManager#setExecutorSettings(ExecutorSettings)
+ */
+public class ExecutorSettings {
+
+    /** Maximum number of queued tasks of the default decode and callback executors. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /** Time after which idle threads of the default executors are released. */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private Executor clientExecutor;
+    private Executor decodeExecutor;
+    private Executor callbackExecutor;
+    private Executor flowExecutor;
+
+    /** Whether the runtime provides virtual threads, probed once. */
+    private static final boolean VIRTUAL_THREADS = newVirtualThreadFactory("JIMA-Probe") != null;
+
+    /**
+     * Sets the executor of the HTTP client.
+     *
+     * @param clientExecutor The executor for internal HTTP client tasks (null for the default)
+     * @return This ExecutorSettings for method chaining
+     */
+    public ExecutorSettings withClientExecutor(Executor clientExecutor) {
+        this.clientExecutor = clientExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the executor that decodes response bodies and handles responses.
+     *
+     * @param decodeExecutor The executor for decoding (null for the default)
+     * @return This ExecutorSettings for method chaining
+     */
+    public ExecutorSettings withDecodeExecutor(Executor decodeExecutor) {
+        this.decodeExecutor = decodeExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the executor that completes the futures returned to callers.
+     *
+     * @param callbackExecutor The executor for caller callbacks (null for the default)
+     * @return This ExecutorSettings for method chaining
+     */
+    public ExecutorSettings withCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the executor that runs blocking flows submitted via {@link Requester#submit(java.util.function.Supplier)}.
+     * It should create a thread per task (or grow on demand), since flows block while they wait for responses.
+     *
+     * @param flowExecutor The executor for blocking flows (null for the default)
+     * @return This ExecutorSettings for method chaining
+     */
+    public ExecutorSettings withFlowExecutor(Executor flowExecutor) {
+        this.flowExecutor = flowExecutor;
+        return this;
+    }
+
+    /**
+     * Gets the configured executor of the HTTP client.
+     *
+     * @return The client executor, or null if the default is used
+     */
+    public Executor getClientExecutor() {
+        return clientExecutor;
+    }
+
+    /**
+     * Gets the configured executor for decoding.
+     *
+     * @return The decode executor, or null if the default is used
+     */
+    public Executor getDecodeExecutor() {
+        return decodeExecutor;
+    }
+
+    /**
+     * Gets the configured executor for caller callbacks.
+     *
+     * @return The callback executor, or null if the default is used
+     */
+    public Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * Gets the configured executor for blocking flows.
+     *
+     * @return The flow executor, or null if the default is used
+     */
+    public Executor getFlowExecutor() {
+        return flowExecutor;
+    }
+
+    /**
+     * Checks whether the runtime provides virtual threads (Java 21+).
+     *
+     * @return true if the default flow executor uses virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREADS;
+    }
+
+    /**
+     * Creates the default executor of the HTTP client.
+     *
+     * @return A new executor with 2 to 4 daemon threads
+     */
+    static ExecutorService newDefaultClientExecutor() {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        return newPool("JIMA-Http", threads, Integer.MAX_VALUE, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Creates the default executor for decoding. Tasks that don't fit into its queue run on overflow threads,
+     * never on the submitting thread.
+     *
+     * @return A new bounded executor with one daemon thread per core
+     */
+    static ExecutorService newDefaultDecodeExecutor() {
+        Executor overflow = newGrowingExecutor("JIMA-Decode-Overflow");
+        return newPool("JIMA-Decode", Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, (task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Decode executor has been shut down");
+            }
+            overflow.execute(task);
+        });
+    }
+
+    /**
+     * Creates the default executor for caller callbacks.
+     *
+     * @return A new bounded executor with one daemon thread per core (at least 2)
+     */
+    static ExecutorService newDefaultCallbackExecutor() {
+        return newPool("JIMA-Callback", Math.max(2, Runtime.getRuntime().availableProcessors()), DEFAULT_QUEUE_CAPACITY,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Creates the default executor for blocking flows.
+     *
+     * @return An executor starting one virtual thread per task, or a growing pool of daemon threads before Java 21
+     */
+    static Executor newDefaultFlowExecutor() {
+        return newGrowingExecutor("JIMA-Flow");
+    }
+
+    /**
+     * Creates an executor with a thread per running task, for tasks that mostly wait.
+     *
+     * @param name The name prefix of the threads
+     * @return An executor starting one virtual thread per task, or a growing pool of daemon threads before Java 21
+     */
+    private static Executor newGrowingExecutor(String name) {
+        ThreadFactory factory = newThreadFactory(name);
+        if (VIRTUAL_THREADS) {
+            return task -> factory.newThread(task).start();
+        }
+
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
+    }
+
+    /**
+     * Creates a thread factory for threads that mostly wait, using virtual threads if the runtime supports them.
+     *
+     * @param name The name prefix of the threads
+     * @return A factory of virtual threads, or of platform daemon threads before Java 21
+     */
+    static ThreadFactory newThreadFactory(String name) {
+        ThreadFactory virtual = VIRTUAL_THREADS ? newVirtualThreadFactory(name) : null;
+        if (virtual != null) {
+            return virtual;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Looks up {@code Thread.ofVirtual().name(name + "-", 1).factory()} reflectively.
+     *
+     * @param name The name prefix of the threads
+     * @return The virtual thread factory, or null if virtual threads are not available
+     */
+    private static ThreadFactory newVirtualThreadFactory(String name) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Before Java 21, or a preview runtime without --enable-preview
+            return null;
+        }
+    }
+
+    private static ExecutorService newPool(String name, int threads, int queueCapacity, RejectedExecutionHandler rejection) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                queueCapacity == Integer.MAX_VALUE
+                        ? new LinkedBlockingQueue<>()
+                        : new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                rejection
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
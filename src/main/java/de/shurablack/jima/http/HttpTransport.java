@@ -0,0 +1,142 @@
+package de.shurablack.jima.http;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * HTTP client and executors used by one or more {@link RequestManager} instances.
+ *
+ * <p><b>Overview:</b></p>
+ * A transport bundles the {@code HttpClient} (and with it the connection pool) with the executors that
+ * decode responses, complete callers and run blocking flows, see {@link ExecutorSettings}. Instances built with
+ * {@link RequestManager#builder()} use the {@link #shared()} transport unless another one is configured,
+ * so several clients with separate tokens, caches and metrics still reuse the same connections and threads.
+ *
+ * <p><b>Example:</b></p>
+ * <pre>{@code
+ * HttpTransport transport = HttpTransport.create(new ExecutorSettings()
+ *     .withDecodeExecutor(Executors.newFixedThreadPool(8)));
+ *
+ * RequestManager tenantA = RequestManager.builder().withSettings(settings).withTokens(tokensA)
+ *     .withTransport(transport).build();
+ * RequestManager tenantB = RequestManager.builder().withSettings(settings).withTokens(tokensB)
+ *     .withTransport(transport).build();
+ * }</pre>
+ *
+ * @see ExecutorSettings
+ * @see RequestManager.Builder#withTransport(HttpTransport)
+ */
+public final class HttpTransport {
+
+    /** Default time the HTTP client waits for a connection to be established. */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    private final Executor decodeExecutor;
+    private final Executor callbackExecutor;
+    private final Executor flowExecutor;
+
+    private HttpTransport(HttpClient client, Executor decodeExecutor, Executor callbackExecutor, Executor flowExecutor) {
+        this.client = client;
+        this.decodeExecutor = decodeExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.flowExecutor = flowExecutor;
+    }
+
+    /**
+     * Creates a transport with its own HTTP client on the configured executors, connecting within
+     * {@link #DEFAULT_CONNECT_TIMEOUT}.
+     * Executors not set in the settings fall back to the bounded defaults of {@link ExecutorSettings}.
+     *
+     * @param settings The executor configuration
+     * @return The new transport
+     */
+    public static HttpTransport create(ExecutorSettings settings) {
+        return create(settings, DEFAULT_CONNECT_TIMEOUT);
+    }
+
+    /**
+     * Creates a transport with its own HTTP client on the configured executors.
+     * A connection not established within the connect timeout fails the attempt with an
+     * {@link java.net.http.HttpConnectTimeoutException}, which is retried like other I/O failures.
+     *
+     * @param settings The executor configuration
+     * @param connectTimeout Time to wait for a connection to be established
+     * @return The new transport
+     */
+    public static HttpTransport create(ExecutorSettings settings, Duration connectTimeout) {
+        Executor clientExecutor = settings.getClientExecutor() != null
+                ? settings.getClientExecutor()
+                : ExecutorSettings.newDefaultClientExecutor();
+        Executor decodeExecutor = settings.getDecodeExecutor() != null
+                ? settings.getDecodeExecutor()
+                : ExecutorSettings.newDefaultDecodeExecutor();
+        Executor callbackExecutor = settings.getCallbackExecutor() != null
+                ? settings.getCallbackExecutor()
+                : ExecutorSettings.newDefaultCallbackExecutor();
+        Executor flowExecutor = settings.getFlowExecutor() != null
+                ? settings.getFlowExecutor()
+                : ExecutorSettings.newDefaultFlowExecutor();
+
+        return new HttpTransport(
+                HttpClient.newBuilder().executor(clientExecutor).connectTimeout(connectTimeout).build(),
+                decodeExecutor,
+                callbackExecutor,
+                flowExecutor
+        );
+    }
+
+    /**
+     * Gets the transport shared by default, created with the default executors on first use.
+     *
+     * @return The shared transport
+     */
+    public static HttpTransport shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Gets the HTTP client.
+     *
+     * @return The HTTP client
+     */
+    HttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Gets the executor decoding response bodies.
+     *
+     * @return The decode executor
+     */
+    Executor getDecodeExecutor() {
+        return decodeExecutor;
+    }
+
+    /**
+     * Gets the executor completing the futures returned to callers.
+     *
+     * @return The callback executor
+     */
+    Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * Gets the executor running blocking caller flows.
+     *
+     * @return The flow executor
+     */
+    Executor getFlowExecutor() {
+        return flowExecutor;
+    }
+
+    /**
+     * Holder of the shared transport, initialized on first access.
+     */
+    private static class Shared {
+
+        private static final HttpTransport INSTANCE = create(new ExecutorSettings());
+    }
+}
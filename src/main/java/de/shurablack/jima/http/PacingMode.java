@@ -0,0 +1,23 @@
+package de.shurablack.jima.http;
+
+/**
+ * How a {@link RequestGroup} decides when to start its next request.
+ *
+ * @see RequestGroup#withPacing(PacingMode)
+ */
+public enum PacingMode {
+
+    /**
+     * Starts are spaced by the configured delays and batch waits. A group below its minimum token count
+     * checks again every few seconds and proceeds anyway after a minute. Default.
+     */
+    FIXED,
+
+    /**
+     * Starts are spaced to spend the group's share of the pool budget evenly until the tokens reset, see
+     * {@link de.shurablack.jima.util.TokenPool#getCapacity()}. An exhausted group resumes on the next token
+     * reset instead of polling, and waits without time limit. Configured delays and batch waits still apply as
+     * minimum spacing.
+     */
+    ADAPTIVE
+}
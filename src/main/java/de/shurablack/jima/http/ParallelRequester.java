@@ -1,5 +1,6 @@
 package de.shurablack.jima.http;
 
+import de.shurablack.jima.model.Paged;
 import de.shurablack.jima.model.auth.Authentication;
 import de.shurablack.jima.model.character.CharacterAction;
 import de.shurablack.jima.model.character.CharacterAlts;
@@ -17,9 +18,11 @@ import de.shurablack.jima.model.guild.conquest.GuildConquest;
 import de.shurablack.jima.model.guild.conquest.GuildConquestInspection;
 import de.shurablack.jima.model.guild.events.EnergizingPoolInfo;
 import de.shurablack.jima.model.guild.hall.GuildHallView;
+import de.shurablack.jima.model.item.Item;
 import de.shurablack.jima.model.item.ItemInspection;
 import de.shurablack.jima.model.item.Items;
 import de.shurablack.jima.model.item.market.MarketHistory;
+import de.shurablack.jima.model.pet.Listings;
 import de.shurablack.jima.model.shrine.ShrineInfo;
 import de.shurablack.jima.model.world.WorldLocations;
 import de.shurablack.jima.util.Token;
@@ -28,8 +31,12 @@ import de.shurablack.jima.util.types.LocationType;
 import de.shurablack.jima.util.types.MarketType;
 import de.shurablack.jima.util.types.MuseumCategory;
 
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * A utility class for making parallel requests to various API endpoints.
@@ -159,7 +166,11 @@ public class ParallelRequester {
      * @return A response containing item details.
      */
     public static CompletableFuture<Response<Items>> searchItems(ItemType type, int page) {
-        return RequestManager.getInstance().enqueueRequest(
+        return searchItems(RequestManager.getInstance(), type, page);
+    }
+
+    private static CompletableFuture<Response<Items>> searchItems(RequestManager manager, ItemType type, int page) {
+        return manager.enqueueRequest(
                 Endpoint.ITEMS,
                 null,
                 Map.of("type", type.name().toLowerCase(), "page", String.valueOf(page)),
@@ -198,6 +209,213 @@ public class ParallelRequester {
         );
     }
 
+    /**
+     * Searches for all items of a specific type by fanning out over all pages.
+     *
+     * <p><b>How It Works:</b></p>
+     * <ol>
+     *   <li>Requests page 1 to learn {@link Paged#getLastPage()}</li>
+     *   <li>Requests pages 2..N concurrently through the token pool</li>
+     *   <li>Merges the pages in page order and removes duplicates by {@link Item#getHashedId()}</li>
+     * </ol>
+     *
+     * <p>The combined result is returned in a stable order (page order, then position within the page).
+     * If a page fails, the response of the first page to fail is returned and the pages still pending are
+     * cancelled. Cancelling the returned future cancels them as well.</p>
+     *
+     * @param type The ItemType to search for
+     * @return A future completing with all items of the type. The pagination describes a single page.
+     */
+    public static CompletableFuture<Response<Items>> searchType(ItemType type) {
+        return searchType(RequestManager.getInstance(), type);
+    }
+
+    static CompletableFuture<Response<Items>> searchType(RequestManager manager, ItemType type) {
+        return fetchAllTypes(manager, List.of(type), ParallelRequester::toSinglePage);
+    }
+
+    /**
+     * Searches for all items of multiple types by fanning out over all pages of every type concurrently.
+     *
+     * <p>The result keeps the iteration order of the given set, then page order within each type.
+     * Items appearing in more than one type are only included once.</p>
+     *
+     * @param types The set of ItemTypes to search for
+     * @return A future completing with all items of the given types. The pagination describes a single page.
+     * @see #searchType(ItemType)
+     */
+    public static CompletableFuture<Response<Items>> searchTypes(Set<ItemType> types) {
+        return searchTypes(RequestManager.getInstance(), types);
+    }
+
+    static CompletableFuture<Response<Items>> searchTypes(RequestManager manager, Set<ItemType> types) {
+        return fetchAllTypes(manager, new ArrayList<>(types), ParallelRequester::toSinglePage);
+    }
+
+    /**
+     * Retrieves all items of the game by fanning out over every concrete item type concurrently.
+     *
+     * <p>{@link ItemType#ALL} is skipped since its pages overlap with every other type and would
+     * download the whole catalog a second time. Items are de-duplicated by their hashed ID and
+     * returned in the declaration order of {@link ItemType}, then page order.</p>
+     *
+     * <p><b>WARNING:</b> This still makes hundreds of requests and is bounded by the token pool's rate limit.</p>
+     *
+     * @return A future completing with the complete list of all items in the game
+     */
+    public static CompletableFuture<Response<List<Item>>> getAllItems() {
+        return getAllItems(RequestManager.getInstance());
+    }
+
+    static CompletableFuture<Response<List<Item>>> getAllItems(RequestManager manager) {
+        List<ItemType> types = Arrays.stream(ItemType.values())
+                .filter(type -> type != ItemType.ALL)
+                .collect(Collectors.toList());
+        return fetchAllTypes(manager, types, Function.identity());
+    }
+
+    /**
+     * Fetches all pages of every given type concurrently and merges them in the given type order.
+     *
+     * @param manager The manager sending the page requests
+     * @param types The item types to fetch
+     * @param finish Maps the distinct items to the result
+     * @param <R> The type of the result
+     * @return A future completing with the result, or the first failed response
+     */
+    private static <R> CompletableFuture<Response<R>> fetchAllTypes(RequestManager manager, List<ItemType> types, Function<List<Item>, R> finish) {
+        ItemFetch<R> fetch = new ItemFetch<>(manager, finish);
+        List<CompletableFuture<Response<List<Item>>>> futures = types.stream()
+                .map(fetch::allPages)
+                .collect(Collectors.toList());
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((v, ex) -> fetch.complete(futures, ex));
+        return fetch.result;
+    }
+
+    /**
+     * Merges completed item list responses in order, keeping the first occurrence of every hashed ID.
+     *
+     * @param responses The completed responses in the desired order
+     * @param items Gets the item list of a response
+     * @param <T> The type of the responses
+     * @return The merged response, or the first failed response
+     */
+    private static <T> Response<List<Item>> mergeDistinct(List<CompletableFuture<Response<T>>> responses, Function<T, List<Item>> items) {
+        Map<String, Item> distinct = new LinkedHashMap<>();
+        for (CompletableFuture<Response<T>> future : responses) {
+            Response<T> response = future.join();
+            if (!response.isSuccessful()) {
+                return failed(response);
+            }
+            items.apply(response.getData()).forEach(item -> distinct.putIfAbsent(item.getHashedId(), item));
+        }
+        return new Response<>(ResponseCode.SUCCESS, new ArrayList<>(distinct.values()), null);
+    }
+
+    private static <R> Response<R> failed(Response<?> response) {
+        return new Response<>(response.getResponseCode(), null, response.getError());
+    }
+
+    /**
+     * Wraps a complete item list into an {@link Items} object describing a single page.
+     *
+     * @param items The complete item list
+     * @return The Items object
+     */
+    private static Items toSinglePage(List<Item> items) {
+        Paged pagination = new Paged();
+        pagination.setCurrentPage(1);
+        pagination.setLastPage(1);
+        pagination.setTotal(items.size());
+        pagination.setPerPage(items.size());
+        pagination.setHasMore(false);
+        return new Items(items, pagination);
+    }
+
+    /**
+     * Page requests of one fan-out over item types, sharing a single result.
+     *
+     * <p>The first page that fails completes the result with its response. Once the result completes other than
+     * successfully, including by cancellation, every page request still pending is cancelled and no further
+     * pages are requested.</p>
+     *
+     * @param <R> The type of the result
+     */
+    private static final class ItemFetch<R> {
+
+        private final RequestManager manager;
+        private final Function<List<Item>, R> finish;
+        private final CompletableFuture<Response<R>> result = new CompletableFuture<>();
+        private final Queue<CompletableFuture<Response<Items>>> pending = new ConcurrentLinkedQueue<>();
+
+        private ItemFetch(RequestManager manager, Function<List<Item>, R> finish) {
+            this.manager = manager;
+            this.finish = finish;
+            result.whenComplete((response, ex) -> {
+                if (ex != null || !response.isSuccessful()) {
+                    pending.forEach(page -> page.cancel(true));
+                }
+            });
+        }
+
+        /**
+         * Fetches page 1 of an item type and then all remaining pages concurrently.
+         *
+         * @param type The item type to fetch
+         * @return A future completing with the distinct items of all pages, or the first failed response
+         */
+        private CompletableFuture<Response<List<Item>>> allPages(ItemType type) {
+            return page(type, 1).thenCompose(first -> {
+                if (!first.isSuccessful()) {
+                    return CompletableFuture.completedFuture(failed(first));
+                }
+
+                List<CompletableFuture<Response<Items>>> pages = new ArrayList<>();
+                pages.add(CompletableFuture.completedFuture(first));
+
+                int lastPage = first.getData().getPagination().getLastPage();
+                for (int page = 2; page <= lastPage; page++) {
+                    pages.add(page(type, page));
+                }
+
+                return CompletableFuture.allOf(pages.toArray(new CompletableFuture<?>[0]))
+                        .thenApply(v -> mergeDistinct(pages, Items::getItems));
+            });
+        }
+
+        private CompletableFuture<Response<Items>> page(ItemType type, int page) {
+            if (result.isDone()) {
+                return CompletableFuture.failedFuture(new CancellationException());
+            }
+
+            CompletableFuture<Response<Items>> future = searchItems(manager, type, page);
+            pending.add(future);
+            future.whenComplete((response, ex) -> {
+                pending.remove(future);
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                } else if (!response.isSuccessful()) {
+                    result.complete(failed(response));
+                }
+            });
+            // The result may have completed while the request was added, after the pending ones were cancelled
+            if (result.isDone()) {
+                future.cancel(true);
+            }
+            return future;
+        }
+
+        private void complete(List<CompletableFuture<Response<List<Item>>>> types, Throwable ex) {
+            if (ex != null) {
+                result.completeExceptionally(ex);
+            } else {
+                result.complete(mergeDistinct(types, Function.identity()).map(finish));
+            }
+        }
+    }
+
     /**
      * Inspects an item based on its hashed ID.
      * @param hashedItemId The hashed ID of the item.
@@ -414,6 +632,33 @@ public class ParallelRequester {
         );
     }
 
+    /**
+     * Retrieves companion exchange listings.
+     * @return A response containing companion exchange listing details.
+     */
+    public static CompletableFuture<Response<Listings>> getCompanionExchangeListings() {
+        return RequestManager.getInstance().enqueueRequest(
+                Endpoint.PET_EXCHANGE_LISTINGS,
+                null,
+                null,
+                Listings.class
+        );
+    }
+
+    /**
+     * Retrieves companion exchange listings for a specific page.
+     * @param page The page number to retrieve.
+     * @return A response containing companion exchange listing details.
+     */
+    public static CompletableFuture<Response<Listings>> getCompanionExchangeListings(int page) {
+        return RequestManager.getInstance().enqueueRequest(
+                Endpoint.PET_EXCHANGE_LISTINGS,
+                null,
+                Map.of("page", String.valueOf(page)),
+                Listings.class
+        );
+    }
+
     /**
      * Retrieves guild information based on its ID.
      * @param id The ID of the guild.
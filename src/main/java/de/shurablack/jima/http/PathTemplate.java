@@ -0,0 +1,103 @@
+package de.shurablack.jima.http;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Path template of an {@link Endpoint}, compiled once into literal segments and parameter names.
+ *
+ * <p>A template like {@code /character/{hashed_character_id}/metrics} is split into the literals
+ * {@code /character/} and {@code /metrics} around the parameter {@code hashed_character_id}. Expanding it
+ * appends literals and encoded values into a single pre-sized builder instead of running one
+ * {@code String.replace} per parameter.</p>
+ */
+final class PathTemplate {
+
+    /** Literal segments; always one more than there are parameters. */
+    private final String[] literals;
+
+    /** Parameter names in the order they appear in the template. */
+    private final String[] names;
+
+    /** Summed length of all literal segments. */
+    private final int literalLength;
+
+    private PathTemplate(String[] literals, String[] names) {
+        this.literals = literals;
+        this.names = names;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compiles a path template.
+     *
+     * @param template The template with parameters in curly braces
+     * @return The compiled template
+     * @throws IllegalArgumentException If a parameter is not closed
+     */
+    static PathTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        int start = 0;
+        int open;
+        while ((open = template.indexOf('{', start)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed parameter in path template: " + template);
+            }
+            literals.add(template.substring(start, open));
+            names.add(template.substring(open + 1, close));
+            start = close + 1;
+        }
+        literals.add(template.substring(start));
+
+        return new PathTemplate(literals.toArray(new String[0]), names.toArray(new String[0]));
+    }
+
+    /**
+     * Expands the template with URL-encoded parameter values.
+     *
+     * @param parameters Values of the path parameters (may be null if the template has none)
+     * @param out The builder the path is appended to
+     * @throws IllegalArgumentException If a parameter of the template has no value
+     */
+    void expand(Map<String, String> parameters, StringBuilder out) {
+        out.append(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            String value = parameters == null ? null : parameters.get(names[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing path parameter '" + names[i] + "'");
+            }
+            out.append(URLEncoder.encode(value, StandardCharsets.UTF_8)).append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Gets the length of the template without its parameters, used to pre-size builders.
+     *
+     * @return Summed length of the literal segments
+     */
+    int getLiteralLength() {
+        return literalLength;
+    }
+
+    /**
+     * Gets the names of the path parameters.
+     *
+     * @return Unmodifiable list of parameter names in template order
+     */
+    List<String> getParameterNames() {
+        List<String> list = new ArrayList<>(names.length);
+        Collections.addAll(list, names);
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,165 @@
+package de.shurablack.jima.http;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How a request competes with other requests for the token budget: its priority class, the flow it is
+ * queued in and the deadline by which it must have completed. Immutable; the {@code with} methods return a
+ * modified copy.
+ *
+ * <p><b>Flows:</b></p>
+ * Within a priority class, waiting requests are served per flow in weighted round robin, so a flow with
+ * thousands of queued requests can't hold back a flow with a few. Each {@link RequestGroup} is its own flow,
+ * keyed by its group ID; other requests share {@link #DEFAULT_FLOW} unless the caller sets a key, for example
+ * one per tenant. A flow with weight 2 receives twice the slots of a flow with weight 1 while both wait.
+ *
+ * <p><b>Deadlines:</b></p>
+ * A request with a deadline is only admitted if the estimated wait for a token ends before it, see
+ * {@link de.shurablack.jima.util.TokenPool#estimateWait(RequestPriority)}; otherwise it completes with
+ * {@link ResponseCode#SHED} without being sent. Once admitted, it completes with {@link ResponseCode#TIMEOUT}
+ * as soon as the deadline passes, whether it is still waiting for a token, connecting, reading or waiting for a
+ * retry, and its remaining work is cancelled. The deadline is absolute: a context created with
+ * {@link #withTimeout(Duration)} expires for every request it is used for. Requests without one get the
+ * deadline of their endpoint from the {@link TimeoutPolicy}, if it has one.
+ *
+ * @see RequestManager#withContext(RequestContext, java.util.function.Supplier)
+ * @see de.shurablack.jima.util.TokenPool
+ */
+public final class RequestContext {
+
+    /** Flow of requests enqueued without a flow key. */
+    public static final String DEFAULT_FLOW = "default";
+
+    /** Normal priority in the default flow with weight 1. */
+    public static final RequestContext DEFAULT = new RequestContext(RequestPriority.NORMAL, DEFAULT_FLOW, 1, false, 0);
+
+    private final RequestPriority priority;
+    private final String flow;
+    private final int weight;
+    private final boolean hasDeadline;
+
+    /** Deadline in {@link System#nanoTime()}, valid if {@link #hasDeadline}. */
+    private final long deadlineNanos;
+
+    private RequestContext(RequestPriority priority, String flow, int weight, boolean hasDeadline, long deadlineNanos) {
+        this.priority = priority;
+        this.flow = flow;
+        this.weight = weight;
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a context with the given priority in the default flow.
+     *
+     * @param priority The priority class
+     * @return The context
+     */
+    public static RequestContext of(RequestPriority priority) {
+        return DEFAULT.withPriority(priority);
+    }
+
+    /**
+     * Returns a copy with the given priority class.
+     *
+     * @param priority The priority class
+     * @return The modified copy
+     */
+    public RequestContext withPriority(RequestPriority priority) {
+        return new RequestContext(Objects.requireNonNull(priority, "priority"), flow, weight, hasDeadline, deadlineNanos);
+    }
+
+    /**
+     * Returns a copy queued in the given flow.
+     *
+     * @param flow The flow key, e.g. a tenant or caller ID
+     * @param weight The weight of the flow (must be &gt; 0)
+     * @return The modified copy
+     * @throws IllegalArgumentException if the weight is less than 1
+     */
+    public RequestContext withFlow(String flow, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Weight must be >= 1");
+        }
+        return new RequestContext(priority, Objects.requireNonNull(flow, "flow"), weight, hasDeadline, deadlineNanos);
+    }
+
+    /**
+     * Returns a copy whose requests must complete within the given time from now.
+     *
+     * @param timeout Time from now until the deadline
+     * @return The modified copy
+     */
+    public RequestContext withTimeout(Duration timeout) {
+        return new RequestContext(priority, flow, weight, true, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Returns a copy without deadline.
+     *
+     * @return The modified copy
+     */
+    public RequestContext withoutDeadline() {
+        return new RequestContext(priority, flow, weight, false, 0);
+    }
+
+    /**
+     * Gets the priority class.
+     *
+     * @return The priority class
+     */
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the flow key.
+     *
+     * @return The flow key
+     */
+    public String getFlow() {
+        return flow;
+    }
+
+    /**
+     * Gets the weight of the flow.
+     *
+     * @return The weight, at least 1
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Checks whether the requests have a deadline.
+     *
+     * @return true if a deadline is set
+     */
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    /**
+     * Gets the time left until the deadline.
+     *
+     * @return Nanoseconds until the deadline, negative once it passed, {@link Long#MAX_VALUE} without deadline
+     */
+    public long getRemainingNanos() {
+        return hasDeadline ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     *
+     * @return true if a deadline is set and has passed
+     */
+    public boolean isExpired() {
+        return hasDeadline && getRemainingNanos() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return priority + "/" + flow + "*" + weight + (hasDeadline ? " (" + getRemainingNanos() / 1_000_000 + " ms left)" : "");
+    }
+}
@@ -0,0 +1,209 @@
+package de.shurablack.jima.http;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable description of a request to an {@link Endpoint}.
+ *
+ * <p><b>Overview:</b></p>
+ * A descriptor is built once per request from the compiled path template of its endpoint. It carries the
+ * canonical request URL and a precomputed hash, and is used as the key for single-flight deduplication
+ * and background refreshes, while its URL keys the memory and disk cache tiers.
+ *
+ * <p><b>Canonical Encoding:</b></p>
+ * <ul>
+ *   <li>Path parameters are URL-encoded into the template of the endpoint</li>
+ *   <li>Query parameters are sorted by name and URL-encoded, so the same logical request always produces
+ *       the same URL, regardless of the iteration order of the map it was built from</li>
+ *   <li>Query parameters with a null value are omitted</li>
+ * </ul>
+ * This makes keys stable across JVM runs, which the persistent cache relies on.
+ *
+ * <p><b>Example:</b></p>
+ * <pre>
+ * RequestDescriptor request = Endpoint.ITEMS.request()
+ *     .query("query", "ore")
+ *     .query("page", 2)
+ *     .build();
+ * request.getUrl();   // https://api.idle-mmo.com/v1/item/search?page=2&amp;query=ore
+ * </pre>
+ *
+ * @see Endpoint#request()
+ */
+public final class RequestDescriptor {
+
+    private final Endpoint endpoint;
+    private final String url;
+    private final int hash;
+
+    private RequestDescriptor(Endpoint endpoint, String url) {
+        this.endpoint = endpoint;
+        this.url = url;
+        this.hash = 31 * url.hashCode() + endpoint.ordinal();
+    }
+
+    /**
+     * Creates a descriptor from path and query parameter maps.
+     *
+     * @param endpoint The endpoint to call
+     * @param pathParameters Values of the path parameters of the endpoint (may be null)
+     * @param queryParameters Query parameters in any order (may be null)
+     * @return The descriptor with its canonical URL
+     * @throws IllegalArgumentException If a path parameter of the endpoint has no value
+     */
+    public static RequestDescriptor of(Endpoint endpoint, Map<String, String> pathParameters, Map<String, String> queryParameters) {
+        Map<String, String> sorted = queryParameters == null || queryParameters.isEmpty()
+                ? null
+                : new TreeMap<>(queryParameters);
+        return new RequestDescriptor(endpoint, buildUrl(endpoint, pathParameters, sorted));
+    }
+
+    /**
+     * Creates a descriptor for an already built URL. The URL is used as-is and not canonicalized.
+     *
+     * @param endpoint The endpoint the URL belongs to
+     * @param url The full request URL
+     * @return The descriptor
+     */
+    static RequestDescriptor ofUrl(Endpoint endpoint, String url) {
+        return new RequestDescriptor(endpoint, url);
+    }
+
+    /**
+     * Starts building a descriptor for an endpoint.
+     *
+     * @param endpoint The endpoint to call
+     * @return A new builder
+     */
+    public static Builder builder(Endpoint endpoint) {
+        return new Builder(endpoint);
+    }
+
+    private static String buildUrl(Endpoint endpoint, Map<String, String> pathParameters, Map<String, String> sortedQuery) {
+        PathTemplate template = endpoint.getTemplate();
+        StringBuilder url = new StringBuilder(template.getLiteralLength() + 64);
+        template.expand(pathParameters, url);
+
+        if (sortedQuery != null) {
+            char separator = '?';
+            for (Map.Entry<String, String> entry : sortedQuery.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                url.append(separator)
+                        .append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8))
+                        .append('=')
+                        .append(URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return url.toString();
+    }
+
+    /**
+     * Gets the endpoint of this request.
+     *
+     * @return The endpoint
+     */
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Gets the canonical URL of this request, also used as cache key.
+     *
+     * @return The full request URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RequestDescriptor)) {
+            return false;
+        }
+        RequestDescriptor other = (RequestDescriptor) o;
+        return hash == other.hash && endpoint == other.endpoint && url.equals(other.url);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+
+    /**
+     * Builder of a {@link RequestDescriptor}.
+     */
+    public static final class Builder {
+
+        private final Endpoint endpoint;
+        private final Map<String, String> pathParameters = new HashMap<>(4);
+        private final Map<String, String> queryParameters = new TreeMap<>();
+
+        private Builder(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * Sets a path parameter of the endpoint template.
+         *
+         * @param name The parameter name without braces
+         * @param value The parameter value
+         * @return This Builder for method chaining
+         */
+        public Builder path(String name, String value) {
+            pathParameters.put(name, value);
+            return this;
+        }
+
+        /**
+         * Sets a query parameter. A null value removes the parameter.
+         *
+         * @param name The parameter name
+         * @param value The parameter value
+         * @return This Builder for method chaining
+         */
+        public Builder query(String name, String value) {
+            if (value == null) {
+                queryParameters.remove(name);
+            } else {
+                queryParameters.put(name, value);
+            }
+            return this;
+        }
+
+        /**
+         * Sets a numeric query parameter.
+         *
+         * @param name The parameter name
+         * @param value The parameter value
+         * @return This Builder for method chaining
+         */
+        public Builder query(String name, long value) {
+            return query(name, Long.toString(value));
+        }
+
+        /**
+         * Builds the descriptor.
+         *
+         * @return The descriptor with its canonical URL
+         * @throws IllegalArgumentException If a path parameter of the endpoint has no value
+         */
+        public RequestDescriptor build() {
+            return new RequestDescriptor(endpoint, buildUrl(endpoint, pathParameters, queryParameters.isEmpty() ? null : queryParameters));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package de.shurablack.jima.http;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CancellationException;
@@ -7,21 +8,27 @@ import java.util.function.Supplier;
 
 /**
  * Represents a group of requests to be executed with controlled delays and token thresholds.
- * Requests are processed sequentially or in batches with configurable delays and token management.
+ * Up to {@link #getMaxInFlight()} requests run at once; delays, batches and token thresholds pace their starts.
  *
  * <p><b>Features:</b></p>
  * <ul>
- *   <li>Sequential or batch-based execution with delays between requests</li>
+ *   <li>Pipelined execution with a configurable number of requests in flight</li>
+ *   <li>Paced starts with delays between requests</li>
  *   <li>Configurable batch size - execute N requests then wait</li>
  *   <li>Automatic stalling when token count drops below the minimum threshold</li>
  *   <li>Transparent resumption when tokens are restored</li>
  *   <li>Customizable waits between batches</li>
- *   <li>Preserves request order and returns results in order</li>
+ *   <li>Adaptive pacing from the live token budget, with a configurable share per group</li>
+ *   <li>Priority class for the group's requests while they wait for a token</li>
+ *   <li>Weighted fair share of the token slots against other groups and callers while they wait</li>
+ *   <li>Optional deadline per request, ending requests that take too long with {@link ResponseCode#TIMEOUT}</li>
+ *   <li>Starts requests in order and returns results in order</li>
  * </ul>
  *
      * <p><b>Example - Sequential with delays:</b></p>
      * <pre>{@code
      * RequestGroup group = new RequestGroup()
+     *     .withMaxInFlight(1)                     // One request at a time
      *     .withDelay(1000)
      *     .withMinTokensAllowed(15)
      *     .addRequest(() -> Requester.inspectItem("id1"))
@@ -43,12 +50,29 @@ import java.util.function.Supplier;
      * // This will execute: 10 requests, wait 5s, 10 requests, wait 5s, etc.
      * }
      * </pre>
+     *
+     * <p><b>Example - Adaptive pacing:</b></p>
+     * <pre>{@code
+     * RequestGroup group = new RequestGroup()
+     *     .withPacing(PacingMode.ADAPTIVE)        // Spread starts over the budget until the tokens reset
+     *     .withThroughputShare(0.5);              // Leave half of the budget to other traffic
+     * }
+     * </pre>
  */
 public class RequestGroup {
 
+    /** Default number of requests of a group in flight at once. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
     private final List<Supplier<CompletableFuture<?>>> requests = new ArrayList<>();
     private final List<CompletableFuture<?>> futures = Collections.synchronizedList(new ArrayList<>());
-    
+
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private PacingMode pacing = PacingMode.FIXED;
+    private double throughputShare = 1.0;
+    private RequestPriority priority = RequestPriority.NORMAL;
+    private int weight = 1;
+    private Duration timeout;
     private long delayMs = 0;
     private int minTokensAllowed = 0;
     private int batchSize = Integer.MAX_VALUE;  // Default: no batching (execute all as one batch)
@@ -57,7 +81,117 @@ public class RequestGroup {
     private volatile boolean cancelled = false;
 
     /**
-     * Sets the delay in milliseconds between each request in the group.
+     * Sets the maximum number of requests of this group in flight at once.
+     * The next request starts as soon as one completes and the pacing (delay, batch wait,
+     * minimum tokens) allows it. Use 1 to run the requests one after another.
+     *
+     * <p><b>Default:</b> {@value #DEFAULT_MAX_IN_FLIGHT}</p>
+     *
+     * @param maxInFlight Maximum concurrent requests (must be &gt; 0)
+     * @return This RequestGroup for method chaining
+     * @throws IllegalArgumentException if maxInFlight is less than 1
+     */
+    public RequestGroup withMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in flight must be >= 1");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Sets how the group decides when to start its next request.
+     *
+     * <p><b>Default:</b> {@link PacingMode#FIXED}</p>
+     *
+     * @param pacing The pacing mode
+     * @return This RequestGroup for method chaining
+     */
+    public RequestGroup withPacing(PacingMode pacing) {
+        this.pacing = Objects.requireNonNull(pacing, "pacing");
+        return this;
+    }
+
+    /**
+     * Sets the share of the pool's throughput this group targets with {@link PacingMode#ADAPTIVE} pacing.
+     * For example, 0.25 spends a quarter of the budget left until the tokens reset and leaves the rest to
+     * other groups and requests. Ignored with fixed pacing.
+     *
+     * <p><b>Default:</b> 1.0 (the whole budget)</p>
+     *
+     * @param share Share of the throughput (greater than 0, at most 1)
+     * @return This RequestGroup for method chaining
+     * @throws IllegalArgumentException if the share is not within (0, 1]
+     */
+    public RequestGroup withThroughputShare(double share) {
+        if (!(share > 0 && share <= 1)) {
+            throw new IllegalArgumentException("Throughput share must be > 0 and <= 1");
+        }
+        this.throughputShare = share;
+        return this;
+    }
+
+    /**
+     * Sets the priority class of the requests enqueued by this group's suppliers.
+     * For example, a crawler group tagged {@link RequestPriority#BACKGROUND} lets interactive requests
+     * take the slots of the next reset first.
+     *
+     * <p><b>Default:</b> {@link RequestPriority#NORMAL}</p>
+     *
+     * @param priority The priority class
+     * @return This RequestGroup for method chaining
+     * @see RequestManager#withPriority(RequestPriority, Supplier)
+     */
+    public RequestGroup withPriority(RequestPriority priority) {
+        this.priority = Objects.requireNonNull(priority, "priority");
+        return this;
+    }
+
+    /**
+     * Sets the weight of the group against other groups and callers of the same priority while their requests
+     * wait for a token. Waiting requests are served per flow in weighted round robin, so a group with weight 2
+     * receives twice the slots of a group with weight 1, no matter how many requests either has queued.
+     * The group ID is the flow key; groups with the same ID share one flow.
+     *
+     * <p><b>Default:</b> 1</p>
+     *
+     * @param weight The weight (must be &gt; 0)
+     * @return This RequestGroup for method chaining
+     * @throws IllegalArgumentException if weight is less than 1
+     * @see RequestContext
+     */
+    public RequestGroup withWeight(int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Weight must be >= 1");
+        }
+        this.weight = weight;
+        return this;
+    }
+
+    /**
+     * Sets the deadline of each request of the group, counted from the start of the request. The requests a
+     * supplier enqueues through the {@link RequestManager} complete with {@link ResponseCode#TIMEOUT} once the
+     * deadline passes and their work is cancelled, so blocking suppliers like those of
+     * {@link #addResponseRequest(Supplier)} return in time as well. Futures a supplier creates by other means are
+     * not bounded.
+     *
+     * <p><b>Default:</b> none, the deadlines of the {@link TimeoutPolicy} apply</p>
+     *
+     * @param timeout Time from the start of a request to its response (must be positive), or null for none
+     * @return This RequestGroup for method chaining
+     * @throws IllegalArgumentException if the timeout is not positive
+     * @see RequestManager#withTimeout(Duration, Supplier)
+     */
+    public RequestGroup withTimeout(Duration timeout) {
+        if (timeout != null && (timeout.isZero() || timeout.isNegative())) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Sets the delay in milliseconds between the starts of two requests in the group.
      *
      * @param delayMs Delay in milliseconds (0 = no delay)
      * @return This RequestGroup for method chaining
@@ -81,9 +215,9 @@ public class RequestGroup {
 
     /**
      * Sets the batch size for grouped execution.
-     * When set, requests are executed in batches of this size with a wait between batches.
-     * For example, if batchSize=10, the group will execute 10 requests, then wait (if configured),
-     * then execute the next 10 requests, and so on.
+     * When set, requests are started in batches of this size with a wait between batches.
+     * For example, if batchSize=10, the group will start 10 requests, then wait (if configured),
+     * then start the next 10 requests, and so on.
      *
      * <p><b>Default:</b> Integer.MAX_VALUE (no batching - all requests are one batch)</p>
      *
@@ -101,7 +235,7 @@ public class RequestGroup {
 
     /**
      * Sets the wait time in milliseconds between batch executions.
-     * After executing a batch of requests, the processor will wait this duration
+     * After the last request of a batch was started, the processor will wait this duration
      * before starting the next batch.
      *
      * <p><b>Only applicable when batch size is set.</b></p>
@@ -193,6 +327,60 @@ public class RequestGroup {
         return requests.size();
     }
 
+    /**
+     * Gets the maximum number of requests in flight at once.
+     *
+     * @return Maximum concurrent requests
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Gets the pacing mode.
+     *
+     * @return The pacing mode
+     */
+    public PacingMode getPacing() {
+        return pacing;
+    }
+
+    /**
+     * Gets the share of the pool's throughput targeted with adaptive pacing.
+     *
+     * @return Share between 0 (exclusive) and 1
+     */
+    public double getThroughputShare() {
+        return throughputShare;
+    }
+
+    /**
+     * Gets the priority class of the group's requests.
+     *
+     * @return The priority class
+     */
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the weight of the group while its requests wait for a token.
+     *
+     * @return The weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the deadline of each request, counted from its start.
+     *
+     * @return The timeout, or null if the requests have no deadline of the group
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
     /**
      * Gets the delay between requests in milliseconds.
      *
@@ -256,6 +444,21 @@ public class RequestGroup {
         return new ArrayList<>(futures);
     }
 
+    /**
+     * Creates the result future of every request, in request order, and registers them for tracking.
+     * Called once when the group is enqueued, so callers get all futures right away.
+     *
+     * @return The result futures
+     */
+    protected List<CompletableFuture<Object>> open() {
+        List<CompletableFuture<Object>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        futures.addAll(results);
+        return results;
+    }
+
     /**
      * Registers a future for tracking.
      *
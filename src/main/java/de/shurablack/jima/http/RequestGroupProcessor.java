@@ -0,0 +1,478 @@
+package de.shurablack.jima.http;
+
+import de.shurablack.jima.util.TokenPool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executes {@link RequestGroup}s with several requests in flight per group and any number of groups at once.
+ *
+ * <p><b>Pacing:</b></p>
+ * Each group is driven by a small state machine that starts requests as long as fewer than
+ * {@link RequestGroup#getMaxInFlight()} are running. The group settings only decide when the next request
+ * may start, so nothing waits for a response unless the in-flight limit is reached:
+ * <ul>
+ *   <li><b>delayMs:</b> minimum time between the starts of two requests of the same batch</li>
+ *   <li><b>batchSize / waitMsBetweenBatches:</b> the first request of a batch starts this long after the last
+ *       request of the previous batch was started</li>
+ *   <li><b>minTokensAllowed:</b> no request starts while the pool has fewer remaining requests; rechecked every
+ *       {@link #TOKEN_RECHECK_MS} ms and given up after {@link #MAX_TOKEN_WAIT_MS} ms, as before</li>
+ * </ul>
+ *
+ * <p><b>Adaptive Pacing:</b></p>
+ * With {@link PacingMode#ADAPTIVE} the spacing of starts follows the live budget of the {@link TokenPool}: the
+ * group targets {@link RequestGroup#getThroughputShare()} of {@link TokenPool.Capacity#getRatePerSecond()}, so the
+ * requests left until the tokens reset are spread evenly instead of being burst or under-used. The rate is
+ * recomputed before every start. Without budget, or below the minimum token count, the group waits for
+ * {@link TokenPool#awaitReset()} and resumes as soon as a reset or a response returns budget. A timer at the next
+ * pending reset backs the wait up. Unlike fixed pacing, the wait has no time limit: starting without budget would
+ * only park the request in the token queue, so the group waits until budget returns or it is cancelled. Delays and
+ * batch waits still apply as minimum spacing.
+ *
+ * <p><b>Threading:</b></p>
+ * No thread is parked per group. Waits are timers on the scheduler and the state machine advances whenever a
+ * timer fires or a request completes. Request suppliers run on the flow executor, since
+ * {@link RequestGroup#addResponseRequest(Supplier)} wraps blocking calls, tagged with the group's
+ * {@link RequestGroup#getPriority() priority} and queued in the group's own flow with its
+ * {@link RequestGroup#getWeight() weight}, so groups share the freed token slots fairly (see {@link RequestContext}).
+ */
+class RequestGroupProcessor {
+
+    private static final Logger LOGGER = LogManager.getLogger(RequestGroupProcessor.class);
+
+    /** Interval in which a group stalled on the minimum token count checks again. */
+    static final long TOKEN_RECHECK_MS = 5000;
+
+    /** Maximum stall on the minimum token count before the next request is started anyway, with fixed pacing. */
+    static final long MAX_TOKEN_WAIT_MS = 60000;
+
+    /** Scheduler for the pacing timers. */
+    private final ScheduledExecutorService scheduler;
+
+    /** Executor the request suppliers run on, looked up per request as it may be replaced at runtime. */
+    private final Supplier<Executor> executor;
+
+    /** Token pool whose budget paces the groups. */
+    private final TokenPool tokenPool;
+
+    /** Groups started and not yet finished. */
+    private final Set<Run> active = ConcurrentHashMap.newKeySet();
+
+    /** Flag set on shutdown; no further request is started afterwards. */
+    private volatile boolean stopped = false;
+
+    /**
+     * Creates a processor.
+     *
+     * @param scheduler Scheduler for the pacing timers
+     * @param executor Executor the request suppliers run on
+     * @param tokenPool Token pool whose budget paces the groups
+     */
+    RequestGroupProcessor(ScheduledExecutorService scheduler, Supplier<Executor> executor, TokenPool tokenPool) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.tokenPool = tokenPool;
+    }
+
+    /**
+     * Starts executing a group whose result futures were created with {@link RequestGroup#open()}.
+     * Returns right away; the first requests are started on the calling thread.
+     *
+     * @param group The group to execute
+     * @param results The result futures of the group, one per request in order
+     */
+    void start(RequestGroup group, List<CompletableFuture<Object>> results) {
+        Run run = new Run(group, results);
+        active.add(run);
+        if (stopped) {
+            run.finish();
+            return;
+        }
+        LOGGER.debug("Processing request group '{}' with up to {} requests in flight",
+                group.getGroupId(), group.getMaxInFlight());
+        run.advance();
+    }
+
+    /**
+     * Gets the number of groups currently executing.
+     *
+     * @return Number of active groups
+     */
+    int getActiveGroups() {
+        return active.size();
+    }
+
+    /**
+     * Stops all groups. Requests not yet started are completed with a {@link CancellationException},
+     * requests in flight complete as usual.
+     */
+    void shutdown() {
+        stopped = true;
+        for (Run run : active) {
+            run.finish();
+        }
+        LOGGER.info("RequestGroup processor stopped");
+    }
+
+    /**
+     * Execution state of a single group. All state is guarded by the instance monitor, which is only
+     * held while deciding what to start next and never while waiting.
+     */
+    private final class Run {
+
+        private final RequestGroup group;
+        private final List<Supplier<CompletableFuture<?>>> requests;
+        private final List<CompletableFuture<Object>> results;
+
+        /** Priority and flow the requests of the group are enqueued with. */
+        private final RequestContext context;
+
+        /** Index of the next request to start. */
+        private int next = 0;
+
+        /** Requests started and not yet completed. */
+        private int inFlight = 0;
+
+        /** Requests completed, successfully or not. */
+        private int completed = 0;
+
+        /** Earliest start of the next request in {@link System#nanoTime()}. */
+        private long notBefore = 0;
+
+        /** Start of the latest request in {@link System#nanoTime()}, valid once a request was started. */
+        private long lastStart = 0;
+
+        /** Pending wait for budget to return, if any. Cancelled when the group finishes. */
+        private CompletableFuture<Void> resetWaiter;
+
+        /** Start of the current stall on the minimum token count or budget, or -1 if not stalled. */
+        private long stalledSince = -1;
+
+        /** Pending pacing timer, if any. */
+        private ScheduledFuture<?> timer;
+
+        private boolean finished = false;
+
+        /** Set while {@link #advance()} runs, so a request completing on the same thread does not recurse. */
+        private boolean advancing = false;
+
+        /** Set by a nested {@link #advance()} call, asking the running one for another pass. */
+        private boolean again = false;
+
+        private Run(RequestGroup group, List<CompletableFuture<Object>> results) {
+            this.group = group;
+            this.requests = group.getRequests();
+            this.results = results;
+            this.context = RequestContext.of(group.getPriority()).withFlow(group.getGroupId(), group.getWeight());
+        }
+
+        /**
+         * Starts as many requests as the in-flight limit and the pacing allow, then arms a timer for the
+         * next start if one is pending.
+         */
+        private synchronized void advance() {
+            if (advancing) {
+                again = true;
+                return;
+            }
+            advancing = true;
+            try {
+                do {
+                    again = false;
+                    step();
+                } while (again && !finished);
+            } finally {
+                advancing = false;
+            }
+        }
+
+        /**
+         * Single pass of {@link #advance()}.
+         */
+        private void step() {
+            if (finished) {
+                return;
+            }
+            if (stopped || group.isCancelled()) {
+                if (group.isCancelled()) {
+                    LOGGER.warn("Request group '{}' cancelled, stopping processing", group.getGroupId());
+                }
+                finish();
+                return;
+            }
+
+            while (next < requests.size() && inFlight < group.getMaxInFlight()) {
+                long now = System.nanoTime();
+                if (now < notBefore) {
+                    schedule(notBefore - now);
+                    return;
+                }
+                boolean mayStart = group.getPacing() == PacingMode.ADAPTIVE
+                        ? budgetAvailable(now)
+                        : tokensAvailable(now);
+                if (!mayStart) {
+                    return;
+                }
+                startNext(now);
+            }
+
+            if (completed == requests.size()) {
+                LOGGER.info("Request group '{}' processing completed", group.getGroupId());
+                finish();
+            }
+        }
+
+        /**
+         * Checks the minimum token count, arming a recheck timer while stalled.
+         *
+         * @param now Current {@link System#nanoTime()}
+         * @return true if the next request may start
+         */
+        private boolean tokensAvailable(long now) {
+            int minTokens = group.getMinTokensAllowed();
+            if (minTokens <= 0) {
+                return true;
+            }
+
+            int estimatedTokens = tokenPool.getMinRemainingTokens();
+            if (estimatedTokens >= minTokens) {
+                if (stalledSince >= 0) {
+                    LOGGER.info("Token availability restored for group '{}' ({}>={})",
+                            group.getGroupId(), estimatedTokens, minTokens);
+                    stalledSince = -1;
+                }
+                return true;
+            }
+
+            if (stalledSince < 0) {
+                stalledSince = now;
+            }
+            long stalledMs = TimeUnit.NANOSECONDS.toMillis(now - stalledSince);
+            if (stalledMs >= MAX_TOKEN_WAIT_MS) {
+                LOGGER.error("Token wait timeout for group '{}' after {}ms. Proceeding anyway.",
+                        group.getGroupId(), MAX_TOKEN_WAIT_MS);
+                stalledSince = -1;
+                return true;
+            }
+
+            LOGGER.warn("Stalling group '{}': tokens {} < minimum {}. Will retry in {} ms...",
+                    group.getGroupId(), estimatedTokens, minTokens, TOKEN_RECHECK_MS);
+            schedule(TimeUnit.MILLISECONDS.toNanos(Math.min(TOKEN_RECHECK_MS, MAX_TOKEN_WAIT_MS - stalledMs)));
+            return false;
+        }
+
+        /**
+         * Checks the budget for adaptive pacing, arming a timer for the next start or a callback on the next
+         * token reset if the request may not start yet.
+         *
+         * @param now Current {@link System#nanoTime()}
+         * @return true if the next request may start
+         */
+        private boolean budgetAvailable(long now) {
+            TokenPool.Capacity capacity = tokenPool.getCapacity();
+            int minTokens = group.getMinTokensAllowed();
+            if (capacity.getAvailable() <= 0 || (minTokens > 0 && tokenPool.getMinRemainingTokens() < minTokens)) {
+                budgetStalled(now, capacity);
+                return false;
+            }
+            if (stalledSince >= 0) {
+                LOGGER.info("Budget restored for group '{}'", group.getGroupId());
+                stalledSince = -1;
+            }
+            if (next == 0) {
+                return true;
+            }
+
+            double rate = capacity.getRatePerSecond() * group.getThroughputShare();
+            long interval = Math.min(
+                    (long) (TimeUnit.SECONDS.toNanos(1) / rate),
+                    TimeUnit.SECONDS.toNanos(TokenPool.DEFAULT_WINDOW_SECONDS)
+            );
+            long due = lastStart + interval;
+            if (now < due) {
+                // A reset raises the rate, so re-evaluate then instead of waiting out an interval computed before
+                schedule(due - now);
+                awaitReset();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Waits for budget to return, arming a callback on the token pool and a timer at the next pending reset.
+         * Without a pending reset the timer rechecks every {@link #TOKEN_RECHECK_MS} ms. The wait has no time
+         * limit, so a minimum token count above the token limits stalls the group until it is cancelled.
+         *
+         * @param now Current {@link System#nanoTime()}
+         * @param capacity The capacity the stall was detected with
+         */
+        private void budgetStalled(long now, TokenPool.Capacity capacity) {
+            long waitMs = TOKEN_RECHECK_MS;
+            if (capacity.getNextResetAt() > 0) {
+                long untilReset = capacity.getNextResetAt() * 1000 - System.currentTimeMillis() + TokenPool.RESET_INTERVAL_MS;
+                waitMs = Math.max(TokenPool.RESET_INTERVAL_MS, untilReset);
+            }
+            if (stalledSince < 0) {
+                stalledSince = now;
+                LOGGER.warn("Group '{}' out of budget, waiting for budget to return (next check in {} ms)",
+                        group.getGroupId(), waitMs);
+            } else {
+                LOGGER.debug("Group '{}' still out of budget, next check in {} ms", group.getGroupId(), waitMs);
+            }
+            schedule(TimeUnit.MILLISECONDS.toNanos(waitMs));
+            awaitReset();
+        }
+
+        /**
+         * Registers a callback continuing the group when budget may have returned, unless one is registered
+         * already.
+         */
+        private void awaitReset() {
+            if (resetWaiter != null) {
+                return;
+            }
+            CompletableFuture<Void> waiter = tokenPool.awaitReset();
+            resetWaiter = waiter;
+            waiter.thenRun(() -> {
+                synchronized (this) {
+                    if (resetWaiter == waiter) {
+                        resetWaiter = null;
+                    }
+                }
+                advance();
+            });
+        }
+
+        /**
+         * Starts the next request and sets the earliest start of the one after it.
+         *
+         * @param now Current {@link System#nanoTime()}
+         */
+        private void startNext(long now) {
+            int index = next++;
+            int batchSize = group.getBatchSize();
+
+            if (index % batchSize == 0 && requests.size() > batchSize) {
+                LOGGER.info("Processing batch {} of {} in group '{}' (requests {}-{})",
+                        index / batchSize + 1, (requests.size() + batchSize - 1) / batchSize, group.getGroupId(),
+                        index + 1, Math.min(index + batchSize, requests.size()));
+            }
+            LOGGER.debug("Executing request {} of {} in group '{}'", index + 1, requests.size(), group.getGroupId());
+
+            boolean lastOfBatch = (index + 1) % batchSize == 0;
+            long pause = lastOfBatch ? group.getWaitMsBetweenBatches() : group.getDelayMs();
+            notBefore = now + TimeUnit.MILLISECONDS.toNanos(pause);
+            lastStart = now;
+
+            inFlight++;
+            Supplier<CompletableFuture<?>> request = requests.get(index);
+            Duration timeout = group.getTimeout();
+            RequestContext requestContext = timeout == null ? context : context.withTimeout(timeout);
+            try {
+                CompletableFuture.supplyAsync(() -> RequestManager.withContext(requestContext, request), executor.get())
+                        .thenCompose(future -> {
+                            cancelWithResult(index, future);
+                            return future.thenApply(value -> (Object) value);
+                        })
+                        .whenComplete((value, error) -> onComplete(index, value, error));
+            } catch (RejectedExecutionException e) {
+                onComplete(index, null, e);
+            }
+        }
+
+        /**
+         * Cancels the future of a started request when its result is cancelled, e.g. by
+         * {@link RequestGroup#cancel()}, so it leaves the token queue or is aborted in flight. Suppliers that
+         * block until their response, like those of {@link RequestGroup#addResponseRequest}, have already
+         * finished when their future is returned and are not affected.
+         *
+         * @param index Index of the request
+         * @param future The future returned by the request's supplier
+         */
+        private void cancelWithResult(int index, CompletableFuture<?> future) {
+            results.get(index).whenComplete((value, error) -> {
+                if (error instanceof CancellationException) {
+                    future.cancel(true);
+                }
+            });
+        }
+
+        /**
+         * Completes the result of a request and continues with the group.
+         *
+         * @param index Index of the request
+         * @param value The result, if successful
+         * @param error The failure, if any
+         */
+        private void onComplete(int index, Object value, Throwable error) {
+            // Advance first, so the group is finished once its last result is visible to callers
+            synchronized (this) {
+                inFlight--;
+                completed++;
+            }
+            advance();
+
+            if (error == null) {
+                results.get(index).complete(value);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                LOGGER.error("Error executing request {} in group '{}': {}",
+                        index + 1, group.getGroupId(), cause.getMessage());
+                results.get(index).completeExceptionally(cause);
+            }
+        }
+
+        /**
+         * Arms a timer continuing the group, replacing a pending one.
+         *
+         * @param delayNanos Delay in nanoseconds
+         */
+        private void schedule(long delayNanos) {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            try {
+                timer = scheduler.schedule(this::advance, delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // Scheduler stopped, the processor is shutting down as well
+                finish();
+            }
+        }
+
+        /**
+         * Ends the group: stops its timer and budget wait and fails the requests that were never started.
+         */
+        private synchronized void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            active.remove(this);
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (resetWaiter != null) {
+                resetWaiter.cancel(false);
+            }
+            for (int i = next; i < results.size(); i++) {
+                results.get(i).completeExceptionally(new CancellationException("Request group '" + group.getGroupId() + "' stopped"));
+            }
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package de.shurablack.jima.http;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import de.shurablack.jima.http.cache.CachedResponse;
+import de.shurablack.jima.http.cache.DiskResponseStore;
+import de.shurablack.jima.http.cache.EndpointCache;
+import de.shurablack.jima.http.cache.EndpointCacheSettings;
+import de.shurablack.jima.http.cache.RefreshPolicy;
+import de.shurablack.jima.http.cache.Validators;
+import de.shurablack.jima.http.retry.RetryPolicy;
 import de.shurablack.jima.http.serialization.ApiObjectMapper;
+import de.shurablack.jima.http.serialization.DecodedBody;
+import de.shurablack.jima.http.serialization.DecodingBodyHandler;
 import de.shurablack.jima.model.EndpointUpdate;
 import de.shurablack.jima.model.auth.Authentication;
 import de.shurablack.jima.util.AppSettings;
+import de.shurablack.jima.util.RateLimitMode;
+import de.shurablack.jima.util.StartupMode;
 import de.shurablack.jima.util.Token;
 import de.shurablack.jima.util.TokenPool;
 import lombok.Getter;
@@ -15,24 +24,34 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
- * Singleton class responsible for managing all HTTP requests with rate-limiting and queuing.
+ * Class responsible for managing all HTTP requests with rate-limiting and queuing.
  *
  * <p><b>Overview:</b></p>
  * RequestManager is the central hub for all API communication in JIMA. It handles:
@@ -59,6 +78,12 @@ import java.util.stream.Collectors;
  *   <li><b>Shutdown Handling:</b> Gracefully handles application shutdown with request cancellation</li>
  * </ul>
  *
+ * <p><b>Instances:</b></p>
+ * The static facades ({@link Requester}, {@link ParallelRequester}) and the static configuration methods of
+ * this class use the default instance from {@link #getInstance()}, created from the {@link AppSettings} files.
+ * Further instances with their own tokens, caches and metrics are created with {@link #builder()}; they share
+ * the HTTP connection pool and executors through an {@link HttpTransport}.
+ *
  * <p><b>Request Flow:</b></p>
  * <ol>
  *   <li>Request enters via {@link #enqueueRequest(Endpoint, Map, Map, Class)} or related methods</li>
@@ -83,12 +108,14 @@ import java.util.stream.Collectors;
  *   <li>Uses ConcurrentHashMap for in-flight requests tracking</li>
  *   <li>TokenPool is thread-safe internally</li>
  *   <li>ExecutorServices handle concurrent request processing</li>
+ *   <li>Response bodies are decoded on a dedicated executor and callers are completed on another one,
+ *       see {@link ExecutorSettings}</li>
  *   <li>All shared state is either immutable or protected by concurrent collections</li>
  * </ul>
  *
  * <p><b>Example Usage:</b></p>
  * <pre>
- * // Get singleton instance (initialized automatically)
+ * // Get the default instance (initialized automatically, tokens authenticate in the background)
  * RequestManager manager = RequestManager.getInstance();
  *
  * // Enqueue a simple request
@@ -123,17 +150,14 @@ public class RequestManager {
     /** Logger for RequestManager operations and diagnostics. */
     private static final Logger LOGGER = LogManager.getLogger(RequestManager.class);
 
-    /** Singleton instance of RequestManager. */
-    private static final RequestManager INSTANCE = new RequestManager();
-
     /** Pool of tokens for automatic rotation and rate-limit management. */
     private final TokenPool tokenPool;
 
     /** Flag indicating if application is shutting down. Uses volatile for visibility across threads. */
     private volatile boolean shuttingDown = false;
 
-    /** Queue for incoming RequestGroup objects awaiting batch processing. */
-    private final BlockingQueue<RequestGroup> groupQueue = new LinkedBlockingQueue<>();
+    /** Context of the requests enqueued on a thread, see {@link #withContext(RequestContext, Supplier)}. */
+    private static final ThreadLocal<RequestContext> CALLER_CONTEXT = new ThreadLocal<>();
 
     /** Header name for rate limit remaining requests. */
     private static final String X_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
@@ -141,11 +165,56 @@ public class RequestManager {
     /** Header name for rate limit reset time. */
     private static final String X_RATE_LIMIT_RESET = "X-RateLimit-Reset";
 
-    /** HTTP client for making requests (thread-safe, reusable connection pool). */
-    private final HttpClient client = HttpClient.newHttpClient();
+    /** Settings of this instance (User-Agent, usage limit, rate limit and startup mode). */
+    private final AppSettings.Settings settings;
+
+    /** Keys of the tokens authenticated at startup. */
+    private final List<String> tokenKeys;
+
+    /** User-Agent header value, built once from the settings. */
+    private final String userAgent;
+
+    /** How token budgets are kept in line with the server rate limit, read from the settings at startup. */
+    private final RateLimitMode rateLimitMode;
+
+    /**
+     * HTTP client for making requests (thread-safe, reusable connection pool).
+     * Volatile so it can be rebuilt on a new executor while requests of the previous client complete.
+     */
+    private volatile HttpClient client;
+
+    /** Executor reading and decoding response bodies, keeping that work off the HTTP client threads. */
+    private volatile Executor decodeExecutor;
+
+    /** Executor completing the futures returned to callers. */
+    private volatile Executor callbackExecutor;
+
+    /** Executor running blocking caller flows, see {@link #submit(Supplier)}. */
+    private volatile Executor flowExecutor;
+
+    /** Base URL requests are sent to instead of {@link Endpoint#BASE_URL}, or null to use the API. */
+    private final String baseUrl;
+
+    /**
+     * Cache for endpoint responses with per-entry expiration. Null if caching not enabled.
+     * Volatile so the cache can be swapped at runtime while requests are in flight.
+     */
+    private volatile EndpointCache endpointCache;
+
+    /**
+     * Persistent tier below the endpoint cache storing raw response bodies on disk. Null if not enabled.
+     * Survives restarts so still-valid responses are served without a network call after startup.
+     */
+    private volatile DiskResponseStore persistentCache;
+
+    /** Retry policy applied to failed attempts. Volatile so it can be replaced at runtime. */
+    private volatile RetryPolicy retryPolicy;
+
+    /** Attempt timeout and deadlines of requests. */
+    private volatile TimeoutPolicy timeoutPolicy;
 
-    /** Cache for endpoint responses with expiration tracking. Null if caching not enabled. */
-    private static Cache<String, EndpointUpdate> ENDPOINT_CACHE;
+    /** Whether gzip/deflate compressed responses are requested. Volatile so it can be toggled at runtime. */
+    private volatile boolean compression;
 
     /** Jackson ObjectMapper configured for API responses and authentication. */
     @Getter
@@ -154,6 +223,21 @@ public class RequestManager {
     /** Request metrics collector for tracking request counts and failures */
     private final RequestMetric metric = new RequestMetric();
 
+    /**
+     * Requests currently in flight, keyed by their descriptor.
+     * Identical concurrent requests join the stored future instead of acquiring their own token.
+     */
+    private final ConcurrentHashMap<RequestDescriptor, InFlightRequest<?>> inFlight = new ConcurrentHashMap<>();
+
+    /** Requests with a background cache refresh in flight, so each entry is refreshed at most once at a time. */
+    private final Set<RequestDescriptor> refreshing = ConcurrentHashMap.newKeySet();
+
+    /** Completes once requests are served, depending on the {@link StartupMode}. See {@link #ready()}. */
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    /** Completes once every token has finished authenticating, successfully or not. */
+    private final CompletableFuture<Void> bootstrapped = new CompletableFuture<>();
+
     /** Scheduler for delayed operations (e.g., rate limit retries). */
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
             1,
@@ -164,59 +248,143 @@ public class RequestManager {
             }
     );
 
-    /** Executor for processing request groups asynchronously. */
-    private final ExecutorService groupExecutor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "JIMA-RequestGroupProcessor");
-        t.setDaemon(true);
-        return t;
-    });
+    /** Executes request groups, pacing them with timers on the scheduler instead of a blocked thread. */
+    private final RequestGroupProcessor groupProcessor;
+
+    /** Shuts the instance down on JVM shutdown; removed by {@link #shutdown()} so stopped instances can be collected. */
+    private final Thread shutdownHook = new Thread(this::shutdown, "JIMA-Shutdown");
 
     /**
-     * Private constructor for singleton pattern.
+     * Creates a RequestManager from a builder.
      *
      * <p><b>Initialization Steps:</b></p>
      * <ol>
-     *   <li>Initialize AppSettings to load configuration</li>
-     *   <li>Start RequestGroup processor thread</li>
+     *   <li>Take over settings, cache, retry and compression configuration from the builder</li>
+     *   <li>Attach to the HTTP client and executors of the transport</li>
      *   <li>Register shutdown hook for graceful cleanup</li>
      *   <li>Initialize TokenPool</li>
-     *   <li>Bootstrap tokens (load, authenticate, register)</li>
+     *   <li>Start bootstrapping the tokens (authenticate, register) without waiting for it</li>
      * </ol>
+     *
+     * @param builder The configured builder
+     */
+    private RequestManager(Builder builder) {
+        this.settings = builder.settings;
+        this.tokenKeys = List.copyOf(builder.tokens);
+        this.userAgent = settings.getApplicationName() + "/" +
+                settings.getApplicationVersion() + " (Contact: " +
+                settings.getContactEmail() + ")";
+        this.rateLimitMode = settings.getRateLimitMode();
+        this.tokenPool = new TokenPool(settings.getUsageLimit());
+        this.groupProcessor = new RequestGroupProcessor(scheduler, () -> flowExecutor, tokenPool);
+        this.endpointCache = builder.endpointCache == null ? null : new EndpointCache(builder.endpointCache);
+        this.persistentCache = builder.persistentCache == null ? null : openPersistentCache(builder.persistentCache);
+        this.retryPolicy = builder.retryPolicy;
+        this.timeoutPolicy = builder.timeoutPolicy;
+        this.compression = builder.compression;
+        this.baseUrl = builder.baseUrl;
+        applyTransport(builder.transport != null ? builder.transport : HttpTransport.shared());
+
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        bootstrap();
+    }
+
+    /**
+     * Creates a builder for an independent RequestManager instance.
+     *
+     * <p>Each instance owns its TokenPool, caches, retry policy and metrics, while the HTTP connection pool
+     * and the executors are shared through the {@link HttpTransport} unless configured otherwise. Use this to
+     * run several token sets (e.g. tenants) isolated from each other in one JVM; the static {@link Requester}
+     * and {@link ParallelRequester} facades keep using {@link #getInstance()}.</p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * RequestManager tenant = RequestManager.builder()
+     *     .withSettings(new AppSettings.Settings("MyApp", "1.0.0", "dev@example.com", 5, RateLimitMode.LOCAL, StartupMode.FIRST_TOKEN))
+     *     .withTokens(List.of(tenantToken))
+     *     .withEndpointCache(new EndpointCacheSettings())
+     *     .build();
+     *
+     * Response&lt;CharacterView&gt; response = tenant.enqueueRequest(
+     *     Endpoint.CHARACTER_VIEW.request().path("hashed_character_id", id).build(),
+     *     CharacterView.class
+     * ).join();
+     * </pre>
+     *
+     * @return A new builder
      */
-    private RequestManager() {
-        AppSettings.createInstance();
-        this.tokenPool = new TokenPool();
+    public static Builder builder() {
+        return new Builder();
+    }
 
-        groupExecutor.execute(this::processRequestGroups);
+    /**
+     * Stops this instance: request groups and retries are no longer processed, the reset timer of the
+     * TokenPool is stopped and the persistent cache is closed. Requests sent afterwards fail fast.
+     * Called automatically on JVM shutdown; calling it earlier unregisters the shutdown hook, so the stopped
+     * instance is no longer referenced by the JVM. The shared transport stays open.
+     */
+    public void shutdown() {
+        if (shuttingDown) {
+            return;
+        }
+        LOGGER.info("Stopping RequestManager...");
+        shuttingDown = true;
 
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            LOGGER.info("Shutdown detected – stopping RequestManager...");
-            shuttingDown = true;
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down and runs the hook anyway
+            }
+        }
 
-            groupExecutor.shutdownNow();
+        groupProcessor.shutdown();
 
-            scheduler.shutdownNow();
+        scheduler.shutdownNow();
 
-            tokenPool.shutdown();
-        }));
+        tokenPool.shutdown();
 
-        bootstrap();
+        closePersistentCache();
     }
 
+    /**
+     * Authenticates all tokens concurrently and registers them with the TokenPool.
+     *
+     * <p>Returns right away; the authentication requests run on the HTTP client. {@link #ready()} completes
+     * once the first token has authenticated or once all tokens are done, depending on the configured
+     * {@link StartupMode}. Tokens that fail to authenticate are logged and left out of the pool.</p>
+     */
     private void bootstrap() {
         LOGGER.info("Loading tokens for RequestManager...");
 
-        List<Token> tokens = AppSettings.getTokens().stream()
+        List<Token> tokens = tokenKeys.stream()
                 .filter(line -> !line.isBlank())
                 .map(line -> new Token(line.trim())).collect(Collectors.toList());
+        StartupMode mode = settings.getStartupMode();
 
         LOGGER.info("Starting authentication for {} token(s)", tokens.size());
+        long start = System.nanoTime();
 
-        for (Token token : tokens) {
-            authenticateToken(token);
-        }
-
-        LOGGER.info("All tokens authenticated and added to TokenPool");
+        AtomicInteger authenticated = new AtomicInteger();
+        CompletableFuture<?>[] authentications = tokens.stream()
+                .map(token -> authenticateToken(token).thenAccept(success -> {
+                    if (!success) {
+                        return;
+                    }
+                    authenticated.incrementAndGet();
+                    if (mode == StartupMode.FIRST_TOKEN && ready.complete(null)) {
+                        LOGGER.info("First token authenticated, serving requests");
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(authentications).whenComplete((v, ex) -> {
+            LOGGER.info("{} of {} token(s) authenticated and added to TokenPool in {} ms",
+                    authenticated.get(), tokens.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            bootstrapped.complete(null);
+            ready.complete(null);
+        });
     }
 
     /**
@@ -238,44 +406,109 @@ public class RequestManager {
      *   <li>Parse error: Log parsing exception</li>
      *   <li>Network error: Log exception</li>
      * </ul>
+     * The returned future never completes exceptionally.
      *
      * @param token The Token object to authenticate
+     * @return CompletableFuture completing with true if the token was added to the TokenPool
      */
-    private void authenticateToken(Token token) {
+    private CompletableFuture<Boolean> authenticateToken(Token token) {
         try {
             HttpRequest request = buildRequest(Endpoint.AUTHENTICATE.getPath(), token.getKey());
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                try {
-                    Authentication auth = mapper.readValue(response.body(), Authentication.class);
-                    token.updateMax(auth.getRateLimit());
-
-                    int remaining = response.headers().firstValue(X_RATE_LIMIT_REMAINING).flatMap(v -> safeParseHeader(v, Integer.class)).orElse(-1);
-                    long reset = response.headers().firstValue(X_RATE_LIMIT_RESET).flatMap(v -> safeParseHeader(v, Long.class)).orElse(Instant.now().getEpochSecond() + 60);
-                    token.updateFromResponse(remaining, reset);
-                    token.setScopes(auth.getScopes());
-
-                    tokenPool.initializeToken(token);
-                    LOGGER.info("Token {} authenticated successfully with rate limit: {}", token.getMaskedKey(), auth.getRateLimit());
-                } catch (Exception e) {
-                    LOGGER.error("Error parsing authentication response for token {}: {}", token.getMaskedKey(), e.getMessage(), e);
-                }
-            } else {
-                LOGGER.error("Failed to authenticate token {}: HTTP {} - {}", token.getMaskedKey(), response.statusCode(), response.body());
-            }
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .handleAsync((response, ex) -> {
+                        if (ex != null) {
+                            Throwable cause = RetryPolicy.unwrap(ex);
+                            LOGGER.error("Exception authenticating token {}: {}", token.getMaskedKey(), cause.getMessage(), cause);
+                            return false;
+                        }
+                        return registerAuthenticatedToken(token, response);
+                    }, decodeExecutor);
         } catch (Exception e) {
             LOGGER.error("Exception authenticating token {}: {}", token.getMaskedKey(), e.getMessage(), e);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Applies the authentication response to a token and registers it with the TokenPool.
+     *
+     * @param token The authenticated token
+     * @param response The response of the authentication request
+     * @return true if the token was added to the TokenPool
+     */
+    private boolean registerAuthenticatedToken(Token token, HttpResponse<String> response) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            LOGGER.error("Failed to authenticate token {}: HTTP {} - {}", token.getMaskedKey(), response.statusCode(), response.body());
+            return false;
+        }
+
+        try {
+            Authentication auth = mapper.readValue(response.body(), Authentication.class);
+            token.updateMax(auth.getRateLimit());
+
+            int remaining = response.headers().firstValue(X_RATE_LIMIT_REMAINING).flatMap(v -> safeParseHeader(v, Integer.class)).orElse(-1);
+            long reset = response.headers().firstValue(X_RATE_LIMIT_RESET).flatMap(v -> safeParseHeader(v, Long.class)).orElse(Instant.now().getEpochSecond() + 60);
+            token.updateFromResponse(remaining, reset);
+            token.setScopes(auth.getScopes());
+
+            tokenPool.initializeToken(token);
+            LOGGER.info("Token {} authenticated successfully with rate limit: {}", token.getMaskedKey(), auth.getRateLimit());
+            return true;
+        } catch (Exception e) {
+            LOGGER.error("Error parsing authentication response for token {}: {}", token.getMaskedKey(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Gets a future that completes once the RequestManager serves requests.
+     *
+     * <p>Tokens are authenticated concurrently in the background after the instance is created, so
+     * {@link #getInstance()} never waits for the network. Requests submitted before readiness are queued
+     * and sent once it completes. With {@link StartupMode#ALL_TOKENS} (default) the future completes when
+     * every token has finished authenticating; with {@link StartupMode#FIRST_TOKEN} as soon as one token
+     * is usable.</p>
+     *
+     * <p>The future also completes if no token could be authenticated; requests then fail as before.</p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * RequestManager.getInstance().ready().join();   // optional, e.g. before health checks report "up"
+     * </pre>
+     *
+     * @return A future completing when requests are served (completing it has no effect)
+     */
+    public CompletableFuture<Void> ready() {
+        return ready.copy();
+    }
+
+    /**
+     * Gets the startup phase a request has to wait for before it can be sent.
+     *
+     * @param endpoint The endpoint of the request, or null if it is sent with a caller-supplied token
+     * @return The future to wait for, or null if the request can be sent right away
+     */
+    private CompletableFuture<Void> startupGate(Endpoint endpoint) {
+        if (bootstrapped.isDone()) {
+            return null;
+        }
+        if (!ready.isDone()) {
+            return ready;
         }
+        // Already serving, but the tokens covering this endpoint may still be authenticating
+        return endpoint != null && !tokenPool.canServe(endpoint) ? bootstrapped : null;
     }
 
     /**
-     * Gets the singleton RequestManager instance.
+     * Gets the default RequestManager instance used by the static facades.
      *
-     * @return The RequestManager singleton instance
+     * <p>Created on first access from the {@link AppSettings} files (jima-settings.json and tokens.store)
+     * in the working directory. Instances built with {@link #builder()} don't need these files.</p>
+     *
+     * @return The default RequestManager instance
      */
     public static RequestManager getInstance() {
-        return INSTANCE;
+        return DefaultInstance.INSTANCE;
     }
 
     /**
@@ -301,8 +534,8 @@ public class RequestManager {
      * </ul>
      *
      * <p><b>Cache Expiration:</b></p>
-     * Cached responses include expiration time tracking. Expired entries are not returned
-     * even if still in cache; they are treated as cache misses.
+     * Each entry expires exactly at the {@code endpointUpdatesAt} time of its response and is
+     * evicted at that point. The cache is bounded with the defaults of {@link EndpointCacheSettings}.
      *
      * <p><b>Example:</b></p>
      * <pre>
@@ -319,9 +552,211 @@ public class RequestManager {
      * @param recordStats Whether to record cache hit/miss statistics
      */
     public static void enableEndpointCaching(boolean recordStats) {
-         ENDPOINT_CACHE = recordStats
-                ? Caffeine.newBuilder().recordStats().build()
-                : Caffeine.newBuilder().build();
+        enableEndpointCaching(new EndpointCacheSettings().withRecordStats(recordStats));
+    }
+
+    /**
+     * Enables endpoint response caching with a custom configuration.
+     *
+     * <p><b>Behavior:</b></p>
+     * <ul>
+     *   <li>Entries expire at the {@code endpointUpdatesAt} time reported by the API</li>
+     *   <li>The summed size of all response bodies is bounded by the maximum weight</li>
+     *   <li>Calling this method again replaces the current cache; requests in flight are unaffected</li>
+     * </ul>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * RequestManager.enableEndpointCaching(new EndpointCacheSettings()
+     *     .withMaximumWeight(128L * 1024 * 1024)
+     *     .withRecordStats(true));
+     * </pre>
+     *
+     * @param settings The cache configuration
+     * @see EndpointCacheSettings
+     */
+    public static void enableEndpointCaching(EndpointCacheSettings settings) {
+        getInstance().replaceEndpointCache(new EndpointCache(settings));
+    }
+
+    /**
+     * Disables endpoint response caching and releases all cached entries.
+     * Requests in flight complete normally without being cached.
+     */
+    public static void disableEndpointCaching() {
+        getInstance().replaceEndpointCache(null);
+    }
+
+    private void replaceEndpointCache(EndpointCache cache) {
+        EndpointCache previous = endpointCache;
+        endpointCache = cache;
+
+        if (previous != null) {
+            previous.invalidateAll();
+        }
+    }
+
+    /**
+     * Enables the persistent response cache backed by the given file.
+     *
+     * <p><b>Behavior:</b></p>
+     * <ul>
+     *   <li>Raw bodies of successful {@link EndpointUpdate} responses are appended to the file with their expiry</li>
+     *   <li>On a miss in the endpoint cache, still-valid bodies are decoded from disk and promoted into memory</li>
+     *   <li>Entries written by a previous run are served after a restart until they expire</li>
+     *   <li>Calling this method again closes the current store and opens the new one</li>
+     * </ul>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * RequestManager.enableEndpointCaching(true);
+     * RequestManager.enablePersistentCaching(Paths.get("cache", "jima-responses.log"));
+     * </pre>
+     *
+     * @param file The log file of the store (created if absent)
+     * @throws IllegalStateException If the file can't be opened
+     * @see DiskResponseStore
+     */
+    public static void enablePersistentCaching(Path file) {
+        RequestManager manager = getInstance();
+        DiskResponseStore store = openPersistentCache(file);
+
+        manager.closePersistentCache();
+        manager.persistentCache = store;
+    }
+
+    /**
+     * Disables the persistent response cache and closes its file. Stored entries are kept on disk.
+     */
+    public static void disablePersistentCaching() {
+        getInstance().closePersistentCache();
+    }
+
+    private static DiskResponseStore openPersistentCache(Path file) {
+        try {
+            return new DiskResponseStore(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open persistent response cache " + file, e);
+        }
+    }
+
+    private void closePersistentCache() {
+        DiskResponseStore previous = persistentCache;
+        persistentCache = null;
+
+        if (previous != null) {
+            try {
+                previous.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close persistent response cache: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replaces the retry policy used for all following requests.
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * RequestManager.setRetryPolicy(new RetryPolicy()
+     *     .withMaxAttempts(3)
+     *     .withMaxAttempts(Endpoint.ITEMS, 6)
+     *     .withBudget(0.1, 5));
+     * </pre>
+     *
+     * @param policy The retry policy (use {@code withMaxAttempts(1)} to disable retries)
+     * @see RetryPolicy
+     */
+    public static void setRetryPolicy(RetryPolicy policy) {
+        getInstance().retryPolicy = policy;
+    }
+
+    /**
+     * Replaces the timeout policy used for all following requests.
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * RequestManager.setTimeoutPolicy(new TimeoutPolicy()
+     *     .withAttemptTimeout(Duration.ofSeconds(10))
+     *     .withDeadline(Endpoint.CHARACTER_VIEW, Duration.ofSeconds(5)));
+     * </pre>
+     *
+     * @param policy The timeout policy
+     * @see TimeoutPolicy
+     */
+    public static void setTimeoutPolicy(TimeoutPolicy policy) {
+        getInstance().timeoutPolicy = Objects.requireNonNull(policy, "policy");
+    }
+
+    /**
+     * Enables compressed responses by sending {@code Accept-Encoding: gzip, deflate} with every API request.
+     *
+     * <p><b>Behavior:</b></p>
+     * <ul>
+     *   <li>Compressed bodies are decompressed while they are streamed into the decoder, never buffered compressed</li>
+     *   <li>Transferred and decoded bytes are recorded per endpoint in the request metrics</li>
+     *   <li>Servers may still answer uncompressed; such responses are handled as before</li>
+     * </ul>
+     *
+     * <p>Compression trades some CPU on the decode executor for a much smaller transfer size of large
+     * JSON bodies, which pays off on bandwidth-limited hosts and for full catalog crawls.</p>
+     */
+    public static void enableCompression() {
+        getInstance().compression = true;
+    }
+
+    /**
+     * Disables compressed responses. Requests already sent are unaffected.
+     */
+    public static void disableCompression() {
+        getInstance().compression = false;
+    }
+
+    /**
+     * Replaces the executors used for HTTP I/O, decoding and caller callbacks.
+     *
+     * <p><b>Behavior:</b></p>
+     * <ul>
+     *   <li>Executors not set in the settings fall back to the bounded defaults of {@link ExecutorSettings}</li>
+     *   <li>A new HTTP client is built on the client executor; requests already sent complete on the previous one</li>
+     *   <li>Executors passed in are never shut down by the RequestManager</li>
+     *   <li>Only the default instance is affected; instances built with {@link #builder()} keep their transport</li>
+     * </ul>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * RequestManager.setExecutorSettings(new ExecutorSettings()
+     *     .withDecodeExecutor(Executors.newFixedThreadPool(8)));
+     * </pre>
+     *
+     * @param settings The executor configuration
+     * @see ExecutorSettings
+     */
+    public static void setExecutorSettings(ExecutorSettings settings) {
+        getInstance().applyTransport(HttpTransport.create(settings));
+    }
+
+    private void applyTransport(HttpTransport transport) {
+        this.decodeExecutor = transport.getDecodeExecutor();
+        this.callbackExecutor = transport.getCallbackExecutor();
+        this.flowExecutor = transport.getFlowExecutor();
+        this.client = transport.getClient();
+    }
+
+    /**
+     * Runs a blocking flow on the flow executor of this instance.
+     *
+     * <p>Meant for code written against the blocking API, e.g. "fetch character, then guild, then members" with
+     * {@code join()} between the steps. On Java 21+ every flow runs on its own virtual thread, so thousands of
+     * concurrent flows don't need thousands of platform threads while they wait for responses.</p>
+     *
+     * @param <T> The result type of the flow
+     * @param flow The blocking flow
+     * @return CompletableFuture completing with the result of the flow, or exceptionally if it throws
+     * @see ExecutorSettings#withFlowExecutor(Executor)
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> flow) {
+        return CompletableFuture.supplyAsync(flow, flowExecutor);
     }
 
     /**
@@ -348,11 +783,23 @@ public class RequestManager {
      * @throws IllegalStateException If endpoint caching has not been enabled
      */
     public static CacheStats getCacheRecords() {
-        if (ENDPOINT_CACHE == null) {
+        return getInstance().getEndpointCacheStats();
+    }
+
+    /**
+     * Gets cache statistics of this instance if caching is enabled.
+     *
+     * @return CacheStats object with statistics
+     * @throws IllegalStateException If endpoint caching has not been enabled
+     * @see #getCacheRecords()
+     */
+    public CacheStats getEndpointCacheStats() {
+        EndpointCache cache = endpointCache;
+        if (cache == null) {
             throw new IllegalStateException("Endpoint caching is not enabled");
         }
 
-        return ENDPOINT_CACHE.stats();
+        return cache.stats();
     }
 
     /**
@@ -360,57 +807,162 @@ public class RequestManager {
      *
      * <p><b>Conditions for Cache Hit:</b></p>
      * <ol>
-     *   <li>Caching must be enabled (ENDPOINT_CACHE != null)</li>
+     *   <li>Caching must be enabled (endpoint or persistent cache enabled)</li>
      *   <li>Response type must be or extend EndpointUpdate</li>
      *   <li>Cached entry must exist for the URL</li>
-     *   <li>Cached entry must not be expired</li>
+     *   <li>Cached entry must not be expired, or still be within the stale window of its endpoint</li>
      * </ol>
      *
+     * <p><b>Refresh Policy:</b></p>
+     * If the endpoint has a {@link RefreshPolicy}, a fresh entry inside the refresh-ahead window triggers a
+     * background refresh when the token pool has spare budget, and a stale entry is served while it is
+     * refreshed in the background. The caller never waits for either refresh.
+     *
      * @param <T> The response data type
-     * @param url The full request URL
+     * @param request The request (endpoint and canonical URL)
      * @param type The expected response class type
      * @return The cached data if available and valid, null otherwise
      */
-    private <T> T getCacheData(String url, Class<T> type) {
-        if (ENDPOINT_CACHE == null) {
+    private <T> T getCacheData(RequestDescriptor request, Class<T> type) {
+        if (!EndpointUpdate.class.isAssignableFrom(type)) {
             return null;
         }
 
-        if (!EndpointUpdate.class.isAssignableFrom(type)) {
+        EndpointCache cache = endpointCache;
+        RefreshPolicy policy = cache == null ? null : cache.getSettings().getRefreshPolicy(request.getEndpoint());
+
+        if (cache != null) {
+            CachedResponse value = cache.get(request.getUrl());
+            Instant now = Instant.now();
+            if (value != null && type.isInstance(value.getData())) {
+                if (!value.isExpired(now)) {
+                    if (policy != null) {
+                        metric.incrementRefreshHits();
+                        if (value.isRefreshDue(now, policy.getRefreshAhead())
+                                && tokenPool.hasSpareCapacity(policy.getSpareRequests())) {
+                            refreshInBackground(request, type);
+                        }
+                    }
+                    return type.cast(value.getData());
+                }
+
+                if (policy != null && value.isServableStale(now)) {
+                    metric.incrementRefreshHits();
+                    metric.incrementStaleServed();
+                    if (!value.isExpiryConfirmed()) {
+                        refreshInBackground(request, type);
+                    }
+                    return type.cast(value.getData());
+                }
+            }
+        }
+
+        T persisted = getPersistedData(request, type, cache);
+        if (policy != null) {
+            if (persisted != null) {
+                metric.incrementRefreshHits();
+            } else {
+                metric.incrementRefreshMisses();
+            }
+        }
+        return persisted;
+    }
+
+    /**
+     * Re-fetches a cached response in the background so the cache is updated before (or shortly after) it goes stale.
+     *
+     * <p>The refresh goes through the single-flight layer and stores its result via the regular response handling.
+     * At most one refresh per URL runs at a time, and no refresh is started while a caller's request for the
+     * same URL is already in flight. A refresh that leaves the expiry unchanged, e.g. because the server still
+     * reports the same {@code endpointUpdatesAt}, stores a confirmed entry, which is not refreshed again until
+     * a response moves its expiry.</p>
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param type The response class for deserialization
+     */
+    private <T> void refreshInBackground(RequestDescriptor request, Class<T> type) {
+        if (shuttingDown || inFlight.containsKey(request) || !refreshing.add(request)) {
+            return;
+        }
+
+        metric.incrementRefreshes();
+        LOGGER.debug("Refreshing cached response for URL: {}", request);
+        try {
+            sendCoalesced(request, type, RequestContext.of(RequestPriority.BACKGROUND)).whenComplete((response, ex) -> {
+                refreshing.remove(request);
+                if (ex != null) {
+                    LOGGER.warn("Background refresh of {} failed: {}", request, ex.getMessage());
+                } else if (!response.isSuccessful()) {
+                    LOGGER.warn("Background refresh of {} failed: {}", request, response.getError());
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(request);
+            LOGGER.warn("Background refresh of {} could not be sent: {}", request, e.getMessage());
+        }
+    }
+
+    /**
+     * Attempts to restore data for a URL from the persistent cache and promotes it into the endpoint cache.
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param type The expected response class type
+     * @param cache The endpoint cache to promote into, or null if not enabled
+     * @return The decoded data if a valid entry is stored, null otherwise
+     */
+    private <T> T getPersistedData(RequestDescriptor request, Class<T> type, EndpointCache cache) {
+        DiskResponseStore store = persistentCache;
+        if (store == null) {
+            return null;
+        }
+
+        DiskResponseStore.StoredBody stored = store.get(request.getUrl());
+        if (stored == null) {
             return null;
         }
 
-        EndpointUpdate value = ENDPOINT_CACHE.getIfPresent(url);
-        if (value == null || value.isExpired(LocalDateTime.now())) {
+        T data;
+        try {
+            data = mapper.readValue(stored.getBody(), type);
+        } catch (IOException e) {
+            LOGGER.warn("Discarding undecodable persisted response for {}: {}", request, e.getMessage());
+            store.remove(request.getUrl());
             return null;
         }
 
-        return (T) value;
+        if (cache != null) {
+            cache.put(request.getUrl(), request.getEndpoint(), (EndpointUpdate) data, stored.getBody().length(), stored.getExpiresAt());
+        }
+        return data;
     }
 
     /**
-     * Attempts to insert a new cached data for a URL if caching is enabled.
+     * Attempts to insert a new cached data for a URL into the enabled cache tiers.
      *
-     * @param url The full request URL
+     * @param request The request (endpoint and canonical URL)
      * @param data The data to be stored
-     * @param type The type of the given data
+     * @param bodySize The size of the response body in bytes, used to weigh the entry
+     * @param raw The raw response body, persisted as-is (null if the persistent cache was not enabled at request time)
+     * @param validators The validators of the response, used to revalidate it once expired
      * @param <T> The data type
      */
-    private <T> void saveCacheData(String url, T data, Class<T> type) {
-        if (ENDPOINT_CACHE == null) {
+    private <T> void saveCacheData(RequestDescriptor request, T data, int bodySize, byte[] raw, Validators validators) {
+        if (!(data instanceof EndpointUpdate)) {
             return;
         }
 
-        if  (!EndpointUpdate.class.isAssignableFrom(type)) {
-            return;
+        EndpointCache cache = endpointCache;
+        if (cache != null) {
+            cache.put(request.getUrl(), request.getEndpoint(), (EndpointUpdate) data, bodySize, validators);
         }
 
-        EndpointUpdate value = ENDPOINT_CACHE.getIfPresent(url);
-        if (value != null && !value.isExpired(LocalDateTime.now())) {
-            return;
+        DiskResponseStore store = persistentCache;
+        if (store != null && raw != null) {
+            Duration defaultExpiry = cache != null ? cache.getSettings().getDefaultExpiry() : EndpointCacheSettings.DEFAULT_EXPIRY;
+            store.put(request.getUrl(), raw, EndpointCache.expiresAt((EndpointUpdate) data, defaultExpiry));
         }
-
-        ENDPOINT_CACHE.put(url, (EndpointUpdate) data);
     }
 
     /**
@@ -422,7 +974,7 @@ public class RequestManager {
      * <p><b>Request Flow:</b></p>
      * <ol>
      *   <li>Check cache (if enabled)</li>
-     *   <li>Check in-flight to prevent duplicates</li>
+     *   <li>Check in-flight to prevent duplicates (join the identical request if present)</li>
      *   <li>Acquire token from TokenPool</li>
      *   <li>Send HTTP request</li>
      * </ol>
@@ -435,14 +987,15 @@ public class RequestManager {
      * @return CompletableFuture containing the Response when complete
      */
     protected <T> CompletableFuture<Response<T>> enqueueRequest(Endpoint endpoint, Map<String, String> query, Map<String, String> parameter, Class<T> type) {
-        return enqueueRequest(endpoint, query, parameter, type, null);
+        return enqueueRequest(RequestDescriptor.of(endpoint, query, parameter), type, (Token) null);
     }
 
     /**
      * Enqueues a request with a specific token.
      *
      * <p>Allows specifying an exact Token object to use for the request, bypassing
-     * the TokenPool selection logic. Useful when a specific token is required.</p>
+     * the TokenPool selection logic. Useful when a specific token is required.
+     * Requests with an explicit token are never coalesced with other in-flight requests.</p>
      *
      * <p><b>Parameters:</b></p>
      * <ul>
@@ -468,16 +1021,356 @@ public class RequestManager {
             Class<T> type,
             Token token
     ) {
-        String url = buildUrl(endpoint, query, parameter);
+        return enqueueRequest(RequestDescriptor.of(endpoint, query, parameter), type, token);
+    }
 
-        T cached = getCacheData(url, type);
-        if (cached != null) {
-            return CompletableFuture.completedFuture(
-                    new Response<>(ResponseCode.SUCCESS, cached, null)
-            );
+    /**
+     * Enqueues a described request with a token from the TokenPool.
+     *
+     * @param <T> The response data type
+     * @param request The request descriptor
+     * @param type The response class to deserialize into
+     * @return CompletableFuture containing the Response when complete
+     * @see #enqueueRequest(RequestDescriptor, Class, Token)
+     */
+    public <T> CompletableFuture<Response<T>> enqueueRequest(RequestDescriptor request, Class<T> type) {
+        return enqueueRequest(request, type, (Token) null);
+    }
+
+    /**
+     * Enqueues a described request, optionally with a specific token.
+     *
+     * <p>The descriptor carries the canonical URL of the request, which keys the caches, and is itself
+     * the key of the single-flight layer. Build it once with {@link Endpoint#request()} and reuse it for
+     * repeated requests to avoid rebuilding the URL.</p>
+     *
+     * <p>Cancelling the returned future cancels the request: it leaves the token queue, gives back a slot it
+     * has not used yet, or aborts its HTTP exchange. A request shared with other callers through the
+     * single-flight layer keeps running until all of them have cancelled.</p>
+     *
+     * <p>A request with a deadline, from the caller's {@link RequestContext} or the {@link TimeoutPolicy} of its
+     * endpoint, completes with {@link ResponseCode#TIMEOUT} once the deadline passes and its work is cancelled.</p>
+     *
+     * @param <T> The response data type
+     * @param request The request descriptor
+     * @param type The response class to deserialize into
+     * @param token Specific Token to use, or null to acquire from TokenPool
+     * @return CompletableFuture containing the Response when complete
+     */
+    public <T> CompletableFuture<Response<T>> enqueueRequest(RequestDescriptor request, Class<T> type, Token token) {
+        T cached = getCacheData(request, type);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(
+                    new Response<>(ResponseCode.SUCCESS, cached, null)
+            );
+        }
+
+        RequestContext context = timeoutPolicy.applyTo(request.getEndpoint(), currentContext());
+        CompletableFuture<Response<T>> future = token == null
+                ? sendCoalesced(request, type, context)
+                : sendAsync(request, type, token, context);
+        return completeOnCallbackExecutor(future);
+    }
+
+    /**
+     * Enqueues a described request with a token from the TokenPool, waiting for the token with the given priority.
+     *
+     * <p>While tokens have budget left the priority makes no difference. Once they are exhausted, waiting
+     * requests of higher classes get the slots of the next reset first, see {@link RequestPriority}.
+     * A request joining an identical request already in flight shares its place in the queue.</p>
+     *
+     * @param <T> The response data type
+     * @param request The request descriptor
+     * @param type The response class to deserialize into
+     * @param priority The priority class of the request
+     * @return CompletableFuture containing the Response when complete
+     * @see #withPriority(RequestPriority, Supplier)
+     */
+    public <T> CompletableFuture<Response<T>> enqueueRequest(RequestDescriptor request, Class<T> type, RequestPriority priority) {
+        return enqueueRequest(request, type, currentContext().withPriority(priority));
+    }
+
+    /**
+     * Enqueues a described request with a token from the TokenPool, waiting for the token with the given
+     * priority and in the given flow.
+     *
+     * <p>Once the tokens are exhausted, waiting requests of the same priority are served per flow in weighted
+     * round robin, see {@link RequestContext}.</p>
+     *
+     * @param <T> The response data type
+     * @param request The request descriptor
+     * @param type The response class to deserialize into
+     * @param context The priority class and flow of the request
+     * @return CompletableFuture containing the Response when complete
+     * @see #withContext(RequestContext, Supplier)
+     */
+    public <T> CompletableFuture<Response<T>> enqueueRequest(RequestDescriptor request, Class<T> type, RequestContext context) {
+        return withContext(context, () -> enqueueRequest(request, type));
+    }
+
+    /**
+     * Runs a call with all requests it enqueues on the calling thread tagged with the given priority.
+     *
+     * <p>Useful for the static {@link Requester} methods, which have no priority parameter. Only requests
+     * enqueued synchronously by the call are tagged; their retries keep the priority.</p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * Response&lt;CharacterView&gt; character = RequestManager.withPriority(RequestPriority.INTERACTIVE,
+     *     () -&gt; Requester.getCharacter(id));
+     * </pre>
+     *
+     * @param <T> The result type of the call
+     * @param priority The priority class of the enqueued requests
+     * @param call The call to run
+     * @return The result of the call
+     */
+    public static <T> T withPriority(RequestPriority priority, Supplier<T> call) {
+        return withContext(currentContext().withPriority(priority), call);
+    }
+
+    /**
+     * Runs a call with all requests it enqueues on the calling thread queued in the given flow.
+     *
+     * <p>Use one flow per tenant or caller so a caller with many waiting requests can't hold back the others,
+     * see {@link RequestContext}. The priority of the current thread is kept.</p>
+     *
+     * @param <T> The result type of the call
+     * @param flow The flow key
+     * @param weight The weight of the flow (must be &gt; 0)
+     * @param call The call to run
+     * @return The result of the call
+     * @throws IllegalArgumentException if the weight is less than 1
+     */
+    public static <T> T withFlow(String flow, int weight, Supplier<T> call) {
+        return withContext(currentContext().withFlow(flow, weight), call);
+    }
+
+    /**
+     * Runs a call with all requests it enqueues on the calling thread bounded by a deadline.
+     *
+     * <p>The deadline starts now and is shared by every request of the call, so a flow of several requests
+     * finishes within the timeout as a whole. Requests still running when it passes complete with
+     * {@link ResponseCode#TIMEOUT}, which also bounds blocking {@code join()} calls on them. Priority and flow of
+     * the current thread are kept.</p>
+     *
+     * @param <T> The result type of the call
+     * @param timeout Time from now until the deadline
+     * @param call The call to run
+     * @return The result of the call
+     * @see RequestContext#withTimeout(Duration)
+     */
+    public static <T> T withTimeout(Duration timeout, Supplier<T> call) {
+        return withContext(currentContext().withTimeout(timeout), call);
+    }
+
+    /**
+     * Runs a call with all requests it enqueues on the calling thread tagged with the given context.
+     * Only requests enqueued synchronously by the call are tagged; their retries keep the context.
+     *
+     * @param <T> The result type of the call
+     * @param context The priority class and flow of the enqueued requests
+     * @param call The call to run
+     * @return The result of the call
+     */
+    public static <T> T withContext(RequestContext context, Supplier<T> call) {
+        RequestContext previous = CALLER_CONTEXT.get();
+        CALLER_CONTEXT.set(Objects.requireNonNull(context, "context"));
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CALLER_CONTEXT.remove();
+            } else {
+                CALLER_CONTEXT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Gets the context of requests enqueued on the current thread.
+     *
+     * @return The context set by {@link #withContext(RequestContext, Supplier)}, or {@link RequestContext#DEFAULT}
+     */
+    static RequestContext currentContext() {
+        RequestContext context = CALLER_CONTEXT.get();
+        return context != null ? context : RequestContext.DEFAULT;
+    }
+
+    /**
+     * Hands the completion of a pending future over to the callback executor, so stages the caller chains
+     * on it never run on HTTP client or decode threads. Already completed futures are returned as-is.
+     * Cancelling the returned future cancels the request.
+     *
+     * @param <T> The response data type
+     * @param future The future of the request
+     * @return A future completing with the same result on the callback executor
+     */
+    private <T> CompletableFuture<Response<T>> completeOnCallbackExecutor(CompletableFuture<Response<T>> future) {
+        if (future.isDone()) {
+            return future;
+        }
+        CompletableFuture<Response<T>> callback = future.whenCompleteAsync((response, ex) -> { }, callbackExecutor);
+        callback.whenComplete((response, ex) -> {
+            if (ex != null && RetryPolicy.unwrap(ex) instanceof CancellationException) {
+                future.cancel(true);
+            }
+        });
+        return callback;
+    }
+
+    /**
+     * Sends a request through the single-flight layer.
+     *
+     * <p><b>Behavior:</b></p>
+     * <ul>
+     *   <li>If an identical request (same URL and response type) is already in flight, the caller
+     *       joins it; no token is acquired and no HTTP call is sent</li>
+     *   <li>Otherwise the request is registered as in flight and sent via {@link #sendAsync(RequestDescriptor, Class)}</li>
+     *   <li>The entry is removed before the shared future completes, so later callers hit the cache instead</li>
+     * </ul>
+     *
+     * <p>Every caller receives its own copy of the shared future, so completing or cancelling
+     * one caller's future does not affect the others. The underlying request is only cancelled once every
+     * caller has cancelled; callers arriving after that send a request of their own.</p>
+     *
+     * <p>A caller joining with a higher priority promotes the underlying request, so a token acquisition it is
+     * waiting for moves to the caller's class and its retries wait with it as well.</p>
+     *
+     * <p>The underlying request is sent without deadline: it is neither shed nor timed out for the caller that
+     * started it while others still wait for it. A caller starting a request is shed up front if its deadline
+     * can't be met; afterwards each caller's future is bounded by its own deadline, and a caller running past
+     * it leaves the request like a caller that cancelled.</p>
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL, single-flight key)
+     * @param type The response class for deserialization
+     * @return CompletableFuture containing the Response
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Response<T>> sendCoalesced(RequestDescriptor request, Class<T> type, RequestContext context) {
+        if (!inFlight.containsKey(request)) {
+            // Starting a request is refused like in sendAttempt, joining one that is already on its way is not
+            Response<T> shed = admit(request, context);
+            if (shed != null) {
+                return CompletableFuture.completedFuture(shed);
+            }
+        }
+
+        InFlightRequest<T> created = new InFlightRequest<>(type);
+        InFlightRequest<?> existing = inFlight.putIfAbsent(request, created);
+
+        if (existing != null) {
+            if (existing.type == type && existing.enter()) {
+                metric.incrementCoalesced();
+                LOGGER.debug("Coalescing request for URL: {}", request);
+                // Waiting with the priority of the caller that started it would invert the joiner's priority
+                existing.cancellation.promote(context.getPriority());
+                return join(request, (InFlightRequest<T>) existing, context);
+            }
+            // Same URL with a different response type can't share a result, nor can a cancelled request
+            return sendAsync(request, type, context);
+        }
+
+        try {
+            // The shared request serves later callers too, so only the callers' futures are bounded by deadlines
+            sendAttempt(request, type, 1, context.withoutDeadline(), created.cancellation).whenComplete((response, ex) -> {
+                inFlight.remove(request, created);
+                if (ex != null) {
+                    created.future.completeExceptionally(ex);
+                } else {
+                    created.future.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(request, created);
+            created.future.completeExceptionally(e);
+            throw e;
+        }
+
+        return join(request, created, context);
+    }
+
+    /**
+     * Creates the future of one caller of a coalesced request, bounded by the caller's deadline. When the last
+     * caller that has not completed cancels its future or runs past its deadline, the entry is removed and the
+     * underlying request is cancelled.
+     *
+     * @param <T> The response data type
+     * @param request The single-flight key
+     * @param entry The in-flight entry the caller joined
+     * @param context The context of the caller
+     * @return A copy of the shared future
+     */
+    private <T> CompletableFuture<Response<T>> join(RequestDescriptor request, InFlightRequest<T> entry, RequestContext context) {
+        Runnable leave = () -> {
+            if (entry.leave()) {
+                inFlight.remove(request, entry);
+                entry.cancellation.cancel();
+            }
+        };
+        return onCancel(withDeadline(request, context, entry.future.copy(), leave), leave);
+    }
+
+    /**
+     * Completes a request with {@link ResponseCode#TIMEOUT} once its deadline passes, using a timer on the
+     * scheduler. Requests without deadline are returned as-is.
+     *
+     * @param <T> The response data type
+     * @param request The request, for logging
+     * @param context The context holding the deadline
+     * @param future The future of the request
+     * @param onTimeout Cancels the work of the request once it timed out
+     * @return A future completing with the result of the request or with TIMEOUT, whichever comes first
+     */
+    private <T> CompletableFuture<Response<T>> withDeadline(RequestDescriptor request, RequestContext context,
+                                                            CompletableFuture<Response<T>> future, Runnable onTimeout) {
+        if (!context.hasDeadline() || future.isDone()) {
+            return future;
         }
 
-        return token == null ? sendAsync(endpoint, url, type) : sendAsync(endpoint, url, type, token);
+        CompletableFuture<Response<T>> bounded = new CompletableFuture<>();
+        ScheduledFuture<?> timer;
+        try {
+            timer = scheduler.schedule(() -> {
+                if (bounded.complete(new Response<>(ResponseCode.TIMEOUT, null, "Deadline passed before the response arrived"))) {
+                    LOGGER.debug("Request to {} timed out", request);
+                    metric.incrementTimedOut();
+                    onTimeout.run();
+                }
+            }, Math.max(0, context.getRemainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Scheduler stopped, the manager is shutting down
+            return future;
+        }
+
+        future.whenComplete((response, ex) -> {
+            timer.cancel(false);
+            if (ex != null) {
+                bounded.completeExceptionally(ex);
+            } else {
+                bounded.complete(response);
+            }
+        });
+        return bounded;
+    }
+
+    /**
+     * Runs an action once the future returned to a caller is cancelled, counting the cancellation.
+     *
+     * @param <T> The response data type
+     * @param future The future returned to the caller
+     * @param action Cancels the work of the request
+     * @return The same future
+     */
+    private <T> CompletableFuture<Response<T>> onCancel(CompletableFuture<Response<T>> future, Runnable action) {
+        future.whenComplete((response, ex) -> {
+            if (ex != null && RetryPolicy.unwrap(ex) instanceof CancellationException) {
+                metric.incrementCancelled();
+                action.run();
+            }
+        });
+        return future;
     }
 
     /**
@@ -486,6 +1379,8 @@ public class RequestManager {
      * <p><b>Token Acquisition:</b></p>
      * Acquires a token from TokenPool, which:
      * <ul>
+     *   <li>Only considers tokens whose scopes cover the endpoint; if there are none,
+     *       FORBIDDEN is returned without consuming a rate-limit slot</li>
      *   <li>Selects the token with most remaining requests (greedy)</li>
      *   <li>Waits if all tokens are exhausted until one resets</li>
      * </ul>
@@ -493,84 +1388,354 @@ public class RequestManager {
      * <p><b>Response Handling:</b></p>
      * Updates token state based on rate limit response headers and handles:
      * <ul>
-     *   <li>HTTP 429: Schedules retry after reset time</li>
+     *   <li>HTTP 429, 5xx and network errors: Retried per {@link RetryPolicy} with jittered backoff</li>
      *   <li>HTTP 2xx: Returns successful response with data</li>
      *   <li>HTTP error: Returns error response</li>
      * </ul>
      *
      * @param <T> The response data type
-     * @param endpoint The API endpoint being called (used for scope checking)
-     * @param url The full request URL
+     * @param request The request (endpoint and canonical URL)
      * @param type The response class for deserialization
      * @return CompletableFuture containing the Response
      * @throws IllegalStateException If TokenPool is not initialized
      */
-    protected <T> CompletableFuture<Response<T>> sendAsync(Endpoint endpoint, String url, Class<T> type) {
+    protected <T> CompletableFuture<Response<T>> sendAsync(RequestDescriptor request, Class<T> type) {
+        return sendAsync(request, type, RequestContext.DEFAULT);
+    }
+
+    /**
+     * Sends an asynchronous HTTP request without specifying a token, waiting for the token with a context.
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param type The response class for deserialization
+     * @param context The priority class and flow used while waiting for a token
+     * @return CompletableFuture containing the Response
+     * @throws IllegalStateException If TokenPool is not initialized
+     * @see #sendAsync(RequestDescriptor, Class)
+     */
+    protected <T> CompletableFuture<Response<T>> sendAsync(RequestDescriptor request, Class<T> type, RequestContext context) {
+        Cancellation cancellation = new Cancellation();
+        CompletableFuture<Response<T>> future = sendAttempt(request, type, 1, context, cancellation);
+        return onCancel(withDeadline(request, context, future, cancellation::cancel), cancellation::cancel);
+    }
+
+    /**
+     * Sends one attempt of a request with a token from the TokenPool.
+     *
+     * <p><b>Admission:</b></p>
+     * An attempt with a deadline is refused with {@link ResponseCode#SHED} right away if
+     * {@link TokenPool#estimateWait(RequestPriority)} says it can't get a token in time, and dropped from the queue
+     * with {@link ResponseCode#TIMEOUT} if its deadline passes while it waits. Neither consumes a slot, so callers
+     * fail fast instead of receiving a late response that still used up the budget.
+     *
+     * <p><b>Cancellation:</b></p>
+     * Once the request is cancelled, a parked token acquisition leaves the queue, a token acquired but not yet
+     * used gets its slot back and an exchange in flight is aborted. The attempt completes with a
+     * {@link CancellationException} and is not retried.
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param type The response class for deserialization
+     * @param attempt The number of this attempt (1 for the first attempt)
+     * @param requested The priority class and flow used while waiting for a token, raised to the priority the
+     *                  request was promoted to
+     * @param cancellation The cancellation state of the request
+     * @return CompletableFuture containing the Response
+     * @throws IllegalStateException If TokenPool is not initialized
+     */
+    private <T> CompletableFuture<Response<T>> sendAttempt(RequestDescriptor request, Class<T> type, int attempt, RequestContext requested, Cancellation cancellation) {
+        RequestContext context = cancellation.prioritize(requested);
+        if (cancellation.isCancelled()) {
+            return CompletableFuture.failedFuture(Cancellation.cancelled());
+        }
         if (shuttingDown) {
             return CompletableFuture.completedFuture(
                     new Response<>(ResponseCode.BAD_REQUEST, null, "Application shutting down")
             );
         }
 
+        Endpoint endpoint = request.getEndpoint();
+        CompletableFuture<Void> startup = startupGate(endpoint);
+        if (startup != null) {
+            return startup.thenCompose(v -> sendAttempt(request, type, attempt, context, cancellation));
+        }
+
         if (!this.tokenPool.isInitialized()) {
             throw new IllegalStateException("TokenPool is not initialized");
         }
+
+        if (!this.tokenPool.canServe(endpoint)) {
+            return CompletableFuture.completedFuture(new Response<>(
+                    ResponseCode.FORBIDDEN,
+                    null,
+                    "No token in the pool contains permission for " + endpoint.getScope()
+            ));
+        }
+
+        Response<T> shed = admit(request, context);
+        if (shed != null) {
+            return CompletableFuture.completedFuture(shed);
+        }
+
         metric.incrementInFlight();
         metric.incrementTotalRequests();
+        if (attempt == 1) {
+            retryPolicy.getBudget().deposit();
+        }
 
-        return this.tokenPool.acquire()
-                .thenCompose(token -> {
-                    if (!token.hasScope(endpoint)) {
-                        return CompletableFuture.completedFuture(new Response<>(
-                                ResponseCode.FORBIDDEN,
-                                null,
-                                "The token does not contain permission for " + endpoint.getScope()
-                        ));
+        long queuedAt = System.nanoTime();
+        metric.enterQueue(context);
+        CompletableFuture<Token> acquire = this.tokenPool.acquire(endpoint, context);
+        cancellation.track(() -> acquire.cancel(true), priority -> {
+            if (tokenPool.promote(acquire, priority)) {
+                LOGGER.debug("Promoted waiting request to {} to {}", request, priority);
+            }
+        });
+        return acquire
+                .whenComplete((token, ex) -> {
+                    if (ex == null) {
+                        metric.recordQueueWait(context, System.nanoTime() - queuedAt);
+                    } else {
+                        metric.leaveQueue(context);
                     }
-
-                    HttpRequest request = buildRequest(url, token.getKey());
-                    return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                            .thenCompose(response -> handleResponseAsync(endpoint, token, response, type));
                 })
-                .whenComplete((response, ex) -> {
-                    if (ex == null && response.isSuccessful()) {
-                        saveCacheData(url, response.getData(), type);
-                    }
-                });
+                .handle((token, ex) -> ex == null
+                        ? exchange(request, token, type, attempt, context, cancellation)
+                        : this.<T>handleAcquireFailure(request, ex))
+                .thenCompose(Function.identity());
+    }
 
+    /**
+     * Refuses a request with a deadline that {@link TokenPool#estimateWait(RequestPriority)} says can't get a
+     * token in time. Requests without deadline, and requests whose tokens are still authenticating, are admitted.
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param context The context holding the priority and deadline of the request
+     * @return The {@link ResponseCode#SHED} Response, or null if the request is admitted
+     */
+    private <T> Response<T> admit(RequestDescriptor request, RequestContext context) {
+        Endpoint endpoint = request.getEndpoint();
+        if (!context.hasDeadline() || startupGate(endpoint) != null || !tokenPool.canServe(endpoint)) {
+            return null;
+        }
+
+        Duration wait = tokenPool.estimateWait(context.getPriority());
+        if (wait.compareTo(Duration.ofNanos(context.getRemainingNanos())) < 0) {
+            return null;
+        }
+        String reason = wait.equals(TokenPool.UNBOUNDED_WAIT)
+                ? "No token has budget left to serve the request"
+                : "Estimated wait for a token of " + wait.toMillis() + " ms exceeds the deadline";
+        LOGGER.debug("Rejecting request to {}: {}", request, reason);
+        metric.incrementRejected();
+        return new Response<>(ResponseCode.SHED, null, reason);
+    }
+
+    /**
+     * Sends the HTTP request of an attempt with the acquired token.
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param token The token a slot was taken from
+     * @param type The response class for deserialization
+     * @param attempt The number of this attempt
+     * @param context The priority class and flow of the request, kept for retries
+     * @param cancellation The cancellation state of the request; aborts the exchange when cancelled
+     * @return CompletableFuture containing the Response
+     */
+    private <T> CompletableFuture<Response<T>> exchange(RequestDescriptor request, Token token, Class<T> type, int attempt, RequestContext context, Cancellation cancellation) {
+        if (cancellation.isCancelled()) {
+            // Cancelled after the token was handed out, the unused slot goes back
+            token.release();
+            metric.decrementInFlight();
+            return CompletableFuture.failedFuture(Cancellation.cancelled());
+        }
+
+        CachedResponse previous = getRevalidationCandidate(request.getUrl(), type);
+        Duration timeout = attemptTimeout(context);
+        long timeoutAt = System.nanoTime() + timeout.toNanos();
+        HttpRequest httpRequest = buildRequest(request.getUrl(), token.getKey(), compression, previous, timeout);
+        CompletableFuture<HttpResponse<Supplier<DecodedBody<T>>>> http = client.sendAsync(httpRequest, bodyHandler(type, previous));
+        cancellation.track(http);
+        return http
+                .handleAsync((response, ex) -> ex == null
+                        ? handleResponseAsync(request, token, response, type, attempt, context, cancellation, timeoutAt)
+                        : handleFailureAsync(request, type, attempt, context, cancellation, ex), decodeExecutor)
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Handles an attempt that got no token. A deadline passing while the attempt waited (signalled with a
+     * {@link TimeoutException}) completes with {@link ResponseCode#TIMEOUT}; other failures, including a
+     * cancellation, are passed on.
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param failure The failure of the token acquisition
+     * @return CompletableFuture completing with the TIMEOUT Response, or exceptionally with the failure
+     */
+    private <T> CompletableFuture<Response<T>> handleAcquireFailure(RequestDescriptor request, Throwable failure) {
+        metric.decrementInFlight();
+        Throwable cause = RetryPolicy.unwrap(failure);
+        if (cause instanceof TimeoutException) {
+            LOGGER.debug("Shedding request to {}: {}", request, cause.getMessage());
+            metric.incrementShed();
+            metric.incrementTimedOut();
+            return CompletableFuture.completedFuture(new Response<>(ResponseCode.TIMEOUT, null, cause.getMessage()));
+        }
+        return CompletableFuture.failedFuture(cause);
     }
 
     /**
      * Sends an asynchronous HTTP request with a specific token.
      *
      * @param <T> The response data type
-     * @param endpoint The API endpoint being called (used for scope checking)
+     * @param endpoint The API endpoint being called
      * @param url The full request URL
      * @param type The response class for deserialization
      * @param token The Token to use for this request
      * @return CompletableFuture containing the Response
      */
     public <T> CompletableFuture<Response<T>> sendAsync(Endpoint endpoint, String url, Class<T> type, Token token) {
+        return sendAsync(RequestDescriptor.ofUrl(endpoint, url), type, token);
+    }
+
+    /**
+     * Sends an asynchronous HTTP request with a specific token.
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param type The response class for deserialization
+     * @param token The Token to use for this request
+     * @return CompletableFuture containing the Response
+     */
+    public <T> CompletableFuture<Response<T>> sendAsync(RequestDescriptor request, Class<T> type, Token token) {
+        return sendAsync(request, type, token, timeoutPolicy.applyTo(request.getEndpoint(), currentContext()));
+    }
+
+    /**
+     * Sends an asynchronous HTTP request with a specific token, bounded by the deadline of the context.
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param type The response class for deserialization
+     * @param token The Token to use for this request
+     * @param context The context of the caller; retries go through the pool with it
+     * @return CompletableFuture containing the Response
+     */
+    private <T> CompletableFuture<Response<T>> sendAsync(RequestDescriptor request, Class<T> type, Token token, RequestContext context) {
+        Cancellation cancellation = new Cancellation();
+        CompletableFuture<Response<T>> future = sendAsync(request, type, token, context, cancellation);
+        return onCancel(withDeadline(request, context, future, cancellation::cancel), cancellation::cancel);
+    }
+
+    /**
+     * Sends an asynchronous HTTP request with a specific token.
+     *
+     * <p>With a deadline in the context, the request completes with {@link ResponseCode#SHED} if the token has
+     * no budget left and resets after the deadline, and with {@link ResponseCode#TIMEOUT} if the deadline passes
+     * while waiting for its reset.</p>
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param type The response class for deserialization
+     * @param token The Token to use for this request
+     * @param context The context of the caller; retries go through the pool with it
+     * @param cancellation The cancellation state of the request
+     * @return CompletableFuture containing the Response
+     */
+    private <T> CompletableFuture<Response<T>> sendAsync(RequestDescriptor request, Class<T> type, Token token, RequestContext context, Cancellation cancellation) {
+        if (cancellation.isCancelled()) {
+            return CompletableFuture.failedFuture(Cancellation.cancelled());
+        }
+        CompletableFuture<Void> startup = startupGate(null);
+        if (startup != null) {
+            return startup.thenCompose(v -> sendAsync(request, type, token, context, cancellation));
+        }
+
+        Endpoint endpoint = request.getEndpoint();
         if (!token.hasScope(endpoint)) {
             return CompletableFuture.completedFuture(
                     new Response<>(ResponseCode.FORBIDDEN, null, "The token does not contain permission for " + endpoint.getScope())
             );
         }
 
+        int usageLimit = settings.getUsageLimit();
+        CompletableFuture<Void> slot;
+        if (context.hasDeadline()) {
+            long resetAt = token.getResetAt().get();
+            long resetInNanos = TimeUnit.MILLISECONDS.toNanos(resetAt * 1000 - System.currentTimeMillis());
+            if (token.getRemaining() <= usageLimit && resetAt > 0 && resetInNanos >= context.getRemainingNanos()) {
+                metric.incrementRejected();
+                return CompletableFuture.completedFuture(new Response<>(
+                        ResponseCode.SHED, null, "The token resets after the deadline"
+                ));
+            }
+            // A waiter timing out is dropped by the token without taking a slot
+            slot = token.acquire(usageLimit).orTimeout(Math.max(0, context.getRemainingNanos()), TimeUnit.NANOSECONDS);
+        } else {
+            slot = token.acquire(usageLimit);
+        }
+
         metric.incrementTotalRequests();
         metric.incrementInFlight();
+        retryPolicy.getBudget().deposit();
+
+        cancellation.track(slot);
+        return slot
+                .handle((v, ex) -> ex == null
+                        ? exchange(request, token, type, 1, context, cancellation)
+                        : this.<T>handleAcquireFailure(request, ex))
+                .thenCompose(Function.identity());
+    }
 
-        return token.acquire(AppSettings.getSettings().getUsageLimit())
-                .thenCompose(v -> {
-                    HttpRequest request = buildRequest(url, token.getKey());
-                    return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                            .thenCompose(response -> handleResponseAsync(endpoint, token, response, type));
-                })
-                .whenComplete((response, ex) -> {
-                    if (ex == null && response.isSuccessful()) {
-                        saveCacheData(url, response.getData(), type);
-                    }
-                });
+    /**
+     * Creates the body handler for a request.
+     *
+     * <p>Bodies are decoded straight from the network stream. The raw bytes are only buffered when they
+     * have to be written to the persistent cache. Bodies of cacheable responses are digested, so a body
+     * identical to the retained entry reuses its decoded object.</p>
+     *
+     * @param <T> The response data type
+     * @param type The response class for deserialization
+     * @param previous The retained cache entry of the URL, or null if there is none
+     * @return Body handler decoding 2xx bodies into the type and capturing error bodies as text
+     */
+    private <T> DecodingBodyHandler<T> bodyHandler(Class<T> type, CachedResponse previous) {
+        boolean cacheable = EndpointUpdate.class.isAssignableFrom(type);
+        DecodingBodyHandler<T> handler = new DecodingBodyHandler<>(mapper, type, cacheable && persistentCache != null);
+
+        if (cacheable && endpointCache != null) {
+            if (previous != null) {
+                handler.withDigest(previous.getValidators().getDigest(), type.cast(previous.getData()));
+            } else {
+                handler.withDigest(null, null);
+            }
+        }
+        return handler;
+    }
+
+    /**
+     * Gets the cached entry of a URL that can be revalidated instead of downloaded again.
+     *
+     * @param <T> The response data type
+     * @param url The full request URL
+     * @param type The response class for deserialization
+     * @return The retained entry with validators, or null if there is none
+     */
+    private <T> CachedResponse getRevalidationCandidate(String url, Class<T> type) {
+        EndpointCache cache = endpointCache;
+        if (cache == null || !EndpointUpdate.class.isAssignableFrom(type)) {
+            return null;
+        }
+
+        CachedResponse entry = cache.get(url);
+        if (entry == null || !type.isInstance(entry.getData()) || entry.getValidators().isEmpty()) {
+            return null;
+        }
+        return entry;
     }
 
     /**
@@ -581,6 +1746,8 @@ public class RequestManager {
      *   <li>Accept: application/json</li>
      *   <li>User-Agent: Application name and version</li>
      *   <li>Authorization: Bearer + token</li>
+     *   <li>Accept-Encoding: gzip, deflate (only if compression is requested)</li>
+     *   <li>If-None-Match / If-Modified-Since: Validators of the cached response (only when revalidating)</li>
      * </ul>
      *
      * <p><b>Method:</b> Always GET</p>
@@ -590,16 +1757,74 @@ public class RequestManager {
      * @return HttpRequest ready to send
      */
     private HttpRequest buildRequest(String url, String token) {
+        return buildRequest(url, token, false, null, timeoutPolicy.getAttemptTimeout());
+    }
+
+    /**
+     * Builds an HTTP request with the specified URL and token, optionally accepting compressed responses
+     * and revalidating a cached response.
+     * Compression must only be requested if the response is read with a {@link DecodingBodyHandler}.
+     *
+     * @param url The full request URL (query parameters included)
+     * @param token The API token for authorization
+     * @param compressed Whether gzip/deflate compressed responses are accepted
+     * @param previous The cached entry to revalidate, or null for an unconditional request
+     * @param timeout Time until the response headers must have arrived
+     * @return HttpRequest ready to send
+     */
+    private HttpRequest buildRequest(String url, String token, boolean compressed, CachedResponse previous, Duration timeout) {
         HttpRequest.Builder builder = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+                .uri(URI.create(rebase(url)))
+                .timeout(timeout)
                 .setHeader("Accept", "application/json")
                 .setHeader("User-Agent", getUserAgent())
                 .setHeader("Authorization", "Bearer " + token)
                 .GET();
 
+        if (compressed) {
+            builder.setHeader("Accept-Encoding", DecodingBodyHandler.ACCEPT_ENCODING);
+        }
+
+        if (previous != null) {
+            Validators validators = previous.getValidators();
+            if (validators.getEtag() != null) {
+                builder.setHeader("If-None-Match", validators.getEtag());
+            }
+            if (validators.getLastModified() != null) {
+                builder.setHeader("If-Modified-Since", validators.getLastModified());
+            }
+        }
+
         return builder.build();
     }
 
+    /**
+     * Gets the timeout of an HTTP exchange: the attempt timeout of the {@link TimeoutPolicy}, cut to the time
+     * left until the deadline of the request.
+     *
+     * @param context The context of the request
+     * @return The timeout, at least one millisecond
+     */
+    private Duration attemptTimeout(RequestContext context) {
+        Duration timeout = timeoutPolicy.getAttemptTimeout();
+        long remaining = context.getRemainingNanos();
+        return remaining < timeout.toNanos() ? Duration.ofNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), remaining)) : timeout;
+    }
+
+    /**
+     * Points an API URL at the configured base URL. Cache keys keep the API URL.
+     *
+     * @param url The full API URL
+     * @return The URL to send the request to
+     */
+    private String rebase(String url) {
+        String apiBase = Endpoint.BASE_URL.getPath();
+        if (baseUrl == null || !url.startsWith(apiBase)) {
+            return url;
+        }
+        return baseUrl + url.substring(apiBase.length());
+    }
+
     /**
      * Handles an HTTP response asynchronously, updating token state and processing results.
      *
@@ -607,18 +1832,23 @@ public class RequestManager {
      * <ol>
      *   <li>Extract rate limit info from response headers</li>
      *   <li>Update token with rate limit reset time</li>
+     *   <li>Read the body and record its transferred and decoded size</li>
      *   <li>Check response status code:
      *       <ul>
-     *           <li>HTTP 429: Schedule retry asynchronously without blocking</li>
-     *           <li>HTTP 2xx: Deserialize and cache result</li>
+     *           <li>Retryable status (429, 5xx by default): Schedule retry asynchronously without blocking,
+     *               while attempts and retry budget last</li>
+     *           <li>HTTP 304: Reuse the revalidated cached response with a new expiry</li>
+     *           <li>HTTP 2xx: Decode the streamed body (unless identical to the cached one) and cache result
+     *               with its validators (weighted by body size)</li>
      *           <li>HTTP error: Return error response</li>
      *       </ul>
      *   </li>
      * </ol>
      *
      * <p><b>Thread Safety:</b></p>
-     * This method is fully asynchronous and does not block any threads. Retries are
-     * scheduled as separate CompletableFutures that integrate into the async chain.
+     * This method runs on the decode executor, where reading the streamed body may wait for
+     * network data without holding an HTTP client thread. Retries are scheduled as separate
+     * CompletableFutures that integrate into the async chain instead of sleeping.
      * This prevents thread starvation under sustained rate limiting (429 responses).
      *
      * <p><b>Rate Limit Header Parsing:</b></p>
@@ -629,43 +1859,100 @@ public class RequestManager {
      * </ul>
      *
      * @param <T> The response data type
-     * @param endpoint The API endpoint being called (used for scope checking)
+     * @param request The request (endpoint and canonical URL, cache key)
      * @param token The Token used for this request
      * @param response The HTTP response from the server
      * @param type The response class for deserialization
+     * @param attempt The number of this attempt (1 for the first attempt)
+     * @param context The priority class and flow of the request, kept for retries
+     * @param cancellation The cancellation state of the request, kept for retries
+     * @param timeoutAt {@link System#nanoTime()} at which the attempt times out, also while its body is read
      * @return CompletableFuture completing with Response object with data or error
      */
-    private <T> CompletableFuture<Response<T>> handleResponseAsync(Endpoint endpoint, Token token, HttpResponse<String> response, Class<T> type) {
+    private <T> CompletableFuture<Response<T>> handleResponseAsync(RequestDescriptor request, Token token, HttpResponse<Supplier<DecodedBody<T>>> response, Class<T> type, int attempt, RequestContext context, Cancellation cancellation, long timeoutAt) {
         try {
             metric.decrementInFlight();
 
             int remaining = response.headers().firstValue(X_RATE_LIMIT_REMAINING).flatMap(v -> safeParseHeader(v, Integer.class)).orElse(-1);
             long reset = response.headers().firstValue(X_RATE_LIMIT_RESET).flatMap(v -> safeParseHeader(v, Long.class)).orElse(Instant.now().getEpochSecond() + 60);
 
-            // remaining gets currently ignored and the tokens get managed by just the reset time and max token count
-            token.updateFromResponse(reset);
+            boolean synchronizedMode = rateLimitMode == RateLimitMode.SERVER_SYNCHRONIZED;
+            if (synchronizedMode && remaining >= 0) {
+                token.reconcile(remaining, reset);
+            } else {
+                // LOCAL mode: the tokens get managed by just the reset time and max token count
+                token.updateFromResponse(reset);
+            }
 
+            long resetWait = 0;
             if (response.statusCode() == 429) {
-                LOGGER.warn("Rate limit hit for token {}. Remaining: {}, Reset at: {}. Scheduling retry asynchronously.",
+                LOGGER.warn("Rate limit hit for token {}. Remaining: {}, Reset at: {}.",
                         token.getMaskedKey(), remaining, Instant.ofEpochSecond(reset));
-                metric.incrementRetries();
-                return scheduleRetry(endpoint, response.uri().toString(), type, reset);
+                metric.incrementRateLimited();
+                if (synchronizedMode) {
+                    // The exhausted token makes the pool wait for the reset or pick another token
+                    token.exhaustUntil(reset);
+                } else {
+                    resetWait = Math.max(0, reset - Instant.now().getEpochSecond() + 1);
+                }
+            }
+
+            // Always read the body, even before a retry, so the connection is released
+            DecodedBody<T> body = readBody(response, timeoutAt, cancellation);
+            metric.recordTransfer(request.getEndpoint(), body.getWireSize(), body.getSize());
+
+            RetryPolicy policy = retryPolicy;
+            if (policy.isRetryableStatus(response.statusCode()) && canRetry(request.getEndpoint(), attempt, policy)) {
+                LOGGER.warn("Request to {} failed with status {} (attempt {}). Scheduling retry asynchronously.",
+                        response.uri().getPath(), response.statusCode(), attempt);
+                return scheduleRetry(request, type, attempt + 1, context, cancellation, Duration.ofSeconds(resetWait));
+            }
+
+            if (response.statusCode() == 304) {
+                return handleNotModified(request, type, response, attempt, context, cancellation);
             }
 
             if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                T data = mapper.readValue(response.body(), type);
+                T data = body.getData();
+                if (body.isReused()) {
+                    metric.incrementDecodesSkipped();
+                }
+                Validators validators = new Validators(
+                        response.headers().firstValue("ETag").orElse(null),
+                        response.headers().firstValue("Last-Modified").orElse(null),
+                        body.getDigest()
+                );
+                saveCacheData(request, data, body.getSize(), body.getRaw(), validators);
                 return CompletableFuture.completedFuture(
                     new Response<>(ResponseCode.fromCode(response.statusCode()), data, null)
                 );
             } else {
                 LOGGER.warn("Request with token {} failed at {} with status {}: {}",
-                        token.getMaskedKey(), response.uri().getPath(), response.statusCode(), response.body());
+                        token.getMaskedKey(), response.uri().getPath(), response.statusCode(), body.getError());
                 metric.incrementFailures();
                 return CompletableFuture.completedFuture(
-                    new Response<>(ResponseCode.fromCode(response.statusCode()), null, response.body())
+                    new Response<>(ResponseCode.fromCode(response.statusCode()), null, body.getError())
                 );
             }
+        } catch (HttpTimeoutException e) {
+            if (cancellation.isCancelled()) {
+                return CompletableFuture.failedFuture(Cancellation.cancelled());
+            }
+            RetryPolicy policy = retryPolicy;
+            if (!shuttingDown && !context.isExpired() && policy.isRetryableException(e) && canRetry(request.getEndpoint(), attempt, policy)) {
+                LOGGER.warn("Body of the response to {} timed out (attempt {}). Scheduling retry asynchronously.", request, attempt);
+                return scheduleRetry(request, type, attempt + 1, context, cancellation, Duration.ZERO);
+            }
+            LOGGER.warn("Body of the response to {} timed out (attempt {})", request, attempt);
+            metric.incrementTimedOut();
+            return CompletableFuture.completedFuture(
+                new Response<>(ResponseCode.TIMEOUT, null, e.toString())
+            );
         } catch (Exception e) {
+            if (cancellation.isCancelled()) {
+                LOGGER.debug("Request to {} cancelled while reading the response (attempt {})", request, attempt);
+                return CompletableFuture.failedFuture(Cancellation.cancelled());
+            }
             metric.incrementFailures();
             return CompletableFuture.completedFuture(
                 new Response<>(ResponseCode.BAD_REQUEST, null, e.getMessage())
@@ -673,6 +1960,125 @@ public class RequestManager {
         }
     }
 
+    /**
+     * Reads the body of a response.
+     *
+     * <p>A body streamed from the network is read after the response future completed, so neither the request
+     * timeout nor cancelling that future covers it anymore. Closing the stream becomes the cancellation stage of
+     * the request instead, and a timer closes it once the attempt runs out of time. Buffered bodies arrived
+     * along with the response and are returned right away.</p>
+     *
+     * @param <T> The response data type
+     * @param response The response with its body not read yet
+     * @param timeoutAt {@link System#nanoTime()} at which the attempt times out
+     * @param cancellation The cancellation state of the request
+     * @return The decoded body
+     * @throws HttpTimeoutException If the attempt timed out while the body was read
+     */
+    private <T> DecodedBody<T> readBody(HttpResponse<Supplier<DecodedBody<T>>> response, long timeoutAt, Cancellation cancellation) throws HttpTimeoutException {
+        Supplier<DecodedBody<T>> body = response.body();
+        if (!(body instanceof Closeable)) {
+            return body.get();
+        }
+
+        Closeable stream = (Closeable) body;
+        Runnable abort = () -> {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                LOGGER.debug("Failed to abort the response body of {}: {}", response.uri(), e.toString());
+            }
+        };
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        ScheduledFuture<?> timer = null;
+        try {
+            timer = scheduler.schedule(() -> {
+                timedOut.set(true);
+                abort.run();
+            }, Math.max(0, timeoutAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Scheduler stopped, the manager is shutting down
+        }
+        cancellation.track(abort);
+
+        try {
+            return body.get();
+        } catch (UncheckedIOException e) {
+            if (timedOut.get()) {
+                throw new HttpTimeoutException("Response body not received within the attempt timeout");
+            }
+            throw e;
+        } finally {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Handles an HTTP 304 (Not Modified) answer to a conditional request.
+     *
+     * <p>The retained cache entry is stored again with a new expiry and its decoded object is returned
+     * without touching the (empty) body. The new expiry is taken from {@code Cache-Control: max-age} if the
+     * server sends it, or the default expiry of the cache otherwise. If the entry was evicted in the meantime,
+     * the request is sent again unconditionally.</p>
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL, cache key)
+     * @param type The response class for deserialization
+     * @param response The 304 response
+     * @param attempt The number of this attempt
+     * @param context The priority class and flow of the request
+     * @param cancellation The cancellation state of the request, kept for retries
+     * @return CompletableFuture completing with the revalidated cached data
+     */
+    private <T> CompletableFuture<Response<T>> handleNotModified(RequestDescriptor request, Class<T> type, HttpResponse<?> response, int attempt, RequestContext context, Cancellation cancellation) {
+        EndpointCache cache = endpointCache;
+        CachedResponse previous = cache == null ? null : cache.get(request.getUrl());
+        if (previous == null || !type.isInstance(previous.getData())) {
+            LOGGER.debug("Revalidated entry for URL {} is gone, requesting it again", request);
+            return sendAttempt(request, type, attempt, context, cancellation);
+        }
+
+        metric.incrementRevalidated();
+        LOGGER.debug("Cached response for URL {} revalidated", request);
+
+        Duration lifetime = parseMaxAge(response.headers().firstValue("Cache-Control").orElse(null))
+                .orElse(cache.getSettings().getDefaultExpiry());
+        Validators validators = new Validators(
+                response.headers().firstValue("ETag").orElse(previous.getValidators().getEtag()),
+                response.headers().firstValue("Last-Modified").orElse(previous.getValidators().getLastModified()),
+                previous.getValidators().getDigest()
+        );
+        cache.put(request.getUrl(), request.getEndpoint(), previous.getData(), previous.getWeight(), Instant.now().plus(lifetime), validators);
+
+        return CompletableFuture.completedFuture(
+                new Response<>(ResponseCode.SUCCESS, type.cast(previous.getData()), null)
+        );
+    }
+
+    /**
+     * Extracts the {@code max-age} directive of a {@code Cache-Control} header.
+     *
+     * @param cacheControl The header value, may be null
+     * @return The max-age as duration, or empty if not present or invalid
+     */
+    private Optional<Duration> parseMaxAge(String cacheControl) {
+        if (cacheControl == null) {
+            return Optional.empty();
+        }
+
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.regionMatches(true, 0, "max-age=", 0, 8)) {
+                return safeParseHeader(trimmed.substring(8), Long.class)
+                        .filter(seconds -> seconds > 0)
+                        .map(Duration::ofSeconds);
+            }
+        }
+        return Optional.empty();
+    }
+
     /**
      * Safely parses a response header value into the specified type.
      *
@@ -693,12 +2099,83 @@ public class RequestManager {
     }
 
     /**
-     * Schedules a retry of a request after the rate limit reset time.
+     * Handles a failed HTTP exchange (e.g. connection refused, timeout) of one attempt.
+     *
+     * <p>Failures of a type the {@link RetryPolicy} classifies as retryable are retried while attempts
+     * and retry budget last and the deadline has not passed. An attempt timeout that is not retried completes
+     * with TIMEOUT, all other failures with BAD_REQUEST carrying the failure message. An exchange aborted because
+     * the request was cancelled completes with a {@link CancellationException} instead.</p>
+     *
+     * @param <T> The response data type
+     * @param request The request (endpoint and canonical URL)
+     * @param type The response class for deserialization
+     * @param attempt The number of the failed attempt (1 for the first attempt)
+     * @param context The priority class and flow of the request, kept for retries
+     * @param cancellation The cancellation state of the request
+     * @param failure The failure of the HTTP exchange
+     * @return CompletableFuture completing with the retried Response or an error Response
+     */
+    private <T> CompletableFuture<Response<T>> handleFailureAsync(RequestDescriptor request, Class<T> type, int attempt, RequestContext context, Cancellation cancellation, Throwable failure) {
+        metric.decrementInFlight();
+        if (cancellation.isCancelled()) {
+            LOGGER.debug("Request to {} cancelled (attempt {})", request, attempt);
+            return CompletableFuture.failedFuture(Cancellation.cancelled());
+        }
+        Throwable cause = RetryPolicy.unwrap(failure);
+
+        RetryPolicy policy = retryPolicy;
+        if (!shuttingDown && !context.isExpired() && policy.isRetryableException(cause) && canRetry(request.getEndpoint(), attempt, policy)) {
+            LOGGER.warn("Request to {} failed with {} (attempt {}). Scheduling retry asynchronously.", request, cause.toString(), attempt);
+            return scheduleRetry(request, type, attempt + 1, context, cancellation, Duration.ZERO);
+        }
+
+        if (cause instanceof HttpTimeoutException) {
+            LOGGER.warn("Request to {} timed out (attempt {})", request, attempt);
+            metric.incrementTimedOut();
+            return CompletableFuture.completedFuture(
+                    new Response<>(ResponseCode.TIMEOUT, null, cause.toString())
+            );
+        }
+
+        LOGGER.warn("Request to {} failed with {} (attempt {})", request, cause.toString(), attempt);
+        metric.incrementFailures();
+        return CompletableFuture.completedFuture(
+                new Response<>(ResponseCode.BAD_REQUEST, null, cause.toString())
+        );
+    }
+
+    /**
+     * Checks whether a failed attempt may be retried.
+     *
+     * @param endpoint The API endpoint being called (selects the max attempts)
+     * @param attempt The number of the failed attempt
+     * @param policy The retry policy in effect
+     * @return true if attempts are left and the retry budget allows another retry
+     */
+    private boolean canRetry(Endpoint endpoint, int attempt, RetryPolicy policy) {
+        if (attempt >= policy.getMaxAttempts(endpoint)) {
+            return false;
+        }
+
+        if (!policy.getBudget().tryWithdraw()) {
+            LOGGER.warn("Retry budget exhausted, not retrying request to {}", endpoint);
+            metric.incrementRetriesDenied();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Schedules a retry of a request with jittered exponential backoff.
      *
      * <p><b>Timing:</b></p>
      * <ul>
-     *   <li>Calculates delay as: reset_timestamp - current_time + 1 second buffer</li>
-     *   <li>Minimum delay of 10 seconds to avoid tight loops</li>
+     *   <li>The delay is {@code minDelay} plus {@link RetryPolicy#backoff(int)}, a random share of
+     *       an exponentially growing bound (full jitter)</li>
+     *   <li>For HTTP 429 in {@link RateLimitMode#LOCAL} mode, {@code minDelay} is the time until the reported reset;
+     *       the jitter spreads the retries of one window instead of sending them all at the reset instant</li>
+     *   <li>In {@link RateLimitMode#SERVER_SYNCHRONIZED} mode the rate-limited token is already exhausted until
+     *       its reset, so the TokenPool picks another token or waits for the reset</li>
      *   <li>Scheduled using ScheduledExecutorService</li>
      * </ul>
      *
@@ -711,67 +2188,39 @@ public class RequestManager {
      * </ul>
      *
      * @param <T> The response data type
-     * @param endpoint The API endpoint being called (used for scope checking)
-     * @param url The URL to retry
+     * @param request The request (endpoint and canonical URL)
      * @param type The response class
-     * @param reset Unix timestamp when rate limit resets
+     * @param attempt The number of the retry attempt (2 for the first retry)
+     * @param context The priority class and flow used while waiting for a token
+     * @param cancellation The cancellation state of the request; cancelling it drops the scheduled retry
+     * @param minDelay Minimum delay before the retry, e.g. until the rate limit resets
      * @return CompletableFuture that completes when retry is done
      */
-    private <T> CompletableFuture<Response<T>> scheduleRetry(Endpoint endpoint, String url, Class<T> type, long reset) {
-        long delay = Math.max(10, reset - Instant.now().getEpochSecond() + 1);
-        LOGGER.info("Scheduling retry in {} second/s for URL: {}", delay, url);
+    private <T> CompletableFuture<Response<T>> scheduleRetry(RequestDescriptor request, Class<T> type, int attempt, RequestContext context, Cancellation cancellation, Duration minDelay) {
+        metric.incrementRetries();
+        long delay = minDelay.toMillis() + retryPolicy.backoff(attempt - 1).toMillis();
+        LOGGER.info("Scheduling retry {} in {} ms for URL: {}", attempt - 1, delay, request);
+
         CompletableFuture<Response<T>> future = new CompletableFuture<>();
-        scheduler.schedule(() -> sendAsync(endpoint, url, type).whenComplete((response, ex) -> {
-            if (ex == null && response.isSuccessful()) {
-                saveCacheData(url, response.getData(), type);
+        ScheduledFuture<?> scheduled = scheduler.schedule(() -> {
+            try {
+                sendAttempt(request, type, attempt, context, cancellation).whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        future.completeExceptionally(ex);
+                    } else {
+                        future.complete(response);
+                    }
+                });
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
             }
-            future.complete(response);
-        }), delay, TimeUnit.SECONDS);
-        return future;
-    }
-
-    /**
-     * Builds a complete URL from endpoint, query parameters, and query string parameters.
-     *
-     * <p><b>URL Construction:</b></p>
-     * <ol>
-     *   <li>Start with endpoint path</li>
-     *   <li>Replace path parameters from query map (e.g., {characterId})</li>
-     *   <li>URL-encode each parameter value</li>
-     *   <li>Add query string parameters with & and = separators</li>
-     *   <li>URL-encode each query string value</li>
-     * </ol>
-     *
-     * <p><b>Example:</b></p>
-     * <pre>
-     * Endpoint: /api/character/{characterId}/metrics
-     * Query: {characterId: "abc123"}
-     * Parameters: {page: "1"}
-     * Result: https://api.example.com/character/abc123/metrics?page=1
-     * </pre>
-     *
-     * @param endpoint The endpoint definition with path template
-     * @param query Path parameters to substitute ({paramName} -&gt; value)
-     * @param parameter Query string parameters to append
-     * @return Complete URL with all parameters encoded
-     */
-    private String buildUrl(Endpoint endpoint, Map<String, String> query, Map<String, String> parameter) {
-        String url = endpoint.getPath();
-
-        if (query != null && !query.isEmpty()) {
-            for (Map.Entry<String, String> entry : query.entrySet()) {
-                url = url.replace("{" + entry.getKey() + "}", URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8));
+        }, delay, TimeUnit.MILLISECONDS);
+        cancellation.track(() -> {
+            if (scheduled.cancel(false)) {
+                future.completeExceptionally(Cancellation.cancelled());
             }
-        }
-
-        StringBuilder fullUrl = new StringBuilder(url);
-        if (parameter != null && !parameter.isEmpty()) {
-            fullUrl.append("?");
-            parameter.forEach((key, value) -> fullUrl.append(key).append("=").append(URLEncoder.encode(value, StandardCharsets.UTF_8)).append("&"));
-            fullUrl.setLength(fullUrl.length() - 1);  // Remove trailing &
-        }
-
-        return fullUrl.toString();
+        });
+        return future;
     }
 
     /**
@@ -784,9 +2233,7 @@ public class RequestManager {
      * @return User-Agent header value
      */
     public String getUserAgent() {
-        return AppSettings.getSettings().getApplicationName() + "/" +
-                AppSettings.getSettings().getApplicationVersion() + " (Contact: " +
-                AppSettings.getSettings().getContactEmail() + ")";
+        return userAgent;
     }
 
     /**
@@ -795,15 +2242,16 @@ public class RequestManager {
      * <p><b>Behavior:</b></p>
      * <ul>
      *   <li>Accepts a RequestGroup containing multiple requests</li>
-     *   <li>Adds group to processing queue</li>
-     *   <li>Background thread processes batches with configured delays</li>
-     *   <li>Returns list of futures representing each request</li>
+     *   <li>Creates one future per request right away, in request order</li>
+     *   <li>Starts the group once all tokens have finished authenticating</li>
+     *   <li>Runs concurrently with every other enqueued group</li>
      * </ul>
      *
      * <p><b>Processing Features:</b></p>
      * <ul>
+     *   <li>Up to {@link RequestGroup#getMaxInFlight()} requests of the group in flight at once</li>
      *   <li>Batch size limiting: Configurable number of requests per batch</li>
-     *   <li>Delays between requests (within batch)</li>
+     *   <li>Delays between request starts (within batch)</li>
      *   <li>Delays between batches</li>
      *   <li>Minimum token availability checks</li>
      *   <li>Group cancellation support</li>
@@ -811,220 +2259,232 @@ public class RequestManager {
      *
      * @param group RequestGroup containing requests and configuration
      * @return List of CompletableFutures representing each request
+     * @see RequestGroupProcessor
      */
     public List<CompletableFuture<?>> enqueueRequestGroup(RequestGroup group) {
-        LOGGER.info("Enqueueing request group '{}' with {} requests, delay={}ms, minTokens={}",
-                group.getGroupId(), group.size(), group.getDelayMs(), group.getMinTokensAllowed());
+        LOGGER.info("Enqueueing request group '{}' with {} requests, maxInFlight={}, delay={}ms, minTokens={}",
+                group.getGroupId(), group.size(), group.getMaxInFlight(), group.getDelayMs(), group.getMinTokensAllowed());
 
-        try {
-            groupQueue.put(group);
-        } catch (InterruptedException e) {
-            LOGGER.error("Failed to enqueue request group: {}", e.getMessage());
-            Thread.currentThread().interrupt();
-        }
+        List<CompletableFuture<Object>> results = group.open();
+        // Groups wait for the minimum remaining requests of the pool, which is only known after startup
+        bootstrapped.thenRun(() -> groupProcessor.start(group, results));
 
-        return group.getFutures();
+        return new ArrayList<>(results);
     }
 
     /**
-     * Main loop for processing RequestGroups from the queue.
+     * Holder for a request registered in the single-flight map.
      *
-     * <p><b>Process:</b></p>
-     * <ol>
-     *   <li>Continuously polls groupQueue for new RequestGroups (1 second timeout)</li>
-     *   <li>For each group:
-     *       <ul>
-     *           <li>Check if cancelled; skip if so</li>
-     *           <li>Process group requests in batches</li>
-     *       </ul>
-     *   </li>
-     *   <li>Exits when shuttingDown flag is set</li>
-     * </ol>
-     *
-     * <p><b>Threading:</b></p>
-     * Runs in dedicated daemon thread (JIMA-RequestGroupProcessor).
-     * Handles InterruptedExceptions gracefully for shutdown.
-     */
-    private void processRequestGroups() {
-        while (!shuttingDown) {
-            try {
-                RequestGroup group = groupQueue.poll(1, TimeUnit.SECONDS);
-                if (group == null) continue;
-
-                if (group.isCancelled()) {
-                    LOGGER.warn("Skipping cancelled request group '{}'", group.getGroupId());
-                    continue;
-                }
-
-                LOGGER.debug("Processing request group '{}'", group.getGroupId());
-                processGroup(group);
-
-            } catch (InterruptedException e) {
-                if (!shuttingDown) {
-                    LOGGER.warn("RequestGroup processor interrupted: {}", e.getMessage());
-                }
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-        LOGGER.info("RequestGroup processor stopped");
-    }
-
-    /**
-     * Processes a single RequestGroup by executing its requests in batches.
-     *
-     * <p><b>Algorithm:</b></p>
-     * <ol>
-     *   <li>Break requests into batches based on configured batch size</li>
-     *   <li>For each batch:
-     *       <ul>
-     *           <li>Log batch information</li>
-     *           <li>Wait for minimum token availability (if configured)</li>
-     *           <li>Execute requests sequentially with delays between</li>
-     *           <li>Handle errors and cancellation</li>
-     *           <li>Wait between batches (if not last batch)</li>
-     *       </ul>
-     *   </li>
-     * </ol>
-     *
-     * <p><b>Configuration Options:</b></p>
-     * <ul>
-     *   <li>batchSize: How many requests per batch</li>
-     *   <li>delayMs: Delay between individual requests (within batch)</li>
-     *   <li>waitMsBetweenBatches: Delay between batches</li>
-     *   <li>minTokensAllowed: Minimum available tokens before processing batch</li>
-     * </ul>
-     *
-     * @param group The RequestGroup to process
+     * @param <T> The response data type
      */
-    private void processGroup(RequestGroup group) {
-        List<Supplier<CompletableFuture<?>>> requests = group.getRequests();
-        int batchSize = group.getBatchSize();
+    private static class InFlightRequest<T> {
 
-        for (int batchStart = 0; batchStart < requests.size(); batchStart += batchSize) {
-            if (group.isCancelled()) {
-                LOGGER.warn("Request group '{}' cancelled, stopping processing", group.getGroupId());
-                break;
-            }
+        /** The response class the shared result is deserialized into. */
+        private final Class<T> type;
 
-            int batchEnd = Math.min(batchStart + batchSize, requests.size());
-            int batchNumber = (batchStart / batchSize) + 1;
-            int totalBatches = (requests.size() + batchSize - 1) / batchSize;
+        /** The shared future completed once the underlying request finishes. */
+        private final CompletableFuture<Response<T>> future = new CompletableFuture<>();
 
-            LOGGER.info("Processing batch {} of {} in group '{}' (requests {}-{})",
-                    batchNumber, totalBatches, group.getGroupId(), batchStart + 1, batchEnd);
+        /** Cancels the underlying request once every caller has cancelled. */
+        private final Cancellation cancellation = new Cancellation();
 
-            for (int i = batchStart; i < batchEnd; i++) {
-                if (group.isCancelled()) {
-                    LOGGER.warn("Request group '{}' cancelled, stopping processing", group.getGroupId());
-                    break;
-                }
-
-                if (group.getMinTokensAllowed() > 0) {
-                    waitForTokenAvailability(group.getGroupId(), group.getMinTokensAllowed());
-                }
+        /** Callers that have not cancelled, starting with the one that registered the request. */
+        private int callers = 1;
 
-                try {
-                    Supplier<CompletableFuture<?>> requestSupplier = requests.get(i);
-                    CompletableFuture<?> future = requestSupplier.get();
-                    group.addFuture(future);
+        /** Whether all callers cancelled, so no caller may join anymore. */
+        private boolean abandoned = false;
 
-                    LOGGER.debug("Executing request {} of {} in group '{}'",
-                            i + 1, requests.size(), group.getGroupId());
-
-                    future.join();
-
-                } catch (Exception e) {
-                    LOGGER.error("Error executing request {} in group '{}': {}",
-                            i + 1, group.getGroupId(), e.getMessage());
-                    if (group.isCancelled()) break;
-                }
+        private InFlightRequest(Class<T> type) {
+            this.type = type;
+        }
 
-                if (i < batchEnd - 1 && group.getDelayMs() > 0) {
-                    try {
-                        LOGGER.debug("Applying {}ms delay in group '{}'", group.getDelayMs(), group.getGroupId());
-                        Thread.sleep(group.getDelayMs());
-                    } catch (InterruptedException e) {
-                        LOGGER.warn("Delay interrupted in group '{}': {}", group.getGroupId(), e.getMessage());
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
+        /**
+         * Registers a caller joining the request.
+         *
+         * @return false if the request was abandoned and can't be joined
+         */
+        private synchronized boolean enter() {
+            if (abandoned) {
+                return false;
             }
+            callers++;
+            return true;
+        }
 
-            if (batchEnd < requests.size() && group.getWaitMsBetweenBatches() > 0) {
-                try {
-                    LOGGER.info("Batch {} completed. Waiting {}ms before next batch in group '{}'",
-                            batchNumber, group.getWaitMsBetweenBatches(), group.getGroupId());
-                    Thread.sleep(group.getWaitMsBetweenBatches());
-                } catch (InterruptedException e) {
-                    LOGGER.warn("Batch wait interrupted in group '{}': {}", group.getGroupId(), e.getMessage());
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+        /**
+         * Unregisters a caller that cancelled.
+         *
+         * @return true if it was the last caller and the underlying request should be cancelled
+         */
+        private synchronized boolean leave() {
+            if (--callers > 0 || future.isDone()) {
+                return false;
             }
+            abandoned = true;
+            return true;
         }
+    }
 
-        LOGGER.info("Request group '{}' processing completed", group.getGroupId());
+    /**
+     * Holder of the default instance, created from the {@link AppSettings} files on first access.
+     */
+    private static class DefaultInstance {
+
+        private static final RequestManager INSTANCE = create();
+
+        private static RequestManager create() {
+            AppSettings.createInstance();
+            return builder()
+                    .withSettings(AppSettings.getSettings())
+                    .withTokens(AppSettings.getTokens())
+                    .build();
+        }
     }
 
     /**
-     * Waits for sufficient token availability before processing requests.
+     * Builder of independent {@link RequestManager} instances.
      *
-     * <p><b>Behavior:</b></p>
-     * <ul>
-     *   <li>Polls token availability every 5 seconds</li>
-     *   <li>Returns when minTokensRequired tokens are available</li>
-     *   <li>Logs status updates during wait</li>
-     *   <li>Maximum wait of 60 seconds; proceeds anyway after timeout</li>
-     * </ul>
-     *
-     * <p><b>Token Availability Estimation:</b></p>
-     * Uses minimum remaining tokens across all tokens in the pool (conservative estimate).
+     * <p>Settings and tokens are required. Caching, persistence and compression are disabled unless
+     * configured, the retry policy defaults to {@code new RetryPolicy()} and the transport to
+     * {@link HttpTransport#shared()}.</p>
      *
-     * @param groupId GroupId for logging purposes
-     * @param minTokensRequired Minimum number of tokens needed
+     * @see RequestManager#builder()
      */
-    private void waitForTokenAvailability(String groupId, int minTokensRequired) {
-        long startTime = System.currentTimeMillis();
-        long maxWaitMs = 60000;
+    public static final class Builder {
+
+        private AppSettings.Settings settings;
+        private List<String> tokens;
+        private EndpointCacheSettings endpointCache;
+        private Path persistentCache;
+        private RetryPolicy retryPolicy = new RetryPolicy();
+        private TimeoutPolicy timeoutPolicy = new TimeoutPolicy();
+        private boolean compression = false;
+        private HttpTransport transport;
+        private String baseUrl;
+
+        private Builder() {
+        }
 
-        while (!shuttingDown && (System.currentTimeMillis() - startTime) < maxWaitMs) {
-            int estimatedTokens = getEstimatedTokenCount();
+        /**
+         * Sets the settings used for the User-Agent, the usage limit, the rate limit and the startup mode.
+         *
+         * @param settings The settings, e.g. {@link AppSettings#getSettings()} or a new {@link AppSettings.Settings}
+         * @return This Builder for method chaining
+         */
+        public Builder withSettings(AppSettings.Settings settings) {
+            this.settings = settings;
+            return this;
+        }
 
-            if (estimatedTokens >= minTokensRequired) {
-                LOGGER.info("Token availability restored for group '{}' ({}>={})",
-                        groupId, estimatedTokens, minTokensRequired);
-                return;
-            }
+        /**
+         * Sets the keys of the tokens owned by the instance. They are authenticated when it is built.
+         *
+         * @param tokens The token keys; blank keys are ignored
+         * @return This Builder for method chaining
+         */
+        public Builder withTokens(Collection<String> tokens) {
+            this.tokens = List.copyOf(tokens);
+            return this;
+        }
 
-            LOGGER.warn("Stalling group '{}': tokens {} < minimum {}. Will retry in 5 seconds...",
-                    groupId, estimatedTokens, minTokensRequired);
+        /**
+         * Enables the endpoint cache of the instance.
+         *
+         * @param settings The cache configuration
+         * @return This Builder for method chaining
+         */
+        public Builder withEndpointCache(EndpointCacheSettings settings) {
+            this.endpointCache = settings;
+            return this;
+        }
 
-            try {
-                Thread.sleep(5000);
-            } catch (InterruptedException e) {
-                LOGGER.warn("Token wait interrupted for group '{}': {}", groupId, e.getMessage());
-                Thread.currentThread().interrupt();
-                return;
-            }
+        /**
+         * Enables the persistent response cache of the instance. The file must not be shared with another instance.
+         *
+         * @param file The log file of the store (created if absent)
+         * @return This Builder for method chaining
+         */
+        public Builder withPersistentCache(Path file) {
+            this.persistentCache = file;
+            return this;
         }
 
-        if (System.currentTimeMillis() - startTime >= maxWaitMs) {
-            LOGGER.error("Token wait timeout for group '{}' after {}ms. Proceeding anyway.",
-                    groupId, maxWaitMs);
+        /**
+         * Sets the retry policy of the instance.
+         *
+         * @param policy The retry policy
+         * @return This Builder for method chaining
+         */
+        public Builder withRetryPolicy(RetryPolicy policy) {
+            this.retryPolicy = policy;
+            return this;
         }
-    }
 
-    /**
-     * Gets an estimate of current token availability.
-     *
-     * <p>Uses the minimum remaining requests across all tokens in the pool.
-     * This is a conservative estimate - actual availability may be higher.</p>
-     *
-     * @return Minimum remaining tokens across the token pool (0 if no tokens)
-     */
-    private int getEstimatedTokenCount() {
-        return this.tokenPool.getMinRemainingTokens();
+        /**
+         * Sets the timeout policy of the instance.
+         *
+         * @param policy The timeout policy
+         * @return This Builder for method chaining
+         */
+        public Builder withTimeoutPolicy(TimeoutPolicy policy) {
+            this.timeoutPolicy = policy;
+            return this;
+        }
+
+        /**
+         * Sets whether compressed responses are requested.
+         *
+         * @param compression true to send {@code Accept-Encoding: gzip, deflate}
+         * @return This Builder for method chaining
+         */
+        public Builder withCompression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Sets the transport (HTTP client and executors) of the instance.
+         *
+         * @param transport The transport, or null for {@link HttpTransport#shared()}
+         * @return This Builder for method chaining
+         */
+        public Builder withTransport(HttpTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sends the requests of the instance to another base URL instead of {@link Endpoint#BASE_URL},
+         * e.g. a proxy or a local stub server. Cache keys keep the API URL.
+         *
+         * @param baseUrl The base URL without trailing slash (e.g. "http://localhost:8080/v1"), or null for the API
+         * @return This Builder for method chaining
+         */
+        public Builder withBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * Builds the instance and starts authenticating its tokens in the background.
+         *
+         * @return The new RequestManager
+         * @throws IllegalStateException If settings or tokens are missing, or the persistent cache can't be opened
+         */
+        public RequestManager build() {
+            if (settings == null) {
+                throw new IllegalStateException("Settings are required");
+            }
+            if (tokens == null) {
+                throw new IllegalStateException("Tokens are required");
+            }
+            if (retryPolicy == null) {
+                throw new IllegalStateException("Retry policy is required");
+            }
+            if (timeoutPolicy == null) {
+                throw new IllegalStateException("Timeout policy is required");
+            }
+            return new RequestManager(this);
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,11 @@ package de.shurablack.jima.http;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -19,6 +24,29 @@ import java.util.concurrent.atomic.AtomicLong;
  *   <li><b>Total Requests:</b> Count of all HTTP requests sent (including retries)</li>
  *   <li><b>Retries:</b> Count of requests that had to be retried (HTTP 429, timeouts, etc.)</li>
  *   <li><b>Failures:</b> Count of requests that ultimately failed after retries</li>
+ *   <li><b>Coalesced:</b> Count of requests that joined an identical request already in flight</li>
+ *   <li><b>Rate Limited:</b> Count of responses with HTTP 429 (Too Many Requests)</li>
+ *   <li><b>Retries Denied:</b> Count of retryable failures that were not retried because the retry budget was exhausted</li>
+ *   <li><b>Refreshes:</b> Count of background refreshes started for cached responses</li>
+ *   <li><b>Refresh Hits/Misses:</b> Cache lookups of endpoints with a refresh policy that were served
+ *       from the cache / had to wait for the network</li>
+ *   <li><b>Stale Served:</b> Count of expired responses served within their stale window</li>
+ *   <li><b>Revalidated:</b> Count of cached responses confirmed by the server with HTTP 304 (Not Modified)</li>
+ *   <li><b>Decodes Skipped:</b> Count of responses whose body digest matched the cached response, so the
+ *       cached object was reused instead of decoding the body again</li>
+ *   <li><b>Rejected:</b> Count of requests refused on admission because the estimated wait for a token
+ *       exceeded their deadline</li>
+ *   <li><b>Shed:</b> Count of requests dropped from the token queue because their deadline passed while waiting</li>
+ *   <li><b>Cancelled:</b> Count of requests whose caller cancelled them before they completed</li>
+ *   <li><b>Timed Out:</b> Count of requests completed with {@link ResponseCode#TIMEOUT} because their deadline
+ *       passed or their last attempt exceeded the attempt timeout</li>
+ *   <li><b>Transfer:</b> Per endpoint, the number of response bodies read and their transferred (wire)
+ *       and decoded size in bytes; both sizes differ only for compressed responses</li>
+ *   <li><b>Queue Wait:</b> Per {@link RequestPriority}, the number of token acquisitions and the total and
+ *       maximum time they waited for a token</li>
+ *   <li><b>Flows:</b> Per {@link RequestContext#getFlow() flow} (request group or caller key), the number of
+ *       requests waiting for a token right now and the number of tokens acquired, which gives the throughput
+ *       of the flow when two snapshots are compared</li>
  * </ul>
  *
  * <p><b>Thread Safety:</b></p>
@@ -61,6 +89,92 @@ public class RequestMetric {
      */
     private final AtomicLong failures;
 
+    /**
+     * Number of requests that were served by an identical request already in flight.
+     * A coalesced request never acquires a token and never sends its own HTTP call.
+     */
+    private final AtomicLong coalesced;
+
+    /**
+     * Number of responses rejected by the server with HTTP 429 (Too Many Requests).
+     * Every such response also increments the retry counter.
+     */
+    private final AtomicLong rateLimited;
+
+    /**
+     * Number of retryable failures that were given up because the retry budget was exhausted.
+     */
+    private final AtomicLong retriesDenied;
+
+    /**
+     * Number of background refreshes started by the refresh-ahead or stale-while-revalidate policy.
+     */
+    private final AtomicLong refreshes;
+
+    /**
+     * Number of lookups of endpoints with a refresh policy that were served from the cache (fresh or stale).
+     */
+    private final AtomicLong refreshHits;
+
+    /**
+     * Number of lookups of endpoints with a refresh policy that found no servable entry and went to the network.
+     */
+    private final AtomicLong refreshMisses;
+
+    /**
+     * Number of expired responses that were served within their stale window while being refreshed.
+     */
+    private final AtomicLong staleServed;
+
+    /**
+     * Number of conditional requests answered with HTTP 304, reusing the cached response.
+     */
+    private final AtomicLong revalidated;
+
+    /**
+     * Number of response bodies that were not decoded because they matched the digest of the cached response.
+     */
+    private final AtomicLong decodesSkipped;
+
+    /**
+     * Number of requests refused on admission because they could not get a token before their deadline.
+     */
+    private final AtomicLong rejected;
+
+    /**
+     * Number of queued requests dropped because their deadline passed while waiting for a token.
+     */
+    private final AtomicLong shed;
+
+    /**
+     * Number of requests cancelled by their caller before they completed.
+     */
+    private final AtomicLong cancelled;
+
+    /**
+     * Number of requests completed with TIMEOUT.
+     */
+    private final AtomicLong timedOut;
+
+    /**
+     * Transferred and decoded response bytes per endpoint. Entries are created on the first response of an endpoint.
+     */
+    private final Map<Endpoint, TransferCounter> transfers = new ConcurrentHashMap<>();
+
+    /**
+     * Time token acquisitions waited per priority class. All classes are present from the start.
+     */
+    private final Map<RequestPriority, QueueWaitCounter> queueWaits = new EnumMap<>(RequestPriority.class);
+
+    /**
+     * Queue depth and acquisitions per flow. Entries are created on the first acquisition of a flow; idle entries
+     * are dropped once more than {@link #MAX_TRACKED_FLOWS} flows are tracked.
+     */
+    private final Map<String, FlowCounter> flows = new ConcurrentHashMap<>();
+
+    /** Number of flows tracked before idle flows are dropped, since every request group is a flow of its own. */
+    static final int MAX_TRACKED_FLOWS = 256;
+
     /**
      * Creates a new RequestMetric instance with all counters initialized to zero.
      */
@@ -69,6 +183,22 @@ public class RequestMetric {
         totalRequests = new AtomicLong(0);
         retries = new AtomicLong(0);
         failures = new AtomicLong(0);
+        coalesced = new AtomicLong(0);
+        rateLimited = new AtomicLong(0);
+        retriesDenied = new AtomicLong(0);
+        refreshes = new AtomicLong(0);
+        refreshHits = new AtomicLong(0);
+        refreshMisses = new AtomicLong(0);
+        staleServed = new AtomicLong(0);
+        revalidated = new AtomicLong(0);
+        decodesSkipped = new AtomicLong(0);
+        rejected = new AtomicLong(0);
+        shed = new AtomicLong(0);
+        cancelled = new AtomicLong(0);
+        timedOut = new AtomicLong(0);
+        for (RequestPriority priority : RequestPriority.values()) {
+            queueWaits.put(priority, new QueueWaitCounter());
+        }
     }
 
     /**
@@ -142,6 +272,239 @@ public class RequestMetric {
         failures.incrementAndGet();
     }
 
+    /**
+     * Increments the coalesced request counter by one.
+     *
+     * <p>This method is called when a request joins an identical request (same URL)
+     * that is already in flight instead of sending its own HTTP call. Coalesced requests
+     * do not increment the totalRequests counter.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementCoalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    /**
+     * Increments the rate limited counter by one.
+     *
+     * <p>This method is called for every HTTP 429 response. Together with totalRequests it gives
+     * the 429 rate, which should stay close to zero with {@code SERVER_SYNCHRONIZED} rate limiting.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementRateLimited() {
+        rateLimited.incrementAndGet();
+    }
+
+    /**
+     * Increments the denied retry counter by one.
+     *
+     * <p>This method is called when a failure would be retried but the global retry budget
+     * has no credit left, so the failure is returned to the caller instead.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementRetriesDenied() {
+        retriesDenied.incrementAndGet();
+    }
+
+    /**
+     * Increments the background refresh counter by one.
+     *
+     * <p>This method is called when a cached response is re-fetched in the background because it
+     * entered its refresh-ahead window or was served stale. Refreshes also increment the
+     * totalRequests counter once they are sent.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementRefreshes() {
+        refreshes.incrementAndGet();
+    }
+
+    /**
+     * Increments the refresh hit counter by one.
+     *
+     * <p>This method is called when a lookup of an endpoint with a refresh policy is served
+     * from the cache, either fresh or within the stale window.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementRefreshHits() {
+        refreshHits.incrementAndGet();
+    }
+
+    /**
+     * Increments the refresh miss counter by one.
+     *
+     * <p>This method is called when a lookup of an endpoint with a refresh policy finds no
+     * servable entry and the caller has to wait for the network.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementRefreshMisses() {
+        refreshMisses.incrementAndGet();
+    }
+
+    /**
+     * Increments the stale served counter by one.
+     *
+     * <p>This method is called when an expired response is served within its stale window.
+     * Every stale hit is also counted as a refresh hit.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementStaleServed() {
+        staleServed.incrementAndGet();
+    }
+
+    /**
+     * Increments the revalidated counter by one.
+     *
+     * <p>This method is called when a conditional request is answered with HTTP 304 and the
+     * cached response is kept with a new expiry instead of being downloaded again.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementRevalidated() {
+        revalidated.incrementAndGet();
+    }
+
+    /**
+     * Increments the skipped decode counter by one.
+     *
+     * <p>This method is called when a downloaded body is identical to the cached one (same digest)
+     * and the cached object is reused instead of decoding the body.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementDecodesSkipped() {
+        decodesSkipped.incrementAndGet();
+    }
+
+    /**
+     * Increments the rejected counter by one.
+     *
+     * <p>This method is called when a request with a deadline is refused before queueing for a token, because
+     * the estimated wait exceeds the time left. Rejected requests do not increment the totalRequests counter.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementRejected() {
+        rejected.incrementAndGet();
+    }
+
+    /**
+     * Increments the shed counter by one.
+     *
+     * <p>This method is called when a request waiting for a token is dropped because its deadline passed.
+     * The request never reached the server and did not consume a slot.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementShed() {
+        shed.incrementAndGet();
+    }
+
+    /**
+     * Increments the cancelled counter by one.
+     *
+     * <p>This method is called when the caller cancels a request that has not completed yet, whether it was
+     * waiting for a token, in flight or waiting for a retry.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementCancelled() {
+        cancelled.incrementAndGet();
+    }
+
+    /**
+     * Increments the timed out counter by one.
+     *
+     * <p>This method is called when a request completes with {@link ResponseCode#TIMEOUT}, either because its
+     * deadline passed or because its last attempt exceeded the attempt timeout.</p>
+     *
+     * @see #getSnapshot()
+     */
+    public void incrementTimedOut() {
+        timedOut.incrementAndGet();
+    }
+
+    /**
+     * Records the size of a response body read for an endpoint.
+     *
+     * <p>This method is called for every response body, including error and rate limited responses.
+     * The wire size is the number of bytes transferred, the decoded size the number of bytes after
+     * decompression. Both are equal for uncompressed responses.</p>
+     *
+     * @param endpoint The endpoint the response belongs to
+     * @param wireBytes The transferred size of the body in bytes
+     * @param decodedBytes The decompressed size of the body in bytes
+     * @see #getSnapshot()
+     */
+    public void recordTransfer(Endpoint endpoint, long wireBytes, long decodedBytes) {
+        TransferCounter counter = transfers.computeIfAbsent(endpoint, e -> new TransferCounter());
+        counter.responses.incrementAndGet();
+        counter.wireBytes.addAndGet(wireBytes);
+        counter.decodedBytes.addAndGet(decodedBytes);
+    }
+
+    /**
+     * Records that a request started waiting for a token.
+     *
+     * <p>This method is called before every acquisition from the pool and is balanced by
+     * {@link #recordQueueWait(RequestContext, long)} once the acquisition got a token, or by
+     * {@link #leaveQueue(RequestContext)} if it failed.</p>
+     *
+     * @param context The priority class and flow of the request
+     * @see #getSnapshot()
+     */
+    public void enterQueue(RequestContext context) {
+        FlowCounter counter = flows.computeIfAbsent(context.getFlow(), f -> new FlowCounter());
+        counter.queued.incrementAndGet();
+        if (flows.size() > MAX_TRACKED_FLOWS) {
+            flows.entrySet().removeIf(entry -> entry.getValue() != counter && entry.getValue().queued.get() == 0);
+        }
+    }
+
+    /**
+     * Records that a request stopped waiting for a token without getting one, e.g. because it was shed.
+     *
+     * @param context The priority class and flow of the request
+     * @see #enterQueue(RequestContext)
+     */
+    public void leaveQueue(RequestContext context) {
+        FlowCounter flow = flows.get(context.getFlow());
+        if (flow != null) {
+            flow.queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Records the time a token acquisition waited before it got a token.
+     *
+     * <p>This method is called for every request that acquires a token from the pool, including acquisitions
+     * served right away. Together with the priority it shows how long each class queues behind the others,
+     * together with the flow how the slots are split between groups and callers.</p>
+     *
+     * @param context The priority class and flow of the request
+     * @param waitNanos The time between requesting and receiving the token in nanoseconds
+     * @see #getSnapshot()
+     */
+    public void recordQueueWait(RequestContext context, long waitNanos) {
+        QueueWaitCounter counter = queueWaits.get(context.getPriority());
+        counter.acquisitions.incrementAndGet();
+        counter.totalNanos.addAndGet(waitNanos);
+        counter.maxNanos.accumulateAndGet(waitNanos, Math::max);
+
+        FlowCounter flow = flows.get(context.getFlow());
+        if (flow != null) {
+            flow.queued.decrementAndGet();
+            flow.acquisitions.incrementAndGet();
+            flow.totalNanos.addAndGet(waitNanos);
+        }
+    }
+
      /**
       * Creates an immutable snapshot of the current metric values.
       *
@@ -170,7 +533,57 @@ public class RequestMetric {
       * @see RequestMetricSnapshot
       */
     public RequestMetricSnapshot getSnapshot() {
-        return new RequestMetricSnapshot(inFlight.get(), totalRequests.get(), retries.get(), failures.get());
+        return new RequestMetricSnapshot(inFlight.get(), totalRequests.get(), retries.get(), failures.get(), coalesced.get(),
+                rateLimited.get(), retriesDenied.get(), refreshes.get(), refreshHits.get(), refreshMisses.get(), staleServed.get(),
+                revalidated.get(), decodesSkipped.get(), rejected.get(), shed.get(), cancelled.get(), timedOut.get(), snapshotTransfers(), snapshotQueueWaits(), snapshotFlows());
+    }
+
+    private Map<Endpoint, TransferSnapshot> snapshotTransfers() {
+        Map<Endpoint, TransferSnapshot> snapshot = new EnumMap<>(Endpoint.class);
+        transfers.forEach((endpoint, counter) -> snapshot.put(endpoint, new TransferSnapshot(
+                counter.responses.get(), counter.wireBytes.get(), counter.decodedBytes.get())));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private Map<RequestPriority, QueueWaitSnapshot> snapshotQueueWaits() {
+        Map<RequestPriority, QueueWaitSnapshot> snapshot = new EnumMap<>(RequestPriority.class);
+        queueWaits.forEach((priority, counter) -> snapshot.put(priority, new QueueWaitSnapshot(
+                counter.acquisitions.get(), counter.totalNanos.get(), counter.maxNanos.get())));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private Map<String, FlowSnapshot> snapshotFlows() {
+        Map<String, FlowSnapshot> snapshot = new HashMap<>();
+        flows.forEach((flow, counter) -> snapshot.put(flow, new FlowSnapshot(
+                counter.queued.get(), counter.acquisitions.get(), counter.totalNanos.get())));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Mutable queue depth and acquisition counters of a single flow.
+     */
+    private static class FlowCounter {
+        private final AtomicLong queued = new AtomicLong(0);
+        private final AtomicLong acquisitions = new AtomicLong(0);
+        private final AtomicLong totalNanos = new AtomicLong(0);
+    }
+
+    /**
+     * Mutable queue wait counters of a single priority class.
+     */
+    private static class QueueWaitCounter {
+        private final AtomicLong acquisitions = new AtomicLong(0);
+        private final AtomicLong totalNanos = new AtomicLong(0);
+        private final AtomicLong maxNanos = new AtomicLong(0);
+    }
+
+    /**
+     * Mutable transfer counters of a single endpoint.
+     */
+    private static class TransferCounter {
+        private final AtomicLong responses = new AtomicLong(0);
+        private final AtomicLong wireBytes = new AtomicLong(0);
+        private final AtomicLong decodedBytes = new AtomicLong(0);
     }
 
      /**
@@ -184,7 +597,7 @@ public class RequestMetric {
       * <ul>
       *   <li><b>Immutable:</b> All fields are final and publicly read-only via Lombok @Getter</li>
       *   <li><b>Thread-Safe:</b> Can be safely shared and accessed from multiple threads</li>
-      *   <li><b>Lightweight:</b> Contains only three long values</li>
+      *   <li><b>Lightweight:</b> Contains only a handful of long values</li>
       * </ul>
       *
       * <p><b>Derived Metrics:</b> From a snapshot, you can calculate:</p>
@@ -193,6 +606,8 @@ public class RequestMetric {
       *   <li><b>Success Rate:</b> (totalRequests - failures) / totalRequests * 100 %</li>
       *   <li><b>Failure Rate:</b> failures / totalRequests * 100 %</li>
       *   <li><b>Retry Rate:</b> retries / totalRequests * 100 %</li>
+      *   <li><b>429 Rate:</b> rateLimited / totalRequests * 100 %</li>
+      *   <li><b>Shed Rate:</b> (rejected + shed) / (totalRequests + rejected) * 100 %</li>
       * </ul>
       *
       * @see RequestMetric
@@ -228,6 +643,209 @@ public class RequestMetric {
          */
         private final long failures;
 
+        /**
+         * Number of requests that joined an identical request already in flight.
+         * These requests shared the result of the original request and did not consume a token.
+         */
+        private final long coalesced;
+
+        /**
+         * Number of responses rejected with HTTP 429.
+         */
+        private final long rateLimited;
+
+        /**
+         * Number of retryable failures given up because the retry budget was exhausted.
+         */
+        private final long retriesDenied;
+
+        /**
+         * Number of background refreshes started for cached responses.
+         */
+        private final long refreshes;
+
+        /**
+         * Number of lookups of endpoints with a refresh policy that were served from the cache.
+         */
+        private final long refreshHits;
+
+        /**
+         * Number of lookups of endpoints with a refresh policy that had to wait for the network.
+         */
+        private final long refreshMisses;
+
+        /**
+         * Number of expired responses served within their stale window.
+         */
+        private final long staleServed;
+
+        /**
+         * Number of cached responses revalidated with HTTP 304.
+         */
+        private final long revalidated;
+
+        /**
+         * Number of response bodies not decoded because they matched the cached response.
+         */
+        private final long decodesSkipped;
+
+        /**
+         * Number of requests refused on admission because they could not get a token before their deadline.
+         */
+        private final long rejected;
+
+        /**
+         * Number of queued requests dropped because their deadline passed while waiting for a token.
+         */
+        private final long shed;
+
+        /**
+         * Number of requests cancelled by their caller before they completed.
+         */
+        private final long cancelled;
+
+        /**
+         * Number of requests completed with TIMEOUT.
+         */
+        private final long timedOut;
+
+        /**
+         * Transferred and decoded response bytes per endpoint. Endpoints without responses are absent.
+         */
+        private final Map<Endpoint, TransferSnapshot> transfers;
+
+        /**
+         * Time token acquisitions waited per priority class. Every class is present.
+         */
+        private final Map<RequestPriority, QueueWaitSnapshot> queueWaits;
+
+        /**
+         * Queue depth and acquisitions per flow. Only recently active flows are present.
+         */
+        private final Map<String, FlowSnapshot> flows;
+
+        /**
+         * Gets the number of requests waiting for a token across all flows.
+         *
+         * @return The length of the token queue
+         */
+        public long getQueueLength() {
+            return flows.values().stream().mapToLong(FlowSnapshot::getQueued).sum();
+        }
+
+        /**
+         * Gets the transferred bytes of all endpoints.
+         *
+         * @return The summed wire size of all response bodies
+         */
+        public long getWireBytes() {
+            return transfers.values().stream().mapToLong(TransferSnapshot::getWireBytes).sum();
+        }
+
+        /**
+         * Gets the decoded bytes of all endpoints.
+         *
+         * @return The summed decompressed size of all response bodies
+         */
+        public long getDecodedBytes() {
+            return transfers.values().stream().mapToLong(TransferSnapshot::getDecodedBytes).sum();
+        }
+
+    }
+
+    /**
+     * Immutable transfer statistics of a single endpoint.
+     *
+     * <p>The compression ratio of an endpoint is {@code decodedBytes / wireBytes}.</p>
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class TransferSnapshot {
+
+        /**
+         * Number of response bodies read.
+         */
+        private final long responses;
+
+        /**
+         * Summed size of the response bodies as transferred.
+         */
+        private final long wireBytes;
+
+        /**
+         * Summed size of the response bodies after decompression.
+         */
+        private final long decodedBytes;
+
+    }
+
+
+    /**
+     * Immutable queue wait statistics of a single priority class.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class QueueWaitSnapshot {
+
+        /**
+         * Number of token acquisitions.
+         */
+        private final long acquisitions;
+
+        /**
+         * Summed time the acquisitions waited for a token in nanoseconds.
+         */
+        private final long totalWaitNanos;
+
+        /**
+         * Longest time a single acquisition waited for a token in nanoseconds.
+         */
+        private final long maxWaitNanos;
+
+        /**
+         * Gets the average time an acquisition waited for a token.
+         *
+         * @return Average wait in milliseconds, 0 without acquisitions
+         */
+        public double getAverageWaitMs() {
+            return acquisitions == 0 ? 0 : totalWaitNanos / (double) acquisitions / 1_000_000;
+        }
+
     }
 
-}
\ No newline at end of file
+    /**
+     * Immutable queue statistics of a single flow, i.e. a request group or caller key.
+     *
+     * <p>The throughput of a flow is the difference of {@code acquisitions} between two snapshots divided by the
+     * time between them.</p>
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class FlowSnapshot {
+
+        /**
+         * Number of requests of the flow waiting for a token.
+         */
+        private final long queued;
+
+        /**
+         * Number of tokens acquired by the flow.
+         */
+        private final long acquisitions;
+
+        /**
+         * Summed time the acquisitions waited for a token in nanoseconds.
+         */
+        private final long totalWaitNanos;
+
+        /**
+         * Gets the average time an acquisition of the flow waited for a token.
+         *
+         * @return Average wait in milliseconds, 0 without acquisitions
+         */
+        public double getAverageWaitMs() {
+            return acquisitions == 0 ? 0 : totalWaitNanos / (double) acquisitions / 1_000_000;
+        }
+
+    }
+}
@@ -0,0 +1,47 @@
+package de.shurablack.jima.http;
+
+/**
+ * Priority class of a request sharing the token budget with other requests.
+ *
+ * <p>Priorities only matter while requests wait for a token: when a token reset frees slots, the
+ * {@link de.shurablack.jima.util.TokenPool} serves waiting requests of higher classes first. To keep lower
+ * classes from starving, each class is guaranteed its {@link #getReservedShare() reserved share} of the slots
+ * handed out to waiting requests.</p>
+ *
+ * @see RequestManager#enqueueRequest(RequestDescriptor, Class, RequestPriority)
+ * @see RequestGroup#withPriority(RequestPriority)
+ * @see Requester#withPriority(RequestPriority, java.util.function.Supplier)
+ */
+public enum RequestPriority {
+
+    /**
+     * Requests a user is waiting for, e.g. bot commands. Served first.
+     */
+    INTERACTIVE(0.0),
+
+    /**
+     * Regular requests. Default.
+     */
+    NORMAL(0.2),
+
+    /**
+     * Bulk work such as crawlers and cache refreshes. Served last, but never below its reserved share.
+     */
+    BACKGROUND(0.1);
+
+    private final double reservedShare;
+
+    RequestPriority(double reservedShare) {
+        this.reservedShare = reservedShare;
+    }
+
+    /**
+     * Gets the share of the slots handed out to waiting requests that this class receives at least,
+     * as long as it has requests waiting.
+     *
+     * @return Share between 0 and 1
+     */
+    public double getReservedShare() {
+        return reservedShare;
+    }
+}
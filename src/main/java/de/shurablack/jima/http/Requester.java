@@ -1,6 +1,5 @@
 package de.shurablack.jima.http;
 
-import de.shurablack.jima.model.Paged;
 import de.shurablack.jima.model.auth.Authentication;
 import de.shurablack.jima.model.character.CharacterAction;
 import de.shurablack.jima.model.character.CharacterAlts;
@@ -32,6 +31,7 @@ import de.shurablack.jima.util.types.LocationType;
 import de.shurablack.jima.util.types.MarketType;
 import de.shurablack.jima.util.types.MuseumCategory;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -48,7 +48,8 @@ import java.util.stream.Collectors;
  *
  * <p><b>Request Execution:</b></p>
  * <ul>
- *   <li>All methods are <b>blocking</b> by default (they call {@link java.util.concurrent.CompletableFuture#join()})</li>
+ *   <li>All methods are <b>blocking</b> by default (they call {@link java.util.concurrent.CompletableFuture#join()});
+ *       whole flows of them can be run off the calling thread with {@link #submit(Supplier)}</li>
  *   <li>Requests are managed by the singleton {@link RequestManager}, which handles HTTP communication</li>
  *   <li>Token management is handled automatically by {@link de.shurablack.jima.util.TokenPool}</li>
  * </ul>
@@ -112,6 +113,92 @@ public class Requester {
         ).join();
     }
 
+    /**
+     * Runs a blocking flow built from the methods of this class without blocking the calling thread.
+     *
+     * <p>On Java 21+ every flow runs on its own virtual thread, so a large number of concurrent flows only
+     * parks cheap virtual threads while they wait for responses. Older runtimes use a pool of platform threads.</p>
+     *
+     * <pre>
+     * CompletableFuture&lt;GuildMembers&gt; members = Requester.submit(() -&gt; {
+     *     CharacterView character = Requester.getCharacter(characterId).getData();
+     *     return Requester.getGuildMembers(character.getCharacter().getGuild().getId()).getData();
+     * });
+     * </pre>
+     *
+     * @param flow The blocking flow
+     * @return A future completing with the result of the flow
+     * @param <T> The result type
+     * @see RequestManager#submit(Supplier)
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<T> flow) {
+        return RequestManager.getInstance().submit(flow);
+    }
+
+    /**
+     * Runs a call built from the methods of this class with its requests tagged with a priority class.
+     *
+     * <p>Interactive lookups wrapped like this take the token slots of the next reset before queued
+     * background work, see {@link RequestPriority}.</p>
+     *
+     * <pre>
+     * Response&lt;CharacterView&gt; character = Requester.withPriority(RequestPriority.INTERACTIVE,
+     *     () -&gt; Requester.getCharacter(characterId));
+     * </pre>
+     *
+     * @param priority The priority class of the requests
+     * @param call The call to run
+     * @return The result of the call
+     * @param <T> The result type
+     * @see RequestManager#withPriority(RequestPriority, Supplier)
+     */
+    public static <T> T withPriority(RequestPriority priority, Supplier<T> call) {
+        return RequestManager.withPriority(priority, call);
+    }
+
+    /**
+     * Runs a call built from the methods of this class with its requests queued in a flow of their own.
+     *
+     * <p>Once the tokens are exhausted, flows of the same priority take turns on the freed slots by weight,
+     * so one busy caller can't hold back the others, see {@link RequestContext}.</p>
+     *
+     * <pre>
+     * Response&lt;CharacterView&gt; character = Requester.withFlow("guild-" + guildId, 1,
+     *     () -&gt; Requester.getCharacter(characterId));
+     * </pre>
+     *
+     * @param flow The flow key, e.g. a tenant or caller ID
+     * @param weight The weight of the flow (must be &gt; 0)
+     * @param call The call to run
+     * @return The result of the call
+     * @param <T> The result type
+     * @see RequestManager#withFlow(String, int, Supplier)
+     */
+    public static <T> T withFlow(String flow, int weight, Supplier<T> call) {
+        return RequestManager.withFlow(flow, weight, call);
+    }
+
+    /**
+     * Runs a call built from the methods of this class with its requests bounded by a deadline.
+     *
+     * <p>The blocking methods wait at most until the deadline; requests still running then return a response
+     * with {@link ResponseCode#TIMEOUT}. The deadline starts now and covers all requests of the call together.</p>
+     *
+     * <pre>
+     * Response&lt;CharacterView&gt; character = Requester.withTimeout(Duration.ofSeconds(5),
+     *     () -&gt; Requester.getCharacter(characterId));
+     * </pre>
+     *
+     * @param timeout Time from now until the deadline
+     * @param call The call to run
+     * @return The result of the call
+     * @param <T> The result type
+     * @see RequestManager#withTimeout(Duration, Supplier)
+     */
+    public static <T> T withTimeout(Duration timeout, Supplier<T> call) {
+        return RequestManager.withTimeout(timeout, call);
+    }
+
     /**
      * Retrieves authentication information.
      * @return A response containing authentication details.
@@ -228,7 +315,8 @@ public class Requester {
      * <p><b>Features:</b></p>
      * <ul>
      *   <li>Automatically retrieves all pages of results</li>
-     *   <li>Combines results into a single list for convenience</li>
+     *   <li>Fetches page 1 first, then all remaining pages concurrently through the token pool</li>
+     *   <li>Combines results into a single list for convenience, de-duplicated by hashed ID in page order</li>
      *   <li>Returns empty list if the item type yields no results</li>
      * </ul>
      *
@@ -250,26 +338,7 @@ public class Requester {
      *         The response data includes a Paged object with pagination metadata.
      */
     public static Response<Items> searchType(ItemType type) {
-        List<Item> items = new ArrayList<>();
-
-        for (int page = 1 ; ; page++) {
-            Response<Items> response = Requester.searchItems(type, page);
-            if (!response.isSuccessful()) {
-                return new Response<>(response.getResponseCode(), null, response.getError());
-            }
-
-            items.addAll(response.getData().getItems());
-            if (page == response.getData().getPagination().getLastPage()) {
-                break;
-            }
-        }
-
-        Paged pagination = new Paged();
-        pagination.setCurrentPage(1);
-        pagination.setLastPage(1);
-        pagination.setTotal(1);
-        pagination.setHasMore(false);
-        return new Response<>(ResponseCode.SUCCESS, new Items(items, pagination), null);
+        return ParallelRequester.searchType(type).join();
     }
 
     /**
@@ -278,7 +347,7 @@ public class Requester {
      * <p><b>Features:</b></p>
      * <ul>
      *   <li>Retrieves items across multiple item types in a single call</li>
-     *   <li>Automatically handles pagination for each type</li>
+     *   <li>Automatically handles pagination for each type, fetching all types and pages concurrently</li>
      *   <li>Combines all results into a single list</li>
      *   <li>More efficient than calling {@link #searchType(ItemType)} multiple times</li>
      * </ul>
@@ -303,28 +372,7 @@ public class Requester {
      *         The response data includes a Paged object with pagination metadata.
      */
     public static Response<Items> searchTypes(Set<ItemType> types) {
-        List<Item> items = new ArrayList<>();
-
-        for (ItemType type : types) {
-            for (int page = 1 ; ; page++) {
-                Response<Items> response = Requester.searchItems(type, page);
-                if (!response.isSuccessful()) {
-                    return new Response<>(response.getResponseCode(), null, response.getError());
-                }
-
-                items.addAll(response.getData().getItems());
-                if (page == response.getData().getPagination().getLastPage()) {
-                    break;
-                }
-            }
-        }
-
-        Paged pagination = new Paged();
-        pagination.setCurrentPage(1);
-        pagination.setLastPage(1);
-        pagination.setTotal(1);
-        pagination.setHasMore(false);
-        return new Response<>(ResponseCode.SUCCESS, new Items(items, pagination), null);
+        return ParallelRequester.searchTypes(types).join();
     }
 
     /**
@@ -379,7 +427,7 @@ public class Requester {
      * <p><b>WARNING:</b> This method is <b>blocking and resource-intensive</b>.</p>
      * <ul>
      *   <li>Can take <b>several minutes</b> to complete, depending on the number of items and API rate limits</li>
-     *   <li>Makes hundreds of individual API requests</li>
+     *   <li>Makes hundreds of individual API requests (pages are fetched concurrently, {@link ItemType#ALL} is skipped)</li>
      *   <li>Should not be called frequently or in time-sensitive contexts</li>
      * </ul>
      *
@@ -409,27 +457,9 @@ public class Requester {
      * @return A response containing a complete list of all items in the game
      */
     public static Response<List<Item>> getAllItems() {
-        List<Item> items = new ArrayList<>();
-
-        for (ItemType type : ItemType.values()) {
-            for (int page = 1 ; ; page++) {
-                Response<Items> response = Requester.searchItems(type, page);
-                if (!response.isSuccessful()) {
-                    return new Response<>(response.getResponseCode(), null, response.getError());
-                }
-
-                items.addAll(response.getData().getItems());
-                if (page == response.getData().getPagination().getLastPage()) {
-                    break;
-                }
-            }
-        }
-
-        return new Response<>(ResponseCode.SUCCESS, items, null);
+        return ParallelRequester.getAllItems().join();
     }
 
-
-
     /**
      * Performs an advanced search for items using fuzzy matching on item names.
      *
@@ -1210,11 +1240,12 @@ public class Requester {
 
     /**
      * Executes a group of requests with controlled delays and token management.
-     * Requests are processed sequentially or in batches with automatic stalling when tokens drop below the minimum.
+     * Up to {@link RequestGroup#getMaxInFlight()} requests run at once, paced by delays and batches,
+     * with automatic stalling when tokens drop below the minimum. Several groups run concurrently.
      *
      * <p><b>Features:</b></p>
      * <ul>
-     *   <li>Sequential execution with configurable delays between requests</li>
+     *   <li>Pipelined execution with configurable delays between request starts</li>
      *   <li>Batch-based execution - execute X requests then wait</li>
      *   <li>Automatic stalling when token count drops below minimum threshold</li>
      *   <li>Transparent resumption when tokens are restored</li>
@@ -1224,6 +1255,7 @@ public class Requester {
       * <p><b>Example 1 - Sequential with delays using Response requests:</b></p>
       * <pre>{@code
       * RequestGroup group = new RequestGroup()
+      *     .withMaxInFlight(1)                   // One request at a time
       *     .withDelay(1000)                      // 1-second delay between requests
       *     .withMinTokensAllowed(15)             // Keep minimum 15 tokens
       *     .addResponseRequest(() -> Requester.inspectItem("id1"))
@@ -1280,6 +1312,7 @@ public class Requester {
      *         Each future represents the asynchronous completion of a request.
      *
      * @see RequestGroup
+     * @see RequestGroup#withMaxInFlight(int)
      * @see RequestGroup#withDelay(long)
      * @see RequestGroup#withMinTokensAllowed(int)
      * @see RequestGroup#withBatchSize(int)
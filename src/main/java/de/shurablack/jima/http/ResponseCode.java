@@ -40,6 +40,13 @@ public enum ResponseCode {
      */
     NOT_FOUND(404, "Not found"),
 
+    /**
+     * Indicates that the request did not complete in time: its deadline passed while it waited for a token,
+     * connected or read the response, or the server answered with HTTP 408. Attempts that exceed the attempt
+     * timeout and can't be retried complete with this code as well.
+     */
+    TIMEOUT(408, "Request timed out"),
+
     /**
      * Indicates that the request could not be processed due to
      * validation errors. Additional details can be found in the
@@ -52,6 +59,19 @@ public enum ResponseCode {
      */
     TOO_MANY_REQUESTS(429, "Rate limit exceeded"),
 
+    /**
+     * Indicates that the server failed to process the request (any HTTP 5xx status).
+     * These responses are retried according to the configured retry policy.
+     */
+    SERVER_ERROR(500, "Server error, see error code for details"),
+
+    /**
+     * Indicates that the request was refused without being queued or sent, because the estimated wait for a
+     * token exceeded its deadline. A deadline passing later completes the request with {@link #TIMEOUT}.
+     * Produced by the client only; an HTTP 503 from the server maps to {@link #SERVER_ERROR}.
+     */
+    SHED(503, "Request shed, no token before its deadline"),
+
     ;
 
     /**
@@ -68,14 +88,18 @@ public enum ResponseCode {
      * Retrieves the ResponseCode enum constant corresponding to the given HTTP status code.
      *
      * @param code the HTTP status code
-     * @return the matching ResponseCode enum constant, or null if no match is found
+     * @return the matching ResponseCode enum constant, {@link #SERVER_ERROR} for any other 5xx code,
+     *         or null if no match is found
      */
     public static ResponseCode fromCode(int code) {
         for (ResponseCode rc : values()) {
-            if (rc.code == code) {
+            if (rc.code == code && rc != SHED) {
                 return rc;
             }
         }
+        if (code >= 500 && code < 600) {
+            return SERVER_ERROR;
+        }
         return null;
     }
 
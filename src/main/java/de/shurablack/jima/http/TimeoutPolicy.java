@@ -0,0 +1,123 @@
+package de.shurablack.jima.http;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration of the timeouts of the RequestManager.
+ *
+ * <p><b>Settings:</b></p>
+ * <ul>
+ *   <li><b>Attempt Timeout:</b> Time a single HTTP exchange may take, set as {@link java.net.http.HttpRequest#timeout()}
+ *       for the response headers and enforced by a timer while a streamed body is read. An attempt that runs out
+ *       is failed with an {@link java.net.http.HttpTimeoutException} and retried per the retry policy.
+ *       Default: 30 s</li>
+ *   <li><b>Deadline:</b> Time a whole request may take from being enqueued to its response, globally and per
+ *       {@link Endpoint}: waiting for a token, connecting, reading and retrying. Applied to requests whose
+ *       {@link RequestContext} has no deadline of its own. Default: none</li>
+ * </ul>
+ * The connect timeout belongs to the HTTP client and is set on the {@link HttpTransport}.
+ *
+ * <p><b>Deadlines:</b></p>
+ * A request whose deadline passes is completed with {@link ResponseCode#TIMEOUT} by a timer and its remaining
+ * work is cancelled, so blocking calls never wait longer than the deadline. Requests refused up front because
+ * they can't get a token in time complete with {@link ResponseCode#SHED} instead.
+ *
+ * <p><b>Example:</b></p>
+ * <pre>{@code
+ * RequestManager.setTimeoutPolicy(new TimeoutPolicy()
+ *     .withAttemptTimeout(Duration.ofSeconds(10))
+ *     .withDeadline(Duration.ofMinutes(2))
+ *     .withDeadline(Endpoint.CHARACTER_VIEW, Duration.ofSeconds(5)));
+ * }</pre>
+ *
+ * @see RequestContext#withTimeout(Duration)
+ */
+public class TimeoutPolicy {
+
+    /** Default time a single HTTP exchange may take until its response is read. */
+    public static final Duration DEFAULT_ATTEMPT_TIMEOUT = Duration.ofSeconds(30);
+
+    private Duration attemptTimeout = DEFAULT_ATTEMPT_TIMEOUT;
+    private Duration deadline;
+    private final Map<Endpoint, Duration> endpointDeadlines = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Sets the time a single HTTP exchange may take until its response is read.
+     *
+     * @param attemptTimeout The timeout of one attempt (must be positive)
+     * @return This TimeoutPolicy for method chaining
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public TimeoutPolicy withAttemptTimeout(Duration attemptTimeout) {
+        this.attemptTimeout = requirePositive(attemptTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the deadline of requests to all endpoints without an own deadline.
+     *
+     * @param deadline Time from enqueueing to the response (must be positive), or null for none
+     * @return This TimeoutPolicy for method chaining
+     * @throws IllegalArgumentException if the deadline is not positive
+     */
+    public TimeoutPolicy withDeadline(Duration deadline) {
+        this.deadline = deadline == null ? null : requirePositive(deadline);
+        return this;
+    }
+
+    /**
+     * Sets the deadline of requests to one endpoint.
+     *
+     * @param endpoint The endpoint the deadline applies to
+     * @param deadline Time from enqueueing to the response (must be positive)
+     * @return This TimeoutPolicy for method chaining
+     * @throws IllegalArgumentException if the deadline is not positive
+     */
+    public TimeoutPolicy withDeadline(Endpoint endpoint, Duration deadline) {
+        endpointDeadlines.put(endpoint, requirePositive(deadline));
+        return this;
+    }
+
+    /**
+     * Gets the time a single HTTP exchange may take until its response is read.
+     *
+     * @return The attempt timeout
+     */
+    public Duration getAttemptTimeout() {
+        return attemptTimeout;
+    }
+
+    /**
+     * Gets the deadline of requests to an endpoint.
+     *
+     * @param endpoint The endpoint
+     * @return Time from enqueueing to the response, or null if requests to the endpoint have no deadline
+     */
+    public Duration getDeadline(Endpoint endpoint) {
+        return endpointDeadlines.getOrDefault(endpoint, deadline);
+    }
+
+    /**
+     * Adds the deadline of an endpoint to a context without a deadline of its own.
+     *
+     * @param endpoint The endpoint of the request
+     * @param context The context of the caller
+     * @return The context with the endpoint's deadline starting now, or the given context
+     */
+    RequestContext applyTo(Endpoint endpoint, RequestContext context) {
+        if (context.hasDeadline()) {
+            return context;
+        }
+        Duration timeout = getDeadline(endpoint);
+        return timeout == null ? context : context.withTimeout(timeout);
+    }
+
+    private static Duration requirePositive(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        return duration;
+    }
+}
@@ -0,0 +1,91 @@
+package de.shurablack.jima.http.cache;
+
+import de.shurablack.jima.model.EndpointUpdate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Immutable entry of the {@link EndpointCache}.
+ *
+ * <p>Holds the decoded response together with the metadata the cache needs for eviction:
+ * its estimated weight, the instant at which it goes stale, the instant until which the
+ * stale entry may still be served while it is refreshed, and the validators used to revalidate
+ * it once it is expired.</p>
+ *
+ * <p>An entry that replaced one with the same expiry is marked as confirmed: fetching the response again did not
+ * move its expiry, so another refresh before it expires would only return the same response.</p>
+ */
+@AllArgsConstructor
+@Getter
+public class CachedResponse {
+
+    /**
+     * The decoded response data.
+     */
+    private final EndpointUpdate data;
+
+    /**
+     * Estimated size of the entry in bytes (size of the response body).
+     */
+    private final int weight;
+
+    /**
+     * Instant at which the entry goes stale, derived from {@link EndpointUpdate#getEndpointUpdatesAt()}.
+     */
+    private final Instant expiresAt;
+
+    /**
+     * Instant until which the stale entry may be served, i.e. {@link #expiresAt} plus the stale window of its endpoint.
+     */
+    private final Instant staleUntil;
+
+    /**
+     * Instant until which the entry is retained. At least {@link #staleUntil}; later for entries with
+     * validators, so they can still be revalidated after they stopped being servable.
+     */
+    private final Instant retainUntil;
+
+    /**
+     * Validators of the response ({@link Validators#NONE} if there are none).
+     */
+    private final Validators validators;
+
+    /**
+     * Whether the entry replaced one with the same expiry. Confirmed entries are not refreshed again.
+     */
+    private final boolean expiryConfirmed;
+
+    /**
+     * Checks whether the entry is stale at the given instant.
+     *
+     * @param now The reference instant
+     * @return true if the entry expired at or before {@code now}
+     */
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    /**
+     * Checks whether the entry may still be served at the given instant although it is expired.
+     *
+     * @param now The reference instant
+     * @return true if {@code now} lies within the stale window of the entry
+     */
+    public boolean isServableStale(Instant now) {
+        return isExpired(now) && staleUntil.isAfter(now);
+    }
+
+    /**
+     * Checks whether the entry is due for a refresh-ahead at the given instant.
+     *
+     * @param now The reference instant
+     * @param refreshAhead The refresh-ahead window of the endpoint
+     * @return true if the entry is fresh, not confirmed and expires within {@code refreshAhead}
+     */
+    public boolean isRefreshDue(Instant now, Duration refreshAhead) {
+        return !expiryConfirmed && !refreshAhead.isZero() && !isExpired(now) && !expiresAt.minus(refreshAhead).isAfter(now);
+    }
+}
@@ -0,0 +1,448 @@
+package de.shurablack.jima.http.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent, append-only store for raw response bodies that survives application restarts.
+ *
+ * <p><b>Overview:</b></p>
+ * Each stored response is appended to a single log file together with its key (the canonical
+ * request URL) and its expiry timestamp. An in-memory index maps every key to the position of
+ * its latest record, so lookups need a single positional read. The index is rebuilt by scanning
+ * the log on startup; expired records are skipped.
+ *
+ * <p><b>Record Layout:</b></p>
+ * <pre>
+ * int    length of the record payload (everything after this field, excluding the checksum)
+ * byte   record type (1 = put, 0 = delete)
+ * long   expiry as epoch milliseconds
+ * int    key length, followed by the UTF-8 key bytes
+ * int    body length, followed by the UTF-8 body bytes
+ * int    CRC32 checksum of the payload
+ * </pre>
+ * A truncated or corrupted tail (e.g. after a crash) is detected by its checksum and cut off on startup.
+ *
+ * <p><b>Compaction:</b></p>
+ * Overwritten, deleted and expired records stay in the log as dead bytes. Once the dead bytes exceed
+ * the live bytes (and the log is larger than {@link #COMPACTION_MIN_BYTES}), the live records are
+ * rewritten into a fresh file which atomically replaces the log. If that fails, the store keeps using
+ * the current log and retries once the log has doubled in size.
+ *
+ * <p><b>Thread Safety:</b></p>
+ * This class is thread-safe. Reads run concurrently; appends and compaction are exclusive.
+ *
+ * @see EndpointCache
+ */
+public class DiskResponseStore implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(DiskResponseStore.class);
+
+    /** Log size below which no compaction is performed. */
+    public static final long COMPACTION_MIN_BYTES = 1024 * 1024;
+
+    private static final byte TYPE_DELETE = 0;
+    private static final byte TYPE_PUT = 1;
+
+    /** Size of the fixed header preceding the key (type + expiry + key length). */
+    private static final int HEADER_BYTES = 1 + Long.BYTES + Integer.BYTES;
+
+    /** Path of the log file. */
+    private final Path file;
+
+    /** Index of the latest live record per key. */
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+    /** Guards the channel: shared for reads, exclusive for appends and compaction. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Channel of the log file. Replaced on compaction. */
+    private FileChannel channel;
+
+    /** Bytes occupied by records that are no longer referenced by the index. */
+    private long deadBytes = 0;
+
+    /** Log size below which no compaction is attempted after a failed one. */
+    private long compactionRetrySize = 0;
+
+    /**
+     * Opens (or creates) a store backed by the given log file and rebuilds its index.
+     *
+     * @param file The log file
+     * @throws IOException if the file can't be opened or read
+     */
+    public DiskResponseStore(Path file) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        load();
+        LOGGER.info("Opened persistent response store {} with {} live entries", file, index.size());
+    }
+
+    /**
+     * Gets the body stored for a key if it has not expired yet.
+     *
+     * @param key The cache key (canonical request URL)
+     * @return The stored body with its expiry, or null if absent or expired
+     */
+    public StoredBody get(String key) {
+        while (true) {
+            Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+
+            if (location.expiresAt <= System.currentTimeMillis()) {
+                remove(key);
+                return null;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(location.bodyLength);
+            lock.readLock().lock();
+            try {
+                if (index.get(key) != location) {
+                    // Replaced or compacted concurrently, retry with the new location
+                    continue;
+                }
+                readFully(channel, buffer, location.bodyOffset);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to read persisted response for {}: {}", key, e.getMessage());
+                return null;
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            return new StoredBody(new String(buffer.array(), StandardCharsets.UTF_8), Instant.ofEpochMilli(location.expiresAt));
+        }
+    }
+
+    /**
+     * Appends a body for a key, replacing any previous record of the key.
+     *
+     * @param key The cache key (canonical request URL)
+     * @param body The raw response body
+     * @param expiresAt The instant at which the body goes stale
+     */
+    public void put(String key, String body, Instant expiresAt) {
+        put(key, body.getBytes(StandardCharsets.UTF_8), expiresAt);
+    }
+
+    /**
+     * Appends a body for a key, replacing any previous record of the key.
+     *
+     * @param key The cache key (canonical request URL)
+     * @param body The raw UTF-8 response body
+     * @param expiresAt The instant at which the body goes stale
+     */
+    public void put(String key, byte[] body, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        append(TYPE_PUT, key, body, expiresAt.toEpochMilli());
+    }
+
+    /**
+     * Removes the record of a key.
+     *
+     * @param key The cache key (canonical request URL)
+     */
+    public void remove(String key) {
+        if (index.containsKey(key)) {
+            append(TYPE_DELETE, key, new byte[0], 0);
+        }
+    }
+
+    /**
+     * Gets the number of live entries.
+     *
+     * @return The number of indexed keys
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Appends a record and updates the index, compacting the log if needed.
+     */
+    private void append(byte type, String key, byte[] body, long expiresAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = HEADER_BYTES + keyBytes.length + Integer.BYTES + body.length;
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        payload.put(type).putLong(expiresAt).putInt(keyBytes.length).put(keyBytes).putInt(body.length).put(body);
+        payload.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + payloadLength + Integer.BYTES);
+        record.putInt(payloadLength).put(payload).putInt((int) crc.getValue());
+        record.flip();
+
+        lock.writeLock().lock();
+        try {
+            long position = channel.size();
+            while (record.hasRemaining()) {
+                channel.write(record, position + record.position());
+            }
+
+            Location previous;
+            if (type == TYPE_PUT) {
+                long bodyOffset = position + Integer.BYTES + HEADER_BYTES + keyBytes.length + Integer.BYTES;
+                previous = index.put(key, new Location(bodyOffset, body.length, expiresAt, record.limit()));
+            } else {
+                previous = index.remove(key);
+                deadBytes += record.limit();
+            }
+            if (previous != null) {
+                deadBytes += previous.recordLength;
+            }
+
+            long size = channel.size();
+            if (deadBytes > COMPACTION_MIN_BYTES && deadBytes > size - deadBytes && size >= compactionRetrySize) {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    compactionRetrySize = size * 2;
+                    LOGGER.warn("Failed to compact persistent response store {}, keeping the current log: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to persist response for {}: {}", key, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites all live, non-expired records into a new log file and replaces the current one.
+     * Must be called while holding the write lock.
+     *
+     * <p>The new log is moved into place while it is still open and only then becomes the channel of the store.
+     * If writing or moving it fails, the temporary file is deleted and the current log stays in use unchanged.</p>
+     *
+     * @throws IOException if the new log can't be written or moved into place
+     */
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        long now = System.currentTimeMillis();
+        long before = channel.size();
+
+        Map<String, Location> rewritten = new ConcurrentHashMap<>();
+        FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long position = 0;
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                if (location.expiresAt <= now) {
+                    continue;
+                }
+
+                ByteBuffer record = ByteBuffer.allocate(location.recordLength);
+                readFully(channel, record, location.bodyOffset - (location.recordLength - Integer.BYTES - location.bodyLength));
+                record.flip();
+                while (record.hasRemaining()) {
+                    target.write(record, position + record.position());
+                }
+
+                long bodyOffset = position + location.recordLength - Integer.BYTES - location.bodyLength;
+                rewritten.put(entry.getKey(), new Location(bodyOffset, location.bodyLength, location.expiresAt, location.recordLength));
+                position += location.recordLength;
+            }
+            target.force(true);
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            target.close();
+            try {
+                Files.deleteIfExists(compacted);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        FileChannel replaced = channel;
+        channel = target;
+        try {
+            replaced.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close replaced log of persistent response store {}: {}", file, e.getMessage());
+        }
+
+        index.clear();
+        index.putAll(rewritten);
+        deadBytes = 0;
+        LOGGER.info("Compacted persistent response store {} from {} to {} bytes", file, before, channel.size());
+    }
+
+    /**
+     * Scans the log and rebuilds the index. A corrupted or truncated tail is cut off.
+     *
+     * @throws IOException if the log can't be read
+     */
+    private void load() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long now = System.currentTimeMillis();
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+
+        while (position + Integer.BYTES <= size) {
+            lengthBuffer.clear();
+            readFully(channel, lengthBuffer, position);
+            int payloadLength = lengthBuffer.getInt(0);
+            long recordLength = Integer.BYTES + (long) payloadLength + Integer.BYTES;
+            if (payloadLength < HEADER_BYTES + Integer.BYTES || position + recordLength > size) {
+                break;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(payloadLength + Integer.BYTES);
+            readFully(channel, record, position + Integer.BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), 0, payloadLength);
+            if ((int) crc.getValue() != record.getInt(payloadLength)) {
+                break;
+            }
+
+            record.rewind();
+            byte type = record.get();
+            long expiresAt = record.getLong();
+            int keyLength = record.getInt();
+            if (keyLength < 0 || keyLength > payloadLength - HEADER_BYTES - Integer.BYTES) {
+                break;
+            }
+            String key = new String(record.array(), record.position(), keyLength, StandardCharsets.UTF_8);
+            record.position(record.position() + keyLength);
+            int bodyLength = record.getInt();
+
+            Location previous;
+            if (type == TYPE_PUT && expiresAt > now) {
+                long bodyOffset = position + Integer.BYTES + HEADER_BYTES + keyLength + Integer.BYTES;
+                previous = index.put(key, new Location(bodyOffset, bodyLength, expiresAt, (int) recordLength));
+            } else {
+                previous = index.remove(key);
+                deadBytes += recordLength;
+            }
+            if (previous != null) {
+                deadBytes += previous.recordLength;
+            }
+
+            position += recordLength;
+        }
+
+        if (position < size) {
+            LOGGER.warn("Truncating corrupted tail of persistent response store {} at {} of {} bytes", file, position, size);
+            channel.truncate(position);
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer is full.
+     *
+     * @throws IOException if the end of the file is reached before the buffer is full
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of persistent response store");
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the log file.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Position of the latest record of a key within the log.
+     */
+    private static class Location {
+
+        /** Offset of the body bytes within the log. */
+        private final long bodyOffset;
+
+        /** Length of the body in bytes. */
+        private final int bodyLength;
+
+        /** Expiry as epoch milliseconds. */
+        private final long expiresAt;
+
+        /** Length of the whole record including length prefix and checksum. */
+        private final int recordLength;
+
+        private Location(long bodyOffset, int bodyLength, long expiresAt, int recordLength) {
+            this.bodyOffset = bodyOffset;
+            this.bodyLength = bodyLength;
+            this.expiresAt = expiresAt;
+            this.recordLength = recordLength;
+        }
+    }
+
+    /**
+     * A body read from the store together with its expiry.
+     */
+    public static class StoredBody {
+
+        /** The raw response body. */
+        private final String body;
+
+        /** The instant at which the body goes stale. */
+        private final Instant expiresAt;
+
+        private StoredBody(String body, Instant expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Gets the raw response body.
+         *
+         * @return The body
+         */
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * Gets the instant at which the body goes stale.
+         *
+         * @return The expiry
+         */
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
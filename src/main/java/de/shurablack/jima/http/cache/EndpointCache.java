@@ -0,0 +1,241 @@
+package de.shurablack.jima.http.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import de.shurablack.jima.http.Endpoint;
+import de.shurablack.jima.model.EndpointUpdate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Bounded, self-expiring cache for {@link EndpointUpdate} responses.
+ *
+ * <p><b>Overview:</b></p>
+ * Wraps a Caffeine cache keyed by the request URL. Every entry carries its own expiry, computed
+ * from the {@code endpointUpdatesAt} field of the response, so entries are evicted exactly when
+ * the API reports them as stale instead of lingering until they are read again.
+ *
+ * <p><b>Eviction:</b></p>
+ * <ul>
+ *   <li><b>Per-Entry Expiry:</b> {@code endpointUpdatesAt} converted from the system time zone,
+ *       or {@link EndpointCacheSettings#getDefaultExpiry()} if the response has no update time</li>
+ *   <li><b>Size Bound:</b> Entries are weighted by their response body size; the least valuable
+ *       entries are evicted once {@link EndpointCacheSettings#getMaximumWeight()} is exceeded</li>
+ *   <li><b>Stale Window:</b> Entries of endpoints with a {@link RefreshPolicy} are retained for the stale window
+ *       after their expiry, so they can be served while a background refresh is in flight</li>
+ *   <li><b>Revalidation Window:</b> Entries with {@link Validators} are retained for
+ *       {@link EndpointCacheSettings#getRevalidationWindow()} after their expiry. They are no longer served,
+ *       but can be revalidated with a conditional request instead of being downloaded again</li>
+ * </ul>
+ *
+ * <p><b>Thread Safety:</b></p>
+ * This class is thread-safe. All operations delegate to the concurrent Caffeine cache.
+ *
+ * @see EndpointCacheSettings
+ * @see CachedResponse
+ */
+public class EndpointCache {
+
+    /** The underlying Caffeine cache. */
+    private final Cache<String, CachedResponse> cache;
+
+    /** The settings this cache was created with. */
+    private final EndpointCacheSettings settings;
+
+    /**
+     * Creates a new endpoint cache with the given settings.
+     *
+     * @param settings The cache configuration
+     */
+    public EndpointCache(EndpointCacheSettings settings) {
+        this.settings = settings;
+
+        Caffeine<String, CachedResponse> builder = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaximumWeight())
+                .weigher((String key, CachedResponse value) -> value.getWeight())
+                .expireAfter(new ResponseExpiry());
+
+        if (settings.isRecordStats()) {
+            builder.recordStats();
+        }
+
+        this.cache = builder.build();
+    }
+
+    /**
+     * Gets the retained entry for a key. The entry may be expired but still within its stale or revalidation window.
+     *
+     * @param key The cache key (request URL)
+     * @return The cached entry, or null if absent or past its stale and revalidation window
+     */
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores a response in the cache.
+     *
+     * <p>Responses that are already stale at insertion time are not stored.</p>
+     *
+     * @param key The cache key (request URL)
+     * @param endpoint The endpoint the response belongs to (selects the refresh policy, may be null)
+     * @param data The decoded response
+     * @param bodySize The size of the response body, used as the entry weight
+     */
+    public void put(String key, Endpoint endpoint, EndpointUpdate data, int bodySize) {
+        put(key, endpoint, data, bodySize, Validators.NONE);
+    }
+
+    /**
+     * Stores a response in the cache together with its validators.
+     *
+     * @param key The cache key (request URL)
+     * @param endpoint The endpoint the response belongs to (selects the refresh policy, may be null)
+     * @param data The decoded response
+     * @param bodySize The size of the response body, used as the entry weight
+     * @param validators The validators of the response
+     */
+    public void put(String key, Endpoint endpoint, EndpointUpdate data, int bodySize, Validators validators) {
+        put(key, endpoint, data, bodySize, expiresAt(data, settings.getDefaultExpiry()), validators);
+    }
+
+    /**
+     * Stores a response in the cache with an explicit expiry.
+     *
+     * <p>Used when the expiry is already known, e.g. for responses restored from the {@link DiskResponseStore}.
+     * If the entry replaces one with the same expiry, it is stored as
+     * {@linkplain CachedResponse#isExpiryConfirmed() confirmed}.</p>
+     *
+     * @param key The cache key (request URL)
+     * @param endpoint The endpoint the response belongs to (selects the refresh policy, may be null)
+     * @param data The decoded response
+     * @param bodySize The size of the response body, used as the entry weight
+     * @param expiresAt The instant at which the entry goes stale
+     */
+    public void put(String key, Endpoint endpoint, EndpointUpdate data, int bodySize, Instant expiresAt) {
+        put(key, endpoint, data, bodySize, expiresAt, Validators.NONE);
+    }
+
+    /**
+     * Stores a response in the cache with an explicit expiry and its validators.
+     *
+     * <p>Used after a successful revalidation, where the previously decoded object is kept with a new expiry.</p>
+     *
+     * @param key The cache key (request URL)
+     * @param endpoint The endpoint the response belongs to (selects the refresh policy, may be null)
+     * @param data The decoded response
+     * @param bodySize The size of the response body, used as the entry weight
+     * @param expiresAt The instant at which the entry goes stale
+     * @param validators The validators of the response
+     */
+    public void put(String key, Endpoint endpoint, EndpointUpdate data, int bodySize, Instant expiresAt, Validators validators) {
+        RefreshPolicy policy = settings.getRefreshPolicy(endpoint);
+        Instant staleUntil = policy == null ? expiresAt : expiresAt.plus(policy.getStaleWindow());
+        Instant revalidateUntil = validators.isEmpty() ? staleUntil : expiresAt.plus(settings.getRevalidationWindow());
+        Instant retainUntil = revalidateUntil.isAfter(staleUntil) ? revalidateUntil : staleUntil;
+        if (!retainUntil.isAfter(Instant.now())) {
+            return;
+        }
+
+        int weight = Math.max(1, bodySize);
+        cache.asMap().compute(key, (k, previous) -> new CachedResponse(data, weight, expiresAt, staleUntil, retainUntil,
+                validators, previous != null && previous.getExpiresAt().equals(expiresAt)));
+    }
+
+    /**
+     * Computes the instant at which a response goes stale.
+     *
+     * @param data The decoded response
+     * @param defaultExpiry Lifetime used if the response has no update time
+     * @return The update time of the response, or now plus the default expiry if not set
+     */
+    public static Instant expiresAt(EndpointUpdate data, Duration defaultExpiry) {
+        LocalDateTime updatesAt = data.getEndpointUpdatesAt();
+        if (updatesAt == null) {
+            return Instant.now().plus(defaultExpiry);
+        }
+        return updatesAt.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Gets the recorded statistics of this cache.
+     *
+     * @return The cache statistics (empty if statistics are not recorded)
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Gets the approximate number of entries in this cache.
+     *
+     * @return The estimated entry count
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Performs pending maintenance such as evicting expired or overweight entries.
+     * Caffeine does this asynchronously on its own; calling it is only needed for deterministic state.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Removes all entries from this cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        cache.cleanUp();
+    }
+
+    /**
+     * Gets the settings this cache was created with.
+     *
+     * @return The cache settings
+     */
+    public EndpointCacheSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Caffeine expiry policy that lets each entry live until its own {@link CachedResponse#getRetainUntil()}.
+     * Reads do not extend the lifetime of an entry.
+     */
+    private static class ResponseExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return nanosUntil(value.getRetainUntil());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return nanosUntil(value.getRetainUntil());
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long nanosUntil(Instant instant) {
+            Duration remaining = Duration.between(Instant.now(), instant);
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            try {
+                return remaining.toNanos();
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package de.shurablack.jima.http.cache;
+
+import de.shurablack.jima.http.Endpoint;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for the {@link EndpointCache}.
+ *
+ * <p><b>Settings:</b></p>
+ * <ul>
+ *   <li><b>Maximum Weight:</b> Upper bound for the summed weight of all entries. The weight of an entry
+ *       is estimated from the size of its response body in bytes. Default: 64 MiB</li>
+ *   <li><b>Default Expiry:</b> Lifetime of entries whose {@code endpointUpdatesAt} is not set. Default: 5 minutes</li>
+ *   <li><b>Record Stats:</b> Whether hit/miss/eviction statistics are recorded. Default: false</li>
+ *   <li><b>Refresh Policies:</b> Per-endpoint refresh-ahead and stale-while-revalidate windows. Default: none</li>
+ *   <li><b>Revalidation Window:</b> Time after expiry during which entries with validators (ETag, Last-Modified
+ *       or a body digest) are kept to revalidate them with a conditional request. Default: 1 hour</li>
+ * </ul>
+ *
+ * <p><b>Example:</b></p>
+ * <pre>{@code
+ * RequestManager.enableEndpointCaching(new EndpointCacheSettings()
+ *     .withMaximumWeight(256L * 1024 * 1024)   // 256 MiB of response bodies
+ *     .withDefaultExpiry(Duration.ofMinutes(1))
+ *     .withRecordStats(true));
+ * }</pre>
+ *
+ * @see EndpointCache
+ */
+public class EndpointCacheSettings {
+
+    /** Default maximum weight of the cache (64 MiB of response bodies). */
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+
+    /** Default lifetime of entries without an update time. */
+    public static final Duration DEFAULT_EXPIRY = Duration.ofMinutes(5);
+
+    /** Default time expired entries with validators are kept for revalidation. */
+    public static final Duration DEFAULT_REVALIDATION_WINDOW = Duration.ofHours(1);
+
+    private long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+    private Duration defaultExpiry = DEFAULT_EXPIRY;
+    private boolean recordStats = false;
+    private Duration revalidationWindow = DEFAULT_REVALIDATION_WINDOW;
+    private final Map<Endpoint, RefreshPolicy> refreshPolicies = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Sets the maximum summed weight of all cached entries.
+     * The weight of an entry is the size of its response body in bytes.
+     *
+     * @param maximumWeight Maximum weight (must be &gt; 0)
+     * @return This EndpointCacheSettings for method chaining
+     * @throws IllegalArgumentException if maximumWeight is less than 1
+     */
+    public EndpointCacheSettings withMaximumWeight(long maximumWeight) {
+        if (maximumWeight < 1) {
+            throw new IllegalArgumentException("Maximum weight must be >= 1");
+        }
+        this.maximumWeight = maximumWeight;
+        return this;
+    }
+
+    /**
+     * Sets the lifetime of entries whose response does not provide an update time.
+     *
+     * @param defaultExpiry Lifetime of such entries (zero disables caching them)
+     * @return This EndpointCacheSettings for method chaining
+     */
+    public EndpointCacheSettings withDefaultExpiry(Duration defaultExpiry) {
+        this.defaultExpiry = defaultExpiry.isNegative() ? Duration.ZERO : defaultExpiry;
+        return this;
+    }
+
+    /**
+     * Sets whether hit/miss/eviction statistics are recorded.
+     *
+     * @param recordStats true to record statistics (slightly higher overhead)
+     * @return This EndpointCacheSettings for method chaining
+     */
+    public EndpointCacheSettings withRecordStats(boolean recordStats) {
+        this.recordStats = recordStats;
+        return this;
+    }
+
+    /**
+     * Sets the time after expiry during which entries with validators are kept for revalidation.
+     * Such entries are not served anymore, but count against the maximum weight until they are evicted.
+     *
+     * @param revalidationWindow Window after expiry (zero disables conditional revalidation of expired entries)
+     * @return This EndpointCacheSettings for method chaining
+     */
+    public EndpointCacheSettings withRevalidationWindow(Duration revalidationWindow) {
+        this.revalidationWindow = revalidationWindow.isNegative() ? Duration.ZERO : revalidationWindow;
+        return this;
+    }
+
+    /**
+     * Sets the refresh policy of an endpoint.
+     * Entries of endpoints without a policy simply expire at their update time.
+     *
+     * @param endpoint The endpoint the policy applies to
+     * @param policy The refresh policy, or null to remove the current policy
+     * @return This EndpointCacheSettings for method chaining
+     */
+    public EndpointCacheSettings withRefreshPolicy(Endpoint endpoint, RefreshPolicy policy) {
+        if (policy == null) {
+            refreshPolicies.remove(endpoint);
+        } else {
+            refreshPolicies.put(endpoint, policy);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the maximum summed weight of all cached entries.
+     *
+     * @return Maximum weight in bytes
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Gets the lifetime of entries without an update time.
+     *
+     * @return Default expiry
+     */
+    public Duration getDefaultExpiry() {
+        return defaultExpiry;
+    }
+
+    /**
+     * Checks whether statistics are recorded.
+     *
+     * @return true if statistics are recorded
+     */
+    public boolean isRecordStats() {
+        return recordStats;
+    }
+
+    /**
+     * Gets the time after expiry during which entries with validators are kept for revalidation.
+     *
+     * @return Revalidation window
+     */
+    public Duration getRevalidationWindow() {
+        return revalidationWindow;
+    }
+
+    /**
+     * Gets the refresh policy of an endpoint.
+     *
+     * @param endpoint The endpoint
+     * @return The refresh policy, or null if the endpoint has none
+     */
+    public RefreshPolicy getRefreshPolicy(Endpoint endpoint) {
+        return endpoint == null ? null : refreshPolicies.get(endpoint);
+    }
+}
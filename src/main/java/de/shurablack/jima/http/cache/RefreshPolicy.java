@@ -0,0 +1,97 @@
+package de.shurablack.jima.http.cache;
+
+import java.time.Duration;
+
+/**
+ * Per-endpoint refresh policy of the {@link EndpointCache}.
+ *
+ * <p><b>Settings:</b></p>
+ * <ul>
+ *   <li><b>Refresh Ahead:</b> Window before {@code endpointUpdatesAt} in which a lookup triggers a background
+ *       re-fetch of the entry, so hot entries are replaced before they go stale. Default: zero (disabled)</li>
+ *   <li><b>Stale Window:</b> Time after {@code endpointUpdatesAt} during which the stale entry is still served
+ *       while a background re-fetch is in flight. Default: zero (disabled)</li>
+ *   <li><b>Spare Requests:</b> Requests a token must have left above the usage limit before a refresh-ahead
+ *       is started, so background refreshes never compete with regular requests for budget. Default: 1</li>
+ * </ul>
+ *
+ * <p><b>Example:</b></p>
+ * <pre>{@code
+ * RequestManager.enableEndpointCaching(new EndpointCacheSettings()
+ *     .withRefreshPolicy(Endpoint.WORLD_BOSSES, new RefreshPolicy()
+ *         .withRefreshAhead(Duration.ofSeconds(10))
+ *         .withStaleWindow(Duration.ofSeconds(30))));
+ * }</pre>
+ *
+ * @see EndpointCacheSettings#withRefreshPolicy(de.shurablack.jima.http.Endpoint, RefreshPolicy)
+ */
+public class RefreshPolicy {
+
+    private Duration refreshAhead = Duration.ZERO;
+    private Duration staleWindow = Duration.ZERO;
+    private int spareRequests = 1;
+
+    /**
+     * Sets the window before expiry in which lookups trigger a background refresh.
+     *
+     * @param refreshAhead Window before expiry (zero disables refresh-ahead)
+     * @return This RefreshPolicy for method chaining
+     */
+    public RefreshPolicy withRefreshAhead(Duration refreshAhead) {
+        this.refreshAhead = refreshAhead.isNegative() ? Duration.ZERO : refreshAhead;
+        return this;
+    }
+
+    /**
+     * Sets the time after expiry during which the stale entry is served while it is being refreshed.
+     *
+     * @param staleWindow Window after expiry (zero disables stale-while-revalidate)
+     * @return This RefreshPolicy for method chaining
+     */
+    public RefreshPolicy withStaleWindow(Duration staleWindow) {
+        this.staleWindow = staleWindow.isNegative() ? Duration.ZERO : staleWindow;
+        return this;
+    }
+
+    /**
+     * Sets the number of requests a token must have left above the usage limit before a refresh-ahead is started.
+     *
+     * @param spareRequests Required spare requests (must be &gt; 0)
+     * @return This RefreshPolicy for method chaining
+     * @throws IllegalArgumentException if spareRequests is less than 1
+     */
+    public RefreshPolicy withSpareRequests(int spareRequests) {
+        if (spareRequests < 1) {
+            throw new IllegalArgumentException("Spare requests must be >= 1");
+        }
+        this.spareRequests = spareRequests;
+        return this;
+    }
+
+    /**
+     * Gets the window before expiry in which lookups trigger a background refresh.
+     *
+     * @return Refresh-ahead window
+     */
+    public Duration getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    /**
+     * Gets the time after expiry during which the stale entry is still served.
+     *
+     * @return Stale window
+     */
+    public Duration getStaleWindow() {
+        return staleWindow;
+    }
+
+    /**
+     * Gets the number of spare requests required for a refresh-ahead.
+     *
+     * @return Required spare requests
+     */
+    public int getSpareRequests() {
+        return spareRequests;
+    }
+}
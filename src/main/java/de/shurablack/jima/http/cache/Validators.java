@@ -0,0 +1,68 @@
+package de.shurablack.jima.http.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.MessageDigest;
+
+/**
+ * Immutable validators of a cached response, used to revalidate it instead of downloading it again.
+ *
+ * <p><b>Validators:</b></p>
+ * <ul>
+ *   <li><b>ETag:</b> Entity tag sent by the server, revalidated with {@code If-None-Match}</li>
+ *   <li><b>Last-Modified:</b> Modification date sent by the server, revalidated with {@code If-Modified-Since}</li>
+ *   <li><b>Digest:</b> SHA-256 hash of the decoded body, computed locally if the server sends neither header.
+ *       A new response with the same digest reuses the cached object instead of being decoded again</li>
+ * </ul>
+ */
+@AllArgsConstructor
+@Getter
+public class Validators {
+
+    /** Validators of a response without any. */
+    public static final Validators NONE = new Validators(null, null, null);
+
+    /**
+     * The entity tag of the response, or null if not sent.
+     */
+    private final String etag;
+
+    /**
+     * The {@code Last-Modified} header of the response, or null if not sent.
+     */
+    private final String lastModified;
+
+    /**
+     * SHA-256 digest of the decoded body, or null if not computed.
+     */
+    private final byte[] digest;
+
+    /**
+     * Checks whether the response can be revalidated with a conditional request.
+     *
+     * @return true if an ETag or Last-Modified date is present
+     */
+    public boolean isConditional() {
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * Checks whether the response has any validator.
+     *
+     * @return true if neither conditional validators nor a digest are present
+     */
+    public boolean isEmpty() {
+        return !isConditional() && digest == null;
+    }
+
+    /**
+     * Checks whether a body digest matches the digest of this response.
+     *
+     * @param other The digest of another body
+     * @return true if both digests are present and equal
+     */
+    public boolean matchesDigest(byte[] other) {
+        return digest != null && other != null && MessageDigest.isEqual(digest, other);
+    }
+}
@@ -0,0 +1,83 @@
+package de.shurablack.jima.http.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global budget that caps retries at a fraction of the first attempts.
+ *
+ * <p><b>Overview:</b></p>
+ * Every first attempt deposits {@code ratio} credits, every retry withdraws one credit. The balance
+ * is capped at {@code minRetries} credits and starts full, so low-traffic clients can still retry a
+ * few requests while under sustained load retries never exceed {@code ratio} of the request
+ * throughput. This prevents retry storms from eating the token budget the regular requests need.
+ *
+ * <p><b>Thread Safety:</b></p>
+ * This class is thread-safe. The balance is kept in milli-credits in a single AtomicLong.
+ *
+ * @see RetryPolicy#withBudget(double, int)
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    /** Milli-credits deposited per first attempt. */
+    private final long deposit;
+
+    /** Maximum balance in milli-credits. */
+    private final long capacity;
+
+    /** Current balance in milli-credits. */
+    private final AtomicLong balance;
+
+    /**
+     * Creates a new retry budget.
+     *
+     * @param ratio Fraction of first attempts that may be retried (0 to 1)
+     * @param minRetries Retries that are always available as a burst (must be &gt; 0)
+     * @throws IllegalArgumentException if ratio is outside [0, 1] or minRetries is less than 1
+     */
+    public RetryBudget(double ratio, int minRetries) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Retry ratio must be between 0 and 1");
+        }
+        if (minRetries < 1) {
+            throw new IllegalArgumentException("Minimum retries must be >= 1");
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = minRetries * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * Records a first attempt, earning credit for later retries.
+     */
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    /**
+     * Attempts to spend one credit for a retry.
+     *
+     * @return true if the retry is within budget
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of retries currently available.
+     *
+     * @return Available retries (rounded down)
+     */
+    public long available() {
+        return balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,226 @@
+package de.shurablack.jima.http.retry;
+
+import de.shurablack.jima.http.Endpoint;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Configuration of the retry engine of the RequestManager.
+ *
+ * <p><b>Settings:</b></p>
+ * <ul>
+ *   <li><b>Backoff:</b> Exponential backoff with full jitter: the n-th retry waits a random time between zero and
+ *       {@code min(maxDelay, baseDelay * 2^(n-1))}. Default: 500 ms base, 30 s maximum</li>
+ *   <li><b>Max Attempts:</b> Total attempts per request (first attempt included), globally and per {@link Endpoint}.
+ *       Default: 4</li>
+ *   <li><b>Retryable Statuses:</b> HTTP status codes that are retried. Default: 429, 500, 502, 503, 504</li>
+ *   <li><b>Retryable Exceptions:</b> Exception types (and subtypes) that are retried. Default: {@link IOException},
+ *       which covers connection failures and HTTP timeouts</li>
+ *   <li><b>Budget:</b> Global {@link RetryBudget}. Default: 20 % of first attempts plus a burst of 10 retries</li>
+ * </ul>
+ *
+ * <p><b>Example:</b></p>
+ * <pre>{@code
+ * RequestManager.setRetryPolicy(new RetryPolicy()
+ *     .withBaseDelay(Duration.ofMillis(250))
+ *     .withMaxAttempts(3)
+ *     .withMaxAttempts(Endpoint.ITEMS, 6)
+ *     .withBudget(0.1, 5));
+ * }</pre>
+ *
+ * <p>A policy holds the state of its retry budget, so one instance should be used by one RequestManager.</p>
+ *
+ * @see RetryBudget
+ */
+public class RetryPolicy {
+
+    /** Default delay of the first retry (upper bound of its jitter). */
+    public static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(500);
+
+    /** Default upper bound of any backoff delay. */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+
+    /** Default total attempts per request. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+
+    private Duration baseDelay = DEFAULT_BASE_DELAY;
+    private Duration maxDelay = DEFAULT_MAX_DELAY;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private final Map<Endpoint, Integer> endpointMaxAttempts = new EnumMap<>(Endpoint.class);
+    private final Set<Integer> retryableStatuses = new HashSet<>(Arrays.asList(429, 500, 502, 503, 504));
+    private final List<Class<? extends Throwable>> retryableExceptions = new ArrayList<>(List.of(IOException.class));
+    private RetryBudget budget = new RetryBudget(0.2, 10);
+
+    /**
+     * Sets the delay bound of the first retry. Each further retry doubles the bound.
+     *
+     * @param baseDelay Base delay (must not be negative)
+     * @return This RetryPolicy for method chaining
+     */
+    public RetryPolicy withBaseDelay(Duration baseDelay) {
+        this.baseDelay = baseDelay.isNegative() ? Duration.ZERO : baseDelay;
+        return this;
+    }
+
+    /**
+     * Sets the upper bound of any backoff delay.
+     *
+     * @param maxDelay Maximum delay (must not be negative)
+     * @return This RetryPolicy for method chaining
+     */
+    public RetryPolicy withMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay.isNegative() ? Duration.ZERO : maxDelay;
+        return this;
+    }
+
+    /**
+     * Sets the total number of attempts per request for all endpoints without an own limit.
+     *
+     * @param maxAttempts Total attempts including the first one (1 disables retries)
+     * @return This RetryPolicy for method chaining
+     * @throws IllegalArgumentException if maxAttempts is less than 1
+     */
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        this.maxAttempts = requirePositive(maxAttempts);
+        return this;
+    }
+
+    /**
+     * Sets the total number of attempts per request for one endpoint.
+     *
+     * @param endpoint The endpoint the limit applies to
+     * @param maxAttempts Total attempts including the first one (1 disables retries)
+     * @return This RetryPolicy for method chaining
+     * @throws IllegalArgumentException if maxAttempts is less than 1
+     */
+    public RetryPolicy withMaxAttempts(Endpoint endpoint, int maxAttempts) {
+        endpointMaxAttempts.put(endpoint, requirePositive(maxAttempts));
+        return this;
+    }
+
+    /**
+     * Replaces the set of retryable HTTP status codes.
+     *
+     * @param statuses The status codes to retry
+     * @return This RetryPolicy for method chaining
+     */
+    public RetryPolicy withRetryableStatuses(Integer... statuses) {
+        retryableStatuses.clear();
+        retryableStatuses.addAll(Arrays.asList(statuses));
+        return this;
+    }
+
+    /**
+     * Adds an exception type that is retried (subtypes included).
+     *
+     * @param exception The exception type
+     * @return This RetryPolicy for method chaining
+     */
+    public RetryPolicy withRetryableException(Class<? extends Throwable> exception) {
+        retryableExceptions.add(exception);
+        return this;
+    }
+
+    /**
+     * Replaces the retry budget.
+     *
+     * @param ratio Fraction of first attempts that may be retried (0 to 1)
+     * @param minRetries Retries that are always available as a burst
+     * @return This RetryPolicy for method chaining
+     * @see RetryBudget#RetryBudget(double, int)
+     */
+    public RetryPolicy withBudget(double ratio, int minRetries) {
+        this.budget = new RetryBudget(ratio, minRetries);
+        return this;
+    }
+
+    /**
+     * Gets the total number of attempts allowed for a request to an endpoint.
+     *
+     * @param endpoint The endpoint
+     * @return Total attempts including the first one
+     */
+    public int getMaxAttempts(Endpoint endpoint) {
+        return endpointMaxAttempts.getOrDefault(endpoint, maxAttempts);
+    }
+
+    /**
+     * Checks whether a response with the given status code should be retried.
+     *
+     * @param status The HTTP status code
+     * @return true if the status is retryable
+     */
+    public boolean isRetryableStatus(int status) {
+        return retryableStatuses.contains(status);
+    }
+
+    /**
+     * Checks whether a failure should be retried. Wrapping {@link CompletionException}s and
+     * {@link ExecutionException}s are unwrapped first.
+     *
+     * @param failure The failure of the attempt
+     * @return true if the failure or its cause is of a retryable type
+     */
+    public boolean isRetryableException(Throwable failure) {
+        Throwable cause = unwrap(failure);
+        return retryableExceptions.stream().anyMatch(type -> type.isInstance(cause));
+    }
+
+    /**
+     * Computes the backoff delay before a retry using full jitter.
+     *
+     * @param retry The number of the retry (1 for the first retry)
+     * @return A random delay between zero and {@code min(maxDelay, baseDelay * 2^(retry-1))}
+     */
+    public Duration backoff(int retry) {
+        long base = baseDelay.toMillis();
+        long max = maxDelay.toMillis();
+        int shift = Math.min(Math.max(0, retry - 1), 30);
+        long bound = base > (max >> shift) ? max : Math.min(max, base << shift);
+        if (bound <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    /**
+     * Gets the retry budget of this policy.
+     *
+     * @return The retry budget
+     */
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Removes CompletionException and ExecutionException wrappers.
+     *
+     * @param failure The failure
+     * @return The innermost relevant cause
+     */
+    public static Throwable unwrap(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static int requirePositive(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be >= 1");
+        }
+        return maxAttempts;
+    }
+}
@@ -0,0 +1,55 @@
+package de.shurablack.jima.http.serialization;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of reading a response body with the {@link DecodingBodyHandler}.
+ *
+ * <p>For 2xx responses it carries the decoded object and the size of the body in bytes; the raw (decompressed)
+ * bytes are only kept if the handler was asked to (e.g. for the persistent cache). For all other responses it
+ * carries the body as error text.</p>
+ *
+ * @param <T> The type of the decoded object
+ */
+@AllArgsConstructor
+@Getter
+public class DecodedBody<T> {
+
+    /**
+     * The decoded object, or null for non-2xx responses.
+     */
+    private final T data;
+
+    /**
+     * Size of the decoded response body in bytes.
+     */
+    private final int size;
+
+    /**
+     * Size of the response body in bytes as transferred, before decompression.
+     * Equal to {@link #size} if the response was not compressed.
+     */
+    private final long wireSize;
+
+    /**
+     * The raw UTF-8 body bytes, or null if they were not requested.
+     */
+    private final byte[] raw;
+
+    /**
+     * The body of a non-2xx response as text, or null for 2xx responses. Cut off after
+     * {@link DecodingBodyHandler#MAX_ERROR_BYTES} bytes.
+     */
+    private final String error;
+
+    /**
+     * SHA-256 digest of the decoded body, or null if it was not computed.
+     */
+    private final byte[] digest;
+
+    /**
+     * Whether the body matched the previous digest and the previously decoded object was reused.
+     */
+    private final boolean reused;
+}
@@ -0,0 +1,335 @@
+package de.shurablack.jima.http.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * {@link HttpResponse.BodyHandler} that decodes JSON bodies straight from the network stream.
+ *
+ * <p><b>Overview:</b></p>
+ * Instead of buffering every response as a {@code String} (UTF-16, twice the wire size) and parsing that,
+ * successful responses are parsed by Jackson directly from the body {@code InputStream} while the bytes
+ * arrive. The handler branches on the status code before the body is read:
+ * <ul>
+ *   <li><b>2xx:</b> Streamed into the target type; only the byte count is tracked</li>
+ *   <li><b>2xx with raw body requested:</b> Buffered once as UTF-8 bytes and parsed from them, so the bytes
+ *       can be persisted without an extra String copy</li>
+ *   <li><b>Other statuses:</b> Captured as text for error reporting, up to {@link #MAX_ERROR_BYTES} bytes. The
+ *       rest is read and discarded, so a large error page is never held in memory</li>
+ * </ul>
+ *
+ * <p><b>Compression:</b></p>
+ * Bodies with a {@code Content-Encoding} of {@code gzip} or {@code deflate} are decompressed on the fly
+ * between the network stream and the parser, so the compressed body is never buffered as a whole. Both the
+ * transferred and the decompressed size are reported in the {@link DecodedBody}. {@code deflate} bodies are
+ * accepted with and without the zlib wrapper, since servers disagree on the format.
+ *
+ * <p><b>Digest:</b></p>
+ * If enabled with {@link #withDigest(byte[], Object)}, a SHA-256 digest of 2xx bodies without {@code ETag} or
+ * {@code Last-Modified} header is computed while they are read. If the digest equals the digest of the previous
+ * response, the body is not decoded again and the previously decoded object is returned instead. To compare the
+ * digest before decoding, such bodies are buffered instead of streamed.
+ *
+ * <p><b>Deferred Decoding:</b></p>
+ * Reading an {@code InputStream} blocks, so the body is mapped to a {@link Supplier} and decoded when the
+ * caller invokes {@link Supplier#get()} instead of on the HTTP client's internal threads. {@code get()} reads on
+ * the thread that calls it: a non-async stage chained on {@code sendAsync} may run on a client thread, so callers
+ * should continue with an async stage on an executor of their own, as the RequestManager does with its decode
+ * executor. Decoding failures and unsupported encodings surface from {@code get()} as {@link UncheckedIOException}.
+ *
+ * <p><b>Aborting:</b></p>
+ * The response future of the HTTP client completes once the headers arrived, so a body streamed from the network
+ * is read after the request timeout and cancellation of that future stopped covering it. The supplier of a
+ * streamed body is therefore {@link Closeable}: closing it, also while another thread is blocked in
+ * {@code get()}, abandons the body and makes {@code get()} fail with an {@link UncheckedIOException}. Buffered
+ * bodies are received before the response future completes and are not closeable.
+ *
+ * @param <T> The type to decode 2xx bodies into
+ * @see DecodedBody
+ */
+public class DecodingBodyHandler<T> implements HttpResponse.BodyHandler<Supplier<DecodedBody<T>>> {
+
+    /** Value of the {@code Accept-Encoding} request header matching the encodings this handler decodes. */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /** Maximum number of (decompressed) bytes of a non-2xx body captured as error text. */
+    public static final int MAX_ERROR_BYTES = 4096;
+
+    private final ObjectMapper mapper;
+    private final Class<T> type;
+    private final boolean keepRaw;
+    private boolean digest = false;
+    private byte[] previousDigest;
+    private T previousData;
+
+    /**
+     * Creates a new decoding body handler.
+     *
+     * @param mapper The mapper used to decode bodies
+     * @param type The type to decode 2xx bodies into
+     * @param keepRaw Whether the raw bytes of 2xx bodies are kept in the result
+     */
+    public DecodingBodyHandler(ObjectMapper mapper, Class<T> type, boolean keepRaw) {
+        this.mapper = mapper;
+        this.type = type;
+        this.keepRaw = keepRaw;
+    }
+
+    /**
+     * Enables the body digest for 2xx responses without validator headers.
+     *
+     * @param previousDigest Digest of the previous response body, or null if there is none
+     * @param previousData The decoded previous response, reused if the digest of the new body matches
+     * @return This DecodingBodyHandler for method chaining
+     */
+    public DecodingBodyHandler<T> withDigest(byte[] previousDigest, T previousData) {
+        this.digest = true;
+        this.previousDigest = previousData == null ? null : previousDigest;
+        this.previousData = previousData;
+        return this;
+    }
+
+    @Override
+    public BodySubscriber<Supplier<DecodedBody<T>>> apply(HttpResponse.ResponseInfo info) {
+        int status = info.statusCode();
+        boolean successful = status >= 200 && status < 300;
+        String encoding = info.headers().firstValue("Content-Encoding")
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .filter(value -> !value.isEmpty() && !value.equals("identity"))
+                .orElse(null);
+        boolean hashing = digest && successful
+                && info.headers().firstValue("ETag").isEmpty()
+                && info.headers().firstValue("Last-Modified").isEmpty();
+        boolean buffered = keepRaw || (hashing && previousDigest != null);
+
+        if (encoding != null || !successful || !buffered) {
+            return BodySubscribers.mapping(BodySubscribers.ofInputStream(), in -> new StreamedBody(in, encoding, successful, hashing, buffered));
+        }
+
+        return BodySubscribers.mapping(BodySubscribers.ofByteArray(), bytes -> () -> decode(bytes, bytes.length, hashing));
+    }
+
+    /**
+     * Decodes a fully buffered 2xx body, reusing the previous object if the digest matches.
+     *
+     * @param bytes The UTF-8 body bytes
+     * @param wireSize The transferred size of the body
+     * @param hashing Whether the digest of the body is computed
+     * @return The decoded body
+     */
+    private DecodedBody<T> decode(byte[] bytes, long wireSize, boolean hashing) {
+        byte[] bodyDigest = hashing ? newDigest().digest(bytes) : null;
+        boolean reused = previousDigest != null && bodyDigest != null && MessageDigest.isEqual(previousDigest, bodyDigest);
+        T data = reused ? previousData : decode(bytes);
+        return new DecodedBody<>(data, bytes.length, wireSize, keepRaw ? bytes : null, null, bodyDigest, reused);
+    }
+
+    /**
+     * Decodes a fully buffered body.
+     *
+     * @param bytes The UTF-8 body bytes
+     * @return The decoded object
+     */
+    private T decode(byte[] bytes) {
+        try {
+            return mapper.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a body from the network stream, decompressing it if needed. Trailing bytes after the JSON value
+     * are drained before the stream is closed, so the connection can be reused.
+     *
+     * @param in The body stream
+     * @param encoding The content encoding of the body, or null if not encoded
+     * @param successful Whether the response has a 2xx status
+     * @param hashing Whether the digest of the body is computed
+     * @param buffered Whether a 2xx body is buffered before it is decoded
+     * @return The decoded body with its sizes
+     */
+    private DecodedBody<T> read(InputStream in, String encoding, boolean successful, boolean hashing, boolean buffered) {
+        CountingInputStream wire = new CountingInputStream(in);
+        try (wire; CountingInputStream body = encoding == null ? wire : new CountingInputStream(decompress(wire, encoding))) {
+            if (!successful) {
+                byte[] bytes = body.readNBytes(MAX_ERROR_BYTES + 1);
+                // The remainder is discarded without decompressing it
+                drain(wire);
+                String error = bytes.length > MAX_ERROR_BYTES
+                        ? new String(bytes, 0, MAX_ERROR_BYTES, StandardCharsets.UTF_8) + "... (truncated)"
+                        : new String(bytes, StandardCharsets.UTF_8);
+                return new DecodedBody<>(null, body.size(), wire.count, null, error, null, false);
+            }
+
+            if (buffered) {
+                byte[] bytes = body.readAllBytes();
+                drain(wire);
+                return decode(bytes, wire.count, hashing);
+            }
+
+            MessageDigest bodyDigest = hashing ? newDigest() : null;
+            InputStream source = hashing ? new DigestInputStream(body, bodyDigest) : body;
+            try (JsonParser parser = mapper.createParser(source)) {
+                T data = mapper.readValue(parser, type);
+                drain(source);
+                drain(wire);
+                return new DecodedBody<>(data, body.size(), wire.count, null, null,
+                        hashing ? bodyDigest.digest() : null, false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        in.transferTo(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Wraps a compressed stream into a decompressing one.
+     *
+     * @param in The compressed stream
+     * @param encoding The content encoding
+     * @return The decompressed stream
+     * @throws IOException If the encoding is not supported or the stream header is invalid
+     */
+    private static InputStream decompress(InputStream in, String encoding) throws IOException {
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(in, 8192);
+            case "deflate":
+                BufferedInputStream buffered = new BufferedInputStream(in, 8192);
+                Inflater inflater = new Inflater(!hasZlibHeader(buffered));
+                return new InflaterInputStream(buffered, inflater, 8192) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            // A supplied inflater is not released by the stream itself
+                            inflater.end();
+                        }
+                    }
+                };
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + encoding);
+        }
+    }
+
+    /**
+     * Checks whether a deflate stream starts with a zlib header (RFC 1950) without consuming it.
+     *
+     * @param in The buffered deflate stream
+     * @return true if the stream is zlib-wrapped, false if it is raw deflate
+     * @throws IOException If reading the stream fails
+     */
+    private static boolean hasZlibHeader(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int cmf = in.read();
+        int flg = in.read();
+        in.reset();
+        return cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+    }
+
+    /**
+     * Body streamed from the network, read when the supplier is invoked and abandoned when it is closed.
+     */
+    private final class StreamedBody implements Supplier<DecodedBody<T>>, Closeable {
+
+        private final InputStream in;
+        private final String encoding;
+        private final boolean successful;
+        private final boolean hashing;
+        private final boolean buffered;
+
+        private StreamedBody(InputStream in, String encoding, boolean successful, boolean hashing, boolean buffered) {
+            this.in = in;
+            this.encoding = encoding;
+            this.successful = successful;
+            this.hashing = hashing;
+            this.buffered = buffered;
+        }
+
+        @Override
+        public DecodedBody<T> get() {
+            return read(in, encoding, successful, hashing, buffered);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Input stream that counts the bytes read through it.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count = 0;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        private int size() {
+            return (int) Math.min(Integer.MAX_VALUE, count);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -44,7 +44,9 @@ import java.util.Scanner;
  *         "application_name": "MyApp",
  *         "application_version": "1.0.0",
  *         "contact_email": "support@example.com",
- *         "usage_limit": 100
+ *         "usage_limit": 100,
+ *         "rate_limit_mode": "SERVER_SYNCHRONIZED",
+ *         "startup_mode": "FIRST_TOKEN"
  *       }
  *       </pre>
  *   </li>
@@ -408,6 +410,22 @@ public class AppSettings {
         @JsonProperty(value = "usage_limit", required = true)
         private int usageLimit;
 
+        /**
+         * How the local token budget is kept in line with the API rate limit.
+         * Optional; defaults to {@link RateLimitMode#LOCAL} if absent.
+         * Example: "SERVER_SYNCHRONIZED"
+         */
+        @JsonProperty(value = "rate_limit_mode")
+        private RateLimitMode rateLimitMode;
+
+        /**
+         * When requests are served while the tokens are authenticated at startup.
+         * Optional; defaults to {@link StartupMode#ALL_TOKENS} if absent.
+         * Example: "FIRST_TOKEN"
+         */
+        @JsonProperty(value = "startup_mode")
+        private StartupMode startupMode;
+
          /**
           * Creates a Settings object with default placeholder values.
           *
@@ -422,10 +440,30 @@ public class AppSettings {
                     "your_app_name_here",
                     "your_app_version_here",
                     "your_contact_email_here",
-                    0
+                    0,
+                    RateLimitMode.LOCAL,
+                    StartupMode.ALL_TOKENS
             );
         }
 
+        /**
+         * Gets the configured rate limit mode.
+         *
+         * @return The rate limit mode, {@link RateLimitMode#LOCAL} if not set
+         */
+        public RateLimitMode getRateLimitMode() {
+            return rateLimitMode == null ? RateLimitMode.LOCAL : rateLimitMode;
+        }
+
+        /**
+         * Gets the configured startup mode.
+         *
+         * @return The startup mode, {@link StartupMode#ALL_TOKENS} if not set
+         */
+        public StartupMode getStartupMode() {
+            return startupMode == null ? StartupMode.ALL_TOKENS : startupMode;
+        }
+
         /**
          * Validates that all required settings fields are set (non-null).
          *
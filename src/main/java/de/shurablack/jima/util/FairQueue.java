@@ -0,0 +1,208 @@
+package de.shurablack.jima.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Queue that interleaves the items of several flows by weight (deficit round robin).
+ *
+ * <p><b>How It Works:</b></p>
+ * <ul>
+ *   <li>Each flow keeps its items in arrival order</li>
+ *   <li>Flows with queued items take turns in a round; on its turn a flow receives credit equal to its weight
+ *       and hands out one item per credit before the next flow's turn</li>
+ *   <li>A flow whose queue runs empty leaves the round and loses its credit, so idle flows don't save up</li>
+ * </ul>
+ * With weights 2 and 1, two flows with long queues are served 2:1, no matter how many items each has queued.
+ *
+ * <p><b>Thread Safety:</b></p>
+ * All methods are synchronized. They only move references, so the monitor is held briefly.
+ *
+ * @param <T> The item type
+ */
+final class FairQueue<T> {
+
+    /** Flows with queued items by key. */
+    private final Map<String, Flow<T>> flows = new HashMap<>();
+
+    /** Flows with queued items in round order, the one whose turn it is first. */
+    private final ArrayDeque<Flow<T>> round = new ArrayDeque<>();
+
+    /** Extracts the flow key of an item. */
+    private final Function<T, String> key;
+
+    /** Extracts the flow weight of an item (at least 1); the latest weight of a flow applies. */
+    private final ToIntFunction<T> weight;
+
+    /** Queued items across all flows. */
+    private int size = 0;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param key Extracts the flow key of an item
+     * @param weight Extracts the flow weight of an item
+     */
+    FairQueue(Function<T, String> key, ToIntFunction<T> weight) {
+        this.key = key;
+        this.weight = weight;
+    }
+
+    /**
+     * Appends an item to the queue of its flow. The flow joins the end of the round if it had no items queued.
+     *
+     * @param item The item
+     */
+    synchronized void add(T item) {
+        Flow<T> flow = flowOf(item);
+        if (flow == null) {
+            flow = join(item);
+            round.addLast(flow);
+        }
+        flow.weight = weight.applyAsInt(item);
+        flow.items.addLast(item);
+        size++;
+    }
+
+    /**
+     * Removes the next item in deficit round robin order and charges its flow one credit.
+     *
+     * @return The next item, or null if the queue is empty
+     */
+    synchronized T poll() {
+        Flow<T> flow = round.peekFirst();
+        if (flow == null) {
+            return null;
+        }
+        if (flow.deficit <= 0) {
+            flow.deficit += flow.weight;
+        }
+
+        T item = flow.items.pollFirst();
+        flow.deficit--;
+        size--;
+
+        if (flow.items.isEmpty()) {
+            round.pollFirst();
+            flows.remove(flow.key);
+        } else if (flow.deficit <= 0) {
+            round.addLast(round.pollFirst());
+        }
+        return item;
+    }
+
+    /**
+     * Puts items taken with {@link #poll()} back, in poll order, at the head of their flows. Used for items that
+     * could not be served, so they keep their place: flows that left the round rejoin at its front, in the order
+     * of their first item. Credit charged for the items is not refunded.
+     *
+     * @param items The items in the order they were polled
+     */
+    synchronized void putBack(List<T> items) {
+        List<Flow<T>> rejoined = new ArrayList<>();
+        for (T item : items) {
+            if (flowOf(item) == null) {
+                rejoined.add(join(item));
+            }
+        }
+        for (int i = items.size() - 1; i >= 0; i--) {
+            flowOf(items.get(i)).items.addFirst(items.get(i));
+        }
+        for (int i = rejoined.size() - 1; i >= 0; i--) {
+            round.addFirst(rejoined.get(i));
+        }
+        size += items.size();
+    }
+
+    /**
+     * Removes a queued item, for example one whose caller gave up waiting. A flow left without items leaves the
+     * round.
+     *
+     * @param item The item
+     * @return true if the item was queued
+     */
+    synchronized boolean remove(T item) {
+        Flow<T> flow = flowOf(item);
+        if (flow == null || !flow.items.remove(item)) {
+            return false;
+        }
+        size--;
+        if (flow.items.isEmpty()) {
+            round.remove(flow);
+            flows.remove(flow.key);
+        }
+        return true;
+    }
+
+    /**
+     * Finds a queued item, scanning every flow.
+     *
+     * @param filter Matches the item
+     * @return The first matching item, or null if none is queued
+     */
+    synchronized T find(Predicate<T> filter) {
+        for (Flow<T> flow : flows.values()) {
+            for (T item : flow.items) {
+                if (filter.test(item)) {
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of queued items.
+     *
+     * @return Items across all flows
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of items queued for a flow.
+     *
+     * @param key The flow key
+     * @return Items of the flow, 0 if it has none queued
+     */
+    synchronized int size(String key) {
+        Flow<T> flow = flows.get(key);
+        return flow == null ? 0 : flow.items.size();
+    }
+
+    private Flow<T> flowOf(T item) {
+        return flows.get(key.apply(item));
+    }
+
+    /**
+     * Registers a new flow for the item, without adding it to the round.
+     */
+    private Flow<T> join(T item) {
+        Flow<T> flow = new Flow<>(key.apply(item));
+        flow.weight = weight.applyAsInt(item);
+        flows.put(flow.key, flow);
+        return flow;
+    }
+
+    /**
+     * Queue and credit of a single flow.
+     */
+    private static final class Flow<T> {
+
+        private final String key;
+        private final ArrayDeque<T> items = new ArrayDeque<>();
+        private int weight = 1;
+        private int deficit = 0;
+
+        private Flow(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package de.shurablack.jima.util;
+
+import de.shurablack.jima.http.Response;
+import de.shurablack.jima.model.Paged;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy {@link Spliterator} over the elements of a paginated endpoint.
+ *
+ * <p><b>Overview:</b></p>
+ * Pages are requested on demand while the elements are consumed. As soon as a page arrives,
+ * the request for the following page is started, so the next page is usually ready when the
+ * current one is exhausted. At most two pages are held at any time (the page being consumed
+ * and the prefetched one), which keeps memory bounded independent of the total result size.
+ *
+ * <p><b>Short-Circuiting:</b></p>
+ * Terminal operations like {@code limit()}, {@code findFirst()} or {@code anyMatch()} stop
+ * requesting pages once they are satisfied. The only extra request is the single page that
+ * was already prefetched.
+ *
+ * <p><b>Error Handling:</b></p>
+ * A failed page request ends the traversal with an {@link IllegalStateException} containing
+ * the response error, matching {@link Response#getDataOrThrow()}.
+ *
+ * <p><b>Example:</b></p>
+ * <pre>{@code
+ * Stream<Item> swords = PagedSpliterator.stream(
+ *     page -> ParallelRequester.searchItems(ItemType.SWORD, page),
+ *     Items::getItems,
+ *     Items::getPagination
+ * );
+ * swords.filter(item -> item.getQuality() == Quality.LEGENDARY)
+ *       .findFirst()
+ *       .ifPresent(item -> System.out.println(item.getName()));
+ * }</pre>
+ *
+ * @param <P> The page type returned by the endpoint (e.g. {@code Items})
+ * @param <T> The element type contained in each page (e.g. {@code Item})
+ * @see PaginationHelper
+ */
+public class PagedSpliterator<P, T> implements Spliterator<T> {
+
+    /** Requests a single page by its page number (starting at 1). */
+    private final IntFunction<CompletableFuture<Response<P>>> pageFetcher;
+
+    /** Extracts the elements of a page. */
+    private final Function<P, List<T>> elements;
+
+    /** Extracts the pagination metadata of a page. */
+    private final Function<P, Paged> pagination;
+
+    /** Iterator over the elements of the page currently being consumed. */
+    private Iterator<T> current;
+
+    /** The prefetched page, or null if no further page exists. */
+    private CompletableFuture<Response<P>> next;
+
+    /** The page number of the prefetched page. */
+    private int nextPage = 1;
+
+    /** Whether the first page has been requested yet. */
+    private boolean started = false;
+
+    /** Total number of elements as reported by the first page, or -1 while unknown. */
+    private long total = -1;
+
+    /**
+     * Creates a new lazy spliterator over a paginated endpoint.
+     *
+     * @param pageFetcher Requests a single page by its page number (starting at 1)
+     * @param elements Extracts the elements of a page
+     * @param pagination Extracts the pagination metadata of a page
+     */
+    public PagedSpliterator(
+            IntFunction<CompletableFuture<Response<P>>> pageFetcher,
+            Function<P, List<T>> elements,
+            Function<P, Paged> pagination
+    ) {
+        this.pageFetcher = pageFetcher;
+        this.elements = elements;
+        this.pagination = pagination;
+    }
+
+    /**
+     * Creates a lazy, sequential stream over a paginated endpoint.
+     *
+     * @param pageFetcher Requests a single page by its page number (starting at 1)
+     * @param elements Extracts the elements of a page
+     * @param pagination Extracts the pagination metadata of a page
+     * @param <P> The page type returned by the endpoint
+     * @param <T> The element type contained in each page
+     * @return A stream requesting pages on demand
+     */
+    public static <P, T> Stream<T> stream(
+            IntFunction<CompletableFuture<Response<P>>> pageFetcher,
+            Function<P, List<T>> elements,
+            Function<P, Paged> pagination
+    ) {
+        return StreamSupport.stream(new PagedSpliterator<>(pageFetcher, elements, pagination), false);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!started) {
+            started = true;
+            next = pageFetcher.apply(nextPage);
+        }
+
+        while (current == null || !current.hasNext()) {
+            if (next == null) {
+                return false;
+            }
+            advancePage();
+        }
+
+        action.accept(current.next());
+        return true;
+    }
+
+    /**
+     * Waits for the prefetched page, makes it the current page and prefetches the following one.
+     *
+     * @throws IllegalStateException if the page request failed
+     */
+    private void advancePage() {
+        int page = nextPage;
+        Response<P> response = next.join();
+        if (!response.isSuccessful()) {
+            next = null;
+            throw new IllegalStateException("Failed to fetch page " + page + ": " + response.getError());
+        }
+
+        P data = response.getData();
+        Paged paged = pagination.apply(data);
+        if (total < 0 && paged != null) {
+            total = paged.getTotal();
+        }
+
+        nextPage = page + 1;
+        next = hasMore(paged, page) ? pageFetcher.apply(nextPage) : null;
+
+        List<T> items = elements.apply(data);
+        current = items == null ? null : items.iterator();
+    }
+
+    /**
+     * Checks whether another page follows the given one.
+     *
+     * @param paged The pagination metadata of the page (may be null for unpaged responses)
+     * @param page The page number the metadata belongs to
+     * @return true if a following page exists
+     */
+    private static boolean hasMore(Paged paged, int page) {
+        if (paged == null) {
+            return false;
+        }
+        return paged.isHasMore() || page < paged.getLastPage();
+    }
+
+    /**
+     * Paged streams are consumed strictly in page order and can't be split.
+     *
+     * @return always null
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return total < 0 ? Long.MAX_VALUE : total;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -1,11 +1,15 @@
 package de.shurablack.jima.util;
 
+import de.shurablack.jima.http.ParallelRequester;
 import de.shurablack.jima.http.Requester;
 import de.shurablack.jima.http.Response;
+import de.shurablack.jima.model.character.museum.CharacterMuseum;
+import de.shurablack.jima.model.character.museum.MuseumItem;
 import de.shurablack.jima.model.item.Item;
 import de.shurablack.jima.model.item.Items;
 import de.shurablack.jima.model.item.market.MarketHistory;
 import de.shurablack.jima.model.pet.Listings;
+import de.shurablack.jima.model.pet.PetListing;
 import de.shurablack.jima.util.types.ItemType;
 import de.shurablack.jima.util.types.MarketType;
 import org.apache.logging.log4j.LogManager;
@@ -13,6 +17,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Utility class for handling paginated API responses.
@@ -28,6 +33,10 @@ import java.util.List;
  * this could take significant time and consume many rate limit requests. Progress is logged
  * as pages are fetched.
  *
+ * <p><b>Streaming:</b></p>
+ * The {@code stream*} methods return lazy streams backed by {@link PagedSpliterator}. They
+ * request pages only while the stream is consumed and keep at most two pages in memory.
+ *
  * @see <a href="https://idle-mmo.com/wiki/more/api">Idle MMO API Documentation</a>
  */
 public class PaginationHelper {
@@ -44,7 +53,7 @@ public class PaginationHelper {
      *
      * <p><b>Performance:</b></p>
      * Makes one request per page. The number of pages depends on the item type.
-     * Progress is logged as pages are fetched.
+     * Pages are fetched lazily through {@link #streamItemsByType(ItemType)}.
      *
      * <p><b>Example:</b></p>
      * <pre>
@@ -64,34 +73,15 @@ public class PaginationHelper {
      */
     public static List<Item> fetchAllItemsByType(ItemType itemType) {
         List<Item> allItems = new ArrayList<>();
-        int currentPage = 1;
 
         try {
-            while (true) {
-                LOGGER.debug("Fetching items for type {} - page {}", itemType.name(), currentPage);
-                Response<Items> response = Requester.searchType(itemType);
-
-                if (!response.isSuccessful()) {
-                    LOGGER.error("Failed to fetch items for type {}: {}", itemType.name(), response.getError());
-                    break;
-                }
-
-                Items itemsData = response.getData();
-                allItems.addAll(itemsData.getItems());
-
-                LOGGER.info("Fetched page {} for {} - {} items so far", currentPage, itemType.name(), allItems.size());
-
-                if (!itemsData.getPagination().isHasMore()) {
-                    break;
-                }
-
-                currentPage++;
-            }
+            LOGGER.debug("Fetching items for type {}", itemType.name());
+            streamItemsByType(itemType).forEach(allItems::add);
         } catch (Exception e) {
             LOGGER.error("Exception while fetching items for type " + itemType.name(), e);
         }
 
-        LOGGER.info("Completed fetching all {} items for type {} ({} total pages)", allItems.size(), itemType.name(), currentPage);
+        LOGGER.info("Completed fetching all {} items for type {}", allItems.size(), itemType.name());
         return allItems;
     }
 
@@ -209,7 +199,7 @@ public class PaginationHelper {
      *         Returns 0 if the API request fails.
      */
     public static int getTotalPages(ItemType itemType) {
-        Response<Items> response = Requester.searchType(itemType);
+        Response<Items> response = Requester.searchItems(itemType, 1);
 
         if (!response.isSuccessful()) {
             LOGGER.error("Failed to get total pages for type {}: {}", itemType.name(), response.getError());
@@ -234,7 +224,7 @@ public class PaginationHelper {
      *         Returns 0 if the API request fails.
      */
     public static int getTotalCount(ItemType itemType) {
-        Response<Items> response = Requester.searchType(itemType);
+        Response<Items> response = Requester.searchItems(itemType, 1);
 
         if (!response.isSuccessful()) {
             LOGGER.error("Failed to get total count for type {}: {}", itemType.name(), response.getError());
@@ -243,4 +233,85 @@ public class PaginationHelper {
 
         return response.getData().getPagination().getTotal();
     }
+
+    /**
+     * Lazily streams all items of a specific type, requesting pages on demand.
+     *
+     * <p><b>Behavior:</b></p>
+     * <ul>
+     *   <li>No request is made until the stream is consumed</li>
+     *   <li>The next page is prefetched while the current one is consumed</li>
+     *   <li>At most two pages are held in memory at any time</li>
+     *   <li>Short-circuiting operations ({@code limit()}, {@code findFirst()}) stop requesting pages</li>
+     * </ul>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * // Find the first legendary sword without downloading every page
+     * Optional&lt;Item&gt; legendary = PaginationHelper.streamItemsByType(ItemType.SWORD)
+     *     .filter(item -&gt; item.getQuality() == Quality.LEGENDARY)
+     *     .findFirst();
+     * </pre>
+     *
+     * @param itemType The item type to stream.
+     * @return A lazy stream over all items of the type.
+     * @throws IllegalStateException during consumption if a page request fails
+     * @see PagedSpliterator
+     */
+    public static Stream<Item> streamItemsByType(ItemType itemType) {
+        return PagedSpliterator.stream(
+                page -> ParallelRequester.searchItems(itemType, page),
+                Items::getItems,
+                Items::getPagination
+        );
+    }
+
+    /**
+     * Lazily streams all items matching a search query, requesting pages on demand.
+     *
+     * @param query The search query.
+     * @return A lazy stream over all matching items.
+     * @throws IllegalStateException during consumption if a page request fails
+     * @see #streamItemsByType(ItemType)
+     */
+    public static Stream<Item> streamItems(String query) {
+        return PagedSpliterator.stream(
+                page -> ParallelRequester.searchItems(query, page),
+                Items::getItems,
+                Items::getPagination
+        );
+    }
+
+    /**
+     * Lazily streams all museum items of a character, requesting pages on demand.
+     *
+     * @param hashedCharacterId The hashed ID of the character.
+     * @return A lazy stream over all museum items of the character.
+     * @throws IllegalStateException during consumption if a page request fails
+     * @see #streamItemsByType(ItemType)
+     */
+    public static Stream<MuseumItem> streamCharacterMuseum(String hashedCharacterId) {
+        return PagedSpliterator.stream(
+                page -> ParallelRequester.getCharacterMuseum(hashedCharacterId, page),
+                CharacterMuseum::getItems,
+                CharacterMuseum::getPagination
+        );
+    }
+
+    /**
+     * Lazily streams all companion exchange listings, requesting pages on demand.
+     *
+     * <p>Suitable for scanning tens of thousands of listings while keeping only two pages in memory.</p>
+     *
+     * @return A lazy stream over all companion exchange listings.
+     * @throws IllegalStateException during consumption if a page request fails
+     * @see #streamItemsByType(ItemType)
+     */
+    public static Stream<PetListing> streamCompanionExchangeListings() {
+        return PagedSpliterator.stream(
+                ParallelRequester::getCompanionExchangeListings,
+                Listings::getListings,
+                Listings::getPagination
+        );
+    }
 }
@@ -0,0 +1,24 @@
+package de.shurablack.jima.util;
+
+/**
+ * Strategy for keeping the local request budget of a {@link Token} in line with the API rate limit.
+ *
+ * <p>Configured via {@code "rate_limit_mode"} in jima-settings.json.</p>
+ *
+ * @see AppSettings.Settings#getRateLimitMode()
+ */
+public enum RateLimitMode {
+
+    /**
+     * The local counter is only decremented per request and reset at the reported reset time.
+     * {@code X-RateLimit-Remaining} is ignored, so the counter can drift from the server's view. Default.
+     */
+    LOCAL,
+
+    /**
+     * The local counter is reconciled with {@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset} on every response.
+     * Out-of-order responses are resolved by keeping the newest reset window and the minimum remaining value;
+     * a 429 response exhausts the token until the reported reset.
+     */
+    SERVER_SYNCHRONIZED
+}
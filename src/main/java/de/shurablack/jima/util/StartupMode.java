@@ -0,0 +1,25 @@
+package de.shurablack.jima.util;
+
+/**
+ * Point at which the {@link de.shurablack.jima.http.RequestManager} starts serving requests while its tokens
+ * are authenticated in the background.
+ *
+ * <p>Configured via {@code "startup_mode"} in jima-settings.json. Requests submitted earlier are queued
+ * until that point instead of failing.</p>
+ *
+ * @see AppSettings.Settings#getStartupMode()
+ * @see de.shurablack.jima.http.RequestManager#ready()
+ */
+public enum StartupMode {
+
+    /**
+     * Requests are served once every token has finished authenticating, successfully or not. Default.
+     */
+    ALL_TOKENS,
+
+    /**
+     * Requests are served as soon as the first token has authenticated.
+     * Requests for endpoints no authenticated token can serve yet wait until all tokens are done.
+     */
+    FIRST_TOKEN
+}
@@ -1,6 +1,7 @@
 package de.shurablack.jima.util;
 
 import de.shurablack.jima.http.Endpoint;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,6 +12,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Represents a single API token with rate-limiting and request queuing capabilities.
@@ -24,8 +26,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * <p><b>Features:</b></p>
  * <ul>
  *   <li><b>Rate Limit Tracking:</b> Maintains remaining requests and maximum quota using atomic integers</li>
- *   <li><b>Automatic Reset:</b> Automatically resets remaining quota when reset time is reached</li>
- *   <li><b>Thread-Safe:</b> Uses atomic operations and synchronized blocks for safe multi-threaded access</li>
+ *   <li><b>Automatic Reset:</b> Resets remaining quota when reset time is reached, driven by the {@link TokenPool} timer</li>
+ *   <li><b>Thread-Safe:</b> Uses atomic operations and a short-held lock for safe multi-threaded access</li>
  *   <li><b>Queue-Based Waiting:</b> Queues requests when token is exhausted, serves them asynchronously when available</li>
  *   <li><b>Optimistic Locking:</b> Uses compareAndSet operations for lock-free quota updates</li>
  *   <li><b>Hidden Key Display:</b> Provides masked token representation for safe logging and debugging</li>
@@ -45,16 +47,18 @@ import java.util.concurrent.atomic.AtomicLong;
  * This class uses a combination of thread-safe mechanisms:
  * <ul>
  *   <li><b>Atomic Operations:</b> {@code remaining}, {@code max}, and {@code resetAt} use atomic types for visibility</li>
- *   <li><b>Synchronized Blocks:</b> {@code updateLock} protects the critical path when checking and updating reset time</li>
+ *   <li><b>Update Lock:</b> {@code updateLock} protects the critical path when checking and updating reset time.
+ *       It is a {@link ReentrantLock} rather than a monitor, so a virtual thread contending for it parks
+ *       instead of pinning its carrier thread</li>
  *   <li><b>Compare-And-Swap (CAS):</b> {@code compareAndSet} operations on remaining provide lock-free quota updates</li>
  *   <li><b>Concurrent Collections:</b> {@code ConcurrentLinkedQueue} for thread-safe waiter management</li>
  * </ul>
  *
  * <p><b>Rate Limit Reset Behavior:</b></p>
  * <ul>
- *   <li>When a request is made, the current time is checked against {@code resetAt}</li>
- *   <li>If current time ≥ resetAt, the remaining quota is automatically reset to max</li>
- *   <li>This ensures no manual reset call is needed; the token self-heals on next access</li>
+ *   <li>The owning {@link TokenPool} calls {@link #resetIfDue(long)} on a timer; {@link #acquire(int)} does too</li>
+ *   <li>If current time ≥ resetAt, the remaining quota is reset to max and queued waiters are served</li>
+ *   <li>Reads such as {@link #getRemaining()} never reset and never block</li>
  *   <li>The resetAt field is set to 0 after reset to indicate no active reset timer</li>
  * </ul>
  *
@@ -95,7 +99,7 @@ import java.util.concurrent.atomic.AtomicLong;
  *   <li>The compareAndSet operation is lock-free and typically faster than synchronization</li>
  *   <li>Waiter queuing uses ConcurrentLinkedQueue for efficient concurrent access</li>
  *   <li>Time checks use Instant.now().getEpochSecond() which is cached by the JVM</li>
- *   <li>Reading current state (getRemaining) performs time-based auto-reset checks</li>
+ *   <li>Reading current state (getRemaining) is a plain volatile read</li>
  * </ul>
  *
  * @see TokenPool
@@ -153,11 +157,18 @@ public class Token {
     private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
 
     /**
-     * Lock object used to synchronize critical sections during state updates.
+     * Lock used to guard critical sections during state updates.
      * Protects the atomic check-and-set operations for reset time and remaining quota.
      * Alternative to full object synchronization on specific critical paths.
      */
-    private final Object updateLock = new Object();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    /**
+     * Callback of the owning {@link TokenPool}, run after a response or a returned slot changed the budget.
+     * Resets are not reported, since the pool drives them itself.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile Runnable capacityListener;
 
     /**
      * Creates a new Token with the specified API key and custom maximum quota.
@@ -217,6 +228,14 @@ public class Token {
     public CompletableFuture<Void> acquire(int usageLimit) {
         CompletableFuture<Void> future = new CompletableFuture<>();
         tryAcquire(future, usageLimit);
+        if (!future.isDone()) {
+            // A cancelled or timed out waiter leaves the queue right away instead of on the next drain
+            future.whenComplete((v, ex) -> {
+                if (ex != null) {
+                    waiters.remove(future);
+                }
+            });
+        }
         return future;
     }
 
@@ -243,23 +262,14 @@ public class Token {
      * more efficient than using explicit synchronization for this operation.
      *
      * <p><b>Reset Logic:</b></p>
-     * The synchronized updateLock ensures atomicity when checking and resetting the time.
-     * This prevents a race condition where multiple threads could observe the same expired
-     * reset time and attempt to reset simultaneously.
+     * A due reset is applied via {@link #resetIfDue(long)} first, so tokens used outside a
+     * {@link TokenPool} still recover. Its lock is only taken when a reset is actually due.
      *
      * @param future The CompletableFuture to complete when a slot is available
      * @param usageLimit The minimum number of requests left per rate limit period
      */
     private void tryAcquire(CompletableFuture<Void> future, int usageLimit) {
-        long nowSeconds = Instant.now().getEpochSecond();
-
-        synchronized (updateLock) {
-            if (resetAt.get() > 0 && nowSeconds >= resetAt.get()) {
-                remaining.set(max.get());
-                resetAt.set(0);
-                drainWaiters();
-            }
-        }
+        resetIfDue(Instant.now().getEpochSecond());
 
         while (true) {
             int before = remaining.get();
@@ -276,6 +286,70 @@ public class Token {
         }
     }
 
+    /**
+     * Attempts to take one request slot without queuing.
+     *
+     * <p>Lock-free: a single compareAndSet loop on the remaining counter. Unlike {@link #acquire(int)},
+     * this method never performs a reset; resets are driven by {@link #resetIfDue(long)}.</p>
+     *
+     * @param usageLimit The minimum number of requests left per rate limit period
+     * @return {@code true} if a slot was taken, {@code false} if the token is exhausted
+     */
+    public boolean tryConsume(int usageLimit) {
+        while (true) {
+            int before = remaining.get();
+
+            if (before <= usageLimit) {
+                return false;
+            }
+
+            if (remaining.compareAndSet(before, before - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a slot that was acquired but not used, e.g. because the request was cancelled before it was
+     * sent. The remaining count never exceeds the maximum; queued waiters are served with the returned slot.
+     */
+    public void release() {
+        remaining.getAndUpdate(r -> Math.min(r + 1, max.get()));
+        drainWaiters();
+        capacityChanged();
+    }
+
+    /**
+     * Resets the remaining quota to max if the reset time has been reached.
+     *
+     * <p>Called periodically by the owning {@link TokenPool}, so reads such as {@link #getRemaining()}
+     * stay lock-free. The update lock is only taken when a reset is actually due.</p>
+     *
+     * @param nowSeconds The current time as Unix timestamp in seconds
+     * @return {@code true} if the token was reset
+     */
+    public boolean resetIfDue(long nowSeconds) {
+        long due = resetAt.get();
+        if (due <= 0 || nowSeconds < due) {
+            return false;
+        }
+
+        updateLock.lock();
+        try {
+            due = resetAt.get();
+            if (due <= 0 || nowSeconds < due) {
+                return false;
+            }
+            remaining.set(max.get());
+            resetAt.set(0);
+        } finally {
+            updateLock.unlock();
+        }
+
+        drainWaiters();
+        return true;
+    }
+
     /**
      * Updates the token status based on API response rate limit headers.
      *
@@ -295,18 +369,81 @@ public class Token {
      * Waiters are completed if the newly available quota allows it.
      *
      * <p><b>Thread Safety:</b></p>
-     * This method is thread-safe due to synchronized access to the update lock during state changes.
+     * This method is thread-safe since state changes are made while holding the update lock during state changes.
      *
      * @param newRemaining The number of remaining requests from the API response header
      * @param newResetAt The Unix timestamp when the rate limit resets from the API response header
      */
     public void updateFromResponse(int newRemaining, long newResetAt) {
-        synchronized (updateLock) {
+        updateLock.lock();
+        try {
             remaining.set(newRemaining);
             resetAt.set(newResetAt);
+        } finally {
+            updateLock.unlock();
         }
 
         drainWaiters();
+        capacityChanged();
+    }
+
+    /**
+     * Reconciles the local budget with the rate limit state reported by the server.
+     *
+     * <p>Responses can arrive out of order, so the server state is merged instead of copied:</p>
+     * <ul>
+     *   <li><b>Elapsed window</b> ({@code serverResetAt} in the past or older than the local window): ignored</li>
+     *   <li><b>Same window:</b> the minimum of the local and server remaining is kept, so a late response
+     *       with a higher count never hands out slots that were already used</li>
+     *   <li><b>Newer window:</b> the server window is adopted. If the token was already reset locally, the minimum
+     *       of both counts is kept (requests sent since the reset may not be counted by the server yet);
+     *       otherwise the server count replaces the count of the old window</li>
+     * </ul>
+     *
+     * <p><b>Side Effects:</b></p>
+     * After updating, queued requests are processed via {@link #drainWaiters()}.
+     *
+     * @param serverRemaining The value of the X-RateLimit-Remaining header
+     * @param serverResetAt The value of the X-RateLimit-Reset header (Unix timestamp in seconds)
+     */
+    public void reconcile(int serverRemaining, long serverResetAt) {
+        long nowSeconds = Instant.now().getEpochSecond();
+
+        updateLock.lock();
+        try {
+            long localResetAt = resetAt.get();
+            if (serverResetAt <= nowSeconds || serverResetAt < localResetAt) {
+                return;
+            }
+
+            int reported = Math.max(0, serverRemaining);
+            if (serverResetAt == localResetAt || localResetAt == 0) {
+                remaining.set(Math.min(remaining.get(), reported));
+            } else {
+                remaining.set(reported);
+            }
+            resetAt.set(serverResetAt);
+        } finally {
+            updateLock.unlock();
+        }
+
+        drainWaiters();
+        capacityChanged();
+    }
+
+    /**
+     * Marks the token as exhausted until the given reset time, e.g. after a 429 response.
+     *
+     * @param serverResetAt The Unix timestamp in seconds at which the server allows requests again
+     */
+    public void exhaustUntil(long serverResetAt) {
+        updateLock.lock();
+        try {
+            remaining.set(0);
+            resetAt.set(Math.max(resetAt.get(), serverResetAt));
+        } finally {
+            updateLock.unlock();
+        }
     }
 
     /**
@@ -322,11 +459,15 @@ public class Token {
      * @param newResetAt The Unix timestamp when the rate limit resets
      */
     public void updateFromResponse(long newResetAt) {
-        synchronized (updateLock) {
+        updateLock.lock();
+        try {
             resetAt.set(newResetAt);
+        } finally {
+            updateLock.unlock();
         }
 
         drainWaiters();
+        capacityChanged();
     }
 
     /**
@@ -336,13 +477,32 @@ public class Token {
      * maximum from the API's rate limit headers (X-RateLimit-Limit header).</p>
      *
      * <p><b>Thread Safety:</b></p>
-     * This method is thread-safe due to synchronized access to the update lock.
+     * This method is thread-safe since state changes are made while holding the update lock.
      *
      * @param newMax The new maximum quota (e.g., 100 for 100 requests per period)
      */
     public void updateMax(int newMax) {
-        synchronized (updateLock) {
+        updateLock.lock();
+        try {
             max.set(newMax);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Sets the callback run after a response or a returned slot changed the budget of this token.
+     *
+     * @param listener The callback, or null to remove it
+     */
+    void onCapacityChange(Runnable listener) {
+        this.capacityListener = listener;
+    }
+
+    private void capacityChanged() {
+        Runnable listener = capacityListener;
+        if (listener != null) {
+            listener.run();
         }
     }
 
@@ -355,6 +515,7 @@ public class Token {
      *       <ul>
      *           <li>Peek at the first waiter in queue (without removing)</li>
      *           <li>If queue is empty, stop</li>
+     *           <li>If the waiter is already completed (timed out or cancelled), drop it</li>
      *           <li>Check if remaining quota is available (> 0)</li>
      *           <li>If not available, stop (cannot fulfill more waiters)</li>
      *           <li>Try to atomically decrement remaining using compareAndSet</li>
@@ -376,13 +537,21 @@ public class Token {
         while (true) {
             CompletableFuture<Void> waiter = waiters.peek();
             if (waiter == null) return;
+            if (waiter.isDone()) {
+                // Timed out or cancelled while waiting, it must not take a slot
+                waiters.remove(waiter);
+                continue;
+            }
 
             int before = remaining.get();
             if (before <= 0) return;
 
             if (remaining.compareAndSet(before, before - 1)) {
-                waiters.poll();
-                waiter.complete(null);
+                waiters.remove(waiter);
+                if (!waiter.complete(null)) {
+                    // Cancelled between the check and the completion, hand the slot back
+                    remaining.incrementAndGet();
+                }
             }
         }
     }
@@ -435,33 +604,15 @@ public class Token {
      * Gets the current number of remaining requests for this token.
      *
      * <p><b>Behavior:</b></p>
-     * <ul>
-     *   <li>Automatically checks if the reset time has passed</li>
-     *   <li>If reset time is reached, remaining is reset to max</li>
-     *   <li>Returns the current remaining quota after potential auto-reset</li>
-     * </ul>
-     *
-     * <p><b>Thread Safety:</b></p>
-     * This method is thread-safe. It uses synchronized block to protect the time check
-     * and reset operation. Multiple threads can safely call this concurrently.
+     * Returns the current remaining quota. Resets are not applied here; they are performed
+     * by {@link #resetIfDue(long)}, which the owning {@link TokenPool} calls on a timer.
      *
      * <p><b>Performance:</b></p>
-     * Under normal conditions (no reset needed), this method runs in O(1) time without
-     * blocking. Only when reset needs to occur is the synchronized lock acquired.
+     * This method runs in O(1) time with a single volatile read and never blocks.
      *
      * @return The number of remaining requests available for this token (0 or positive)
      */
     public int getRemaining() {
-        long nowSeconds = Instant.now().getEpochSecond();
-
-        synchronized (updateLock) {
-            if (resetAt.get() > 0 && nowSeconds >= resetAt.get()) {
-                remaining.set(max.get());
-                resetAt.set(0);
-                drainWaiters();
-            }
-        }
-
         return remaining.get();
     }
 
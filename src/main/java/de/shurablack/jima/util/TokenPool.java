@@ -1,9 +1,22 @@
 package de.shurablack.jima.util;
 
-import java.util.Comparator;
+import de.shurablack.jima.http.Endpoint;
+import de.shurablack.jima.http.RequestContext;
+import de.shurablack.jima.http.RequestPriority;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages a pool of API tokens with automatic rotation and rate-limiting.
@@ -15,10 +28,11 @@ import java.util.concurrent.*;
  *
  * <p><b>Features:</b></p>
  * <ul>
- *   <li><b>Automatic Token Rotation:</b> Selects the token with the most remaining requests</li>
- *   <li><b>Rate Limit Awareness:</b> Waits for token reset time before retrying when all tokens are exhausted</li>
+ *   <li><b>Automatic Token Rotation:</b> Picks the better of two randomly sampled tokens (power of two choices)</li>
+ *   <li><b>Scope-Aware Routing:</b> Only tokens whose scopes cover the requested endpoint are considered</li>
+ *   <li><b>Rate Limit Awareness:</b> Parks acquisitions when all tokens are exhausted until a reset frees a slot</li>
  *   <li><b>Thread-Safe Initialization:</b> Synchronized methods prevent duplicate token registration</li>
- *   <li><b>Smart Retry Logic:</b> Calculates optimal wait time based on all tokens' reset times</li>
+ *   <li><b>Timer-Driven Resets:</b> A background tick resets tokens and serves parked acquisitions</li>
  *   <li><b>Asynchronous Operations:</b> Uses CompletableFuture for non-blocking token acquisition</li>
  *   <li><b>Duplicate Prevention:</b> Prevents adding the same token twice</li>
  * </ul>
@@ -26,30 +40,61 @@ import java.util.concurrent.*;
  * <p><b>How It Works:</b></p>
  * <ol>
  *   <li>Tokens are stored in a list and managed individually via the {@link Token} class</li>
- *   <li>When a token is needed via {@code acquire()}, the pool selects the token with the most remaining requests</li>
- *   <li>If a token is available (remaining &gt; 0), its {@code acquire()} method is called</li>
- *   <li>If all tokens are exhausted (remaining ≤ 0), the pool calculates wait time based on nearest reset</li>
- *   <li>The pool schedules a retry operation after the wait time elapses</li>
- *   <li>Waiting is done asynchronously using ScheduledExecutorService to avoid blocking</li>
+ *   <li>When a token is needed via {@code acquire()}, the pool samples two candidate tokens and tries the one
+ *       with more remaining requests first, taking a slot with a single compareAndSet</li>
+ *   <li>If both samples are exhausted, the remaining candidates are tried once before giving up</li>
+ *   <li>If all candidates are exhausted, the acquisition is parked in a pending queue</li>
+ *   <li>Every {@link #RESET_INTERVAL_MS} ms a timer resets due tokens and retries the parked acquisitions</li>
  * </ol>
  *
+ * <p><b>Priorities:</b></p>
+ * Parked acquisitions are queued per {@link RequestPriority}. The reset timer serves higher classes first, except
+ * that a class which has received less than its {@link RequestPriority#getReservedShare() reserved share} of the
+ * granted acquisitions is served before the others. The granted counts include acquisitions that got a token
+ * right away and are halved on every reset, so the shares follow the recent windows. A new acquisition only takes
+ * a free slot right away if no acquisition of its own or a higher class is parked; otherwise it is parked behind
+ * them, so a slot freed by a returned token or a response goes to the queue the timer chose and not to whichever
+ * acquisition comes next. {@link #promote(CompletableFuture, RequestPriority)} moves a parked acquisition to a
+ * higher class, e.g. once a more urgent caller waits for the same request.
+ *
+ * <p><b>Fairness:</b></p>
+ * Within a class, parked acquisitions are queued per {@link RequestContext#getFlow() flow} and the flows are
+ * served in deficit round robin by their weight (see {@link FairQueue}). A request group with a long queue
+ * therefore gets its weighted share of the freed slots instead of every slot until its queue is drained.
+ *
+ * <p><b>Deadlines:</b></p>
+ * {@link #estimateWait(RequestPriority)} estimates how long a new acquisition would wait, so callers can refuse
+ * requests that can't start in time. A parked acquisition whose {@link RequestContext#hasDeadline() deadline}
+ * passes is dropped on the next tick and completed with a {@link TimeoutException}, without taking a slot.
+ *
+ * <p><b>Cancellation:</b></p>
+ * Cancelling the future of a parked acquisition removes it from its flow right away. An acquisition cancelled
+ * while a token is handed to it gives the slot back via {@link Token#release()}.
+ *
+ * <p><b>Capacity:</b></p>
+ * {@link #getCapacity()} summarizes the spendable budget and the rate at which it can be spent until the tokens
+ * reset, and {@link #awaitReset()} completes when budget may have returned: on the next reset, and whenever a
+ * response, a returned slot or a new token leaves a token with budget above the usage limit. Pacers use both to
+ * send as fast as the budget allows and to resume right when budget returns instead of polling.
+ *
  * <p><b>Thread Safety:</b></p>
  * This class uses synchronized methods for initialization to prevent race conditions during
- * token registration. However, token acquisition and state querying are non-blocking operations
- * that use CompletableFuture for asynchronous coordination.
+ * token registration. Token acquisition and state querying are lock-free: selection reads
+ * atomic counters and slots are taken via compareAndSet, so concurrent acquirers never block
+ * each other and never queue behind a token another acquirer already drained.
  *
  * <p><b>Example Usage:</b></p>
  * <pre>{@code
- * // Create a pool (typically created by RequestManager)
- * TokenPool pool = new TokenPool();
+ * // Create a pool keeping 5 requests per token back (typically created by RequestManager)
+ * TokenPool pool = new TokenPool(5);
  *
- * // Initialize tokens (typically done automatically during bootstrap)
- * pool.initializeToken("token1_key", 20, 100, 1234567890L);
- * pool.initializeToken("token2_key", 15, 100, 1234567890L);
+ * // Initialize tokens (typically done automatically during bootstrap); null scopes serve every endpoint
+ * pool.initializeToken("token1_key", null, 20, 100, 1234567890);
+ * pool.initializeToken("token2_key", null, 15, 100, 1234567890);
  *
- * // Acquire a token for making a request
- * pool.acquire().thenAccept(token -> {
- *     System.out.println("Got token: " + token.getHiddenKey());
+ * // Acquire a token for an interactive request; it waits behind parked acquisitions of the same class
+ * pool.acquire(Endpoint.WORLD_BOSSES, RequestContext.of(RequestPriority.INTERACTIVE)).thenAccept(token -> {
+ *     System.out.println("Got token: " + token.getMaskedKey());
  *     // Make API request with this token
  * }).exceptionally(ex -> {
  *     System.err.println("Failed to acquire token: " + ex.getMessage());
@@ -69,6 +114,8 @@ import java.util.concurrent.*;
  */
 public class TokenPool {
 
+    private static final Logger LOGGER = LogManager.getLogger(TokenPool.class);
+
     /**
      * List of all tokens managed by this pool.
      * Protected by synchronized methods during modification.
@@ -76,10 +123,70 @@ public class TokenPool {
     private final CopyOnWriteArrayList<Token> tokens = new CopyOnWriteArrayList<>();
 
     /**
-     * Scheduler for delayed retry operations when all tokens are exhausted.
-     * Uses a single thread to prevent resource exhaustion and maintain ordering.
+     * Index from scope to the tokens that can serve it, built from the token scopes on registration.
+     * Every list also contains the unrestricted tokens, so a lookup yields all candidates at once.
+     */
+    private final Map<String, CopyOnWriteArrayList<Token>> tokensByScope = new ConcurrentHashMap<>();
+
+    /**
+     * Tokens without scope restriction (scopes are null). They can serve every endpoint.
+     */
+    private final CopyOnWriteArrayList<Token> unrestricted = new CopyOnWriteArrayList<>();
+
+    /** Priority classes by ordinal, cached since they are looked up on every reset tick. */
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+    /** Interval of the timer that resets tokens and serves parked acquisitions. */
+    public static final long RESET_INTERVAL_MS = 250;
+
+    /** Length of the rate limit window assumed for tokens without a pending reset. */
+    public static final long DEFAULT_WINDOW_SECONDS = 60;
+
+    /**
+     * Wait estimated when no token has any budget above the usage limit. The longest {@link Duration} whose
+     * {@link Duration#toNanos()} doesn't overflow, so callers can compare it in nanoseconds.
+     */
+    public static final Duration UNBOUNDED_WAIT = Duration.ofNanos(Long.MAX_VALUE);
+
+    /**
+     * Scheduler running the reset timer.
+     * Uses a single daemon thread so it never keeps the application alive.
+     */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "JIMA-TokenReset");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Acquisitions that found all their candidate tokens exhausted, per priority and flow in arrival order.
+     * Retried by the reset timer.
      */
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<RequestPriority, FairQueue<PendingAcquire>> pending = new EnumMap<>(RequestPriority.class);
+
+    /**
+     * Parked acquisitions per priority (indexed by ordinal), counted from parking until their future completes.
+     * Unlike the queue sizes, the counts don't dip while the reset timer has acquisitions taken out of the queues.
+     */
+    private final AtomicInteger[] parked = new AtomicInteger[PRIORITIES.length];
+
+    /** Parked acquisitions per flow, counted like {@link #parked}. Flows without any are removed. */
+    private final Map<String, Integer> parkedByFlow = new ConcurrentHashMap<>();
+
+    /**
+     * Acquisitions granted per priority (indexed by ordinal), halved on every reset.
+     * Only accessed by the reset timer thread.
+     */
+    private final double[] served = new double[PRIORITIES.length];
+
+    /**
+     * Acquisitions that got a token without being parked per priority (indexed by ordinal), since the last tick.
+     * Added to {@link #served} by the reset timer.
+     */
+    private final AtomicInteger[] granted = new AtomicInteger[PRIORITIES.length];
+
+    /** Futures completed once budget may have returned, see {@link #awaitReset()}. */
+    private final Queue<CompletableFuture<Void>> resetWaiters = new ConcurrentLinkedQueue<>();
 
     /**
      * Limits how low the remaining should go before the token is considered as unusable
@@ -87,7 +194,22 @@ public class TokenPool {
     private int usageLimit = 0;
 
     public TokenPool() {
-        usageLimit = AppSettings.getSettings().getUsageLimit();
+        this(AppSettings.getSettings().getUsageLimit());
+    }
+
+    /**
+     * Creates a token pool with an explicit usage limit instead of the one from {@link AppSettings}.
+     *
+     * @param usageLimit Number of requests that are kept back per token before it is considered unusable
+     */
+    public TokenPool(int usageLimit) {
+        this.usageLimit = usageLimit;
+        for (RequestPriority priority : PRIORITIES) {
+            pending.put(priority, new FairQueue<>(a -> a.context.getFlow(), a -> a.context.getWeight()));
+            parked[priority.ordinal()] = new AtomicInteger();
+            granted[priority.ordinal()] = new AtomicInteger();
+        }
+        scheduler.scheduleAtFixedRate(this::processResets, RESET_INTERVAL_MS, RESET_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -124,7 +246,7 @@ public class TokenPool {
 
         Token token = new Token(key, max, scopes);
         token.updateFromResponse(remaining, nextReset);
-        tokens.add(token);
+        register(token);
     }
 
     /**
@@ -150,7 +272,74 @@ public class TokenPool {
             throw new IllegalStateException("Token already exists!");
         }
 
+        register(token);
+    }
+
+    /**
+     * Adds a token to the pool and to the scope index.
+     * The scopes of the token are read once here; later changes to them are not reflected in the index.
+     *
+     * @param token The token to add
+     */
+    private void register(Token token) {
+        List<String> scopes = token.getScopes();
+        if (scopes == null) {
+            unrestricted.add(token);
+            tokensByScope.values().forEach(list -> list.add(token));
+        } else {
+            for (String scope : scopes) {
+                tokensByScope.computeIfAbsent(scope, s -> new CopyOnWriteArrayList<>(unrestricted)).add(token);
+            }
+        }
+
         tokens.add(token);
+        token.onCapacityChange(() -> capacityChanged(token));
+        capacityChanged(token);
+    }
+
+    /**
+     * Wakes the waiters of {@link #awaitReset()} if a token changed outside a reset and has budget left.
+     *
+     * @param token The changed token
+     */
+    private void capacityChanged(Token token) {
+        if (!resetWaiters.isEmpty() && token.getRemaining() > usageLimit) {
+            wakeResetWaiters();
+        }
+    }
+
+    private void wakeResetWaiters() {
+        CompletableFuture<Void> waiter;
+        while ((waiter = resetWaiters.poll()) != null) {
+            waiter.complete(null);
+        }
+    }
+
+    /**
+     * Gets the tokens that can serve the given endpoint.
+     *
+     * @param endpoint The endpoint to serve, or null for any token
+     * @return The candidate tokens (live view, do not modify)
+     */
+    private List<Token> candidates(Endpoint endpoint) {
+        if (endpoint == null) {
+            return tokens;
+        }
+        List<Token> scoped = tokensByScope.get(endpoint.getScope());
+        return scoped != null ? scoped : unrestricted;
+    }
+
+    /**
+     * Checks whether at least one token in the pool can serve the given endpoint.
+     *
+     * <p>Callers should check this before {@link #acquire(Endpoint)} so requests nobody can serve
+     * fail fast without waiting for or consuming a rate-limit slot.</p>
+     *
+     * @param endpoint The endpoint to serve
+     * @return {@code true} if a token without scope restriction or with the endpoint's scope exists
+     */
+    public boolean canServe(Endpoint endpoint) {
+        return !candidates(endpoint).isEmpty();
     }
 
     /**
@@ -169,10 +358,9 @@ public class TokenPool {
       *
       * <p><b>Behavior:</b></p>
       * <ul>
-      *   <li>Selects the token with the most remaining requests (greedy strategy)</li>
-      *   <li>If a token is available (remaining &gt; 0), returns its acquisition future immediately</li>
-      *   <li>If all tokens are exhausted (remaining ≤ 0), schedules a retry after waiting</li>
-      *   <li>Wait time is based on the nearest token reset time, with a minimum 5-second wait</li>
+      *   <li>Selects the better of two randomly sampled tokens (power of two choices)</li>
+      *   <li>If a token is available (remaining &gt; usage limit), returns an already completed future</li>
+      *   <li>If all tokens are exhausted, the acquisition is parked until the reset timer frees a slot</li>
       * </ul>
       *
       * <p><b>Thread Safety:</b></p>
@@ -192,49 +380,379 @@ public class TokenPool {
       * @return A CompletableFuture that completes with an available Token when one becomes available
       */
     public CompletableFuture<Token> acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * Acquires a token that can serve the given endpoint.
+     *
+     * <p>Behaves like {@link #acquire()}, but only considers tokens whose scopes cover the endpoint
+     * (or that have no scope restriction). Tokens that can't serve the endpoint never lose a slot.</p>
+     *
+     * @param endpoint The endpoint the token is needed for, or null for any token
+     * @return A CompletableFuture that completes with an available Token, or completes exceptionally
+     *         with an IllegalStateException if no token in the pool can serve the endpoint
+     */
+    public CompletableFuture<Token> acquire(Endpoint endpoint) {
+        return acquire(endpoint, RequestPriority.NORMAL);
+    }
+
+    /**
+     * Acquires a token that can serve the given endpoint with the given priority.
+     *
+     * <p>Behaves like {@link #acquire(Endpoint)}. If all candidate tokens are exhausted, the acquisition is
+     * parked in the queue of its priority, see <b>Priorities</b> in the class description.</p>
+     *
+     * @param endpoint The endpoint the token is needed for, or null for any token
+     * @param priority The priority class of the request
+     * @return A CompletableFuture that completes with an available Token, or completes exceptionally
+     *         with an IllegalStateException if no token in the pool can serve the endpoint
+     */
+    public CompletableFuture<Token> acquire(Endpoint endpoint, RequestPriority priority) {
+        return acquire(endpoint, RequestContext.of(priority));
+    }
+
+    /**
+     * Acquires a token that can serve the given endpoint for a request with the given context.
+     *
+     * <p>Behaves like {@link #acquire(Endpoint)}. If all candidate tokens are exhausted, the acquisition is
+     * parked in the queue of its priority and flow, see <b>Priorities</b> and <b>Fairness</b> in the class
+     * description.</p>
+     *
+     * @param endpoint The endpoint the token is needed for, or null for any token
+     * @param context The priority class and flow of the request
+     * @return A CompletableFuture that completes with an available Token, or completes exceptionally
+     *         with an IllegalStateException if no token in the pool can serve the endpoint
+     */
+    public CompletableFuture<Token> acquire(Endpoint endpoint, RequestContext context) {
         CompletableFuture<Token> future = new CompletableFuture<>();
-        tryAcquire(future);
+        List<Token> candidates = candidates(endpoint);
+        if (candidates.isEmpty()) {
+            future.completeExceptionally(new IllegalStateException("No token can serve scope " + endpoint.getScope()));
+            return future;
+        }
+
+        tryAcquire(future, candidates, context);
         return future;
     }
 
     /**
-     * Internal method to attempt acquiring a token or schedule a retry.
+     * Internal method to attempt acquiring a token or park the acquisition.
+     *
+     * <p>Takes a slot right away only if no acquisition of the same or a higher priority is parked. Otherwise the
+     * acquisition is parked even if a slot is free, and the reset timer decides who gets it.</p>
      *
-     * <p><b>Algorithm:</b></p>
+     * @param future The CompletableFuture to complete when a token is available
+     * @param candidates The tokens that can serve the request
+     * @param context The priority and flow the acquisition is parked with
+     */
+    private void tryAcquire(CompletableFuture<Token> future, List<Token> candidates, RequestContext context) {
+        int priority = context.getPriority().ordinal();
+        if (!hasParked(priority)) {
+            Token token = select(candidates);
+            if (token != null) {
+                granted[priority].incrementAndGet();
+                future.complete(token);
+                return;
+            }
+        }
+
+        PendingAcquire acquire = new PendingAcquire(future, candidates, context);
+        count(acquire, 1);
+        pending.get(context.getPriority()).add(acquire);
+        future.whenComplete((t, ex) -> {
+            synchronized (acquire) {
+                count(acquire, -1);
+            }
+            // A cancelled acquisition leaves its flow right away instead of on the next tick
+            if (ex != null) {
+                pending.get(acquire.context.getPriority()).remove(acquire);
+            }
+        });
+    }
+
+    /**
+     * Checks whether acquisitions of the given priority or a higher one are parked.
+     *
+     * @param priority The ordinal of the priority class
+     * @return true if a class with an ordinal up to {@code priority} has parked acquisitions
+     */
+    private boolean hasParked(int priority) {
+        for (int i = 0; i <= priority; i++) {
+            if (parked[i].get() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a parked acquisition to the counts of its priority and flow, or removes it from them.
+     *
+     * @param acquire The acquisition
+     * @param delta 1 when parked, -1 when completed
+     */
+    private void count(PendingAcquire acquire, int delta) {
+        parked[acquire.context.getPriority().ordinal()].addAndGet(delta);
+        parkedByFlow.merge(acquire.context.getFlow(), delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    /**
+     * Moves a parked acquisition to a higher priority class. It joins the end of its flow in the new class.
+     *
+     * @param acquisition The future returned by {@code acquire}
+     * @param priority The new priority class
+     * @return true if the acquisition was parked in a lower class and was moved, false if it is not parked (e.g.
+     *         because it already got a token) or already has the priority or a higher one
+     */
+    public boolean promote(CompletableFuture<Token> acquisition, RequestPriority priority) {
+        for (int i = priority.ordinal() + 1; i < PRIORITIES.length; i++) {
+            FairQueue<PendingAcquire> queue = pending.get(PRIORITIES[i]);
+            PendingAcquire acquire = queue.find(a -> a.future == acquisition);
+            if (acquire != null && queue.remove(acquire)) {
+                synchronized (acquire) {
+                    if (acquisition.isDone()) {
+                        // Completed while it was taken out, its listener has dropped it from the counts
+                        return false;
+                    }
+                    parked[i].decrementAndGet();
+                    parked[priority.ordinal()].incrementAndGet();
+                    acquire.context = acquire.context.withPriority(priority);
+                }
+                FairQueue<PendingAcquire> target = pending.get(priority);
+                target.add(acquire);
+                if (acquisition.isDone()) {
+                    // Cancelled while it was moved, after its listener looked for it in the old class
+                    target.remove(acquire);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Selects a token and takes one of its slots.
+     *
+     * <p><b>Algorithm (power of two choices):</b></p>
      * <ol>
-     *   <li>Stream all tokens and filter those with remaining > 0</li>
-     *   <li>Select the one with the maximum remaining requests</li>
-     *   <li>If available, delegate to that token's acquire() method</li>
-     *   <li>If none available, find the minimum reset time across all tokens</li>
-     *   <li>Schedule a retry after (min_reset_time + 1 second), with minimum 5 second wait</li>
+     *   <li>Sample two distinct candidates at random</li>
+     *   <li>Try to take a slot from the one with more remaining requests, then from the other</li>
+     *   <li>If both are exhausted, try every candidate once, starting at a random offset</li>
      * </ol>
+     * Random sampling spreads concurrent acquirers across tokens instead of letting all of them
+     * race for the single "best" token, while still favouring tokens with more budget.
      *
-     * <p><b>Parameters:</b></p>
-     * This method uses a private recursive pattern: when all tokens are exhausted,
-     * it schedules itself to run again after the wait period.
+     * @param candidates The tokens that can serve the request
+     * @return The token a slot was taken from, or null if all candidates are exhausted
+     */
+    private Token select(List<Token> candidates) {
+        int size = candidates.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            Token only = candidates.get(0);
+            return only.tryConsume(usageLimit) ? only : null;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(size);
+        int b = random.nextInt(size - 1);
+        if (b >= a) {
+            b++;
+        }
+
+        Token first = candidates.get(a);
+        Token second = candidates.get(b);
+        if (second.getRemaining() > first.getRemaining()) {
+            Token swap = first;
+            first = second;
+            second = swap;
+        }
+
+        if (first.tryConsume(usageLimit)) {
+            return first;
+        }
+        if (second.tryConsume(usageLimit)) {
+            return second;
+        }
+
+        for (int i = 0; i < size; i++) {
+            Token token = candidates.get((a + i) % size);
+            if (token.tryConsume(usageLimit)) {
+                return token;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Timer task: resets due tokens and retries parked acquisitions by priority.
+     */
+    private void processResets() {
+        try {
+            long now = Instant.now().getEpochSecond();
+            boolean reset = false;
+            for (Token token : tokens) {
+                reset |= token.resetIfDue(now);
+            }
+
+            for (int i = 0; i < served.length; i++) {
+                served[i] += granted[i].getAndSet(0);
+                if (reset) {
+                    served[i] /= 2;
+                }
+            }
+
+            servePending();
+
+            if (reset) {
+                wakeResetWaiters();
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            LOGGER.error("Token reset processing failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Visits every parked acquisition once, class by class as chosen by {@link #nextClass(int[])} and flow by
+     * flow within a class, and hands out tokens to those whose candidates have a slot. The others are put back
+     * at the head of their flows once the tick is done, so they keep their place. The pending counts are kept
+     * apart from the queues, so readers see them unchanged until an acquisition completes.
+     */
+    private void servePending() {
+        int[] toVisit = new int[PRIORITIES.length];
+        for (RequestPriority priority : PRIORITIES) {
+            toVisit[priority.ordinal()] = pending.get(priority).size();
+        }
+
+        Map<RequestPriority, List<PendingAcquire>> unserved = new EnumMap<>(RequestPriority.class);
+        int index;
+        while ((index = nextClass(toVisit)) >= 0) {
+            toVisit[index]--;
+            PendingAcquire acquire = pending.get(PRIORITIES[index]).poll();
+            if (acquire == null) {
+                toVisit[index] = 0;
+                continue;
+            }
+            if (acquire.future.isDone()) {
+                continue;
+            }
+            if (acquire.context.isExpired()) {
+                acquire.future.completeExceptionally(new TimeoutException("Deadline passed while waiting for a token"));
+                continue;
+            }
+
+            Token token = select(acquire.candidates);
+            if (token != null) {
+                if (acquire.future.complete(token)) {
+                    served[index]++;
+                } else {
+                    // Cancelled after the check above, the slot goes back to the token
+                    token.release();
+                }
+            } else {
+                unserved.computeIfAbsent(PRIORITIES[index], p -> new ArrayList<>()).add(acquire);
+            }
+        }
+
+        unserved.forEach((priority, acquires) -> pending.get(priority).putBack(acquires));
+    }
+
+    /**
+     * Chooses the priority class whose next parked acquisition is served.
      *
-     * @param future The CompletableFuture to complete when a token is available
+     * @param toVisit Parked acquisitions per class not yet visited in this tick
+     * @return The ordinal of the first class that stays within its reserved share when served once more,
+     *         otherwise of the highest class with
+     *         acquisitions left to visit, or -1 if all were visited
      */
-    private void tryAcquire(CompletableFuture<Token> future) {
-        Token best = tokens.stream()
-                .filter(s -> s.getRemaining() > usageLimit)
-                .max(Comparator.comparingInt(Token::getRemaining))
-                .orElse(null);
+    private int nextClass(int[] toVisit) {
+        double total = 0;
+        for (double count : served) {
+            total += count;
+        }
 
-        if (best != null) {
-            best.acquire(usageLimit).thenRun(() -> future.complete(best));
-            return;
+        int highest = -1;
+        for (int i = 0; i < toVisit.length; i++) {
+            if (toVisit[i] <= 0) {
+                continue;
+            }
+            if (highest < 0) {
+                highest = i;
+            }
+            // Serving this class once more must keep it within its reserved share
+            if (served[i] + 1 <= PRIORITIES[i].getReservedShare() * (total + 1)) {
+                return i;
+            }
         }
+        return highest;
+    }
 
-        long wait = tokens.stream()
-                .mapToLong(Token::secondsUntilReset)
-                .filter(w -> w > 0)
-                .min()
-                .orElse(5);
+    /**
+     * Gets the number of acquisitions parked with the given priority.
+     *
+     * @param priority The priority class
+     * @return Number of acquisitions waiting for a token
+     */
+    public int getPendingCount(RequestPriority priority) {
+        return parked[priority.ordinal()].get();
+    }
 
-        long scheduleWait = Math.max(5, wait + 1);
+    /**
+     * Gets the number of acquisitions parked in the given flow, across all priority classes.
+     *
+     * @param flow The flow key
+     * @return Number of acquisitions of the flow waiting for a token
+     */
+    public int getPendingCount(String flow) {
+        return parkedByFlow.getOrDefault(flow, 0);
+    }
+
+    /**
+     * Estimates how long an acquisition with the given priority would wait for a token if it was made now.
+     *
+     * <p><b>Estimate:</b></p>
+     * The acquisition queues behind the parked acquisitions of its own and higher classes. If the available
+     * budget covers them and the new one, the wait is zero. Otherwise the missing slots are taken from the next
+     * resets: the earliest pending reset, then one full window of every token's budget per
+     * {@link #DEFAULT_WINDOW_SECONDS} seconds. Scopes and the reserved shares of lower classes are ignored, so
+     * the estimate is a lower bound for requests of scopes only few tokens can serve.
+     *
+     * @param priority The priority class of the acquisition
+     * @return The estimated wait, zero if a token is available right away, {@link #UNBOUNDED_WAIT} if no
+     *         token has any budget above the usage limit
+     */
+    public Duration estimateWait(RequestPriority priority) {
+        int demand = 1;
+        for (RequestPriority queued : PRIORITIES) {
+            if (queued.ordinal() <= priority.ordinal()) {
+                demand += parked[queued.ordinal()].get();
+            }
+        }
 
-        scheduler.schedule(() -> tryAcquire(future), scheduleWait, TimeUnit.SECONDS);
+        Capacity capacity = getCapacity();
+        int missing = demand - capacity.getAvailable();
+        if (missing <= 0) {
+            return Duration.ZERO;
+        }
+
+        int perWindow = 0;
+        for (Token token : tokens) {
+            perWindow += Math.max(0, token.getMax().get() - usageLimit);
+        }
+        if (perWindow == 0) {
+            return UNBOUNDED_WAIT;
+        }
+
+        long nowMs = Instant.now().toEpochMilli();
+        long firstResetMs = capacity.getNextResetAt() > 0
+                ? Math.max(0, capacity.getNextResetAt() * 1000 - nowMs) + RESET_INTERVAL_MS
+                : TimeUnit.SECONDS.toMillis(DEFAULT_WINDOW_SECONDS);
+        long windows = (missing - 1) / perWindow;
+        return Duration.ofMillis(firstResetMs + windows * TimeUnit.SECONDS.toMillis(DEFAULT_WINDOW_SECONDS));
     }
 
     /**
@@ -263,7 +781,149 @@ public class TokenPool {
                 .orElse(0);
     }
 
+    /**
+     * Checks whether any token has spare budget above the usage limit.
+     *
+     * <p>Used for optional background work (e.g. cache refreshes) that should only consume
+     * requests nobody else needs right now.</p>
+     *
+     * @param spareRequests Number of requests a token must have left above the usage limit
+     * @return {@code true} if at least one token has the required spare requests
+     */
+    public boolean hasSpareCapacity(int spareRequests) {
+        return tokens.stream().anyMatch(t -> t.getRemaining() - usageLimit >= spareRequests);
+    }
+
+    /**
+     * Gets a snapshot of the budget the pool can spend right now.
+     *
+     * <p><b>Calculation:</b></p>
+     * <ul>
+     *   <li><b>Available:</b> sum of the remaining requests above the usage limit of every token</li>
+     *   <li><b>Rate:</b> sum of each token's available requests divided by the seconds until its reset, or by
+     *       {@link #DEFAULT_WINDOW_SECONDS} if no reset is pending (its window starts with the next request)</li>
+     *   <li><b>Next Reset:</b> earliest pending reset across the tokens</li>
+     * </ul>
+     *
+     * @return The current capacity
+     */
+    public Capacity getCapacity() {
+        long now = Instant.now().getEpochSecond();
+        int available = 0;
+        double rate = 0;
+        long nextReset = 0;
+
+        for (Token token : tokens) {
+            long resetAt = token.getResetAt().get();
+            boolean pendingReset = resetAt > now;
+            if (pendingReset && (nextReset == 0 || resetAt < nextReset)) {
+                nextReset = resetAt;
+            }
+
+            int spendable = token.getRemaining() - usageLimit;
+            if (spendable <= 0) {
+                continue;
+            }
+            available += spendable;
+            rate += spendable / (double) (pendingReset ? resetAt - now : DEFAULT_WINDOW_SECONDS);
+        }
+        return new Capacity(available, rate, nextReset);
+    }
+
+    /**
+     * Returns a future completed the next time budget may have returned.
+     *
+     * <p>The future completes when the reset timer resets a token, at most {@link #RESET_INTERVAL_MS} ms after
+     * its reset time, or right away on the thread of a response, returned slot or registration that leaves a
+     * token with budget above the usage limit. Waking up does not guarantee budget, callers check again.
+     * Dependent actions should be short or move to another executor. If no token ever regains budget, e.g.
+     * because none is registered, the future never completes, so callers should bound the wait.
+     * Cancelling the future removes it from the waiters.</p>
+     *
+     * @return A future completed when budget may have returned
+     */
+    public CompletableFuture<Void> awaitReset() {
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        resetWaiters.add(waiter);
+        waiter.whenComplete((v, ex) -> {
+            if (ex != null) {
+                resetWaiters.remove(waiter);
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * Gets the number of futures returned by {@link #awaitReset()} that are still waiting.
+     *
+     * @return Number of waiters
+     */
+    public int getResetWaiterCount() {
+        return resetWaiters.size();
+    }
+
     public void shutdown() {
         this.scheduler.shutdownNow();
     }
-}
\ No newline at end of file
+
+    /**
+     * Snapshot of the spendable budget of the pool, see {@link #getCapacity()}.
+     */
+    public static final class Capacity {
+
+        private final int available;
+        private final double ratePerSecond;
+        private final long nextResetAt;
+
+        public Capacity(int available, double ratePerSecond, long nextResetAt) {
+            this.available = available;
+            this.ratePerSecond = ratePerSecond;
+            this.nextResetAt = nextResetAt;
+        }
+
+        /**
+         * Gets the number of requests the pool can send before its tokens reset.
+         *
+         * @return Requests above the usage limit across all tokens
+         */
+        public int getAvailable() {
+            return available;
+        }
+
+        /**
+         * Gets the rate at which the available requests last until the tokens reset.
+         *
+         * @return Requests per second, 0 if no budget is left
+         */
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        /**
+         * Gets the earliest pending reset of a token.
+         *
+         * @return Unix timestamp in seconds, 0 if no reset is pending
+         */
+        public long getNextResetAt() {
+            return nextResetAt;
+        }
+    }
+
+    /**
+     * An acquisition waiting for one of its candidate tokens to free a slot.
+     */
+    private static class PendingAcquire {
+
+        private final CompletableFuture<Token> future;
+        private final List<Token> candidates;
+
+        /** Priority and flow; the priority changes when the acquisition is promoted. */
+        private volatile RequestContext context;
+
+        private PendingAcquire(CompletableFuture<Token> future, List<Token> candidates, RequestContext context) {
+            this.future = future;
+            this.candidates = candidates;
+            this.context = context;
+        }
+    }
+}
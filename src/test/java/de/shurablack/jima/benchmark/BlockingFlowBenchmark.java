@@ -0,0 +1,181 @@
+package de.shurablack.jima.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.shurablack.jima.http.Endpoint;
+import de.shurablack.jima.http.ExecutorSettings;
+import de.shurablack.jima.http.HttpTransport;
+import de.shurablack.jima.http.RequestManager;
+import de.shurablack.jima.http.Response;
+import de.shurablack.jima.model.character.view.CharacterView;
+import de.shurablack.jima.model.guild.GuildMembers;
+import de.shurablack.jima.model.guild.GuildView;
+import de.shurablack.jima.util.AppSettings;
+import de.shurablack.jima.util.RateLimitMode;
+import de.shurablack.jima.util.StartupMode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark of many concurrent blocking flows ("fetch character, then guild, then members") run through
+ * {@link RequestManager#submit(java.util.function.Supplier)} against a local stub server.
+ *
+ * <p>Each flow performs three sequential requests with {@code join()} in between, exactly like code written
+ * against the blocking {@code Requester} API. The stub answers every request after a fixed latency from a
+ * timer, so the server itself never blocks a thread. Each flow executor is measured for wall time and the
+ * peak number of live platform threads:</p>
+ * <ul>
+ *   <li><b>virtual:</b> one virtual thread per flow (only on Java 21+)</li>
+ *   <li><b>pool-200:</b> a fixed pool of 200 platform threads, which caps the number of concurrent flows</li>
+ *   <li><b>thread-per-flow:</b> one platform thread per flow</li>
+ * </ul>
+ *
+ * <p><b>Running:</b></p>
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     de.shurablack.jima.benchmark.BlockingFlowBenchmark [flows] [latencyMs]
+ * </pre>
+ * Defaults to 10000 flows and 20 ms latency. Every concurrent flow holds one connection, so the open file
+ * limit ({@code ulimit -n}) must exceed twice the number of flows.
+ */
+public class BlockingFlowBenchmark {
+
+    private static final int DEFAULT_FLOWS = 10_000;
+    private static final long DEFAULT_LATENCY_MS = 20;
+    private static final int TOKENS = 4;
+
+    private static final String AUTH_BODY = "{\"authenticated\":true,\"api_key\":{\"name\":\"stub\",\"rate_limit\":1000000}}";
+    private static final String VIEW_BODY = "{\"character\":{\"name\":\"Stub\",\"guild\":{\"id\":7}}}";
+    private static final String EMPTY_BODY = "{}";
+
+    public static void main(String[] args) throws Exception {
+        int flows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FLOWS;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_LATENCY_MS;
+
+        ScheduledExecutorService timer = Executors.newScheduledThreadPool(2);
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(4);
+        HttpServer server = startStub(serverExecutor, timer, latencyMs);
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/v1";
+
+        System.out.printf("%d flows, 3 requests each, %d ms stub latency%n", flows, latencyMs);
+        try {
+            if (ExecutorSettings.isVirtualThreadSupported()) {
+                run("virtual", null, baseUrl, flows);
+            } else {
+                System.out.println("virtual: skipped, requires Java 21+");
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(200);
+            run("pool-200", pool, baseUrl, flows);
+            pool.shutdown();
+
+            ExecutorService perFlow = Executors.newCachedThreadPool();
+            run("thread-per-flow", perFlow, baseUrl, flows);
+            perFlow.shutdown();
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+
+    private static void run(String name, Executor flowExecutor, String baseUrl, int flows) {
+        RequestManager manager = RequestManager.builder()
+                .withSettings(new AppSettings.Settings("JIMA-Benchmark", "1.0.0", "benchmark@example.com", 0,
+                        RateLimitMode.LOCAL, StartupMode.ALL_TOKENS))
+                .withTokens(tokens())
+                .withBaseUrl(baseUrl)
+                .withTransport(HttpTransport.create(new ExecutorSettings().withFlowExecutor(flowExecutor)))
+                .build();
+        manager.ready().join();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        CompletableFuture<?>[] results = new CompletableFuture<?>[flows];
+        for (int i = 0; i < flows; i++) {
+            String characterId = "character" + i;
+            int guildId = i;
+            results[i] = manager.submit(() -> flow(manager, characterId, guildId, failures));
+        }
+        CompletableFuture.allOf(results).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("%-16s %6d ms  %8.0f flows/s  peak platform threads %5d  failed %d%n",
+                name, elapsedMs, flows * 1000.0 / Math.max(1, elapsedMs), threads.getPeakThreadCount(), failures.get());
+        manager.shutdown();
+    }
+
+    private static GuildMembers flow(RequestManager manager, String characterId, int guildId, AtomicInteger failures) {
+        Response<CharacterView> character = manager.enqueueRequest(
+                Endpoint.CHARACTER_VIEW.request().path("hashed_character_id", characterId).build(),
+                CharacterView.class
+        ).join();
+        // Distinct guild ids per flow, so the requests are not coalesced
+        Response<GuildView> guild = manager.enqueueRequest(
+                Endpoint.GUILD_INFORMATION.request().path("id", Integer.toString(guildId)).build(),
+                GuildView.class
+        ).join();
+        Response<GuildMembers> members = manager.enqueueRequest(
+                Endpoint.GUILD_MEMBERS.request().path("id", Integer.toString(guildId)).build(),
+                GuildMembers.class
+        ).join();
+
+        if (!character.isSuccessful() || !guild.isSuccessful() || !members.isSuccessful()) {
+            failures.incrementAndGet();
+        }
+        return members.getData();
+    }
+
+    private static List<String> tokens() {
+        String[] tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = "benchmark_stub_token_" + i;
+        }
+        return List.of(tokens);
+    }
+
+    private static HttpServer startStub(Executor executor, ScheduledExecutorService timer, long latencyMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        server.createContext("/", exchange -> timer.schedule(() -> respond(exchange), latencyMs, TimeUnit.MILLISECONDS));
+        server.setExecutor(executor);
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String body = path.endsWith("/auth/check") ? AUTH_BODY
+                : path.contains("/character/") ? VIEW_BODY
+                : EMPTY_BODY;
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        try (exchange; OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("X-RateLimit-Remaining", "1000000");
+            exchange.getResponseHeaders().set("X-RateLimit-Reset", Long.toString(Instant.now().getEpochSecond() + 3600));
+            exchange.sendResponseHeaders(200, bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            // Client went away; nothing to answer
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package de.shurablack.jima.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.shurablack.jima.http.serialization.ApiObjectMapper;
+import de.shurablack.jima.http.serialization.DecodedBody;
+import de.shurablack.jima.http.serialization.DecodingBodyHandler;
+import de.shurablack.jima.model.combat.enemy.Enemies;
+import de.shurablack.jima.model.guild.conquest.GuildConquest;
+import de.shurablack.jima.model.item.Items;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JMH benchmark of the {@link DecodingBodyHandler}, the path every response body takes from the HTTP client
+ * into its model.
+ *
+ * <p><b>Payloads:</b></p>
+ * The bodies are read from {@code src/test/resources/fixtures} and have the shape, naming and size of the
+ * real API responses:
+ * <ul>
+ *   <li><b>item-search-page:</b> A full page of {@code /item/search}, decoded into {@link Items}</li>
+ *   <li><b>guild-conquest:</b> {@code /guild/conquest/view} with rankings for every zone, decoded into
+ *       {@link GuildConquest}</li>
+ *   <li><b>enemies:</b> {@code /combat/enemies/list} with the loot tables, decoded into {@link Enemies}</li>
+ * </ul>
+ * Recorded responses can replace the fixture files as they are. The body is delivered to the subscriber in
+ * 16 KiB buffers, like the HTTP client does.
+ *
+ * <p><b>Benchmarks:</b></p>
+ * <ul>
+ *   <li><b>streamed:</b> The handler parsing the body while it is read</li>
+ *   <li><b>streamedGzip:</b> The same with a gzip encoded body, decompressed on the fly</li>
+ *   <li><b>viaString:</b> {@code BodySubscribers.ofString()} and parsing the String, the former path as a
+ *       baseline</li>
+ * </ul>
+ *
+ * <p><b>Running:</b></p>
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     de.shurablack.jima.benchmark.DecodeBenchmark
+ * </pre>
+ * Runs with the GC profiler; compare the {@code gc.alloc.rate.norm} rows (bytes allocated per decode).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    @Param({"item-search-page", "guild-conquest", "enemies"})
+    private String fixture;
+
+    private final ObjectMapper mapper = new ApiObjectMapper();
+
+    private Class<?> type;
+    private byte[] payload;
+    private byte[] gzipped;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        switch (fixture) {
+            case "item-search-page":
+                type = Items.class;
+                break;
+            case "guild-conquest":
+                type = GuildConquest.class;
+                break;
+            case "enemies":
+                type = Enemies.class;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown fixture: " + fixture);
+        }
+
+        try (InputStream in = DecodeBenchmark.class.getResourceAsStream("/fixtures/" + fixture + ".json")) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + fixture);
+            }
+            payload = in.readAllBytes();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        gzipped = out.toByteArray();
+    }
+
+    @Benchmark
+    public Object streamed() {
+        return decode(payload, Map.of());
+    }
+
+    @Benchmark
+    public Object streamedGzip() {
+        return decode(gzipped, Map.of("Content-Encoding", List.of("gzip")));
+    }
+
+    @Benchmark
+    public Object viaString() throws IOException {
+        BodySubscriber<String> subscriber = BodySubscribers.ofString(StandardCharsets.UTF_8);
+        deliver(subscriber, payload);
+        String body = subscriber.getBody().toCompletableFuture().join();
+        return mapper.readValue(body, type);
+    }
+
+    private Object decode(byte[] bytes, Map<String, List<String>> headers) {
+        BodySubscriber<? extends Supplier<? extends DecodedBody<?>>> subscriber =
+                new DecodingBodyHandler<>(mapper, type, false).apply(new Info(headers));
+        deliver(subscriber, bytes);
+        DecodedBody<?> body = subscriber.getBody().toCompletableFuture().join().get();
+        if (body.getData() == null) {
+            throw new UncheckedIOException(new IOException("Fixture did not decode: " + fixture));
+        }
+        return body.getData();
+    }
+
+    private static void deliver(BodySubscriber<?> subscriber, byte[] bytes) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        List<ByteBuffer> buffers = new ArrayList<>(bytes.length / BUFFER_SIZE + 1);
+        for (int offset = 0; offset < bytes.length; offset += BUFFER_SIZE) {
+            buffers.add(ByteBuffer.wrap(bytes, offset, Math.min(BUFFER_SIZE, bytes.length - offset)));
+        }
+        subscriber.onNext(buffers);
+        subscriber.onComplete();
+    }
+
+    /**
+     * Response info of a 200 response with the given headers.
+     */
+    private static final class Info implements HttpResponse.ResponseInfo {
+
+        private final HttpHeaders headers;
+
+        private Info(Map<String, List<String>> headers) {
+            this.headers = HttpHeaders.of(headers, (name, value) -> true);
+        }
+
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DecodeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,73 @@
+package de.shurablack.jima.benchmark;
+
+import de.shurablack.jima.http.Endpoint;
+import de.shurablack.jima.util.Token;
+import de.shurablack.jima.util.TokenPool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link TokenPool#acquire(Endpoint)} throughput under contention.
+ *
+ * <p>The pool holds 12 tokens with a budget large enough to never run out during an iteration,
+ * so the benchmark measures selection and slot accounting only, not waiting for resets.</p>
+ *
+ * <p><b>Running:</b></p>
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     de.shurablack.jima.benchmark.TokenPoolBenchmark
+ * </pre>
+ * Runs the benchmark with 1, 8 and 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenPoolBenchmark {
+
+    private static final int TOKENS = 12;
+    private static final int BUDGET = Integer.MAX_VALUE / 2;
+
+    private TokenPool pool;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pool = new TokenPool(0);
+        for (int i = 0; i < TOKENS; i++) {
+            List<String> scopes = i % 2 == 0 ? null : List.of(Endpoint.WORLD_BOSSES.getScope());
+            Token token = new Token("benchmark_token_" + i, BUDGET, scopes);
+            token.updateFromResponse(BUDGET, Instant.now().getEpochSecond() + 3600);
+            pool.initializeToken(token);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Token acquire() {
+        return pool.acquire(Endpoint.WORLD_BOSSES).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(TokenPoolBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package de.shurablack.jima.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ExecutorSettings} class.
+ * Validates that the default executors are bounded and never drop tasks, and that decode tasks never run on the
+ * submitting thread.
+ */
+class ExecutorSettingsTest {
+
+    @Test
+    void newDefaultDecodeExecutor_usesBoundedDaemonThreads() throws InterruptedException {
+        ExecutorService executor = ExecutorSettings.newDefaultDecodeExecutor();
+        try {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            assertEquals(Runtime.getRuntime().availableProcessors(), pool.getMaximumPoolSize());
+            assertEquals(ExecutorSettings.DEFAULT_QUEUE_CAPACITY, pool.getQueue().remainingCapacity());
+
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            executor.execute(() -> {
+                thread.set(Thread.currentThread());
+                done.countDown();
+            });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(thread.get().isDaemon());
+            assertTrue(thread.get().getName().startsWith("JIMA-Decode-"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void newDefaultDecodeExecutor_whenSaturated_runsTaskOnOverflowThread() throws InterruptedException {
+        ExecutorService executor = ExecutorSettings.newDefaultDecodeExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturate((ThreadPoolExecutor) executor, release);
+
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            executor.execute(() -> {
+                thread.set(Thread.currentThread());
+                done.countDown();
+            });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertNotSame(Thread.currentThread(), thread.get());
+            assertTrue(thread.get().getName().startsWith("JIMA-Decode-Overflow-"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void newDefaultDecodeExecutor_whenShutDown_rejectsTask() {
+        ExecutorService executor = ExecutorSettings.newDefaultDecodeExecutor();
+        executor.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    }
+
+    @Test
+    void newDefaultCallbackExecutor_whenSaturated_runsTaskOnCaller() throws InterruptedException {
+        ExecutorService executor = ExecutorSettings.newDefaultCallbackExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            for (int i = 0; i < pool.getMaximumPoolSize() + ExecutorSettings.DEFAULT_QUEUE_CAPACITY; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            executor.execute(() -> thread.set(Thread.currentThread()));
+
+            assertSame(Thread.currentThread(), thread.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Occupies every thread of a pool and fills its queue with tasks blocking until the latch is released.
+     */
+    static void saturate(ThreadPoolExecutor pool, CountDownLatch release) throws InterruptedException {
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        for (int i = 0; i < pool.getMaximumPoolSize(); i++) {
+            pool.execute(blocked);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        // Tasks submitted before may still occupy a thread, so wait until every thread runs one of ours
+        while ((pool.getActiveCount() < pool.getMaximumPoolSize() || !pool.getQueue().isEmpty())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        for (int i = pool.getQueue().remainingCapacity(); i > 0; i--) {
+            pool.execute(blocked);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package de.shurablack.jima.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import de.shurablack.jima.model.item.Item;
+import de.shurablack.jima.model.item.Items;
+import de.shurablack.jima.util.StartupMode;
+import de.shurablack.jima.util.types.ItemType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the item fan-out of the {@link ParallelRequester} against a {@link StubApi} on localhost.
+ * Validates the page order, the de-duplication by hashed ID and the handling of failed pages.
+ */
+class ParallelRequesterTest {
+
+    private static final String ITEMS_PATH = "/v1/item/search";
+
+    private StubApi api;
+    private RequestManager manager;
+
+    /** Requested pages by item type, in the order the requests arrived. */
+    private final Map<String, List<Integer>> requested = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        api = new StubApi();
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a", "token-b", "token-c").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+        api.close();
+    }
+
+    @Test
+    void searchType_fetchesFirstPageThenRemainingPagesInPageOrder() throws Exception {
+        CountDownLatch lastPageSent = new CountDownLatch(1);
+        api.route(ITEMS_PATH, exchange -> {
+            int page = record(exchange);
+            if (page == 2) {
+                // Answer page 2 last, so the merge can't rely on completion order
+                await(lastPageSent);
+            }
+            respondPage(exchange, page, 3, "sword-" + page + "a", "sword-" + page + "b");
+            if (page == 3) {
+                lastPageSent.countDown();
+            }
+        });
+
+        Response<Items> response = ParallelRequester.searchType(manager, ItemType.SWORD).get(5, TimeUnit.SECONDS);
+
+        assertTrue(response.isSuccessful());
+        assertEquals(List.of("sword-1a", "sword-1b", "sword-2a", "sword-2b", "sword-3a", "sword-3b"), ids(response.getData().getItems()));
+        assertEquals(6, response.getData().getPagination().getTotal());
+        assertEquals(1, response.getData().getPagination().getLastPage());
+        List<Integer> pages = requested.get("sword");
+        assertEquals(1, pages.get(0));
+        assertEquals(Set.of(1, 2, 3), new HashSet<>(pages));
+        assertEquals(3, pages.size());
+    }
+
+    @Test
+    void searchTypes_removesDuplicatesByHashedIdInStableOrder() throws Exception {
+        api.route(ITEMS_PATH, exchange -> {
+            int page = record(exchange);
+            if (type(exchange).equals("sword")) {
+                respondPage(exchange, page, 2, page == 1 ? new String[]{"a", "b"} : new String[]{"c", "a"});
+            } else {
+                respondPage(exchange, page, 1, "d", "b", "e");
+            }
+        });
+
+        Response<Items> response = ParallelRequester.searchTypes(manager, new LinkedHashSet<>(List.of(ItemType.SWORD, ItemType.BOW)))
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue(response.isSuccessful());
+        assertEquals(List.of("a", "b", "c", "d", "e"), ids(response.getData().getItems()));
+    }
+
+    @Test
+    void getAllItems_skipsAllAndRequestsEveryOtherType() throws Exception {
+        api.route(ITEMS_PATH, exchange -> {
+            int page = record(exchange);
+            respondPage(exchange, page, 1, type(exchange), "shared");
+        });
+
+        Response<List<Item>> response = ParallelRequester.getAllItems(manager).get(10, TimeUnit.SECONDS);
+
+        Set<String> expected = Arrays.stream(ItemType.values())
+                .filter(type -> type != ItemType.ALL)
+                .map(type -> type.name().toLowerCase())
+                .collect(Collectors.toSet());
+        assertTrue(response.isSuccessful());
+        assertEquals(expected, requested.keySet());
+        assertFalse(requested.containsKey("all"));
+        assertEquals(ItemType.values().length - 1, api.hits(ITEMS_PATH));
+        // Declaration order of the types, with the item shared by all of them kept once
+        assertEquals("sword", response.getData().get(0).getHashedId());
+        assertEquals("shared", response.getData().get(1).getHashedId());
+        assertEquals(ItemType.values().length, response.getData().size());
+    }
+
+    @Test
+    void searchType_whenPageFails_returnsItsResponseAndCancelsPendingPages() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        api.route(ITEMS_PATH, exchange -> {
+            int page = record(exchange);
+            if (page == 2) {
+                StubApi.respond(exchange, 404, "{\"message\":\"Not found.\"}");
+                return;
+            }
+            if (page > 2) {
+                await(release);
+            }
+            respondPage(exchange, page, 4, "item-" + page);
+        });
+
+        try {
+            Response<Items> response = ParallelRequester.searchType(manager, ItemType.SWORD).get(5, TimeUnit.SECONDS);
+
+            assertEquals(ResponseCode.NOT_FOUND, response.getResponseCode());
+            assertNull(response.getData());
+            RequestManagerTest.await(() -> manager.getRequestMetricSnapshot().getCancelled() == 2);
+            RequestManagerTest.await(() -> manager.getRequestMetricSnapshot().getInFlight() == 0);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void searchType_whenFirstPageFails_returnsItsResponse() throws Exception {
+        api.route(ITEMS_PATH, exchange -> {
+            record(exchange);
+            StubApi.respond(exchange, 404, "{\"message\":\"Not found.\"}");
+        });
+
+        Response<Items> response = ParallelRequester.searchType(manager, ItemType.SWORD).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ResponseCode.NOT_FOUND, response.getResponseCode());
+        assertEquals(List.of(1), requested.get("sword"));
+    }
+
+    /**
+     * Records the requested page of the request's item type.
+     */
+    private int record(HttpExchange exchange) {
+        int page = Integer.parseInt(query(exchange).getOrDefault("page", "1"));
+        requested.computeIfAbsent(type(exchange), t -> new CopyOnWriteArrayList<>()).add(page);
+        return page;
+    }
+
+    private static String type(HttpExchange exchange) {
+        return query(exchange).get("type");
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+            String[] parts = pair.split("=", 2);
+            query.put(parts[0], parts.length > 1 ? parts[1] : "");
+        }
+        return query;
+    }
+
+    /**
+     * Sends a page of an item search holding items with the given hashed IDs.
+     */
+    private static void respondPage(HttpExchange exchange, int page, int lastPage, String... hashedIds) throws IOException {
+        String items = Arrays.stream(hashedIds)
+                .map(id -> "{\"hashed_id\":\"" + id + "\",\"name\":\"Item " + id + "\",\"type\":\"" + type(exchange) + "\"}")
+                .collect(Collectors.joining(","));
+        StubApi.respond(exchange, 200, "{\"items\":[" + items + "],\"pagination\":{\"current_page\":" + page
+                + ",\"last_page\":" + lastPage + ",\"per_page\":" + hashedIds.length + "}}");
+    }
+
+    private static List<String> ids(List<Item> items) {
+        return items.stream().map(Item::getHashedId).collect(Collectors.toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package de.shurablack.jima.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RequestDescriptor} class.
+ * Validates the canonical URL encoding that keys the caches and the single-flight layer.
+ */
+class RequestDescriptorTest {
+
+    @Test
+    void of_sortsQueryParameters() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("type", "listings");
+        first.put("tier", "0");
+        Map<String, String> second = new LinkedHashMap<>();
+        second.put("tier", "0");
+        second.put("type", "listings");
+
+        RequestDescriptor a = RequestDescriptor.of(Endpoint.ITEM_MARKET_HISTORY, Map.of("hashed_item_id", "abc"), first);
+        RequestDescriptor b = RequestDescriptor.of(Endpoint.ITEM_MARKET_HISTORY, Map.of("hashed_item_id", "abc"), second);
+
+        assertEquals(Endpoint.BASE_URL.getPath() + "/item/abc/market-history?tier=0&type=listings", a.getUrl());
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    void of_encodesParameters() {
+        RequestDescriptor request = RequestDescriptor.of(
+                Endpoint.CHARACTER_VIEW,
+                Map.of("hashed_character_id", "a b/c"),
+                Map.of("query", "ore & gem")
+        );
+
+        assertEquals(Endpoint.BASE_URL.getPath() + "/character/a+b%2Fc/information?query=ore+%26+gem", request.getUrl());
+    }
+
+    @Test
+    void of_withoutParameters_usesPlainPath() {
+        RequestDescriptor request = RequestDescriptor.of(Endpoint.WORLD_BOSSES, null, Map.of());
+
+        assertEquals(Endpoint.WORLD_BOSSES.getPath(), request.getUrl());
+        assertSame(Endpoint.WORLD_BOSSES, request.getEndpoint());
+    }
+
+    @Test
+    void of_missingPathParameter_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RequestDescriptor.of(Endpoint.GUILD_MEMBERS, Map.of(), null));
+    }
+
+    @Test
+    void builder_matchesMapFactory() {
+        RequestDescriptor built = Endpoint.ITEM_MARKET_HISTORY.request()
+                .path("hashed_item_id", "abc")
+                .query("type", "listings")
+                .query("tier", 0)
+                .query("ignored", null)
+                .build();
+
+        assertEquals(
+                RequestDescriptor.of(Endpoint.ITEM_MARKET_HISTORY, Map.of("hashed_item_id", "abc"), Map.of("tier", "0", "type", "listings")),
+                built
+        );
+    }
+
+    @Test
+    void equals_distinguishesEndpoints() {
+        RequestDescriptor a = RequestDescriptor.ofUrl(Endpoint.ITEMS, "https://example.com");
+        RequestDescriptor b = RequestDescriptor.ofUrl(Endpoint.WORLD_BOSSES, "https://example.com");
+
+        assertNotEquals(a, b);
+    }
+}
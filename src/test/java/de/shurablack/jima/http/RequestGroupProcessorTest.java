@@ -0,0 +1,295 @@
+package de.shurablack.jima.http;
+
+import de.shurablack.jima.util.Token;
+import de.shurablack.jima.util.TokenPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RequestGroupProcessor} class.
+ * Validates that groups keep several requests in flight, run side by side and still honor their pacing.
+ */
+class RequestGroupProcessorTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final TokenPool pool = new TokenPool(0);
+    private final RequestGroupProcessor processor = new RequestGroupProcessor(scheduler, () -> executor, pool);
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+        pool.shutdown();
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private List<CompletableFuture<Object>> start(RequestGroup group) {
+        List<CompletableFuture<Object>> results = group.open();
+        processor.start(group, results);
+        return results;
+    }
+
+    /** A request completing with its value after the given latency, tracking concurrent executions. */
+    private CompletableFuture<?> delayed(Object value, long latencyMs, AtomicInteger running, AtomicInteger peak) {
+        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            running.decrementAndGet();
+            future.complete(value);
+        }, latencyMs, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    @Test
+    void start_keepsMaxInFlightRequestsRunning() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        RequestGroup group = new RequestGroup().withMaxInFlight(4);
+        for (int i = 0; i < 20; i++) {
+            int value = i;
+            group.addRequest(() -> delayed(value, 30, running, peak));
+        }
+
+        List<CompletableFuture<Object>> results = start(group);
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(4, peak.get());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).join());
+        }
+        assertEquals(0, processor.getActiveGroups());
+    }
+
+    @Test
+    void start_runsGroupsConcurrently() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RequestGroup blocked = new RequestGroup()
+                .withMaxInFlight(1)
+                .addResponseRequest(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+        RequestGroup other = new RequestGroup()
+                .addRequest(() -> CompletableFuture.completedFuture("done"));
+
+        List<CompletableFuture<Object>> blockedResults = start(blocked);
+        List<CompletableFuture<Object>> otherResults = start(other);
+
+        assertEquals("done", otherResults.get(0).get(5, TimeUnit.SECONDS));
+        assertFalse(blockedResults.get(0).isDone());
+        release.countDown();
+        blockedResults.get(0).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void start_pacesStartsWithDelay() throws Exception {
+        RequestGroup group = new RequestGroup().withMaxInFlight(10).withDelay(50);
+        for (int i = 0; i < 5; i++) {
+            group.addRequest(() -> CompletableFuture.completedFuture("ok"));
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Object>> results = start(group);
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+    }
+
+    @Test
+    void start_failedRequest_completesOnlyItsFuture() throws Exception {
+        RequestGroup group = new RequestGroup()
+                .addRequest(() -> CompletableFuture.failedFuture(new IllegalStateException("boom")))
+                .addRequest(() -> CompletableFuture.completedFuture("ok"));
+
+        List<CompletableFuture<Object>> results = start(group);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> results.get(0).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals("ok", results.get(1).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shutdown_failsRequestsNotStarted() throws Exception {
+        RequestGroup group = new RequestGroup().withMaxInFlight(1).withDelay(10_000);
+        group.addRequest(() -> CompletableFuture.completedFuture("first"));
+        group.addRequest(() -> CompletableFuture.completedFuture("second"));
+
+        List<CompletableFuture<Object>> results = start(group);
+        assertEquals("first", results.get(0).get(5, TimeUnit.SECONDS));
+        processor.shutdown();
+
+        assertThrows(CancellationException.class, () -> results.get(1).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancel_cancelsRequestInFlight() throws Exception {
+        CompletableFuture<Object> inFlight = new CompletableFuture<>();
+        CountDownLatch started = new CountDownLatch(1);
+        RequestGroup group = new RequestGroup().addRequest(() -> {
+            started.countDown();
+            return inFlight;
+        });
+
+        start(group);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        group.cancel();
+
+        assertThrows(CancellationException.class, () -> inFlight.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void start_runsRequestsWithGroupPriorityAndFlow() throws Exception {
+        AtomicReference<RequestContext> seen = new AtomicReference<>();
+        RequestGroup group = new RequestGroup()
+                .withGroupId("bulk")
+                .withPriority(RequestPriority.BACKGROUND)
+                .withWeight(3)
+                .addRequest(() -> {
+                    seen.set(RequestManager.currentContext());
+                    return CompletableFuture.completedFuture("ok");
+                });
+
+        assertEquals("ok", start(group).get(0).get(5, TimeUnit.SECONDS));
+
+        assertEquals(RequestPriority.BACKGROUND, seen.get().getPriority());
+        assertEquals("bulk", seen.get().getFlow());
+        assertEquals(3, seen.get().getWeight());
+    }
+
+    @Test
+    void adaptive_spacesStartsByShareOfRate() throws Exception {
+        // 600 requests without a pending reset last 60 seconds at 10 per second
+        Token token = new Token("adaptive_key", 600, null);
+        token.updateFromResponse(600, 0);
+        pool.initializeToken(token);
+
+        RequestGroup group = new RequestGroup()
+                .withPacing(PacingMode.ADAPTIVE)
+                .withThroughputShare(0.5)
+                .withMaxInFlight(10);
+        for (int i = 0; i < 3; i++) {
+            group.addRequest(() -> CompletableFuture.completedFuture("ok"));
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Object>> results = start(group);
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // Half of 10 per second: 200 ms between starts
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400);
+    }
+
+    @Test
+    void adaptive_withoutBudget_resumesOnReset() throws Exception {
+        Token token = new Token("exhausted_key", 20, null);
+        token.updateFromResponse(0, Instant.now().getEpochSecond() + 1);
+        pool.initializeToken(token);
+
+        RequestGroup group = new RequestGroup()
+                .withPacing(PacingMode.ADAPTIVE)
+                .addRequest(() -> CompletableFuture.completedFuture("ok"));
+
+        List<CompletableFuture<Object>> results = start(group);
+        assertFalse(results.get(0).isDone());
+
+        assertEquals("ok", results.get(0).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void adaptive_withoutPendingReset_resumesWhenResponseReturnsBudget() throws Exception {
+        Token token = new Token("exhausted_key", 20, null);
+        token.updateFromResponse(0, 0);
+        pool.initializeToken(token);
+
+        RequestGroup group = new RequestGroup()
+                .withPacing(PacingMode.ADAPTIVE)
+                .addRequest(() -> CompletableFuture.completedFuture("ok"));
+
+        List<CompletableFuture<Object>> results = start(group);
+        Thread.sleep(2 * TokenPool.RESET_INTERVAL_MS);
+        assertFalse(results.get(0).isDone());
+
+        token.updateFromResponse(5, 0);
+
+        assertEquals("ok", results.get(0).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void adaptive_withEmptyPool_resumesWhenTokenIsAdded() throws Exception {
+        RequestGroup group = new RequestGroup()
+                .withPacing(PacingMode.ADAPTIVE)
+                .addRequest(() -> CompletableFuture.completedFuture("ok"));
+
+        List<CompletableFuture<Object>> results = start(group);
+        assertFalse(results.get(0).isDone());
+
+        Token token = new Token("late_key", 20, null);
+        token.updateFromResponse(20, 0);
+        pool.initializeToken(token);
+
+        assertEquals("ok", results.get(0).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void adaptive_whenGroupFinishes_dropsBudgetWait() throws Exception {
+        Token token = new Token("exhausted_key", 20, null);
+        token.updateFromResponse(0, Instant.now().getEpochSecond() + 600);
+        pool.initializeToken(token);
+
+        RequestGroup group = new RequestGroup()
+                .withPacing(PacingMode.ADAPTIVE)
+                .addRequest(() -> CompletableFuture.completedFuture("ok"));
+
+        List<CompletableFuture<Object>> results = start(group);
+        assertEquals(1, pool.getResetWaiterCount());
+
+        processor.shutdown();
+
+        assertThrows(CancellationException.class, () -> results.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(0, pool.getResetWaiterCount());
+    }
+
+    @Test
+    void withTimeout_notPositive_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestGroup().withTimeout(Duration.ZERO));
+        assertNull(new RequestGroup().withTimeout(null).getTimeout());
+    }
+
+    @Test
+    void withThroughputShare_outOfRange_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestGroup().withThroughputShare(0));
+        assertThrows(IllegalArgumentException.class, () -> new RequestGroup().withThroughputShare(1.5));
+    }
+
+    @Test
+    void withWeight_belowOne_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestGroup().withWeight(0));
+        assertThrows(IllegalArgumentException.class, () -> RequestContext.DEFAULT.withFlow("tenant", 0));
+    }
+
+    @Test
+    void withMaxInFlight_belowOne_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestGroup().withMaxInFlight(0));
+    }
+}
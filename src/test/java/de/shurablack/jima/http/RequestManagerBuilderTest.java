@@ -0,0 +1,68 @@
+package de.shurablack.jima.http;
+
+import de.shurablack.jima.http.cache.EndpointCacheSettings;
+import de.shurablack.jima.model.combat.worldboss.WorldBosses;
+import de.shurablack.jima.util.AppSettings;
+import de.shurablack.jima.util.RateLimitMode;
+import de.shurablack.jima.util.StartupMode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RequestManager.Builder}.
+ * Validates that built instances are independent of each other and of the default instance.
+ * Requests are sent to a {@link StubApi} on localhost.
+ */
+class RequestManagerBuilderTest {
+
+    private static final AppSettings.Settings SETTINGS = new AppSettings.Settings(
+            "JIMA-Test", "1.0.0", "test@example.com", 0, RateLimitMode.LOCAL, StartupMode.ALL_TOKENS
+    );
+
+    @Test
+    void build_withoutSettings_throws() {
+        RequestManager.Builder builder = RequestManager.builder().withTokens(List.of());
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    void build_withoutTokens_throws() {
+        RequestManager.Builder builder = RequestManager.builder().withSettings(SETTINGS);
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    void build_createsIndependentInstances() throws Exception {
+        try (StubApi api = new StubApi()) {
+            api.route(StubApi.WORLD_BOSSES_PATH, exchange -> StubApi.respond(exchange, 200, StubApi.worldBosses(Instant.now().plusSeconds(60))));
+            RequestManager cached = api.manager(StartupMode.ALL_TOKENS, "token-a")
+                    .withEndpointCache(new EndpointCacheSettings().withRecordStats(true))
+                    .build();
+            RequestManager uncached = api.manager(StartupMode.ALL_TOKENS, "token-b").build();
+            try {
+                cached.ready().get(5, TimeUnit.SECONDS);
+                uncached.ready().get(5, TimeUnit.SECONDS);
+
+                RequestDescriptor request = Endpoint.WORLD_BOSSES.request().build();
+                assertTrue(cached.enqueueRequest(request, WorldBosses.class).get(5, TimeUnit.SECONDS).isSuccessful());
+                assertTrue(cached.enqueueRequest(request, WorldBosses.class).get(5, TimeUnit.SECONDS).isSuccessful());
+
+                assertEquals(1, cached.getRequestMetricSnapshot().getTotalRequests());
+                assertEquals(0, uncached.getRequestMetricSnapshot().getTotalRequests());
+                assertEquals(1, cached.getEndpointCacheStats().hitCount());
+                assertThrows(IllegalStateException.class, uncached::getEndpointCacheStats);
+                assertEquals("JIMA-Test/1.0.0 (Contact: test@example.com)", cached.getUserAgent());
+            } finally {
+                cached.shutdown();
+                uncached.shutdown();
+            }
+        }
+    }
+}
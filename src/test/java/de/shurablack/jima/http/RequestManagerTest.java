@@ -0,0 +1,590 @@
+package de.shurablack.jima.http;
+
+import com.sun.net.httpserver.HttpHandler;
+import de.shurablack.jima.http.cache.EndpointCacheSettings;
+import de.shurablack.jima.http.cache.RefreshPolicy;
+import de.shurablack.jima.http.retry.RetryPolicy;
+import de.shurablack.jima.model.combat.worldboss.WorldBosses;
+import de.shurablack.jima.util.StartupMode;
+import de.shurablack.jima.util.Token;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the {@link RequestManager} against a {@link StubApi} on localhost.
+ * Covers the request flow end to end: caching, startup, decoding, cancellation and deadlines.
+ */
+class RequestManagerTest {
+
+    private static final RequestDescriptor WORLD_BOSSES = Endpoint.WORLD_BOSSES.request().build();
+    private static final RequestDescriptor DUNGEONS = Endpoint.DUNGEONS.request().build();
+
+    private StubApi api;
+    private RequestManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        api = new StubApi();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (manager != null) {
+            manager.shutdown();
+        }
+        api.close();
+    }
+
+    @Test
+    void refreshAhead_whenRefreshKeepsExpiry_doesNotRefreshAgain() throws Exception {
+        Instant updatesAt = Instant.now().plusSeconds(30).truncatedTo(ChronoUnit.SECONDS);
+        api.route(StubApi.WORLD_BOSSES_PATH, exchange -> StubApi.respond(exchange, 200, StubApi.worldBosses(updatesAt)));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a")
+                .withEndpointCache(new EndpointCacheSettings().withRefreshPolicy(Endpoint.WORLD_BOSSES,
+                        new RefreshPolicy().withRefreshAhead(Duration.ofMinutes(1))))
+                .build();
+
+        assertTrue(manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class).get(5, TimeUnit.SECONDS).isSuccessful());
+        // Inside the refresh-ahead window, so the first hit refreshes in the background
+        assertTrue(manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class).get(5, TimeUnit.SECONDS).isSuccessful());
+        await(() -> api.hits(StubApi.WORLD_BOSSES_PATH) == 2 && manager.getRequestMetricSnapshot().getInFlight() == 0);
+        Thread.sleep(100);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class).get(5, TimeUnit.SECONDS).isSuccessful());
+        }
+        Thread.sleep(300);
+
+        assertEquals(2, api.hits(StubApi.WORLD_BOSSES_PATH));
+        assertEquals(1, manager.getRequestMetricSnapshot().getRefreshes());
+    }
+
+    @Test
+    void enqueueRequest_whenDecodeExecutorSaturated_neverDecodesOnClientThread() throws Exception {
+        api.route(StubApi.WORLD_BOSSES_PATH, exchange -> StubApi.respond(exchange, 200, "{}"));
+        AtomicInteger clientThreads = new AtomicInteger();
+        ExecutorService client = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "Test-Client-" + clientThreads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ExecutorService decode = ExecutorSettings.newDefaultDecodeExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            manager = api.manager(StartupMode.ALL_TOKENS, "token-a")
+                    .withTransport(HttpTransport.create(new ExecutorSettings()
+                            .withClientExecutor(client)
+                            .withDecodeExecutor(decode)))
+                    .build();
+            manager.ready().get(5, TimeUnit.SECONDS);
+
+            ExecutorSettingsTest.saturate((ThreadPoolExecutor) decode, release);
+
+            Response<DecodeThread> response = manager.enqueueRequest(WORLD_BOSSES, DecodeThread.class).get(5, TimeUnit.SECONDS);
+
+            assertTrue(response.isSuccessful());
+            assertFalse(response.getData().thread.getName().startsWith("Test-Client-"));
+            assertTrue(response.getData().thread.getName().startsWith("JIMA-Decode-Overflow-"));
+        } finally {
+            release.countDown();
+            client.shutdownNow();
+            decode.shutdownNow();
+        }
+    }
+
+    @Test
+    void bootstrap_authenticatesTokensConcurrently() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch arrived = new CountDownLatch(3);
+        api.route(StubApi.AUTH_PATH, exchange -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            arrived.countDown();
+            try {
+                arrived.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            StubApi.authenticated(StubApi.RATE_LIMIT).handle(exchange);
+        });
+
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a", "token-b", "token-c").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, maxRunning.get());
+        assertEquals(3, api.hits(StubApi.AUTH_PATH));
+    }
+
+    @Test
+    void enqueueRequest_beforeReady_isSentOnceTokensAuthenticated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        api.route(StubApi.AUTH_PATH, holdAuthentication("token-a", release));
+        api.route(StubApi.WORLD_BOSSES_PATH, exchange -> StubApi.respond(exchange, 200, StubApi.worldBosses(Instant.now().plusSeconds(60))));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+
+        CompletableFuture<Response<WorldBosses>> future = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class);
+        Thread.sleep(200);
+
+        assertFalse(future.isDone());
+        assertEquals(0, api.hits(StubApi.WORLD_BOSSES_PATH));
+
+        release.countDown();
+
+        assertTrue(future.get(5, TimeUnit.SECONDS).isSuccessful());
+        assertEquals(1, api.hits(StubApi.WORLD_BOSSES_PATH));
+    }
+
+    @Test
+    void ready_withFirstToken_completesBeforeSlowTokens() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        api.route(StubApi.AUTH_PATH, holdAuthentication("token-slow", release));
+        try {
+            manager = api.manager(StartupMode.FIRST_TOKEN, "token-fast", "token-slow").build();
+
+            manager.ready().get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void ready_withAllTokens_waitsForSlowTokens() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        api.route(StubApi.AUTH_PATH, holdAuthentication("token-slow", release));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-fast", "token-slow").build();
+        CompletableFuture<Void> ready = manager.ready();
+        Thread.sleep(200);
+
+        assertFalse(ready.isDone());
+
+        release.countDown();
+
+        ready.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void ready_whenAuthenticationFails_servesWithRemainingTokens() throws Exception {
+        api.route(StubApi.AUTH_PATH, exchange -> {
+            if (exchange.getRequestHeaders().getFirst("Authorization").endsWith("token-bad")) {
+                StubApi.respond(exchange, 401, "{\"message\":\"Unauthenticated.\"}");
+            } else {
+                StubApi.authenticated(StubApi.RATE_LIMIT).handle(exchange);
+            }
+        });
+        api.route(StubApi.WORLD_BOSSES_PATH, exchange -> StubApi.respond(exchange, 200, StubApi.worldBosses(Instant.now().plusSeconds(60))));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-bad", "token-good").build();
+
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        assertTrue(manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class).get(5, TimeUnit.SECONDS).isSuccessful());
+        assertEquals(2, api.hits(StubApi.AUTH_PATH));
+    }
+
+    @Test
+    void ready_whenAllAuthenticationsFail_completesAndRequestsFail() throws Exception {
+        api.route(StubApi.AUTH_PATH, exchange -> StubApi.respond(exchange, 401, "{\"message\":\"Unauthenticated.\"}"));
+        manager = api.manager(StartupMode.FIRST_TOKEN, "token-a", "token-b").build();
+
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        assertThrows(IllegalStateException.class, () -> manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class));
+    }
+
+    @Test
+    void enqueueRequest_whenJoiningLowerPriorityRequest_promotesItsTokenWait() throws Exception {
+        // A single slot returns with the reset, after all three requests are queued
+        api.route(StubApi.AUTH_PATH, StubApi.exhausted(1, Instant.now().getEpochSecond() + 2));
+        api.route(StubApi.WORLD_BOSSES_PATH, exchange -> StubApi.respond(exchange, 200, StubApi.worldBosses(Instant.now().plusSeconds(60)), 0));
+        api.route(StubApi.DUNGEONS_PATH, exchange -> StubApi.respond(exchange, 200, "{}", 0));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Response<WorldBosses>> background = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class, RequestPriority.BACKGROUND);
+        CompletableFuture<Response<Object>> normal = manager.enqueueRequest(DUNGEONS, Object.class, RequestPriority.NORMAL);
+        CompletableFuture<Response<WorldBosses>> interactive = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class, RequestPriority.INTERACTIVE);
+
+        assertTrue(interactive.get(5, TimeUnit.SECONDS).isSuccessful());
+        assertTrue(background.get(5, TimeUnit.SECONDS).isSuccessful());
+        assertFalse(normal.isDone());
+        assertEquals(1, api.hits(StubApi.WORLD_BOSSES_PATH));
+        assertEquals(0, api.hits(StubApi.DUNGEONS_PATH));
+        normal.cancel(true);
+    }
+
+    @Test
+    void withPriority_tagsRequestsAndRestoresPreviousPriority() throws Exception {
+        api.route(StubApi.WORLD_BOSSES_PATH, exchange -> StubApi.respond(exchange, 200, StubApi.worldBosses(Instant.now().plusSeconds(60))));
+        api.route(StubApi.DUNGEONS_PATH, exchange -> StubApi.respond(exchange, 200, "{}"));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        Response<WorldBosses> tagged = RequestManager.withPriority(RequestPriority.INTERACTIVE,
+                () -> manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class)).get(5, TimeUnit.SECONDS);
+        assertThrows(IllegalStateException.class, () -> RequestManager.withPriority(RequestPriority.BACKGROUND, () -> {
+            throw new IllegalStateException("call failed");
+        }));
+        Response<Object> untagged = manager.enqueueRequest(DUNGEONS, Object.class).get(5, TimeUnit.SECONDS);
+
+        assertTrue(tagged.isSuccessful());
+        assertTrue(untagged.isSuccessful());
+        RequestMetric.RequestMetricSnapshot snapshot = manager.getRequestMetricSnapshot();
+        assertEquals(1, snapshot.getQueueWaits().get(RequestPriority.INTERACTIVE).getAcquisitions());
+        assertEquals(1, snapshot.getQueueWaits().get(RequestPriority.NORMAL).getAcquisitions());
+        assertEquals(0, snapshot.getQueueWaits().get(RequestPriority.BACKGROUND).getAcquisitions());
+        RequestMetric.FlowSnapshot flow = snapshot.getFlows().get(RequestContext.DEFAULT_FLOW);
+        assertEquals(2, flow.getAcquisitions());
+        assertEquals(0, flow.getQueued());
+    }
+
+    @Test
+    void enqueueRequest_withDeadlineAndNoBudgetAtAll_isShed() throws Exception {
+        api.route(StubApi.AUTH_PATH, StubApi.exhausted(0, 0));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        Response<WorldBosses> response = RequestManager.withTimeout(Duration.ofSeconds(5),
+                () -> manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ResponseCode.SHED, response.getResponseCode());
+        assertEquals(0, api.hits(StubApi.WORLD_BOSSES_PATH));
+        assertEquals(1, manager.getRequestMetricSnapshot().getRejected());
+    }
+
+    @Test
+    void sendAsync_whenCancelledAfterTokenHandedOut_releasesUnusedSlot() throws Exception {
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+        HandOutToken token = new HandOutToken("token-b");
+        token.updateFromResponse(5, Instant.now().getEpochSecond() + 60);
+
+        CompletableFuture<Response<Object>> future = manager.sendAsync(DUNGEONS, Object.class, token);
+        assertEquals(4, token.getRemaining());
+        future.cancel(true);
+        // The slot was taken, only the hand-out to the request is late
+        token.handOut.complete(null);
+
+        assertEquals(5, token.getRemaining());
+        assertEquals(0, api.hits(StubApi.DUNGEONS_PATH));
+        assertEquals(0, manager.getRequestMetricSnapshot().getInFlight());
+    }
+
+    @Test
+    void enqueueRequest_whenCancelledInFlight_abortsExchange() throws Exception {
+        CountDownLatch arrived = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        api.route(StubApi.DUNGEONS_PATH, exchange -> {
+            arrived.countDown();
+            try {
+                cancelled.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, 0);
+            byte[] padding = " ".repeat(64 * 1024).getBytes(StandardCharsets.UTF_8);
+            try (OutputStream out = exchange.getResponseBody()) {
+                // A valid body far larger than the socket buffers, so only an aborted exchange fails the writes
+                for (int i = 0; i < 1024; i++) {
+                    out.write(padding);
+                }
+                out.write("{}".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                aborted.countDown();
+            }
+        });
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Response<Object>> future = manager.enqueueRequest(DUNGEONS, Object.class);
+        assertTrue(arrived.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+        cancelled.countDown();
+
+        assertTrue(aborted.await(5, TimeUnit.SECONDS));
+        await(() -> manager.getRequestMetricSnapshot().getInFlight() == 0);
+        assertEquals(1, manager.getRequestMetricSnapshot().getCancelled());
+        assertEquals(0, manager.getRequestMetricSnapshot().getRetries());
+    }
+
+    @Test
+    void enqueueRequest_whenCalledConcurrently_sharesOneExchange() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        api.route(StubApi.WORLD_BOSSES_PATH, holdResponse(release, StubApi.worldBosses(Instant.now().plusSeconds(60))));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<CompletableFuture<Response<WorldBosses>>>> enqueued = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                enqueued.add(executor.submit(() -> {
+                    start.await();
+                    return manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class);
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<Response<WorldBosses>>> futures = new ArrayList<>();
+            for (Future<CompletableFuture<Response<WorldBosses>>> future : enqueued) {
+                futures.add(future.get(5, TimeUnit.SECONDS));
+            }
+            await(() -> manager.getRequestMetricSnapshot().getCoalesced() == callers - 1);
+            release.countDown();
+
+            Response<WorldBosses> first = futures.get(0).get(5, TimeUnit.SECONDS);
+            assertTrue(first.isSuccessful());
+            for (CompletableFuture<Response<WorldBosses>> future : futures) {
+                Response<WorldBosses> response = future.get(5, TimeUnit.SECONDS);
+                assertEquals(first.getResponseCode(), response.getResponseCode());
+                assertSame(first.getData(), response.getData());
+            }
+            assertEquals(1, api.hits(StubApi.WORLD_BOSSES_PATH));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void enqueueRequest_whenOneCoalescedCallerCancels_keepsSharedRequest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        api.route(StubApi.WORLD_BOSSES_PATH, holdResponse(release, StubApi.worldBosses(Instant.now().plusSeconds(60))));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Response<WorldBosses>> first = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class);
+        CompletableFuture<Response<WorldBosses>> second = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class);
+        await(() -> api.hits(StubApi.WORLD_BOSSES_PATH) == 1);
+        first.cancel(true);
+        release.countDown();
+
+        assertTrue(second.get(5, TimeUnit.SECONDS).isSuccessful());
+        assertTrue(first.isCancelled());
+        assertEquals(1, api.hits(StubApi.WORLD_BOSSES_PATH));
+        assertEquals(1, manager.getRequestMetricSnapshot().getCoalesced());
+    }
+
+    @Test
+    void enqueueRequest_whenAllCoalescedCallersCancel_cancelsSharedRequest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        api.route(StubApi.WORLD_BOSSES_PATH, holdResponse(release, StubApi.worldBosses(Instant.now().plusSeconds(60))));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Response<WorldBosses>> first = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class);
+        CompletableFuture<Response<WorldBosses>> second = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class);
+        await(() -> api.hits(StubApi.WORLD_BOSSES_PATH) == 1);
+        first.cancel(true);
+        second.cancel(true);
+        await(() -> manager.getRequestMetricSnapshot().getInFlight() == 0);
+
+        // The cancelled request is gone, so a new caller starts a request of its own
+        CompletableFuture<Response<WorldBosses>> third = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class);
+        await(() -> api.hits(StubApi.WORLD_BOSSES_PATH) == 2);
+        release.countDown();
+
+        assertTrue(third.get(5, TimeUnit.SECONDS).isSuccessful());
+        assertEquals(1, manager.getRequestMetricSnapshot().getCoalesced());
+        assertEquals(2, manager.getRequestMetricSnapshot().getCancelled());
+    }
+
+    @Test
+    void enqueueRequest_whenCoalescedCallerWithDeadlineTimesOut_keepsSharedRequestForOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        api.route(StubApi.WORLD_BOSSES_PATH, holdResponse(release, StubApi.worldBosses(Instant.now().plusSeconds(60))));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Response<WorldBosses>> bounded = RequestManager.withTimeout(Duration.ofMillis(300),
+                () -> manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class));
+        CompletableFuture<Response<WorldBosses>> unbounded = manager.enqueueRequest(WORLD_BOSSES, WorldBosses.class);
+
+        assertEquals(ResponseCode.TIMEOUT, bounded.get(5, TimeUnit.SECONDS).getResponseCode());
+        // The shared request outlives the deadline of the caller that started it
+        Thread.sleep(200);
+        assertFalse(unbounded.isDone());
+        release.countDown();
+
+        assertTrue(unbounded.get(5, TimeUnit.SECONDS).isSuccessful());
+        assertEquals(1, api.hits(StubApi.WORLD_BOSSES_PATH));
+        assertEquals(0, manager.getRequestMetricSnapshot().getRetries());
+    }
+
+    @Test
+    void enqueueRequest_whenDeadlinePassesWhileBodyIsRead_abortsRead() throws Exception {
+        CountDownLatch aborted = new CountDownLatch(1);
+        api.route(StubApi.DUNGEONS_PATH, stallBody(aborted));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a").build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        Response<Object> response = RequestManager.withTimeout(Duration.ofMillis(500),
+                () -> manager.enqueueRequest(DUNGEONS, Object.class)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ResponseCode.TIMEOUT, response.getResponseCode());
+        assertTrue(aborted.await(5, TimeUnit.SECONDS));
+        await(() -> manager.getRequestMetricSnapshot().getInFlight() == 0);
+        assertEquals(1, api.hits(StubApi.DUNGEONS_PATH));
+    }
+
+    @Test
+    void enqueueRequest_whenBodyStallsPastAttemptTimeout_retriesAndTimesOut() throws Exception {
+        CountDownLatch aborted = new CountDownLatch(2);
+        api.route(StubApi.DUNGEONS_PATH, stallBody(aborted));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a")
+                .withTimeoutPolicy(new TimeoutPolicy().withAttemptTimeout(Duration.ofMillis(300)))
+                .withRetryPolicy(new RetryPolicy().withMaxAttempts(2).withBaseDelay(Duration.ofMillis(1)))
+                .build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        Response<Object> response = manager.enqueueRequest(DUNGEONS, Object.class).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ResponseCode.TIMEOUT, response.getResponseCode());
+        assertTrue(aborted.await(5, TimeUnit.SECONDS));
+        assertEquals(2, api.hits(StubApi.DUNGEONS_PATH));
+        RequestMetric.RequestMetricSnapshot snapshot = manager.getRequestMetricSnapshot();
+        assertEquals(1, snapshot.getRetries());
+        assertEquals(1, snapshot.getTimedOut());
+        assertEquals(0, snapshot.getInFlight());
+    }
+
+    @Test
+    void enqueueRequest_whenCancelledWhileRetryScheduled_dropsRetry() throws Exception {
+        // LOCAL mode waits for the reported reset before retrying a 429
+        api.route(StubApi.DUNGEONS_PATH, exchange -> StubApi.respond(exchange, 429, "{}", 0, Instant.now().getEpochSecond() + 1));
+        manager = api.manager(StartupMode.ALL_TOKENS, "token-a")
+                .withRetryPolicy(new RetryPolicy().withBaseDelay(Duration.ofMillis(1)))
+                .build();
+        manager.ready().get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Response<Object>> future = manager.enqueueRequest(DUNGEONS, Object.class);
+        await(() -> manager.getRequestMetricSnapshot().getRetries() == 1);
+        future.cancel(true);
+        Thread.sleep(2500);
+
+        assertEquals(1, api.hits(StubApi.DUNGEONS_PATH));
+        assertEquals(0, manager.getRequestMetricSnapshot().getInFlight());
+        assertEquals(1, manager.getRequestMetricSnapshot().getTotalRequests());
+    }
+
+    /**
+     * Creates an authentication handler that holds back the answer for one token until the latch is released.
+     */
+    private static HttpHandler holdAuthentication(String token, CountDownLatch release) {
+        return exchange -> {
+            if (exchange.getRequestHeaders().getFirst("Authorization").endsWith(token)) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StubApi.authenticated(StubApi.RATE_LIMIT).handle(exchange);
+        };
+    }
+
+    /**
+     * Creates a handler holding back its answer until the latch is released.
+     */
+    private static HttpHandler holdResponse(CountDownLatch release, String body) {
+        return exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubApi.respond(exchange, 200, body);
+        };
+    }
+
+    /**
+     * Creates a handler sending the headers and the start of a body, then trickling whitespace that never
+     * completes it. Counts down the latch once the client closed the connection.
+     */
+    private static HttpHandler stallBody(CountDownLatch aborted) {
+        return exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            byte[] padding = " ".repeat(1024).getBytes(StandardCharsets.UTF_8);
+            try {
+                out.write("{\"data\":".getBytes(StandardCharsets.UTF_8));
+                for (int i = 0; i < 200; i++) {
+                    out.write(padding);
+                    out.flush();
+                    Thread.sleep(50);
+                }
+            } catch (IOException e) {
+                aborted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    /**
+     * Token taking its slot right away but handing it out to the request only once {@link #handOut} completes,
+     * which cancelling the request does not prevent.
+     */
+    private static class HandOutToken extends Token {
+
+        private final CompletableFuture<Void> handOut = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return false;
+            }
+        };
+
+        private HandOutToken(String key) {
+            super(key, 5, null);
+        }
+
+        @Override
+        public CompletableFuture<Void> acquire(int usageLimit) {
+            super.acquire(usageLimit).join();
+            return handOut;
+        }
+    }
+
+    /**
+     * Response type recording the thread it was decoded on.
+     */
+    static class DecodeThread {
+
+        private final Thread thread = Thread.currentThread();
+    }
+
+    /**
+     * Waits up to five seconds for a condition.
+     */
+    static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package de.shurablack.jima.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import de.shurablack.jima.util.AppSettings;
+import de.shurablack.jima.util.RateLimitMode;
+import de.shurablack.jima.util.StartupMode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server standing in for the API in tests of the {@link RequestManager}.
+ *
+ * <p>Answers the authentication endpoint with an unrestricted token of {@link #RATE_LIMIT} requests and every
+ * other path with the handler routed to it. Handlers run on their own threads, so they may block to simulate
+ * slow responses. Managers built with {@link #manager(StartupMode, String...)} send their requests here.</p>
+ */
+final class StubApi implements AutoCloseable {
+
+    /** Rate limit of the tokens authenticated by the default handler. */
+    static final int RATE_LIMIT = 20;
+
+    /** Path of the authentication endpoint. */
+    static final String AUTH_PATH = "/v1/auth/check";
+
+    /** Path of the world bosses endpoint, used as a cacheable request. */
+    static final String WORLD_BOSSES_PATH = "/v1/combat/world_bosses/list";
+
+    /** Path of the dungeons endpoint, used as a second request competing for tokens. */
+    static final String DUNGEONS_PATH = "/v1/combat/dungeons/list";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "StubApi");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    StubApi() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        route(AUTH_PATH, authenticated(RATE_LIMIT));
+        server.start();
+    }
+
+    /**
+     * Answers requests to a path (and the paths below it) with a handler, replacing the previous one.
+     */
+    void route(String path, HttpHandler handler) {
+        try {
+            server.removeContext(path);
+        } catch (IllegalArgumentException e) {
+            // Not routed yet
+        }
+        server.createContext(path, exchange -> {
+            hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            try {
+                handler.handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    /**
+     * Gets the number of requests received for a routed path.
+     */
+    int hits(String path) {
+        AtomicInteger count = hits.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1";
+    }
+
+    /**
+     * Creates a builder of a manager sending to this server with the given tokens.
+     */
+    RequestManager.Builder manager(StartupMode startupMode, String... tokens) {
+        return RequestManager.builder()
+                .withSettings(new AppSettings.Settings(
+                        "JIMA-Test", "1.0.0", "test@example.com", 0, RateLimitMode.LOCAL, startupMode))
+                .withTokens(List.of(tokens))
+                .withBaseUrl(baseUrl());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a handler of the authentication endpoint answering with an unrestricted token.
+     */
+    static HttpHandler authenticated(int rateLimit) {
+        return exchange -> respond(exchange, 200,
+                "{\"authenticated\":true,\"api_key\":{\"name\":\"test\",\"rate_limit\":" + rateLimit + "}}",
+                rateLimit);
+    }
+
+    /**
+     * Creates a handler of the authentication endpoint answering with a token that is exhausted until the given
+     * reset.
+     */
+    static HttpHandler exhausted(int rateLimit, long resetAt) {
+        return exchange -> respond(exchange, 200,
+                "{\"authenticated\":true,\"api_key\":{\"name\":\"test\",\"rate_limit\":" + rateLimit + "}}",
+                0, resetAt);
+    }
+
+    /**
+     * Creates the body of a world bosses response whose endpoint updates at the given instant.
+     */
+    static String worldBosses(Instant updatesAt) {
+        return "{\"world_bosses\":[],\"endpoint_updates_at\":\"" + updatesAt.atOffset(ZoneOffset.UTC) + "\"}";
+    }
+
+    /**
+     * Sends a JSON response with rate limit headers.
+     */
+    static void respond(HttpExchange exchange, int status, String body, int remaining, long resetAt) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(remaining));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(resetAt));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Sends a JSON response with rate limit headers announcing a reset in 60 seconds.
+     */
+    static void respond(HttpExchange exchange, int status, String body, int remaining) throws IOException {
+        respond(exchange, status, body, remaining, Instant.now().getEpochSecond() + 60);
+    }
+
+    /**
+     * Sends a JSON response with rate limit headers.
+     */
+    static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, body, RATE_LIMIT);
+    }
+}
@@ -0,0 +1,48 @@
+package de.shurablack.jima.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TimeoutPolicy} class.
+ * Validates per-endpoint deadlines and how they are applied to request contexts.
+ */
+class TimeoutPolicyTest {
+
+    @Test
+    void getDeadline_prefersEndpointDeadline() {
+        TimeoutPolicy policy = new TimeoutPolicy()
+                .withDeadline(Duration.ofMinutes(1))
+                .withDeadline(Endpoint.CHARACTER_VIEW, Duration.ofSeconds(5));
+
+        assertEquals(Duration.ofSeconds(5), policy.getDeadline(Endpoint.CHARACTER_VIEW));
+        assertEquals(Duration.ofMinutes(1), policy.getDeadline(Endpoint.WORLD_BOSSES));
+        assertNull(new TimeoutPolicy().getDeadline(Endpoint.WORLD_BOSSES));
+    }
+
+    @Test
+    void applyTo_keepsDeadlineOfCaller() {
+        TimeoutPolicy policy = new TimeoutPolicy().withDeadline(Endpoint.CHARACTER_VIEW, Duration.ofMinutes(5));
+        RequestContext caller = RequestContext.DEFAULT.withTimeout(Duration.ofSeconds(1));
+
+        assertSame(caller, policy.applyTo(Endpoint.CHARACTER_VIEW, caller));
+        assertSame(RequestContext.DEFAULT, policy.applyTo(Endpoint.WORLD_BOSSES, RequestContext.DEFAULT));
+
+        RequestContext applied = policy.applyTo(Endpoint.CHARACTER_VIEW, RequestContext.DEFAULT);
+        assertTrue(applied.hasDeadline());
+        assertTrue(applied.getRemainingNanos() > Duration.ofMinutes(4).toNanos());
+    }
+
+    @Test
+    void withTimeouts_notPositive_throw() {
+        TimeoutPolicy policy = new TimeoutPolicy();
+
+        assertThrows(IllegalArgumentException.class, () -> policy.withAttemptTimeout(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> policy.withDeadline(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> policy.withDeadline(Endpoint.ITEMS, Duration.ZERO));
+        assertEquals(TimeoutPolicy.DEFAULT_ATTEMPT_TIMEOUT, policy.getAttemptTimeout());
+    }
+}
@@ -0,0 +1,112 @@
+package de.shurablack.jima.http.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link DiskResponseStore} class.
+ * Validates that entries survive reopening the store, expire, and that the log stays compact.
+ */
+class DiskResponseStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path log() {
+        return directory.resolve("responses.log");
+    }
+
+    @Test
+    void get_afterReopen_returnsStoredBody() throws IOException {
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(10));
+        try (DiskResponseStore store = new DiskResponseStore(log())) {
+            store.put("https://api/a", "{\"a\":1}", expiresAt);
+            store.put("https://api/b", "{\"b\":2}", expiresAt);
+            store.put("https://api/a", "{\"a\":3}", expiresAt);
+        }
+
+        try (DiskResponseStore store = new DiskResponseStore(log())) {
+            assertEquals(2, store.size());
+            assertEquals("{\"a\":3}", store.get("https://api/a").getBody());
+            assertEquals(expiresAt.toEpochMilli(), store.get("https://api/b").getExpiresAt().toEpochMilli());
+        }
+    }
+
+    @Test
+    void get_whenExpiredOrRemoved_returnsNull() throws IOException {
+        try (DiskResponseStore store = new DiskResponseStore(log())) {
+            store.put("expired", "{}", Instant.now().minusSeconds(1));
+            store.put("removed", "{}", Instant.now().plusSeconds(60));
+            store.remove("removed");
+
+            assertNull(store.get("expired"));
+            assertNull(store.get("removed"));
+        }
+
+        try (DiskResponseStore store = new DiskResponseStore(log())) {
+            assertNull(store.get("removed"));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void open_whenTailIsTruncated_keepsCompleteRecords() throws IOException {
+        try (DiskResponseStore store = new DiskResponseStore(log())) {
+            store.put("first", "{\"x\":1}", Instant.now().plusSeconds(60));
+            store.put("second", "{\"x\":2}", Instant.now().plusSeconds(60));
+        }
+        try (FileChannel channel = FileChannel.open(log(), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (DiskResponseStore store = new DiskResponseStore(log())) {
+            assertEquals("{\"x\":1}", store.get("first").getBody());
+            assertNull(store.get("second"));
+        }
+    }
+
+    @Test
+    void put_whenDeadBytesExceedLiveBytes_compactsLog() throws IOException {
+        String body = "x".repeat(64 * 1024);
+        try (DiskResponseStore store = new DiskResponseStore(log())) {
+            for (int i = 0; i < 64; i++) {
+                store.put("same", body + i, Instant.now().plusSeconds(60));
+            }
+
+            assertTrue(Files.size(log()) < DiskResponseStore.COMPACTION_MIN_BYTES * 2);
+            assertEquals(body + 63, store.get("same").getBody());
+        }
+    }
+
+    @Test
+    void put_whenCompactionFails_keepsServingFromCurrentLog() throws IOException {
+        String body = "x".repeat(64 * 1024);
+        try (DiskResponseStore store = new DiskResponseStore(log())) {
+            store.put("kept", "{\"k\":1}", Instant.now().plusSeconds(60));
+            // The open log keeps working after its path is taken, but the compacted log can't be moved there
+            Files.delete(log());
+            Files.createDirectories(log().resolve("blocker"));
+
+            for (int i = 0; i < 64; i++) {
+                store.put("same", body + i, Instant.now().plusSeconds(60));
+            }
+
+            assertEquals(body + 63, store.get("same").getBody());
+            assertEquals("{\"k\":1}", store.get("kept").getBody());
+            assertFalse(Files.exists(directory.resolve("responses.log.compact")));
+
+            store.put("after", "{}", Instant.now().plusSeconds(60));
+            assertEquals("{}", store.get("after").getBody());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package de.shurablack.jima.http.cache;
+
+import de.shurablack.jima.http.Endpoint;
+import de.shurablack.jima.model.combat.worldboss.WorldBosses;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link EndpointCache} class.
+ * Validates that entries expire based on {@code endpointUpdatesAt} and that the cache stays bounded.
+ */
+class EndpointCacheTest {
+
+    private static WorldBosses updatingAt(LocalDateTime updatesAt) {
+        WorldBosses data = new WorldBosses();
+        data.setEndpointUpdatesAt(updatesAt);
+        return data;
+    }
+
+    @Test
+    void put_whenUpdateTimeInFuture_returnsEntryUntilUpdateTime() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings());
+        LocalDateTime updatesAt = LocalDateTime.now().plusMinutes(10);
+
+        cache.put("url", null, updatingAt(updatesAt), 100);
+
+        CachedResponse entry = cache.get("url");
+        assertNotNull(entry);
+        assertEquals(100, entry.getWeight());
+        assertFalse(entry.isExpired(Instant.now()));
+    }
+
+    @Test
+    void put_whenUpdateTimeAlreadyPassed_isNotStored() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings());
+
+        cache.put("url", null, updatingAt(LocalDateTime.now().minusSeconds(1)), 100);
+
+        assertNull(cache.get("url"));
+    }
+
+    @Test
+    void put_whenNoUpdateTimeAndZeroDefaultExpiry_isNotStored() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings().withDefaultExpiry(Duration.ZERO));
+
+        cache.put("url", null, updatingAt(null), 100);
+
+        assertNull(cache.get("url"));
+    }
+
+    @Test
+    void put_whenMaximumWeightExceeded_evictsEntries() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings().withMaximumWeight(1_000));
+        LocalDateTime updatesAt = LocalDateTime.now().plusMinutes(10);
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("url_" + i, null, updatingAt(updatesAt), 100);
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.estimatedSize() <= 10, "Cache exceeded its maximum weight");
+    }
+
+    @Test
+    void put_whenEndpointHasStaleWindow_retainsExpiredEntryForRefresh() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings()
+                .withRefreshPolicy(Endpoint.WORLD_BOSSES, new RefreshPolicy()
+                        .withRefreshAhead(Duration.ofSeconds(30))
+                        .withStaleWindow(Duration.ofMinutes(1))));
+
+        cache.put("url", Endpoint.WORLD_BOSSES, updatingAt(LocalDateTime.now().minusSeconds(1)), 100);
+
+        CachedResponse entry = cache.get("url");
+        assertNotNull(entry);
+        assertTrue(entry.isServableStale(Instant.now()));
+    }
+
+    @Test
+    void isRefreshDue_whenWithinRefreshAheadWindow_returnsTrue() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings());
+
+        cache.put("soon", null, updatingAt(LocalDateTime.now().plusSeconds(10)), 100);
+        cache.put("later", null, updatingAt(LocalDateTime.now().plusMinutes(10)), 100);
+
+        assertTrue(cache.get("soon").isRefreshDue(Instant.now(), Duration.ofSeconds(30)));
+        assertFalse(cache.get("later").isRefreshDue(Instant.now(), Duration.ofSeconds(30)));
+        assertFalse(cache.get("soon").isRefreshDue(Instant.now(), Duration.ZERO));
+    }
+
+    @Test
+    void put_whenExpiryUnchanged_confirmsEntryUntilExpiryMoves() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings());
+        LocalDateTime updatesAt = LocalDateTime.now().plusSeconds(10);
+
+        cache.put("url", null, updatingAt(updatesAt), 100);
+        assertFalse(cache.get("url").isExpiryConfirmed());
+        assertTrue(cache.get("url").isRefreshDue(Instant.now(), Duration.ofSeconds(30)));
+
+        // A refresh that returns the same update time must not make every later lookup refresh again
+        cache.put("url", null, updatingAt(updatesAt), 100);
+        assertTrue(cache.get("url").isExpiryConfirmed());
+        assertFalse(cache.get("url").isRefreshDue(Instant.now(), Duration.ofSeconds(30)));
+
+        cache.put("url", null, updatingAt(updatesAt.plusSeconds(5)), 100);
+        assertFalse(cache.get("url").isExpiryConfirmed());
+        assertTrue(cache.get("url").isRefreshDue(Instant.now(), Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void put_whenEntryHasValidators_retainsExpiredEntryForRevalidation() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings());
+        Validators validators = new Validators("\"v1\"", null, null);
+
+        cache.put("url", null, updatingAt(LocalDateTime.now().minusSeconds(1)), 100, validators);
+        cache.put("plain", null, updatingAt(LocalDateTime.now().minusSeconds(1)), 100);
+
+        CachedResponse entry = cache.get("url");
+        assertNotNull(entry);
+        assertTrue(entry.isExpired(Instant.now()));
+        assertFalse(entry.isServableStale(Instant.now()));
+        assertEquals("\"v1\"", entry.getValidators().getEtag());
+        assertNull(cache.get("plain"));
+    }
+
+    @Test
+    void put_whenRevalidationWindowIsZero_dropsExpiredEntryWithValidators() {
+        EndpointCache cache = new EndpointCache(new EndpointCacheSettings().withRevalidationWindow(Duration.ZERO));
+
+        cache.put("url", null, updatingAt(LocalDateTime.now().minusSeconds(1)), 100, new Validators("\"v1\"", null, null));
+
+        assertNull(cache.get("url"));
+    }
+}
@@ -0,0 +1,38 @@
+package de.shurablack.jima.http.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RetryBudget} class.
+ * Validates that retries are capped at a fraction of the first attempts.
+ */
+class RetryBudgetTest {
+
+    @Test
+    void tryWithdraw_whenBurstUsed_allowsOnlyRatioOfAttempts() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void deposit_isCappedAtMinRetries() {
+        RetryBudget budget = new RetryBudget(1.0, 3);
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        assertEquals(3, budget.available());
+    }
+}
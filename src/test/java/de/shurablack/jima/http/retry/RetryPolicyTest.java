@@ -0,0 +1,68 @@
+package de.shurablack.jima.http.retry;
+
+import de.shurablack.jima.http.Endpoint;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RetryPolicy} class.
+ * Validates backoff bounds, per-endpoint attempts and failure classification.
+ */
+class RetryPolicyTest {
+
+    @Test
+    void backoff_staysWithinExponentialBoundAndMaxDelay() {
+        RetryPolicy policy = new RetryPolicy()
+                .withBaseDelay(Duration.ofMillis(100))
+                .withMaxDelay(Duration.ofMillis(1_000));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(policy.backoff(1).toMillis() <= 100);
+            assertTrue(policy.backoff(3).toMillis() <= 400);
+            assertTrue(policy.backoff(40).toMillis() <= 1_000);
+        }
+    }
+
+    @Test
+    void backoff_isJittered() {
+        RetryPolicy policy = new RetryPolicy().withBaseDelay(Duration.ofSeconds(10));
+
+        long distinct = IntStream.range(0, 100)
+                .mapToLong(i -> policy.backoff(1).toMillis())
+                .distinct()
+                .count();
+
+        assertTrue(distinct > 1, "Backoff delays are not randomized");
+    }
+
+    @Test
+    void getMaxAttempts_whenEndpointOverridden_returnsEndpointLimit() {
+        RetryPolicy policy = new RetryPolicy()
+                .withMaxAttempts(2)
+                .withMaxAttempts(Endpoint.ITEMS, 6);
+
+        assertEquals(6, policy.getMaxAttempts(Endpoint.ITEMS));
+        assertEquals(2, policy.getMaxAttempts(Endpoint.WORLD_BOSSES));
+        assertThrows(IllegalArgumentException.class, () -> policy.withMaxAttempts(0));
+    }
+
+    @Test
+    void isRetryable_classifiesStatusesAndWrappedExceptions() {
+        RetryPolicy policy = new RetryPolicy();
+
+        assertTrue(policy.isRetryableStatus(429));
+        assertTrue(policy.isRetryableStatus(503));
+        assertFalse(policy.isRetryableStatus(404));
+
+        assertTrue(policy.isRetryableException(new CompletionException(new ConnectException("refused"))));
+        assertTrue(policy.isRetryableException(new HttpTimeoutException("timeout")));
+        assertFalse(policy.isRetryableException(new CompletionException(new IllegalStateException("bug"))));
+    }
+}
@@ -0,0 +1,244 @@
+package de.shurablack.jima.http.serialization;
+
+import de.shurablack.jima.model.Paged;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link DecodingBodyHandler} class.
+ * Validates that 2xx bodies are decoded from the stream, compressed bodies are decompressed on the fly,
+ * and that error bodies are captured as text.
+ */
+class DecodingBodyHandlerTest {
+
+    private static final String PAGED = "{\"current_page\":2,\"last_page\":5,\"per_page\":10,\"total\":47}";
+
+    private static <T> DecodedBody<T> receive(DecodingBodyHandler<T> handler, int status, String body) {
+        return receive(handler, status, Map.of(), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <T> DecodedBody<T> receive(DecodingBodyHandler<T> handler, int status, Map<String, List<String>> headers, byte[] bytes) {
+        HttpResponse.ResponseInfo info = new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return status;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return HttpHeaders.of(headers, (name, value) -> true);
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        };
+
+        HttpResponse.BodySubscriber<Supplier<DecodedBody<T>>> subscriber = handler.apply(info);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        // Split the body to make sure decoding does not depend on a single buffer
+        int half = bytes.length / 2;
+        subscriber.onNext(List.of(ByteBuffer.wrap(bytes, 0, half), ByteBuffer.wrap(bytes, half, bytes.length - half)));
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join().get();
+    }
+
+    @Test
+    void apply_whenSuccessful_decodesStream() {
+        DecodedBody<Paged> body = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false), 200, PAGED);
+
+        assertEquals(2, body.getData().getCurrentPage());
+        assertEquals(47, body.getData().getTotal());
+        assertEquals(PAGED.length(), body.getSize());
+        assertNull(body.getRaw());
+        assertNull(body.getError());
+    }
+
+    @Test
+    void apply_whenRawRequested_keepsBodyBytes() {
+        DecodedBody<Paged> body = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, true), 200, PAGED);
+
+        assertEquals(5, body.getData().getLastPage());
+        assertArrayEquals(PAGED.getBytes(StandardCharsets.UTF_8), body.getRaw());
+    }
+
+    @Test
+    void apply_whenNotSuccessful_capturesErrorBody() {
+        String error = "{\"message\":\"Unauthenticated.\"}";
+        DecodedBody<Paged> body = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false), 401, error);
+
+        assertNull(body.getData());
+        assertEquals(error, body.getError());
+    }
+
+    @Test
+    void apply_whenErrorBodyIsLarge_capturesOnlyItsStart() throws IOException {
+        String error = "<html>" + "x".repeat(1024 * 1024) + "</html>";
+        DecodedBody<Paged> plain = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false), 502, error);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(error.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] compressed = out.toByteArray();
+        DecodedBody<Paged> gzipped = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false),
+                502, Map.of("Content-Encoding", List.of("gzip")), compressed);
+
+        String expected = error.substring(0, DecodingBodyHandler.MAX_ERROR_BYTES) + "... (truncated)";
+        assertEquals(expected, plain.getError());
+        assertEquals(error.length(), plain.getWireSize());
+        assertEquals(expected, gzipped.getError());
+        assertEquals(compressed.length, gzipped.getWireSize());
+    }
+
+    @Test
+    void apply_whenGzipEncoded_decompressesStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(PAGED.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] compressed = out.toByteArray();
+
+        DecodedBody<Paged> body = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false),
+                200, Map.of("Content-Encoding", List.of("gzip")), compressed);
+
+        assertEquals(47, body.getData().getTotal());
+        assertEquals(PAGED.length(), body.getSize());
+        assertEquals(compressed.length, body.getWireSize());
+    }
+
+    @Test
+    void apply_whenDeflateEncoded_acceptsZlibAndRawStreams() throws IOException {
+        for (boolean raw : new boolean[]{false, true}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+                deflate.write(PAGED.getBytes(StandardCharsets.UTF_8));
+            }
+
+            DecodedBody<Paged> body = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, true),
+                    200, Map.of("Content-Encoding", List.of("deflate")), out.toByteArray());
+
+            assertEquals(10, body.getData().getPerPage());
+            assertArrayEquals(PAGED.getBytes(StandardCharsets.UTF_8), body.getRaw());
+        }
+    }
+
+    @Test
+    void apply_whenErrorIsGzipEncoded_capturesDecompressedText() throws IOException {
+        String error = "{\"message\":\"Too Many Attempts.\"}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(error.getBytes(StandardCharsets.UTF_8));
+        }
+
+        DecodedBody<Paged> body = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false),
+                429, Map.of("Content-Encoding", List.of("gzip")), out.toByteArray());
+
+        assertEquals(error, body.getError());
+    }
+
+    @Test
+    void apply_whenDigestMatchesPrevious_reusesPreviousData() {
+        DecodedBody<Paged> first = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false)
+                .withDigest(null, null), 200, PAGED);
+        assertNotNull(first.getDigest());
+        assertFalse(first.isReused());
+
+        DecodedBody<Paged> same = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false)
+                .withDigest(first.getDigest(), first.getData()), 200, PAGED);
+        DecodedBody<Paged> changed = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false)
+                .withDigest(first.getDigest(), first.getData()), 200, PAGED.replace("47", "48"));
+
+        assertTrue(same.isReused());
+        assertSame(first.getData(), same.getData());
+        assertFalse(changed.isReused());
+        assertEquals(48, changed.getData().getTotal());
+    }
+
+    @Test
+    void apply_whenServerSendsValidators_skipsDigest() {
+        DecodedBody<Paged> body = receive(new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false)
+                .withDigest(null, null), 200, Map.of("ETag", List.of("\"v1\"")), PAGED.getBytes(StandardCharsets.UTF_8));
+
+        assertNull(body.getDigest());
+        assertEquals(2, body.getData().getCurrentPage());
+    }
+
+    @Test
+    void apply_whenStreamedBodyIsClosed_abortsBlockedGet() throws Exception {
+        DecodingBodyHandler<Paged> handler = new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false);
+        HttpResponse.BodySubscriber<Supplier<DecodedBody<Paged>>> subscriber = handler.apply(new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return 200;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return HttpHeaders.of(Map.of(), (name, value) -> true);
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        });
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap("{\"current_page\":".getBytes(StandardCharsets.UTF_8))));
+        Supplier<DecodedBody<Paged>> body = subscriber.getBody().toCompletableFuture().join();
+
+        // The rest of the body never arrives, so get() blocks until the body is closed
+        CompletableFuture<DecodedBody<Paged>> read = CompletableFuture.supplyAsync(body);
+        Thread.sleep(100);
+        assertFalse(read.isDone());
+        ((Closeable) body).close();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> read.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(UncheckedIOException.class, failure.getCause());
+    }
+
+    @Test
+    void apply_whenBodyIsMalformed_throwsOnGet() {
+        DecodingBodyHandler<Paged> handler = new DecodingBodyHandler<>(new ApiObjectMapper(), Paged.class, false);
+
+        assertThrows(UncheckedIOException.class, () -> receive(handler, 200, "{\"current_page\":"));
+    }
+}
@@ -0,0 +1,42 @@
+package de.shurablack.jima.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link AppSettings.Settings} class.
+ * Validates that the optional settings are read from jima-settings.json and fall back to their defaults.
+ */
+class AppSettingsTest {
+
+    private static final String REQUIRED = "\"application_name\": \"app\", \"application_version\": \"1.0.0\", "
+            + "\"contact_email\": \"dev@example.com\", \"usage_limit\": 0";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void getStartupMode_whenConfigured_returnsMode() throws Exception {
+        AppSettings.Settings settings = mapper.readValue(
+                "{" + REQUIRED + ", \"startup_mode\": \"FIRST_TOKEN\"}", AppSettings.Settings.class);
+
+        assertEquals(StartupMode.FIRST_TOKEN, settings.getStartupMode());
+    }
+
+    @Test
+    void getStartupMode_whenAbsent_defaultsToAllTokens() throws Exception {
+        AppSettings.Settings settings = mapper.readValue("{" + REQUIRED + "}", AppSettings.Settings.class);
+
+        assertEquals(StartupMode.ALL_TOKENS, settings.getStartupMode());
+        assertEquals(RateLimitMode.LOCAL, settings.getRateLimitMode());
+    }
+
+    @Test
+    void withDefault_roundTripsStartupMode() throws Exception {
+        String json = mapper.writeValueAsString(AppSettings.Settings.withDefault());
+
+        assertTrue(json.contains("\"startup_mode\":\"ALL_TOKENS\""));
+        assertEquals(StartupMode.ALL_TOKENS, mapper.readValue(json, AppSettings.Settings.class).getStartupMode());
+    }
+}
@@ -0,0 +1,95 @@
+package de.shurablack.jima.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link FairQueue} class.
+ * Validates that flows are interleaved by weight and that items put back keep their place.
+ */
+class FairQueueTest {
+
+    /** Items are "flow:weight:name". */
+    private final FairQueue<String> queue = new FairQueue<>(
+            item -> item.split(":")[0],
+            item -> Integer.parseInt(item.split(":")[1])
+    );
+
+    private void add(String flow, int weight, String name) {
+        queue.add(flow + ":" + weight + ":" + name);
+    }
+
+    private List<String> drain() {
+        List<String> items = new ArrayList<>();
+        String item;
+        while ((item = queue.poll()) != null) {
+            items.add(item.split(":")[2]);
+        }
+        return items;
+    }
+
+    @Test
+    void poll_interleavesFlowsInArrivalOrder() {
+        add("a", 1, "a1");
+        add("a", 1, "a2");
+        add("a", 1, "a3");
+        add("b", 1, "b1");
+
+        assertEquals(List.of("a1", "b1", "a2", "a3"), drain());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void poll_servesFlowsByWeight() {
+        for (int i = 1; i <= 4; i++) {
+            add("light", 1, "l" + i);
+        }
+        for (int i = 1; i <= 4; i++) {
+            add("heavy", 3, "h" + i);
+        }
+
+        assertEquals(List.of("l1", "h1", "h2", "h3", "l2", "h4", "l3", "l4"), drain());
+    }
+
+    @Test
+    void putBack_keepsPlace() {
+        add("a", 1, "a1");
+        add("a", 1, "a2");
+        add("b", 1, "b1");
+        add("c", 1, "c1");
+
+        // a1 and b1 could not be served, c1 was
+        List<String> unserved = List.of(queue.poll(), queue.poll());
+        queue.poll();
+        queue.putBack(unserved);
+
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.size("a"));
+        // b rejoins where it left, ahead of a's next turn; a1 is back at the head of a
+        assertEquals(List.of("b1", "a1", "a2"), drain());
+    }
+
+    @Test
+    void poll_emptyQueue_returnsNull() {
+        assertNull(queue.poll());
+        assertEquals(0, queue.size("missing"));
+    }
+
+    @Test
+    void remove_dropsItemAndEmptyFlow() {
+        add("a", 1, "a1");
+        add("b", 1, "b1");
+        add("a", 1, "a2");
+
+        assertTrue(queue.remove("b:1:b1"));
+        assertFalse(queue.remove("b:1:b1"));
+
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.size("b"));
+        assertEquals(List.of("a1", "a2"), drain());
+    }
+}
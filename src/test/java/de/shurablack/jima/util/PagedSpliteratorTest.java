@@ -0,0 +1,92 @@
+package de.shurablack.jima.util;
+
+import de.shurablack.jima.http.Response;
+import de.shurablack.jima.http.ResponseCode;
+import de.shurablack.jima.model.Paged;
+import de.shurablack.jima.model.item.Item;
+import de.shurablack.jima.model.item.Items;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PagedSpliterator} class.
+ * Pages are served by an in-memory fetcher that records every requested page number.
+ */
+class PagedSpliteratorTest {
+
+    private static final int PAGES = 5;
+    private static final int PER_PAGE = 3;
+
+    private final List<Integer> requestedPages = new ArrayList<>();
+
+    private CompletableFuture<Response<Items>> fetch(int page) {
+        requestedPages.add(page);
+
+        List<Item> items = IntStream.range(0, PER_PAGE)
+                .mapToObj(i -> {
+                    Item item = new Item();
+                    item.setHashedId(page + "_" + i);
+                    return item;
+                })
+                .collect(Collectors.toList());
+
+        Paged paged = new Paged();
+        paged.setCurrentPage(page);
+        paged.setLastPage(PAGES);
+        paged.setPerPage(PER_PAGE);
+        paged.setTotal(PAGES * PER_PAGE);
+        paged.setHasMore(page < PAGES);
+        return CompletableFuture.completedFuture(new Response<>(ResponseCode.SUCCESS, new Items(items, paged), null));
+    }
+
+    private Stream<Item> stream() {
+        return PagedSpliterator.stream(this::fetch, Items::getItems, Items::getPagination);
+    }
+
+    @Test
+    void stream_whenNotConsumed_requestsNoPage() {
+        stream();
+
+        assertTrue(requestedPages.isEmpty());
+    }
+
+    @Test
+    void stream_whenFullyConsumed_returnsAllItemsInPageOrder() {
+        List<String> ids = stream().map(Item::getHashedId).collect(Collectors.toList());
+
+        assertEquals(PAGES * PER_PAGE, ids.size());
+        assertEquals("1_0", ids.get(0));
+        assertEquals(PAGES + "_" + (PER_PAGE - 1), ids.get(ids.size() - 1));
+        assertEquals(List.of(1, 2, 3, 4, 5), requestedPages);
+    }
+
+    @Test
+    void stream_whenLimited_stopsAfterPrefetchedPage() {
+        List<Item> items = stream().limit(PER_PAGE + 1).collect(Collectors.toList());
+
+        assertEquals(PER_PAGE + 1, items.size());
+        // Page 2 is being consumed, page 3 was prefetched
+        assertEquals(List.of(1, 2, 3), requestedPages);
+    }
+
+    @Test
+    void stream_whenPageFails_throwsIllegalState() {
+        Stream<Item> failing = PagedSpliterator.stream(
+                page -> page == 1
+                        ? fetch(page)
+                        : CompletableFuture.completedFuture(new Response<>(ResponseCode.NOT_FOUND, null, "gone")),
+                Items::getItems,
+                Items::getPagination
+        );
+
+        assertThrows(IllegalStateException.class, () -> failing.collect(Collectors.toList()));
+    }
+}
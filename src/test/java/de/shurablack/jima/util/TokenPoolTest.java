@@ -0,0 +1,386 @@
+package de.shurablack.jima.util;
+
+import de.shurablack.jima.http.Endpoint;
+import de.shurablack.jima.http.RequestContext;
+import de.shurablack.jima.http.RequestPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TokenPool} class.
+ * Validates that tokens are only acquired for endpoints their scopes cover.
+ */
+class TokenPoolTest {
+
+    private final TokenPool pool = new TokenPool(0);
+
+    private static Token token(String key, int remaining, List<String> scopes) {
+        Token token = new Token(key, 20, scopes);
+        token.updateFromResponse(remaining, Instant.now().getEpochSecond() + 60);
+        return token;
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void acquire_whenBestTokenLacksScope_usesTokenWithScope() throws ExecutionException, InterruptedException {
+        Token wide = token("wide_token_key", 20, List.of(Endpoint.WORLD_BOSSES.getScope()));
+        Token scoped = token("scoped_token_key", 5, List.of(Endpoint.SHRINE_PROGRESS.getScope()));
+        pool.initializeToken(wide);
+        pool.initializeToken(scoped);
+
+        Token acquired = pool.acquire(Endpoint.SHRINE_PROGRESS).get();
+
+        assertSame(scoped, acquired);
+        assertEquals(20, wide.getRemaining());
+        assertEquals(4, scoped.getRemaining());
+    }
+
+    @Test
+    void acquire_whenTokenIsUnrestricted_servesEveryScope() throws ExecutionException, InterruptedException {
+        Token scoped = token("scoped_token_key", 20, List.of(Endpoint.WORLD_BOSSES.getScope()));
+        Token unrestricted = token("unrestricted_key", 5, null);
+        pool.initializeToken(scoped);
+        pool.initializeToken(unrestricted);
+
+        assertTrue(pool.canServe(Endpoint.GUILD_CONQUESTS));
+        assertSame(unrestricted, pool.acquire(Endpoint.GUILD_CONQUESTS).get());
+        assertSame(scoped, pool.acquire(Endpoint.WORLD_BOSSES).get());
+    }
+
+    @Test
+    void acquire_whenNoTokenHasScope_failsWithoutConsumingSlots() {
+        Token scoped = token("scoped_token_key", 20, List.of(Endpoint.WORLD_BOSSES.getScope()));
+        pool.initializeToken(scoped);
+
+        assertFalse(pool.canServe(Endpoint.SHRINE_PROGRESS));
+        CompletableFuture<Token> future = pool.acquire(Endpoint.SHRINE_PROGRESS);
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(20, scoped.getRemaining());
+    }
+
+    @Test
+    void acquire_whenAllTokensExhausted_completesAfterReset() throws Exception {
+        Token exhausted = new Token("exhausted_key", 20, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 1);
+        pool.initializeToken(exhausted);
+
+        CompletableFuture<Token> future = pool.acquire(Endpoint.WORLD_BOSSES);
+        assertFalse(future.isDone());
+
+        assertSame(exhausted, future.get(5, TimeUnit.SECONDS));
+        assertEquals(19, exhausted.getRemaining());
+    }
+
+    @Test
+    void getCapacity_spreadsBudgetUntilReset() {
+        TokenPool limited = new TokenPool(2);
+        try {
+            limited.initializeToken(token("resetting_key", 12, null));
+            Token fresh = new Token("fresh_key", 20, null);
+            fresh.updateFromResponse(8, 0);
+            limited.initializeToken(fresh);
+
+            TokenPool.Capacity capacity = limited.getCapacity();
+
+            assertEquals(16, capacity.getAvailable());
+            double expected = 10 / 60.0 + 6 / (double) TokenPool.DEFAULT_WINDOW_SECONDS;
+            assertEquals(expected, capacity.getRatePerSecond(), 0.01);
+            assertTrue(capacity.getNextResetAt() > Instant.now().getEpochSecond());
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    void awaitReset_completesWhenTokenResets() throws Exception {
+        Token exhausted = new Token("exhausted_key", 20, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 1);
+        pool.initializeToken(exhausted);
+
+        CompletableFuture<Void> reset = pool.awaitReset();
+        assertEquals(0, pool.getCapacity().getAvailable());
+
+        reset.get(5, TimeUnit.SECONDS);
+        assertEquals(20, pool.getCapacity().getAvailable());
+    }
+
+    @Test
+    void awaitReset_completesWhenReleasedSlotReturnsBudget() throws Exception {
+        Token token = new Token("token_key", 20, null);
+        token.updateFromResponse(1, 0);
+        pool.initializeToken(token);
+        assertSame(token, pool.acquire().get(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> waiter = pool.awaitReset();
+        assertFalse(waiter.isDone());
+
+        token.release();
+
+        assertTrue(waiter.isDone());
+    }
+
+    @Test
+    void awaitReset_whenResponseLeavesTokenExhausted_keepsWaiting() {
+        Token token = new Token("token_key", 20, null);
+        token.updateFromResponse(0, 0);
+        pool.initializeToken(token);
+
+        CompletableFuture<Void> waiter = pool.awaitReset();
+        token.updateFromResponse(0, Instant.now().getEpochSecond() + 600);
+
+        assertFalse(waiter.isDone());
+    }
+
+    @Test
+    void awaitReset_whenCancelled_removesWaiter() {
+        CompletableFuture<Void> waiter = pool.awaitReset();
+        assertEquals(1, pool.getResetWaiterCount());
+
+        waiter.cancel(false);
+
+        assertEquals(0, pool.getResetWaiterCount());
+    }
+
+    @Test
+    void acquire_afterReset_servesHigherPriorityFirst() throws Exception {
+        Token exhausted = new Token("exhausted_key", 1, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 1);
+        pool.initializeToken(exhausted);
+
+        CompletableFuture<Token> background = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.BACKGROUND);
+        CompletableFuture<Token> interactive = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.INTERACTIVE);
+
+        assertSame(exhausted, interactive.get(5, TimeUnit.SECONDS));
+        assertFalse(background.isDone());
+        assertEquals(1, pool.getPendingCount(RequestPriority.BACKGROUND));
+    }
+
+    @Test
+    void promote_movesParkedAcquisitionAheadOfLowerClasses() throws Exception {
+        Token exhausted = new Token("exhausted_key", 1, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 1);
+        pool.initializeToken(exhausted);
+
+        CompletableFuture<Token> background = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.BACKGROUND);
+        CompletableFuture<Token> normal = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.NORMAL);
+
+        assertTrue(pool.promote(background, RequestPriority.INTERACTIVE));
+        assertEquals(0, pool.getPendingCount(RequestPriority.BACKGROUND));
+        assertEquals(1, pool.getPendingCount(RequestPriority.INTERACTIVE));
+        assertFalse(pool.promote(normal, RequestPriority.BACKGROUND));
+
+        assertSame(exhausted, background.get(5, TimeUnit.SECONDS));
+        assertFalse(normal.isDone());
+        assertFalse(pool.promote(background, RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    void promote_whenCancelledAfterwards_leavesNewClass() {
+        Token exhausted = new Token("exhausted_key", 1, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 600);
+        pool.initializeToken(exhausted);
+
+        CompletableFuture<Token> acquisition = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.BACKGROUND);
+        assertTrue(pool.promote(acquisition, RequestPriority.NORMAL));
+
+        acquisition.cancel(true);
+
+        assertEquals(0, pool.getPendingCount(RequestPriority.NORMAL));
+        assertEquals(0, pool.getPendingCount(RequestPriority.BACKGROUND));
+    }
+
+    @Test
+    void acquire_afterReset_keepsReservedShareForBackground() throws Exception {
+        Token exhausted = new Token("exhausted_key", 10, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 1);
+        pool.initializeToken(exhausted);
+
+        List<CompletableFuture<Token>> interactive = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            interactive.add(pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.INTERACTIVE));
+        }
+        CompletableFuture<Token> background = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.BACKGROUND);
+
+        // Background holds a 10% share: the tenth slot of the window
+        assertSame(exhausted, background.get(5, TimeUnit.SECONDS));
+        assertEquals(9, interactive.stream().filter(CompletableFuture::isDone).count());
+    }
+
+    @Test
+    void acquire_afterReset_interleavesFlowsByWeight() throws Exception {
+        Token exhausted = new Token("exhausted_key", 6, null);
+        // Two seconds ahead, so the reset can't hit before all acquisitions are parked
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 2);
+        pool.initializeToken(exhausted);
+
+        RequestContext bulk = RequestContext.DEFAULT.withFlow("bulk", 1);
+        RequestContext tenant = RequestContext.DEFAULT.withFlow("tenant", 2);
+        List<CompletableFuture<Token>> bulkAcquires = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bulkAcquires.add(pool.acquire(Endpoint.WORLD_BOSSES, bulk));
+        }
+        List<CompletableFuture<Token>> tenantAcquires = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tenantAcquires.add(pool.acquire(Endpoint.WORLD_BOSSES, tenant));
+        }
+        assertEquals(4, pool.getPendingCount("tenant"));
+
+        // Six slots split 2:1 although the bulk flow queued first and more
+        CompletableFuture.allOf(tenantAcquires.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(2, bulkAcquires.stream().filter(CompletableFuture::isDone).count());
+        assertEquals(8, pool.getPendingCount("bulk"));
+    }
+
+    @Test
+    void acquire_whenHigherClassIsParked_leavesFreedSlotToIt() throws Exception {
+        Token token = new Token("token_key", 2, null);
+        token.updateFromResponse(0, Instant.now().getEpochSecond() + 600);
+        pool.initializeToken(token);
+
+        CompletableFuture<Token> interactive = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.INTERACTIVE);
+        token.release();
+        CompletableFuture<Token> background = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.BACKGROUND);
+        CompletableFuture<Token> normal = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.NORMAL);
+
+        assertSame(token, interactive.get(5, TimeUnit.SECONDS));
+        assertFalse(background.isDone());
+        assertFalse(normal.isDone());
+        assertEquals(0, token.getRemaining());
+    }
+
+    @Test
+    void acquire_whenOnlyLowerClassIsParked_takesFreeSlotRightAway() {
+        Token scoped = token("scoped_token_key", 0, List.of(Endpoint.SHRINE_PROGRESS.getScope()));
+        Token other = token("other_token_key", 5, List.of(Endpoint.WORLD_BOSSES.getScope()));
+        pool.initializeToken(scoped);
+        pool.initializeToken(other);
+
+        CompletableFuture<Token> background = pool.acquire(Endpoint.SHRINE_PROGRESS, RequestPriority.BACKGROUND);
+        CompletableFuture<Token> interactive = pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.INTERACTIVE);
+
+        assertFalse(background.isDone());
+        assertTrue(interactive.isDone());
+        assertSame(other, interactive.join());
+    }
+
+    @Test
+    void acquire_whenSameClassIsParked_queuesBehindIt() throws Exception {
+        Token token = new Token("token_key", 2, null);
+        token.updateFromResponse(0, Instant.now().getEpochSecond() + 600);
+        pool.initializeToken(token);
+        RequestContext bulk = RequestContext.DEFAULT.withFlow("bulk", 1);
+        RequestContext tenant = RequestContext.DEFAULT.withFlow("tenant", 1);
+
+        CompletableFuture<Token> first = pool.acquire(Endpoint.WORLD_BOSSES, bulk);
+        CompletableFuture<Token> second = pool.acquire(Endpoint.WORLD_BOSSES, bulk);
+        token.release();
+        CompletableFuture<Token> tenantAcquire = pool.acquire(Endpoint.WORLD_BOSSES, tenant);
+
+        // The freed slot goes to the flow that was waiting, not to the acquisition that came last
+        assertSame(token, first.get(5, TimeUnit.SECONDS));
+        assertFalse(tenantAcquire.isDone());
+        token.release();
+        // Round robin across flows gives the next slot to the tenant, ahead of the second bulk acquisition
+        assertSame(token, tenantAcquire.get(5, TimeUnit.SECONDS));
+        assertFalse(second.isDone());
+    }
+
+    @Test
+    void getPendingCount_staysStableWhileTicksVisitQueue() {
+        Token exhausted = new Token("exhausted_key", 1, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 600);
+        pool.initializeToken(exhausted);
+        RequestContext bulk = RequestContext.DEFAULT.withFlow("bulk", 1);
+        for (int i = 0; i < 500; i++) {
+            pool.acquire(Endpoint.WORLD_BOSSES, bulk);
+        }
+
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(4 * TokenPool.RESET_INTERVAL_MS);
+        while (System.nanoTime() < end) {
+            assertEquals(500, pool.getPendingCount("bulk"));
+            assertEquals(500, pool.getPendingCount(RequestPriority.NORMAL));
+        }
+    }
+
+    @Test
+    void estimateWait_coversQueueAheadWithResets() {
+        Token exhausted = new Token("exhausted_key", 2, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 30);
+        pool.initializeToken(exhausted);
+
+        Duration first = pool.estimateWait(RequestPriority.NORMAL);
+        assertTrue(first.compareTo(Duration.ofSeconds(29)) > 0 && first.compareTo(Duration.ofSeconds(31)) < 0);
+
+        // Two waiting requests take the slots of the first reset, the next one waits for the window after
+        pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.NORMAL);
+        pool.acquire(Endpoint.WORLD_BOSSES, RequestPriority.NORMAL);
+        assertTrue(pool.estimateWait(RequestPriority.NORMAL).compareTo(Duration.ofSeconds(89)) > 0);
+        // Interactive requests only queue behind their own class
+        assertEquals(first.toSeconds(), pool.estimateWait(RequestPriority.INTERACTIVE).toSeconds(), 1);
+    }
+
+    @Test
+    void estimateWait_withBudget_isZero() {
+        pool.initializeToken(token("fresh_key", 5, null));
+
+        assertEquals(Duration.ZERO, pool.estimateWait(RequestPriority.BACKGROUND));
+    }
+
+    @Test
+    void estimateWait_withoutAnyBudget_isUnboundedAndFitsInNanos() {
+        Token unusable = new Token("unusable_key", 0, null);
+        unusable.updateFromResponse(0, 0);
+        pool.initializeToken(unusable);
+
+        Duration wait = pool.estimateWait(RequestPriority.NORMAL);
+
+        assertEquals(TokenPool.UNBOUNDED_WAIT, wait);
+        assertEquals(Long.MAX_VALUE, wait.toNanos());
+    }
+
+    @Test
+    void acquire_deadlinePassedWhileParked_isShedWithoutSlot() throws Exception {
+        Token exhausted = new Token("exhausted_key", 1, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 60);
+        pool.initializeToken(exhausted);
+
+        RequestContext context = RequestContext.DEFAULT.withTimeout(Duration.ofMillis(100));
+        CompletableFuture<Token> acquire = pool.acquire(Endpoint.WORLD_BOSSES, context);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> acquire.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(0, pool.getPendingCount(RequestPriority.NORMAL));
+    }
+
+    @Test
+    void acquire_cancelledWhileParked_leavesQueueWithoutSlot() throws Exception {
+        Token exhausted = new Token("exhausted_key", 1, null);
+        exhausted.updateFromResponse(0, Instant.now().getEpochSecond() + 1);
+        pool.initializeToken(exhausted);
+
+        CompletableFuture<Token> cancelled = pool.acquire(Endpoint.WORLD_BOSSES, RequestContext.DEFAULT.withFlow("cancelled", 1));
+        CompletableFuture<Token> waiting = pool.acquire(Endpoint.WORLD_BOSSES, RequestContext.DEFAULT);
+
+        cancelled.cancel(true);
+
+        assertEquals(0, pool.getPendingCount("cancelled"));
+        // The single slot of the next reset goes to the acquisition that still waits
+        assertSame(exhausted, waiting.get(5, TimeUnit.SECONDS));
+    }
+}
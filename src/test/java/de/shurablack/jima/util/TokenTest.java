@@ -0,0 +1,115 @@
+package de.shurablack.jima.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Token} class.
+ * Validates that the local budget is reconciled correctly with out-of-order server rate limit headers.
+ */
+class TokenTest {
+
+    private static long inSeconds(long seconds) {
+        return Instant.now().getEpochSecond() + seconds;
+    }
+
+    @Test
+    void reconcile_whenSameWindow_keepsMinimumRemaining() {
+        Token token = new Token("token_key", 20, null);
+        long reset = inSeconds(60);
+        token.updateFromResponse(15, reset);
+
+        token.reconcile(10, reset);
+        assertEquals(10, token.getRemaining());
+
+        // Late response of the same window with a higher count
+        token.reconcile(12, reset);
+        assertEquals(10, token.getRemaining());
+    }
+
+    @Test
+    void reconcile_whenOlderWindow_isIgnored() {
+        Token token = new Token("token_key", 20, null);
+        long reset = inSeconds(60);
+        token.updateFromResponse(5, reset);
+
+        token.reconcile(19, reset - 30);
+
+        assertEquals(5, token.getRemaining());
+        assertEquals(reset, token.getResetAt().get());
+    }
+
+    @Test
+    void reconcile_whenNewerWindow_adoptsServerState() {
+        Token token = new Token("token_key", 20, null);
+        token.updateFromResponse(2, inSeconds(10));
+        long newReset = inSeconds(70);
+
+        token.reconcile(18, newReset);
+
+        assertEquals(18, token.getRemaining());
+        assertEquals(newReset, token.getResetAt().get());
+    }
+
+    @Test
+    void exhaustUntil_setsRemainingToZeroUntilReset() {
+        Token token = new Token("token_key", 20, null);
+        long reset = inSeconds(30);
+        token.updateFromResponse(7, inSeconds(10));
+
+        token.exhaustUntil(reset);
+
+        assertEquals(0, token.getRemaining());
+        assertFalse(token.tryConsume(0));
+        assertTrue(token.resetIfDue(reset));
+        assertEquals(20, token.getRemaining());
+    }
+
+    @Test
+    void drainWaiters_skipsTimedOutWaiter() {
+        Token token = new Token("token_key", 20, null);
+        token.updateFromResponse(0, inSeconds(60));
+        CompletableFuture<Void> timedOut = token.acquire(0);
+        CompletableFuture<Void> waiting = token.acquire(0);
+        timedOut.completeExceptionally(new TimeoutException());
+
+        token.updateFromResponse(1, inSeconds(60));
+
+        assertTrue(waiting.isDone());
+        assertEquals(0, token.getRemaining());
+    }
+
+    @Test
+    void acquire_cancelledWaiter_leavesQueue() {
+        Token token = new Token("token_key", 20, null);
+        token.updateFromResponse(0, inSeconds(60));
+        CompletableFuture<Void> cancelled = token.acquire(0);
+
+        cancelled.cancel(true);
+
+        assertTrue(token.getWaiters().isEmpty());
+    }
+
+    @Test
+    void release_returnsSlotToNextWaiter() {
+        Token token = new Token("token_key", 2, null);
+        token.updateFromResponse(1, inSeconds(60));
+        assertTrue(token.tryConsume(0));
+        CompletableFuture<Void> waiting = token.acquire(0);
+
+        token.release();
+
+        assertTrue(waiting.isDone());
+        assertEquals(0, token.getRemaining());
+
+        token.release();
+        token.release();
+        token.release();
+        assertEquals(2, token.getRemaining());
+    }
+}